@@ -0,0 +1,87 @@
+package de.flxwdns.pythiasql.benchmark;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import de.flxwdns.pythiasql.PythiaSQL;
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the database the end-to-end benchmarks run against. By default an embedded MariaDB is started on a free port,
+ * no installed server or container is needed. Set -Dpythiasql.host (and optionally pythiasql.port, pythiasql.database,
+ * pythiasql.user, pythiasql.password) to run against an existing server instead.
+ */
+final class BenchmarkDatabase {
+    private static final String DATABASE = "pythiasql_bench";
+    private DB embedded;
+
+    /**
+     * Method: start()
+     * <p>
+     * Starts the database and connects PythiaSQL to it.
+     */
+    void start() throws Exception {
+        String host = System.getProperty("pythiasql.host");
+        if (host != null) {
+            PythiaSQL.enable(host, Integer.getInteger("pythiasql.port", 3306), System.getProperty("pythiasql.database", DATABASE),
+                    System.getProperty("pythiasql.user", "root"), System.getProperty("pythiasql.password", ""));
+            return;
+        }
+        DBConfigurationBuilder builder = DBConfigurationBuilder.newBuilder().setPort(0);
+        if ("root".equals(System.getProperty("user.name"))) {
+            // mariadbd refuses to start as root unless it is told to, e.g. inside a container
+            builder.addArg("--user=root");
+        }
+        DBConfiguration configuration = builder.build();
+        embedded = DB.newEmbeddedDB(configuration);
+        embedded.start();
+        // Created over JDBC instead of DB.createDB, which needs the mariadb client and its ncurses 5 libraries
+        try (Connection connection = DriverManager.getConnection("jdbc:mysql://localhost:" + configuration.getPort() + "/", "root", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE IF NOT EXISTS `" + DATABASE + "`");
+        }
+        PythiaSQL.enable("localhost", configuration.getPort(), DATABASE, "root", "");
+    }
+
+    /**
+     * Method: createPlayers(String tableName, int rows)
+     * <p>
+     * Creates the benchmark table with the rows of BenchmarkRows. An existing table with the same name is dropped.
+     */
+    void createPlayers(String tableName, int rows) throws Exception {
+        DatabaseConnectHandler connection = PythiaSQL.getConnection();
+        connection.execute("DROP TABLE IF EXISTS `" + tableName + "`");
+        connection.execute("CREATE TABLE `" + tableName + "` (`id` INT AUTO_INCREMENT PRIMARY KEY, `uuid` CHAR(36) NOT NULL UNIQUE, "
+                + "`name` VARCHAR(32) NOT NULL, `coins` BIGINT NOT NULL, `level` INT NOT NULL)");
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (Object[] row : BenchmarkRows.create(rows)) {
+            batch.add(new Object[]{row[1], row[2], row[3], row[4]});
+            if (batch.size() == 1000) {
+                connection.executeBatch("INSERT INTO `" + tableName + "` (`uuid`, `name`, `coins`, `level`) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            connection.executeBatch("INSERT INTO `" + tableName + "` (`uuid`, `name`, `coins`, `level`) VALUES (?, ?, ?, ?)", batch);
+        }
+    }
+
+    /**
+     * Method: stop()
+     * <p>
+     * Disconnects PythiaSQL and stops the embedded database.
+     */
+    void stop() throws Exception {
+        PythiaSQL.disable();
+        if (embedded != null) {
+            embedded.stop();
+            embedded = null;
+        }
+    }
+}
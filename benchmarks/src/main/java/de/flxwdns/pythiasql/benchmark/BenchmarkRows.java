@@ -0,0 +1,33 @@
+package de.flxwdns.pythiasql.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkRows {
+    static final List<String> COLUMNS = List.of("id", "uuid", "name", "coins", "level");
+    static final int LEVELS = 100;
+
+    private BenchmarkRows() {
+    }
+
+    /**
+     * Method: create(int amount)
+     * <p>
+     * Creates the rows of the benchmark table. The values only depend on the row number, so every run works on the same data.
+     *
+     * @param amount (int): The amount of rows.
+     * @return List<Object[]>: The rows in the order of COLUMNS.
+     */
+    static List<Object[]> create(int amount) {
+        List<Object[]> rows = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            rows.add(new Object[]{i + 1, uuid(i).toString(), "player-" + i, (long) i * 10, i % LEVELS});
+        }
+        return rows;
+    }
+
+    static UUID uuid(int row) {
+        return new UUID(0x5079746869610000L, row);
+    }
+}
@@ -0,0 +1,48 @@
+package de.flxwdns.pythiasql.benchmark;
+
+import de.flxwdns.pythiasql.database.result.DataResult;
+import de.flxwdns.pythiasql.database.table.DatabaseRow;
+import de.flxwdns.pythiasql.database.table.DatabaseRowLayout;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the column accessors of a single cached row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataResultBenchmark {
+    private DataResult result;
+    private int nameIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DatabaseRowLayout layout = new DatabaseRowLayout(BenchmarkRows.COLUMNS);
+        result = new DataResult(layout, new DatabaseRow(1, BenchmarkRows.create(1).get(0)));
+        nameIndex = result.indexOf("name");
+    }
+
+    @Benchmark
+    public Object getObjectByName() {
+        return result.getObject("name");
+    }
+
+    @Benchmark
+    public Object getObjectByIndex() {
+        return result.getObject(nameIndex);
+    }
+
+    @Benchmark
+    public void getTypedValues(Blackhole blackhole) {
+        blackhole.consume(result.getInt("id"));
+        blackhole.consume(result.getString("uuid"));
+        blackhole.consume(result.getLong("coins"));
+        blackhole.consume(result.getInt("level"));
+    }
+}
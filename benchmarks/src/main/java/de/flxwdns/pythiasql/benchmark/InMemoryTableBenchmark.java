@@ -0,0 +1,78 @@
+package de.flxwdns.pythiasql.benchmark;
+
+import de.flxwdns.pythiasql.database.async.DatabaseTaskLimiter;
+import de.flxwdns.pythiasql.database.result.DataResult;
+import de.flxwdns.pythiasql.database.table.DatabaseTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the reads of a loaded table, which never touch the database. The table is created without a connection.
+ * With indexed=true the filtered columns have a DatabaseIndex, otherwise all rows are scanned.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class InMemoryTableBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private ExecutorService executor;
+    private DatabaseTable table;
+    private Map<String, Object> existing;
+    private Map<String, Object> missing;
+    private Map<String, Object> level;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        table = new DatabaseTable(null, "players", BenchmarkRows.COLUMNS, BenchmarkRows.create(rows), new DatabaseTaskLimiter(executor, 1));
+        if (indexed) {
+            table.createUniqueIndex("uuid");
+            table.createIndex("level");
+        }
+        existing = Map.of("uuid", BenchmarkRows.uuid(rows / 2).toString());
+        missing = Map.of("uuid", BenchmarkRows.uuid(rows + 1).toString());
+        level = Map.of("level", BenchmarkRows.LEVELS / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public boolean isEntryExistsHit() {
+        return table.isEntryExists(existing);
+    }
+
+    @Benchmark
+    public boolean isEntryExistsMiss() {
+        return table.isEntryExists(missing);
+    }
+
+    @Benchmark
+    public DatabaseTable filterByUniqueColumn() {
+        return table.filter(existing);
+    }
+
+    @Benchmark
+    public DatabaseTable filterByLevel() {
+        return table.filter(level);
+    }
+
+    @Benchmark
+    public List<DataResult> allAsResult() {
+        return table.allAsResult();
+    }
+}
@@ -0,0 +1,42 @@
+package de.flxwdns.pythiasql.benchmark;
+
+import de.flxwdns.pythiasql.PythiaSQL;
+import de.flxwdns.pythiasql.database.table.DatabaseTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long getTable takes to read a table which is not loaded yet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TableLoadBenchmark {
+    private static final String TABLE = "bench_load";
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private final BenchmarkDatabase database = new BenchmarkDatabase();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        database.start();
+        database.createPlayers(TABLE, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.stop();
+    }
+
+    @Benchmark
+    public DatabaseTable getTable() {
+        PythiaSQL.unloadTable(TABLE);
+        return PythiaSQL.getTable(TABLE);
+    }
+}
@@ -0,0 +1,50 @@
+package de.flxwdns.pythiasql.benchmark;
+
+import de.flxwdns.pythiasql.PythiaSQL;
+import de.flxwdns.pythiasql.database.table.DatabaseTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single write from the call until the database acknowledged it, including the update of the cached rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TableWriteBenchmark {
+    private static final String TABLE = "bench_players";
+    private static final int ROWS = 10_000;
+
+    private final BenchmarkDatabase database = new BenchmarkDatabase();
+    private DatabaseTable table;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        database.start();
+        database.createPlayers(TABLE, ROWS);
+        table = PythiaSQL.getTable(TABLE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.stop();
+    }
+
+    @Benchmark
+    public void createEntry() {
+        table.createEntry(Map.of("uuid", UUID.randomUUID().toString(), "name", "created", "coins", 0L, "level", 1)).join();
+    }
+
+    @Benchmark
+    public void editEntry() {
+        long next = counter++;
+        table.editEntry(Map.of("uuid", BenchmarkRows.uuid((int) (next % ROWS)).toString()), Map.of("coins", next)).join();
+    }
+}
@@ -1,17 +1,52 @@
 package de.flxwdns.pythiasql;
 
+import de.flxwdns.pythiasql.database.async.DatabaseExecutors;
+import de.flxwdns.pythiasql.database.async.DatabaseTaskLimiter;
 import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
-import de.flxwdns.pythiasql.database.table.DatabaseEntry;
+import de.flxwdns.pythiasql.database.connect.DatabasePoolSettings;
+import de.flxwdns.pythiasql.database.connect.DatabaseQueryCache;
+import de.flxwdns.pythiasql.database.connect.DatabaseQueryCacheSettings;
+import de.flxwdns.pythiasql.database.connect.DatabaseReplicaSettings;
+import de.flxwdns.pythiasql.database.connect.DatabaseSlowQueryLog;
+import de.flxwdns.pythiasql.database.connect.DatabaseStatements;
+import de.flxwdns.pythiasql.database.filter.DatabaseEntryFilter;
+import de.flxwdns.pythiasql.database.invalidation.DatabaseInvalidationBus;
+import de.flxwdns.pythiasql.database.invalidation.DatabaseInvalidationTransport;
+import de.flxwdns.pythiasql.database.metrics.DatabaseMetrics;
+import de.flxwdns.pythiasql.database.result.DataResult;
+import de.flxwdns.pythiasql.database.table.DatabaseGroupCommit;
+import de.flxwdns.pythiasql.database.table.DatabaseGroupCommitSettings;
+import de.flxwdns.pythiasql.database.table.DatabaseKeyLoader;
+import de.flxwdns.pythiasql.database.table.DatabaseRowCache;
+import de.flxwdns.pythiasql.database.table.DatabaseRowCacheSettings;
+import de.flxwdns.pythiasql.database.table.DatabaseRowLayout;
 import de.flxwdns.pythiasql.database.table.DatabaseTable;
+import de.flxwdns.pythiasql.database.table.DatabaseTransaction;
 
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class PythiaSQL {
-    private static boolean memory = true;
+    private static volatile boolean memory = true;
     private static DatabaseConnectHandler connection = null;
-    private final static List<DatabaseTable> tables = new ArrayList<>();
+    private final static Map<String, CompletableFuture<DatabaseTable>> tables = new ConcurrentHashMap<>();
+    private final static Map<String, DatabaseRowCache> rowCaches = new ConcurrentHashMap<>();
+    private static ExecutorService executor = null;
+    private static boolean ownsExecutor = false;
+    private static int maxInFlightOperations = 1;
+    private static int maxPendingOperations = 10_000;
+    private static volatile DatabaseInvalidationBus invalidationBus = null;
+    private static DatabaseSlowQueryLog slowQueryLog = null;
+    private static volatile DatabaseGroupCommit groupCommit = null;
 
     //TODO: Description | If its on false it will not use the List!
     @Deprecated
@@ -19,6 +54,65 @@ public class PythiaSQL {
         memory = value;
     }
 
+    /**
+     * Method: executor(ExecutorService value)
+     * <p>
+     * Sets the executor asynchronous table operations run on. It has to be set before the tables are loaded.
+     * If no executor is set, virtual threads are used on JDK 21+ and a bounded thread pool otherwise.
+     *
+     * @param value (ExecutorService): The executor to use, the caller stays responsible for shutting it down.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.executor(Executors.newFixedThreadPool(4));
+     */
+    public static synchronized void executor(ExecutorService value) {
+        if (ownsExecutor && executor != null) {
+            executor.shutdown();
+        }
+        executor = value;
+        ownsExecutor = false;
+    }
+
+    /**
+     * Method: maxInFlightOperations(int value)
+     * <p>
+     * Sets how many asynchronous operations of one table may run at the same time. Further operations are queued.
+     * With the default of 1 the operations of a table complete in the order they were submitted.
+     *
+     * @param value (int): The maximum amount of running operations per table.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.maxInFlightOperations(4);
+     */
+    public static void maxInFlightOperations(int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("maxInFlightOperations must be at least 1");
+        }
+        maxInFlightOperations = value;
+    }
+
+    /**
+     * Method: maxPendingOperations(int value)
+     * <p>
+     * Sets how many asynchronous operations of one table may wait for a free slot. Operations submitted while the queue
+     * is full are not queued, their futures fail immediately with a RejectedExecutionException. It has to be set before the
+     * tables are loaded.
+     *
+     * @param value (int): The maximum amount of queued operations per table, 10000 by default.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.maxPendingOperations(50_000);
+     */
+    public static void maxPendingOperations(int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("maxPendingOperations must be at least 1");
+        }
+        maxPendingOperations = value;
+    }
+
     /**
      * Method: enable(String host, int port, String database, String user, String password)
      * <p>
@@ -43,7 +137,356 @@ public class PythiaSQL {
      * Note: This method assumes that the DatabaseConnectHandler class is available and handles the actual connection to the database using the provided parameters.
      */
     public static void enable(String host, int port, String database, String user, String password) {
-        connection = new DatabaseConnectHandler(host, port, database, user, password);
+        enable(host, port, database, user, password, new DatabasePoolSettings());
+    }
+
+    /**
+     * Method: enable(String host, int port, String database, String user, String password, DatabasePoolSettings settings)
+     * <p>
+     * Enables the database connection with a connection pool configured by the given settings.
+     *
+     * @param host (String): The host address or name of the database server.
+     * @param port (int): The port number used for the database connection.
+     * @param database (String): The name of the database to connect to.
+     * @param user (String): The username for authentication.
+     * @param password (String): The password for authentication.
+     * @param settings (DatabasePoolSettings): The settings of the connection pool.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabasePoolSettings settings = new DatabasePoolSettings().withMinSize(2).withMaxSize(16).withAcquireTimeout(5000);
+     * PythiaSQL.enable(host, port, database, user, password, settings);
+     */
+    public static void enable(String host, int port, String database, String user, String password, DatabasePoolSettings settings) {
+        if (connection != null) {
+            connection.close();
+        }
+        connection = new DatabaseConnectHandler(host, port, database, user, password, settings);
+    }
+
+    /**
+     * Method: invalidationBus(DatabaseInvalidationTransport transport)
+     * <p>
+     * Connects the loaded tables of this instance with the loaded tables of other instances. Every write through createEntry,
+     * editEntry, removeEntry, upsertEntry or incrementEntry is sent as row change, and the changes of the other instances are
+     * applied to the cached rows, so no instance reads stale rows and no table has to be reloaded.
+     *
+     * @param transport (DatabaseInvalidationTransport): The transport the changes are sent with, or null to disconnect.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.enable(host, port, database, user, password);
+     * PythiaSQL.invalidationBus(new DatabaseChangeLogTransport(PythiaSQL.getConnection()));
+     */
+    public static synchronized void invalidationBus(DatabaseInvalidationTransport transport) {
+        if (invalidationBus != null) {
+            invalidationBus.close();
+        }
+        invalidationBus = transport == null ? null : new DatabaseInvalidationBus(transport, PythiaSQL::getLoadedTable);
+        if (invalidationBus != null) {
+            invalidationBus.onReceive(invalidation -> {
+                DatabaseConnectHandler handler = connection;
+                DatabaseQueryCache cache = handler == null ? null : handler.getQueryCache();
+                if (cache != null) {
+                    cache.invalidate(invalidation.getTableName());
+                }
+                rowCaches.values().forEach(rowCache -> rowCache.invalidate(invalidation));
+            });
+        }
+        tables.values().forEach(future -> future.thenAccept(table -> {
+            if (table != null) {
+                table.setInvalidationBus(invalidationBus);
+            }
+        }));
+    }
+
+    /**
+     * Method: queryCache(DatabaseQueryCacheSettings settings)
+     * <p>
+     * Caches the results of repeated SELECT queries, e.g. of query(tableName, filter) or executeQuery on the connection.
+     * A cached result is dropped as soon as one of the tables it reads is written through PythiaSQL or, with an invalidation bus,
+     * through another instance. Concurrent identical queries share one execution. It has to be called after enable().
+     *
+     * @param settings (DatabaseQueryCacheSettings): The limits and time to live of the cache, or null to disable it.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.enable(host, port, database, user, password);
+     * PythiaSQL.queryCache(new DatabaseQueryCacheSettings().withMaxEntries(500).withTtl(30_000));
+     */
+    public static synchronized void queryCache(DatabaseQueryCacheSettings settings) {
+        if (connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return;
+        }
+        if (settings == null) {
+            connection.disableQueryCache();
+        } else {
+            connection.enableQueryCache(settings);
+        }
+    }
+
+    /**
+     * Method: metrics(DatabaseMetrics metrics)
+     * <p>
+     * Reports the latency, rows and failures of every statement by statement shape, the pool wait time and gauges of the pool,
+     * the query cache, the row caches and the sizes of the loaded tables to the registry. It has to be called after enable().
+     * Without a registry nothing is measured, but every statement is still recorded as JFR event de.flxwdns.pythiasql.Query
+     * while a flight recording is running.
+     *
+     * @param metrics (DatabaseMetrics): The registry to report to, e.g. a DatabaseInMemoryMetrics, or null to stop measuring.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseInMemoryMetrics metrics = new DatabaseInMemoryMetrics();
+     * PythiaSQL.metrics(metrics);
+     * // ...
+     * metrics.getStatements().stream().limit(10).forEach(System.out::println);
+     * System.out.println(metrics.getGauges());
+     */
+    public static synchronized void metrics(DatabaseMetrics metrics) {
+        if (connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return;
+        }
+        DatabaseMetrics previous = connection.getMetrics();
+        connection.setMetrics(metrics);
+        DatabaseMetrics current = connection.getMetrics();
+        tables.values().forEach(future -> future.thenAccept(table -> {
+            if (table != null) {
+                table.removeGauges(previous);
+                table.registerGauges(current);
+            }
+        }));
+        rowCaches.values().forEach(cache -> {
+            cache.removeGauges(previous);
+            cache.registerGauges(current);
+        });
+    }
+
+    /**
+     * Method: slowQueryLog(long thresholdMillis)
+     * <p>
+     * Logs every statement which takes longer than the threshold with its pool wait, execute and read time, statement shape,
+     * parameter count, rows, table and the calling method. Slow SELECT, INSERT, UPDATE and DELETE statements are explained
+     * in the background once per statement shape and minute. It has to be called after enable(), calling it again replaces the log.
+     * Further listeners can be added with getConnection().addListener(listener).
+     *
+     * @param thresholdMillis (long): The threshold in milliseconds, a negative value removes the log.
+     * @return DatabaseSlowQueryLog: The registered log for further configuration, or null if it was removed.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.enable(host, port, database, user, password);
+     * PythiaSQL.slowQueryLog(250).withExplainInterval(600_000);
+     */
+    public static synchronized DatabaseSlowQueryLog slowQueryLog(long thresholdMillis) {
+        if (connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return null;
+        }
+        if (slowQueryLog != null) {
+            connection.removeListener(slowQueryLog);
+            slowQueryLog = null;
+        }
+        if (thresholdMillis >= 0) {
+            slowQueryLog = new DatabaseSlowQueryLog(connection).withThreshold(thresholdMillis);
+            connection.addListener(slowQueryLog);
+        }
+        return slowQueryLog;
+    }
+
+    /**
+     * Method: replicas(DatabaseReplicaSettings settings)
+     * <p>
+     * Spreads the reads which tolerate replication lag over read replicas: loading tables with getTable, stream(tableName),
+     * query and stream with a filter, and the streaming and filter reads of DatabaseTable. Replicas which cannot be reached
+     * or lag too far behind are removed until they recovered. Writes, transactions, key lookups and incremental refreshes stay
+     * on the primary, and a table written by this application is read from the primary for the read-your-writes window.
+     * It has to be called after enable().
+     *
+     * @param settings (DatabaseReplicaSettings): The replicas and their health checks, or null to read from the primary only.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.enable(host, port, database, user, password);
+     * PythiaSQL.replicas(new DatabaseReplicaSettings().withReplica("replica-1", 3306).withReplica("replica-2", 3306).withMaxLag(2));
+     */
+    public static synchronized void replicas(DatabaseReplicaSettings settings) {
+        if (connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return;
+        }
+        if (settings == null) {
+            connection.disableReplicas();
+        } else {
+            connection.enableReplicas(settings);
+        }
+    }
+
+    /**
+     * Method: readYourWrites(Supplier<T> reads)
+     * <p>
+     * Runs the reads on the calling thread from the primary, even if replicas are enabled, so they see all previous writes.
+     *
+     * @param reads (Supplier<T>): The reads to run.
+     * @return T: The result of the reads.
+     * <p>
+     * Example usage:
+     * <p>
+     * List<DataResult> orders = PythiaSQL.readYourWrites(() -> PythiaSQL.query("orders", new DatabaseEntryFilter().withColumnAndValue("player", uuid)));
+     */
+    public static <T> T readYourWrites(Supplier<T> reads) {
+        DatabaseConnectHandler handler = connection;
+        return handler == null ? reads.get() : handler.readYourWrites(reads);
+    }
+
+    /**
+     * Method: transaction(DatabaseTransaction.Work work)
+     * <p>
+     * Runs several writes in one transaction on the calling thread, so they are committed together with a single commit
+     * or not at all. The cached rows of every written table only change after the commit.
+     *
+     * @param work (DatabaseTransaction.Work): The writes of the transaction, made through the given DatabaseTransaction.
+     * @return boolean: True if the transaction was committed, false if the work called rollback() or PythiaSQL is not connected.
+     * @throws RuntimeException: If the work or the commit failed, the transaction was rolled back in that case.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTable accounts = PythiaSQL.getTable("accounts");
+     * PythiaSQL.transaction(transaction -> {
+     *     transaction.decrementEntry(accounts, Map.of("id", from), "balance", amount);
+     *     transaction.incrementEntry(accounts, Map.of("id", to), "balance", amount);
+     * });
+     * <p>
+     * Note: Reads of the cached rows inside the work do not see the uncommitted writes yet,
+     *       use transaction.getConnection() to read them from the database.
+     */
+    public static boolean transaction(DatabaseTransaction.Work work) {
+        if (connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return false;
+        }
+        try {
+            return DatabaseTransaction.run(connection, work);
+        } catch (RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * Method: transactionAsync(DatabaseTransaction.Work work)
+     * <p>
+     * Runs the transaction like transaction(DatabaseTransaction.Work) on the PythiaSQL executor. With group commit enabled
+     * it shares one transaction with the other writes of the same time slice, see groupCommit(DatabaseGroupCommitSettings).
+     *
+     * @param work (DatabaseTransaction.Work): The writes of the transaction.
+     * @return CompletableFuture<Boolean>: A future completed with true after the commit, or false if the work called rollback().
+     */
+    public static CompletableFuture<Boolean> transactionAsync(DatabaseTransaction.Work work) {
+        DatabaseConnectHandler handler = connection;
+        if (handler == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("PythiaSQL is not connected! Use enable() first!"));
+        }
+        var group = groupCommit;
+        if (group != null) {
+            return group.submit(work);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return DatabaseTransaction.run(handler, work);
+            } catch (RuntimeException exception) {
+                throw exception;
+            } catch (Exception exception) {
+                throw new CompletionException(exception);
+            }
+        }, executor());
+    }
+
+    /**
+     * Method: groupCommit(DatabaseGroupCommitSettings settings)
+     * <p>
+     * Commits the writes of all loaded tables in groups. createEntry, createEntries, upsertEntry, editEntry, incrementEntry and removeEntry
+     * of many callers are collected for a short time slice and run in one transaction, so write heavy tables are no longer limited
+     * by the commit latency of the database. Every write keeps its own future, which completes after the group was committed.
+     * It has to be called after enable().
+     *
+     * @param settings (DatabaseGroupCommitSettings): The time slice and maximum group size, or null to commit every write on its own again.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.enable(host, port, database, user, password);
+     * PythiaSQL.groupCommit(new DatabaseGroupCommitSettings().withInterval(5).withMaxBatchSize(500));
+     * <p>
+     * Note: Tables with write-behind enabled keep queueing editEntry in their write-behind queue.
+     */
+    public static synchronized void groupCommit(DatabaseGroupCommitSettings settings) {
+        if (connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return;
+        }
+        var previous = groupCommit;
+        groupCommit = settings == null ? null : new DatabaseGroupCommit(connection, executor(), settings);
+        tables.values().forEach(future -> future.thenAccept(table -> {
+            if (table != null) {
+                table.setGroupCommit(groupCommit);
+            }
+        }));
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Method: getConnection()
+     * <p>
+     * Returns the connection handler created by enable().
+     * <p>
+     * Note: getConnection().getConnection() borrows a pooled connection, which has to be closed after usage to return it to the pool.
+     *
+     * @return DatabaseConnectHandler: The connection handler, or null if PythiaSQL is not connected.
+     */
+    public static DatabaseConnectHandler getConnection() {
+        return connection;
+    }
+
+    private static DatabaseTable getLoadedTable(String tableName) {
+        CompletableFuture<DatabaseTable> future = tables.get(tableName);
+        return future == null || !future.isDone() ? null : future.getNow(null);
+    }
+
+    /**
+     * Method: disable()
+     * <p>
+     * Commits all queued group commit writes, writes all queued write-behind updates, unloads all tables and closes the connection pool. Use enable() again to reconnect.
+     */
+    public static synchronized void disable() {
+        if (groupCommit != null) {
+            groupCommit.close();
+            groupCommit = null;
+        }
+        if (invalidationBus != null) {
+            invalidationBus.close();
+            invalidationBus = null;
+        }
+        tables.keySet().forEach(PythiaSQL::unloadTable);
+        if (connection != null) {
+            DatabaseMetrics metrics = connection.getMetrics();
+            rowCaches.values().forEach(cache -> cache.removeGauges(metrics));
+        }
+        rowCaches.clear();
+        slowQueryLog = null;
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+        if (ownsExecutor && executor != null) {
+            executor.shutdown();
+            executor = null;
+            ownsExecutor = false;
+        }
     }
 
     /**
@@ -86,6 +529,8 @@ public class PythiaSQL {
      * Note: This method assumes that the connection has been established using the `enable` method before calling this method.
      * If the connection has not been established, an error message is displayed, and null is returned.
      * The behavior of this method assumes that the DatabaseConnectHandler and DatabaseTable classes are available.
+     * Loaded tables are kept by name. If several threads request a table which is not loaded yet, it is only loaded once and all of them receive the same instance.
+     * With memorySave(false) every call loads a fresh table which is not kept.
      */
     public static DatabaseTable getTable(String tableName) {
         if(connection == null) {
@@ -96,49 +541,306 @@ public class PythiaSQL {
             return getTableFromSQL(tableName);
         }
 
-        return tables.stream().filter(it -> it.getTableName().equals(tableName)).findFirst().orElseGet(() -> {
-            List<String> types = new ArrayList<>();
-            connection.executeQuery("SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = N'" + tableName + "'", resultSet -> {
-                while (resultSet.next()) {
-                    types.add(resultSet.getString("COLUMN_NAME"));
+        return loadShared(tableName, Runnable::run).join();
+    }
+
+    /**
+     * Method: unloadTable(String tableName)
+     * <p>
+     * Removes a loaded table from memory. Queued write-behind updates of the table are written first.
+     * The next getTable call loads the table again from the database.
+     *
+     * @param tableName (String): The name of the table to unload.
+     * @return boolean: True if the table was loaded.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.unloadTable("mytable");
+     */
+    public static boolean unloadTable(String tableName) {
+        CompletableFuture<DatabaseTable> future = tables.remove(tableName);
+        if (future == null) {
+            return false;
+        }
+        future.thenAccept(table -> {
+            if (table != null) {
+                table.disableIncrementalRefresh();
+                table.disableWriteBehind();
+                DatabaseConnectHandler handler = connection;
+                if (handler != null) {
+                    table.removeGauges(handler.getMetrics());
                 }
-                return null;
-            }, null);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Method: reloadTable(String tableName)
+     * <p>
+     * Unloads the table and loads it again from the database, e.g. after the table was changed by another application.
+     * The cached schema of the table is refreshed as well.
+     *
+     * @param tableName (String): The name of the table to reload.
+     * @return DatabaseTable: The freshly loaded table, or null if it could not be loaded.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTable table = PythiaSQL.reloadTable("mytable");
+     */
+    public static DatabaseTable reloadTable(String tableName) {
+        unloadTable(tableName);
+        if (connection != null) {
+            connection.getCatalog().refresh(tableName);
+        }
+        return getTable(tableName);
+    }
+
+    /**
+     * Method: isTableLoaded(String tableName)
+     * <p>
+     * Checks if a table is currently loaded into memory.
+     *
+     * @param tableName (String): The name of the table to check.
+     * @return boolean: True if the table is loaded.
+     */
+    public static boolean isTableLoaded(String tableName) {
+        CompletableFuture<DatabaseTable> future = tables.get(tableName);
+        return future != null && future.isDone() && future.join() != null;
+    }
+
+    /**
+     * Method: stream(String tableName)
+     * <p>
+     * Reads all rows of a table with a streaming cursor, without loading the table into memory.
+     *
+     * @param tableName (String): The name of the table to read.
+     * @return Stream<DataResult>: The lazily read rows, the stream has to be closed if it is not fully consumed.
+     * <p>
+     * Example usage:
+     * <p>
+     * try (Stream<DataResult> rows = PythiaSQL.stream("audit_log")) {
+     *     rows.forEach(row -> archive(row));
+     * }
+     */
+    public static Stream<DataResult> stream(String tableName) {
+        if(connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return Stream.empty();
+        }
+        return DatabaseTable.streamQuery(connection.getReader(), null, "SELECT * FROM " + DatabaseStatements.quote(tableName));
+    }
+
+    /**
+     * Method: query(String tableName, DatabaseEntryFilter filter)
+     * <p>
+     * Runs the filter as SELECT query on the table, without loading the table into memory.
+     *
+     * @param tableName (String): The name of the table to query.
+     * @param filter (DatabaseEntryFilter): The conditions, order, limit and selected columns of the query.
+     * @return List<DataResult>: The matching rows.
+     * <p>
+     * Example usage:
+     * <p>
+     * List<DataResult> rows = PythiaSQL.query("audit_log", new DatabaseEntryFilter().withLike("action", "login%").withLimit(100));
+     */
+    public static List<DataResult> query(String tableName, DatabaseEntryFilter filter) {
+        if(connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return new ArrayList<>();
+        }
+        List<Object> parameters = new ArrayList<>();
+        return DatabaseTable.selectQuery(connection.getReader(), null, filter.toQuery(tableName, parameters), parameters.toArray());
+    }
+
+    /**
+     * Method: stream(String tableName, DatabaseEntryFilter filter)
+     * <p>
+     * Streams the rows matching the filter with a streaming cursor, without loading the table into memory.
+     *
+     * @param tableName (String): The name of the table to query.
+     * @param filter (DatabaseEntryFilter): The conditions, order, limit and selected columns of the query.
+     * @return Stream<DataResult>: The lazily read rows, the stream has to be closed if it is not fully consumed.
+     */
+    public static Stream<DataResult> stream(String tableName, DatabaseEntryFilter filter) {
+        if(connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return Stream.empty();
+        }
+        List<Object> parameters = new ArrayList<>();
+        return DatabaseTable.streamQuery(connection.getReader(), null, filter.toQuery(tableName, parameters), parameters.toArray());
+    }
 
-           return getTableFromSQL(tableName);
+    /**
+     * Method: getRowCache(String tableName, String keyColumn)
+     * <p>
+     * Returns the row cache of a table with the default settings, see getRowCache(String, String, DatabaseRowCacheSettings).
+     *
+     * @param tableName (String): The name of the table.
+     * @param keyColumn (String): The primary or unique key column the rows are cached by.
+     * @return DatabaseRowCache: The row cache of the table, or null if PythiaSQL is not connected or the table does not exist.
+     */
+    public static DatabaseRowCache getRowCache(String tableName, String keyColumn) {
+        return getRowCache(tableName, keyColumn, new DatabaseRowCacheSettings());
+    }
+
+    /**
+     * Method: getRowCache(String tableName, String keyColumn, DatabaseRowCacheSettings settings)
+     * <p>
+     * Returns the row cache of a table. Unlike getTable, the table is not loaded completely. Only the recently used rows are kept
+     * by key within the limits of the settings, and missed rows are loaded on access. This keeps the working set of large tables
+     * in memory with a fixed heap budget. The cache is created on the first call, later calls for the same table and key column return it.
+     *
+     * @param tableName (String): The name of the table.
+     * @param keyColumn (String): The primary or unique key column the rows are cached by.
+     * @param settings (DatabaseRowCacheSettings): The limits, time to live and load batching of the cache, only used when the cache is created.
+     * @return DatabaseRowCache: The row cache of the table, or null if PythiaSQL is not connected or the table does not exist.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseRowCache players = PythiaSQL.getRowCache("players", "uuid", new DatabaseRowCacheSettings().withMaxEntries(50_000).withTtl(600_000));
+     * players.get(uuid).thenAccept(row -> ...);
+     */
+    public static DatabaseRowCache getRowCache(String tableName, String keyColumn, DatabaseRowCacheSettings settings) {
+        if(connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
+            return null;
+        }
+        DatabaseRowCache cache = rowCaches.get(tableName + "." + keyColumn);
+        if (cache != null) {
+            return cache;
+        }
+        var schema = connection.getCatalog().getSchema(tableName);
+        if (schema == null) {
+            System.err.println("[ERROR] Table " + tableName + " not found!");
+            return null;
+        }
+        return rowCaches.computeIfAbsent(tableName + "." + keyColumn, key -> {
+            DatabaseRowCache created = new DatabaseRowCache(connection, tableName, keyColumn, new DatabaseRowLayout(schema), executor(), settings);
+            created.registerGauges(connection.getMetrics());
+            return created;
         });
     }
 
-    private static DatabaseTable getTableFromSQL(String tableName) {
-        List<String> types = new ArrayList<>();
-        connection.executeQuery("SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = N'" + tableName + "'", resultSet -> {
-            while (resultSet.next()) {
-                types.add(resultSet.getString("COLUMN_NAME"));
-            }
+    /**
+     * Method: loader(String tableName, String keyColumn)
+     * <p>
+     * Creates a loader which collects concurrent single key lookups of a table and sends them together as one WHERE key IN (...) query,
+     * without loading the table into memory.
+     *
+     * @param tableName (String): The name of the table to read.
+     * @param keyColumn (String): The column the rows are looked up by.
+     * @return DatabaseKeyLoader: A new loader, or null if PythiaSQL is not connected.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseKeyLoader players = PythiaSQL.loader("players", "uuid");
+     * players.load(uuid).thenAccept(row -> ...);
+     */
+    public static DatabaseKeyLoader loader(String tableName, String keyColumn) {
+        if(connection == null) {
+            System.err.println("[ERROR] PythiaSQL is not connected! Use enable() first!");
             return null;
-        }, null);
-
-        var result = connection.executeQuery("SELECT * FROM " + tableName, resultSet -> {
-            List<DatabaseEntry> values = new ArrayList<>();
-            int[] id = new int[]{0};
-            while (resultSet.next()) {
-                types.forEach(it -> {
-                    try {
-                        values.add(new DatabaseEntry(id[0], resultSet.getObject(it), it));
-                    } catch (SQLException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
-                id[0]++;
+        }
+        return new DatabaseKeyLoader(connection, tableName, keyColumn, null, executor(), DatabaseKeyLoader.DEFAULT_WINDOW_MILLIS, DatabaseKeyLoader.DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Method: forEachRow(String tableName, Consumer<DataResult> consumer)
+     * <p>
+     * Streams all rows of a table into the consumer without loading the table into memory and closes the cursor afterwards.
+     *
+     * @param tableName (String): The name of the table to read.
+     * @param consumer (Consumer<DataResult>): The consumer called for every row.
+     */
+    public static void forEachRow(String tableName, Consumer<DataResult> consumer) {
+        try (Stream<DataResult> rows = stream(tableName)) {
+            rows.forEach(consumer);
+        }
+    }
+
+    /**
+     * Method: getTableAsync(String tableName)
+     * <p>
+     * Asynchronous variant of getTable which loads the table on the executor.
+     *
+     * @param tableName (String): The name of the table to retrieve.
+     * @return CompletableFuture<DatabaseTable>: A future completed with the table, or with null if it could not be loaded.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.getTableAsync("mytable").thenAccept(table -> {
+     *     // Use the table
+     * });
+     */
+    public static CompletableFuture<DatabaseTable> getTableAsync(String tableName) {
+        if(!memory || connection == null) {
+            return CompletableFuture.supplyAsync(() -> getTable(tableName), executor());
+        }
+        return loadShared(tableName, executor());
+    }
+
+    private static CompletableFuture<DatabaseTable> loadShared(String tableName, Executor loader) {
+        CompletableFuture<DatabaseTable> future = tables.get(tableName);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<DatabaseTable> created = new CompletableFuture<>();
+        future = tables.putIfAbsent(tableName, created);
+        if (future != null) {
+            return future;
+        }
+        loader.execute(() -> {
+            DatabaseTable table = null;
+            try {
+                table = getTableFromSQL(tableName);
+            } finally {
+                if (table == null) {
+                    tables.remove(tableName, created);
+                } else {
+                    table.registerGauges(connection.getMetrics());
+                }
+                created.complete(table);
             }
-            var table = new DatabaseTable(connection, tableName, types, values);
-            tables.add(table);
-            return table;
-        }, null);
+        });
+        return created;
+    }
 
-        if(result == null) {
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = DatabaseExecutors.createDefault();
+            ownsExecutor = true;
+        }
+        return executor;
+    }
+
+    private static DatabaseTable getTableFromSQL(String tableName) {
+        var schema = connection.getCatalog().getSchema(tableName);
+        if (schema == null) {
             System.err.println("[ERROR] Table " + tableName + " not found!");
+            return null;
         }
-        return result;
+
+        var layout = new DatabaseRowLayout(schema);
+        int[][] positions = new int[1][];
+        List<Object[]> values = new ArrayList<>();
+        try (Stream<Object[]> rows = connection.getReader().stream("SELECT * FROM " + DatabaseStatements.quote(tableName), resultSet -> {
+            if (positions[0] == null) {
+                positions[0] = layout.resolve(resultSet);
+            }
+            return layout.read(resultSet, positions[0]);
+        })) {
+            rows.forEach(values::add);
+        } catch (Exception exception) {
+            exception.printStackTrace();
+            System.err.println("[ERROR] Table " + tableName + " not found!");
+            return null;
+        }
+
+        var table = new DatabaseTable(connection, tableName, layout, values, new DatabaseTaskLimiter(executor(), maxInFlightOperations, maxPendingOperations), schema.getGeneratedColumn());
+        table.setInvalidationBus(invalidationBus);
+        table.setGroupCommit(groupCommit);
+        table.onWrite(invalidation -> rowCaches.values().forEach(rowCache -> rowCache.invalidate(invalidation)));
+        return table;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package de.flxwdns.pythiasql.database.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SuppressWarnings("unused")
+public final class DatabaseExecutors {
+
+    private DatabaseExecutors() {
+    }
+
+    /**
+     * Method: createDefault()
+     * <p>
+     * Creates the executor used for asynchronous database operations when no custom executor was configured.
+     * On JDK 21+ a virtual thread per task executor is used, otherwise a bounded pool of daemon threads.
+     *
+     * @return ExecutorService: The created executor.
+     * <p>
+     * Example usage:
+     * <p>
+     * ExecutorService executor = DatabaseExecutors.createDefault();
+     */
+    public static ExecutorService createDefault() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ignored) {
+            return createBounded(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        }
+    }
+
+    /**
+     * Method: createBounded(int threads)
+     * <p>
+     * Creates a pool with a fixed amount of daemon threads for asynchronous database operations.
+     *
+     * @param threads (int): The amount of worker threads.
+     * @return ExecutorService: The created executor.
+     * <p>
+     * Example usage:
+     * <p>
+     * ExecutorService executor = DatabaseExecutors.createBounded(8);
+     */
+    public static ExecutorService createBounded(int threads) {
+        var counter = new AtomicInteger();
+        var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            var thread = new Thread(runnable, "PythiaSQL-Worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,163 @@
+package de.flxwdns.pythiasql.database.async;
+
+import lombok.Getter;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SuppressWarnings("unused")
+public final class DatabaseTaskLimiter {
+    @Getter
+    private final Executor executor;
+    @Getter
+    private final int maxInFlight;
+    @Getter
+    private final int maxPending;
+
+    private final Queue<Task<?>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Constructor: DatabaseTaskLimiter(Executor executor, int maxInFlight)
+     * <p>
+     * Constructs a limiter which runs submitted tasks on the executor, but never more than maxInFlight at the same time.
+     * Further tasks are queued without blocking the submitting thread.
+     *
+     * @param executor (Executor): The executor the tasks are run on.
+     * @param maxInFlight (int): The maximum amount of tasks running at the same time.
+     * <p>
+     * Note: With a limit of 1 the tasks complete in the order they were submitted. The queue is unbounded,
+     * use DatabaseTaskLimiter(Executor, int, int) to reject tasks instead of queueing them without limit.
+     */
+    public DatabaseTaskLimiter(Executor executor, int maxInFlight) {
+        this(executor, maxInFlight, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor: DatabaseTaskLimiter(Executor executor, int maxInFlight, int maxPending)
+     * <p>
+     * Constructs a limiter which runs submitted tasks on the executor, but never more than maxInFlight at the same time.
+     * At most maxPending further tasks are queued, the futures of tasks submitted to a full queue fail immediately
+     * with a RejectedExecutionException, so a caller producing faster than the database can write notices it.
+     *
+     * @param executor (Executor): The executor the tasks are run on.
+     * @param maxInFlight (int): The maximum amount of tasks running at the same time.
+     * @param maxPending (int): The maximum amount of queued tasks.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTaskLimiter limiter = new DatabaseTaskLimiter(executor, 1, 10_000);
+     */
+    public DatabaseTaskLimiter(Executor executor, int maxInFlight, int maxPending) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("maxPending must be at least 1");
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Method: submit(Callable<T> callable)
+     * <p>
+     * Queues the callable and returns a future which completes with its result once it ran.
+     *
+     * @param callable (Callable<T>): The task to run.
+     * @return CompletableFuture<T>: A future completed with the result or the thrown exception, or failed with a
+     * RejectedExecutionException if the queue is full.
+     * <p>
+     * Example usage:
+     * <p>
+     * CompletableFuture<Integer> future = limiter.submit(() -> 42);
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> callable) {
+        var task = new Task<>(callable);
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            task.future.completeExceptionally(new RejectedExecutionException("Too many queued operations (" + maxPending + "), the database cannot keep up"));
+            return task.future;
+        }
+        pending.add(task);
+        drain();
+        return task.future;
+    }
+
+    /**
+     * Method: getInFlight()
+     * <p>
+     * Returns the amount of tasks which are currently running.
+     *
+     * @return int: The amount of running tasks.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Method: getPending()
+     * <p>
+     * Returns the amount of tasks which are waiting for a free slot.
+     *
+     * @return int: The amount of waiting tasks.
+     */
+    public int getPending() {
+        return pendingCount.get();
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Task<?> task = pending.poll();
+            if (task == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            pendingCount.decrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        inFlight.decrementAndGet();
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException exception) {
+                inFlight.decrementAndGet();
+                task.future.completeExceptionally(exception);
+            }
+        }
+    }
+
+    private static final class Task<T> {
+        private final Callable<T> callable;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Task(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        private void run() {
+            try {
+                future.complete(callable.call());
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import de.flxwdns.pythiasql.database.metrics.DatabaseMetrics;
+import de.flxwdns.pythiasql.database.metrics.DatabaseQueryEvent;
+import jdk.jfr.EventType;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseCall {
+    private static final EventType QUERY_EVENT = EventType.getEventType(DatabaseQueryEvent.class);
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String CONNECT_PACKAGE = DatabaseCall.class.getPackageName();
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern ROW_LIST = Pattern.compile("\\((\\?(?:\\.\\.\\.)?)\\)(?:\\s*,\\s*\\(\\1\\))+");
+    private static final Map<String, String> SHAPES = new ConcurrentHashMap<>();
+    private static final Map<String, Optional<String>> TABLES = new ConcurrentHashMap<>();
+    private static final int MAX_SHAPES = 10_000;
+
+    private final Kind kind;
+    private final String query;
+    @Getter(AccessLevel.NONE)
+    private final Object[] parameters;
+    private final int parameterCount;
+    private final long startNanos = System.nanoTime();
+    private long waitNanos;
+    private long executeNanos;
+    private long mapNanos;
+    private long durationNanos;
+    private boolean borrowed;
+    private boolean executed;
+    private boolean cached;
+    private long rows = -1;
+    private Throwable failure;
+    @Getter(AccessLevel.NONE)
+    private DatabaseQueryEvent event;
+
+    /**
+     * Constructor: DatabaseCall(Kind kind, String query, Object[] parameters, int parameterCount)
+     * <p>
+     * Starts measuring a statement. It is created by DatabaseConnectHandler only while listeners, metrics or the JFR event are enabled.
+     *
+     * @param kind (Kind): The handler method the statement runs through.
+     * @param query (String): The SQL of the statement.
+     * @param parameters (Object[]): The bound values, or null for batches.
+     * @param parameterCount (int): The amount of bound values.
+     */
+    DatabaseCall(Kind kind, String query, Object[] parameters, int parameterCount) {
+        this.kind = kind;
+        this.query = query;
+        this.parameters = parameters;
+        this.parameterCount = parameterCount;
+        if (QUERY_EVENT.isEnabled()) {
+            event = new DatabaseQueryEvent();
+            event.begin();
+        }
+    }
+
+    /**
+     * Method: getShape()
+     * <p>
+     * Returns the statement with normalized whitespace and collapsed placeholder lists, so IN lists and multi-row inserts of
+     * different sizes are counted as one statement, e.g. "SELECT * FROM `players` WHERE `uuid` IN (?...)".
+     *
+     * @return String: The statement shape.
+     */
+    public String getShape() {
+        return shape(query);
+    }
+
+    /**
+     * Method: getTableName()
+     * <p>
+     * Returns the table the statement reads from or writes to first. The statements of a DatabaseTable, DatabaseRowCache or
+     * DatabaseKeyLoader always name their own table first, so this is the table which issued the call.
+     *
+     * @return String: The lower case table name, or null if the statement names no table.
+     */
+    public String getTableName() {
+        Optional<String> tableName = TABLES.get(query);
+        if (tableName == null) {
+            if (TABLES.size() >= MAX_SHAPES) {
+                TABLES.clear();
+            }
+            tableName = Optional.ofNullable(DatabaseQueryCache.firstTable(query));
+            TABLES.put(query, tableName);
+        }
+        return tableName.orElse(null);
+    }
+
+    /**
+     * Method: getCaller()
+     * <p>
+     * Returns the first stack frame outside of the connection handler, e.g. "DatabaseTable.lambda$editEntry$12:671" or a method of the application.
+     * It walks the stack of the current thread, so it is only meaningful inside DatabaseCallListener#onStart and #onFinish.
+     *
+     * @return String: The class, method and line of the caller, or null if it could not be found.
+     */
+    public String getCaller() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !frame.getClassName().startsWith(CONNECT_PACKAGE + "."))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse(null));
+    }
+
+    /**
+     * Method: getParameters()
+     * <p>
+     * Returns a copy of the bound values, e.g. to EXPLAIN the statement.
+     *
+     * @return Object[]: The bound values, or an empty array for batches.
+     */
+    public Object[] getParameters() {
+        return parameters == null ? new Object[0] : parameters.clone();
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    static boolean isObserved(DatabaseMetrics metrics, boolean listeners) {
+        return listeners || metrics.isEnabled() || QUERY_EVENT.isEnabled();
+    }
+
+    static String shape(String query) {
+        String shape = SHAPES.get(query);
+        if (shape == null) {
+            shape = WHITESPACE.matcher(query.strip()).replaceAll(" ");
+            shape = PLACEHOLDER_LIST.matcher(shape).replaceAll("?...");
+            shape = ROW_LIST.matcher(shape).replaceAll("($1)...");
+            if (SHAPES.size() >= MAX_SHAPES) {
+                SHAPES.clear();
+            }
+            SHAPES.put(query, shape);
+        }
+        return shape;
+    }
+
+    void borrowed() {
+        borrowed = true;
+        waitNanos = System.nanoTime() - startNanos;
+    }
+
+    void executed() {
+        executed = true;
+        executeNanos = System.nanoTime() - startNanos - waitNanos;
+    }
+
+    void cached(boolean cached) {
+        this.cached = cached;
+    }
+
+    void rows(long rows) {
+        this.rows = rows;
+    }
+
+    void failed(Throwable failure) {
+        if (this.failure == null) {
+            this.failure = failure;
+        }
+    }
+
+    void finish(DatabaseMetrics metrics) {
+        durationNanos = System.nanoTime() - startNanos;
+        mapNanos = executed ? durationNanos - waitNanos - executeNanos : 0;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.kind = kind.name();
+                event.shape = getShape();
+                event.tableName = getTableName();
+                event.parameterCount = parameterCount;
+                event.rows = rows;
+                event.poolWait = waitNanos;
+                event.execute = executeNanos;
+                event.map = mapNanos;
+                event.cached = cached;
+                event.failure = failure == null ? null : failure.toString();
+                event.commit();
+            }
+            event = null;
+        }
+        if (metrics.isEnabled()) {
+            try {
+                metrics.recordCall(this);
+            } catch (RuntimeException exception) {
+                System.err.println("[ERROR] Could not record metrics of " + kind + " " + getShape() + ": " + exception);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return kind + (getTableName() == null ? "" : " on " + getTableName()) + " took " + durationNanos / 1_000_000 + "ms (wait " + waitNanos / 1_000_000
+                + "ms, execute " + executeNanos / 1_000_000 + "ms, map " + mapNanos / 1_000_000 + "ms, " + parameterCount + " parameters, "
+                + (rows < 0 ? "unknown" : rows) + " rows" + (cached ? ", cached" : "") + (failure == null ? "" : ", failed: " + failure) + "): " + getShape();
+    }
+
+    public enum Kind {
+        EXECUTE, QUERY, UPDATE, INSERT, BATCH, STREAM
+    }
+}
@@ -0,0 +1,40 @@
+package de.flxwdns.pythiasql.database.connect;
+
+/**
+ * Interface: DatabaseCallListener
+ * <p>
+ * Is notified about every statement of a DatabaseConnectHandler, e.g. to trace calls or log slow queries, see DatabaseSlowQueryLog.
+ * Listeners are called on the thread which runs the statement, in the order they were added, and should return quickly.
+ * While no listener, metrics registry or JFR recording is active, no DatabaseCall is created at all.
+ * <p>
+ * Example usage:
+ * <p>
+ * handler.addListener(call -> {
+ *     if (call.getDurationNanos() > 50_000_000) {
+ *         System.out.println("[INFO] " + call + " called by " + call.getCaller());
+ *     }
+ * });
+ */
+@FunctionalInterface
+public interface DatabaseCallListener {
+
+    /**
+     * Method: onStart(DatabaseCall call)
+     * <p>
+     * Is called before a connection is borrowed for the statement.
+     *
+     * @param call (DatabaseCall): The started call, only kind, query and parameters are set.
+     */
+    default void onStart(DatabaseCall call) {
+    }
+
+    /**
+     * Method: onFinish(DatabaseCall call)
+     * <p>
+     * Is called after the statement was executed and its result was read, or after it failed.
+     * For streams it is called when the stream is closed or fully consumed.
+     *
+     * @param call (DatabaseCall): The finished call with its phase timings, rows and failure.
+     */
+    void onFinish(DatabaseCall call);
+}
@@ -1,12 +1,51 @@
 package de.flxwdns.pythiasql.database.connect;
 
+import de.flxwdns.pythiasql.database.metrics.DatabaseMetrics;
+import de.flxwdns.pythiasql.database.metrics.DatabaseNoopMetrics;
+import de.flxwdns.pythiasql.database.schema.DatabaseSchemaCatalog;
 import lombok.Getter;
+
+import javax.sql.rowset.CachedRowSet;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @SuppressWarnings("unused")
-public final class DatabaseConnectHandler {
+public final class DatabaseConnectHandler implements AutoCloseable {
+    private static final List<String> GAUGES = List.of("pool.connections.total", "pool.connections.active", "pool.connections.idle",
+            "cache.query.size", "cache.query.hitRate", "cache.query.hits", "cache.query.misses");
+    @Getter
+    private final DatabaseConnectionPool pool;
     @Getter
-    private Connection connection;
+    private final DatabaseSchemaCatalog catalog;
+    @Getter
+    private volatile DatabaseQueryCache queryCache;
+    private volatile DatabaseMetrics metrics = DatabaseNoopMetrics.INSTANCE;
+    private volatile DatabaseCallListener[] listeners = new DatabaseCallListener[0];
+    private final String database;
+    private final String user;
+    private final String password;
+    private final DatabaseConnectHandler reader;
+    private volatile DatabaseReplicaSet replicas;
+    private final ThreadLocal<int[]> primaryReads;
+    private final DatabaseConnectHandler parent;
+    private final Connection transaction;
+    private final Connection transactionHandle;
+    private final Set<String> transactionWrites;
+    private boolean transactionClosed;
+    private volatile boolean transactionPending;
 
     /**
      * Constructor: DatabaseConnectHandler(String host, int port, String database, String user, String password)
@@ -30,12 +69,417 @@ public final class DatabaseConnectHandler {
      * DatabaseConnectHandler handler = new DatabaseConnectHandler(host, port, database, user, password);
      */
     public DatabaseConnectHandler(String host, int port, String database, String user, String password) {
-        try {
-            //Class.forName("com.mysql.jdbc.Driver");
-            connection = DriverManager.getConnection("jdbc:mysql://" + host + ":" + port + "/" + database + "?autoReconnect=true", user, password);
+        this(host, port, database, user, password, new DatabasePoolSettings());
+    }
+
+    /**
+     * Constructor: DatabaseConnectHandler(String host, int port, String database, String user, String password, DatabasePoolSettings settings)
+     * <p>
+     * Constructs a new instance of the DatabaseConnectHandler class backed by a connection pool with the given settings.
+     *
+     * @param host (String): The host address or name of the database server.
+     * @param port (int): The port number used for the database connection.
+     * @param database (String): The name of the database to connect to.
+     * @param user (String): The username for authentication.
+     * @param password (String): The password for authentication.
+     * @param settings (DatabasePoolSettings): The settings of the connection pool.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabasePoolSettings settings = new DatabasePoolSettings().withMinSize(2).withMaxSize(16);
+     * DatabaseConnectHandler handler = new DatabaseConnectHandler(host, port, database, user, password, settings);
+     */
+    public DatabaseConnectHandler(String host, int port, String database, String user, String password, DatabasePoolSettings settings) {
+        parent = null;
+        transaction = null;
+        transactionHandle = null;
+        transactionWrites = null;
+        this.database = database;
+        this.user = user;
+        this.password = password;
+        primaryReads = ThreadLocal.withInitial(() -> new int[1]);
+        catalog = new DatabaseSchemaCatalog(this);
+        pool = new DatabaseConnectionPool(url(host, port, database, settings), user, password, settings);
+        reader = new DatabaseConnectHandler(this, null);
+        if (pool.getTotalConnections() > 0 || settings.getMinSize() == 0) {
             System.out.println("[INFO] Connection to database was successfully established!");
+        }
+    }
+
+    private DatabaseConnectHandler(DatabaseConnectHandler parent, Connection transaction) {
+        this.parent = parent;
+        this.transaction = transaction;
+        this.database = null;
+        this.user = null;
+        this.password = null;
+        this.reader = null;
+        this.primaryReads = null;
+        this.pool = parent.pool;
+        this.catalog = parent.catalog;
+        if (transaction == null) {
+            this.transactionHandle = null;
+            this.transactionWrites = null;
+            return;
+        }
+        this.transactionHandle = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close" -> {
+                    return null;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(transaction, args);
+            } catch (InvocationTargetException exception) {
+                throw exception.getCause();
+            }
+        });
+        this.transactionWrites = new LinkedHashSet<>();
+    }
+
+    /**
+     * Method: beginTransaction()
+     * <p>
+     * Borrows a connection from the pool and starts a transaction on it. The returned handler runs all its statements on that
+     * connection until it is closed, so they are committed or rolled back together. Results of its queries are never cached,
+     * and the query cache of this handler is only invalidated for its writes once they were committed.
+     *
+     * @return DatabaseConnectHandler: A handler bound to the transaction, it has to be closed after usage.
+     * @throws SQLException: If no connection became available or the transaction could not be started.
+     * <p>
+     * Example usage:
+     * <p>
+     * try (DatabaseConnectHandler transaction = handler.beginTransaction()) {
+     *     transaction.executeUpdate("UPDATE accounts SET balance = balance - ? WHERE id = ?", amount, from);
+     *     transaction.executeUpdate("UPDATE accounts SET balance = balance + ? WHERE id = ?", amount, to);
+     *     transaction.commit();
+     * }
+     * <p>
+     * Note: Statements of one transaction must not run on several threads at the same time.
+     */
+    public DatabaseConnectHandler beginTransaction() throws SQLException {
+        if (transaction != null) {
+            throw new IllegalStateException("The handler is already bound to a transaction");
+        }
+        Connection connection = pool.borrow();
+        try {
+            connection.setAutoCommit(false);
         } catch (SQLException exception) {
-            exception.printStackTrace();
+            closeQuietly(connection);
+            throw exception;
+        }
+        return new DatabaseConnectHandler(owner(), connection);
+    }
+
+    /**
+     * Method: isTransaction()
+     * <p>
+     * Returns if this handler was created by beginTransaction().
+     *
+     * @return boolean: True if all statements of this handler run in one transaction.
+     */
+    public boolean isTransaction() {
+        return transaction != null;
+    }
+
+    /**
+     * Method: commit()
+     * <p>
+     * Commits the statements of the transaction and invalidates the cached query results of the written tables.
+     * The handler can be used for a further transaction afterwards.
+     *
+     * @throws SQLException: If the commit failed, the transaction is rolled back by the database in that case.
+     */
+    public void commit() throws SQLException {
+        checkTransaction();
+        transaction.commit();
+        transactionPending = false;
+        List<String> written = List.copyOf(transactionWrites);
+        transactionWrites.clear();
+        written.forEach(parent::written);
+    }
+
+    /**
+     * Method: rollback()
+     * <p>
+     * Rolls back all statements of the transaction since the last commit.
+     *
+     * @throws SQLException: If the rollback failed.
+     */
+    public void rollback() throws SQLException {
+        checkTransaction();
+        transactionWrites.clear();
+        transaction.rollback();
+        transactionPending = false;
+    }
+
+    /**
+     * Method: getConnection()
+     * <p>
+     * Borrows a connection from the pool. The connection has to be closed after usage to return it to the pool.
+     * <p>
+     * Note: Before the pool was added this method returned one shared connection which was never closed by the caller.
+     * Code written that way now keeps every borrowed connection until the pool runs dry, so wrap each use in try-with-resources.
+     * Connections which are not returned are reported by the leak detection, see DatabasePoolSettings#withLeakDetectionThreshold.
+     *
+     * @return Connection: A pooled connection.
+     * @throws SQLException: If no connection became available within the acquisition timeout.
+     * <p>
+     * Example usage:
+     * <p>
+     * try (Connection connection = handler.getConnection()) {
+     *     // Use the connection
+     * }
+     */
+    public Connection getConnection() throws SQLException {
+        if (transaction != null) {
+            checkTransaction();
+            transactionPending = true;
+            return transactionHandle;
+        }
+        return pool.borrow();
+    }
+
+    /**
+     * Method: close()
+     * <p>
+     * Closes the connection pool and all idle connections. A handler created by beginTransaction() rolls back
+     * its uncommitted statements instead and returns its connection to the pool.
+     */
+    public void close() {
+        if (parent == null) {
+            disableReplicas();
+            pool.close();
+            return;
+        }
+        if (transaction == null) {
+            return;
+        }
+        synchronized (this) {
+            if (transactionClosed) {
+                return;
+            }
+            transactionClosed = true;
+        }
+        transactionWrites.clear();
+        try {
+            if (transactionPending) {
+                transaction.rollback();
+            }
+            transaction.setAutoCommit(true);
+        } catch (SQLException ignored) {
+        }
+        closeQuietly(transaction);
+    }
+
+    /**
+     * Method: enableQueryCache(DatabaseQueryCacheSettings settings)
+     * <p>
+     * Caches the results of executeQuery by query and parameters, see DatabaseQueryCache. Cached results are dropped as soon as
+     * a table they read is written through this handler, including all writes of the DatabaseTable methods.
+     * Writes of other applications are only noticed after the time to live or through an invalidation bus.
+     *
+     * @param settings (DatabaseQueryCacheSettings): The limits and time to live of the cache.
+     * <p>
+     * Example usage:
+     * <p>
+     * handler.enableQueryCache(new DatabaseQueryCacheSettings().withMaxEntries(500).withTtl(30_000));
+     */
+    public void enableQueryCache(DatabaseQueryCacheSettings settings) {
+        queryCache = new DatabaseQueryCache(settings);
+    }
+
+    /**
+     * Method: setMetrics(DatabaseMetrics metrics)
+     * <p>
+     * Reports the duration, pool wait time, rows and failures of every statement to the registry, grouped by statement shape,
+     * together with gauges of the pool usage and the query cache. Independent of the registry, every statement is recorded
+     * as JFR event de.flxwdns.pythiasql.Query while a flight recording with that event is running.
+     *
+     * @param metrics (DatabaseMetrics): The registry to report to, or null to stop measuring.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseInMemoryMetrics metrics = new DatabaseInMemoryMetrics();
+     * handler.setMetrics(metrics);
+     * metrics.getStatements().forEach(System.out::println);
+     */
+    public void setMetrics(DatabaseMetrics metrics) {
+        DatabaseMetrics previous = this.metrics;
+        for (String gauge : GAUGES) {
+            previous.removeGauge(gauge);
+        }
+        this.metrics = metrics == null ? DatabaseNoopMetrics.INSTANCE : metrics;
+        this.metrics.registerGauge("pool.connections.total", pool::getTotalConnections);
+        this.metrics.registerGauge("pool.connections.active", pool::getActiveConnections);
+        this.metrics.registerGauge("pool.connections.idle", pool::getIdleConnections);
+        this.metrics.registerGauge("cache.query.size", () -> queryCache == null ? 0 : queryCache.size());
+        this.metrics.registerGauge("cache.query.hitRate", () -> queryCache == null ? 0 : queryCache.getHitRate());
+        this.metrics.registerGauge("cache.query.hits", () -> queryCache == null ? 0 : queryCache.getHitCount());
+        this.metrics.registerGauge("cache.query.misses", () -> queryCache == null ? 0 : queryCache.getMissCount());
+        DatabaseReplicaSet set = replicas;
+        if (set != null) {
+            set.removeGauges(previous);
+            set.registerGauges(this.metrics);
+        }
+    }
+
+    /**
+     * Method: addListener(DatabaseCallListener listener)
+     * <p>
+     * Adds a listener which is notified about every statement with its phase timings, statement shape, parameter count,
+     * rows and calling table, see DatabaseCallListener.
+     *
+     * @param listener (DatabaseCallListener): The listener to add.
+     * <p>
+     * Example usage:
+     * <p>
+     * handler.addListener(new DatabaseSlowQueryLog(handler).withThreshold(200));
+     */
+    public synchronized void addListener(DatabaseCallListener listener) {
+        DatabaseCallListener[] current = listeners;
+        DatabaseCallListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Method: removeListener(DatabaseCallListener listener)
+     * <p>
+     * Removes a listener added with addListener(DatabaseCallListener).
+     *
+     * @param listener (DatabaseCallListener): The listener to remove.
+     * @return boolean: True if the listener was registered.
+     */
+    public synchronized boolean removeListener(DatabaseCallListener listener) {
+        List<DatabaseCallListener> updated = new ArrayList<>(Arrays.asList(listeners));
+        boolean removed = updated.remove(listener);
+        listeners = updated.toArray(new DatabaseCallListener[0]);
+        return removed;
+    }
+
+    /**
+     * Method: disableQueryCache()
+     * <p>
+     * Disables the query cache and drops all cached results.
+     */
+    public void disableQueryCache() {
+        queryCache = null;
+    }
+
+    /**
+     * Method: getMetrics()
+     * <p>
+     * Returns the registry the statements are reported to.
+     *
+     * @return DatabaseMetrics: The registry set with setMetrics(DatabaseMetrics), a no-op registry by default.
+     */
+    public DatabaseMetrics getMetrics() {
+        return owner().metrics;
+    }
+
+    /**
+     * Method: enableReplicas(DatabaseReplicaSettings settings)
+     * <p>
+     * Opens a connection pool to every read replica. Reads of the handler returned by getReader() are balanced over the
+     * healthy replicas with the fewest active connections. A replica is removed from reads while it cannot be reached,
+     * its replication is stopped or it lags more than the maximum lag behind, and is added again as soon as the health check succeeds.
+     * Writes, transactions and all statements of this handler itself stay on the primary.
+     *
+     * @param settings (DatabaseReplicaSettings): The replicas, health check interval, maximum lag and read-your-writes window.
+     * <p>
+     * Example usage:
+     * <p>
+     * handler.enableReplicas(new DatabaseReplicaSettings().withReplica("replica-1", 3306).withReplica("replica-2", 3306).withMaxLag(2));
+     * List<DataResult> rows = DatabaseTable.selectQuery(handler.getReader(), null, "SELECT * FROM players WHERE rank = ?", "admin");
+     * <p>
+     * Note: A table written through this handler is read from the primary for the read-your-writes window afterwards.
+     *       Writes of other applications are only seen by the replicas after their replication lag.
+     */
+    public synchronized void enableReplicas(DatabaseReplicaSettings settings) {
+        if (parent != null) {
+            throw new IllegalStateException("Replicas can only be enabled on the handler created by the constructor");
+        }
+        disableReplicas();
+        var set = new DatabaseReplicaSet(database, user, password, pool.getSettings(), settings);
+        set.registerGauges(metrics);
+        replicas = set;
+    }
+
+    /**
+     * Method: disableReplicas()
+     * <p>
+     * Sends all reads to the primary again and closes the replica pools.
+     */
+    public synchronized void disableReplicas() {
+        var set = replicas;
+        if (set != null) {
+            replicas = null;
+            set.removeGauges(metrics);
+            set.close();
+        }
+    }
+
+    /**
+     * Method: getReplicas()
+     * <p>
+     * Returns the configured read replicas with their health and replication lag.
+     *
+     * @return List<DatabaseReplica>: The replicas, or an empty list if no replicas are enabled.
+     */
+    public List<DatabaseReplica> getReplicas() {
+        var set = owner().replicas;
+        return set == null ? List.of() : set.getReplicas();
+    }
+
+    /**
+     * Method: getReader()
+     * <p>
+     * Returns a handler for reads which may be served by a read replica, e.g. loading whole tables, streaming reads and filter queries.
+     * Without replicas, or while no replica is healthy, it reads from the primary. Writes through it are run on the primary.
+     *
+     * @return DatabaseConnectHandler: The read handler.
+     * <p>
+     * Example usage:
+     * <p>
+     * try (Stream<String> names = handler.getReader().stream("SELECT name FROM players", resultSet -> resultSet.getString(1))) {
+     *     names.forEach(System.out::println);
+     * }
+     */
+    public DatabaseConnectHandler getReader() {
+        if (transaction != null) {
+            return this;
+        }
+        return parent == null ? reader : parent.reader;
+    }
+
+    /**
+     * Method: readYourWrites(Supplier<T> reads)
+     * <p>
+     * Runs the reads on the calling thread with all reads of getReader() sent to the primary, so they see every write
+     * which was made before, also through other connections of this application.
+     *
+     * @param reads (Supplier<T>): The reads to run.
+     * @return T: The result of the reads.
+     * <p>
+     * Example usage:
+     * <p>
+     * List<DataResult> orders = handler.readYourWrites(() -> table.query(new DatabaseEntryFilter().withEquals("player", uuid)));
+     */
+    public <T> T readYourWrites(Supplier<T> reads) {
+        int[] depth = owner().primaryReads.get();
+        depth[0]++;
+        try {
+            return reads.get();
+        } finally {
+            depth[0]--;
         }
     }
 
@@ -66,73 +510,499 @@ public final class DatabaseConnectHandler {
     }
 
     /**
-     * Method: execute(String query)
+     * Method: execute(String query, Object... parameters)
      * <p>
      * Executes the provided SQL query without returning any results.
      *
-     * @param query (String): The SQL query to execute.
+     * @param query (String): The SQL query to execute, values are passed as `?` placeholders.
+     * @param parameters (Object...): The values bound to the placeholders in order.
      * <p>
      * Example usage:
      * <p>
-     * String query = "SELECT * FROM mytable"; // Specify the SQL query
-     * handler.execute(query);
+     * String query = "DELETE FROM mytable WHERE id = ?"; // Specify the SQL query
+     * handler.execute(query, 5);
      */
-    public void execute(String query) {
-        try(var statement = connection.prepareStatement(query)) {
+    public void execute(String query, Object... parameters) {
+        DatabaseCall call = begin(DatabaseCall.Kind.EXECUTE, query, parameters, count(parameters));
+        try (var connection = borrow(call); var statement = connection.prepareStatement(query)) {
+            DatabaseStatements.bind(statement, parameters);
             statement.execute();
+            executed(call);
         } catch (SQLException exception) {
+            failed(call, exception);
             exception.printStackTrace();
+        } finally {
+            written(query);
+            finish(call);
         }
     }
 
     /**
-     * Method: executeQuery(String query, SqlFunction<ResultSet, T> function, T defaultValue)
+     * Method: executeQuery(String query, SqlFunction<ResultSet, T> function, T defaultValue, Object... parameters)
      * <p>
      * Executes the provided SQL query and applies the specified function to the result set.
      *
-     * @param query (String): The SQL query to execute.
+     * @param query (String): The SQL query to execute, values are passed as `?` placeholders.
      * @param function (SqlFunction<ResultSet, T>): The function to apply to the result set.
      * @param defaultValue (T): The default value to return if an exception occurs during execution or applying the function.
+     * @param parameters (Object...): The values bound to the placeholders in order.
      * @return T: The result of applying the function to the result set, or the default value if an exception occurs.
      * <p>
      * Example usage:
      * <p>
-     * String query = "SELECT * FROM mytable"; // Specify the SQL query
+     * String query = "SELECT * FROM mytable WHERE name = ?"; // Specify the SQL query
      * SqlFunction<ResultSet, List<String>> function = resultSet -> {
      *     // Process the result set and return a list of strings
      *     // ...
      * };
-     * List<String> result = handler.executeQuery(query, function, null);
+     * List<String> result = handler.executeQuery(query, function, null, "John");
+     */
+    public <T> T executeQuery(String query, SqlFunction<ResultSet, T> function, T defaultValue, Object... parameters) {
+        DatabaseQueryCache cache = transaction == null ? owner().queryCache : null;
+        if (cache == null || !cache.isCacheable(query)) {
+            return executeUncachedQuery(query, function, defaultValue, parameters);
+        }
+        DatabaseCall call = begin(DatabaseCall.Kind.QUERY, query, parameters, count(parameters));
+        try (ResultSet resultSet = cache.get(query, parameters, () -> read(query, call, parameters))) {
+            cached(call);
+            long[] rows = {0};
+            T result = function.apply(counted(call, resultSet, rows));
+            rows(call, rows[0]);
+            return result;
+        } catch (Exception exception) {
+            failed(call, exception);
+            exception.printStackTrace();
+            return defaultValue;
+        } finally {
+            finish(call);
+        }
+    }
+
+    /**
+     * Method: executeUncachedQuery(String query, SqlFunction<ResultSet, T> function, T defaultValue, Object... parameters)
+     * <p>
+     * Executes the provided SQL query like executeQuery, but always reads from the database and bypasses the query cache.
+     * It is used for reads which have to see writes of other applications, e.g. polling a change log.
+     *
+     * @param query (String): The SQL query to execute, values are passed as `?` placeholders.
+     * @param function (SqlFunction<ResultSet, T>): The function to apply to the result set.
+     * @param defaultValue (T): The default value to return if an exception occurs during execution or applying the function.
+     * @param parameters (Object...): The values bound to the placeholders in order.
+     * @return T: The result of applying the function to the result set, or the default value if an exception occurs.
      */
-    public <T> T executeQuery(String query, SqlFunction<ResultSet, T> function, T defaultValue) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+    public <T> T executeUncachedQuery(String query, SqlFunction<ResultSet, T> function, T defaultValue, Object... parameters) {
+        DatabaseCall call = begin(DatabaseCall.Kind.QUERY, query, parameters, count(parameters));
+        try (Connection connection = borrowRead(query, call); PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            DatabaseStatements.bind(preparedStatement, parameters);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                return function.apply(resultSet);
+                executed(call);
+                long[] rows = {0};
+                T result = function.apply(counted(call, resultSet, rows));
+                rows(call, rows[0]);
+                return result;
             } catch (Exception throwable) {
+                failed(call, throwable);
                 throwable.printStackTrace();
                 return defaultValue;
             }
         } catch (SQLException exception) {
+            failed(call, exception);
             exception.printStackTrace();
+        } finally {
+            finish(call);
         }
         return defaultValue;
     }
 
     /**
-     * Method: executeUpdate(String query)
+     * Method: executeUpdate(String query, Object... parameters)
      * <p>
      * Executes the provided SQL query that performs an update operation (e.g., INSERT, UPDATE, DELETE).
      *
-     * @param query (String): The SQL query to execute.
+     * @param query (String): The SQL query to execute, values are passed as `?` placeholders.
+     * @param parameters (Object...): The values bound to the placeholders in order.
+     * @return int: The amount of affected rows.
      * <p>
      * Example usage:
      * <p>
-     * String query = "INSERT INTO mytable (column1, column2) VALUES ('value1', 'value2')"; // Specify the SQL query
-     * handler.executeUpdate(query);
+     * String query = "INSERT INTO mytable (column1, column2) VALUES (?, ?)"; // Specify the SQL query
+     * handler.executeUpdate(query, "value1", "value2");
      */
-    public void executeUpdate(String query) throws SQLException {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.executeUpdate();
+    public int executeUpdate(String query, Object... parameters) throws SQLException {
+        DatabaseCall call = begin(DatabaseCall.Kind.UPDATE, query, parameters, count(parameters));
+        try (Connection connection = borrow(call); PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            DatabaseStatements.bind(preparedStatement, parameters);
+            int affected = preparedStatement.executeUpdate();
+            executed(call);
+            rows(call, affected);
+            return affected;
+        } catch (SQLException | RuntimeException exception) {
+            failed(call, exception);
+            throw exception;
+        } finally {
+            written(query);
+            finish(call);
+        }
+    }
+
+    /**
+     * Method: executeInsert(String query, Object... parameters)
+     * <p>
+     * Executes the provided INSERT query and returns the keys generated by the database, e.g. AUTO_INCREMENT values.
+     *
+     * @param query (String): The SQL query to execute, values are passed as `?` placeholders.
+     * @param parameters (Object...): The values bound to the placeholders in order.
+     * @return List<Object>: The generated keys in insertion order, empty if the table has no generated column.
+     * <p>
+     * Example usage:
+     * <p>
+     * String query = "INSERT INTO mytable (name) VALUES (?), (?)"; // Specify the SQL query
+     * List<Object> ids = handler.executeInsert(query, "John", "Jane");
+     */
+    public List<Object> executeInsert(String query, Object... parameters) throws SQLException {
+        DatabaseCall call = begin(DatabaseCall.Kind.INSERT, query, parameters, count(parameters));
+        try (Connection connection = borrow(call); PreparedStatement preparedStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            DatabaseStatements.bind(preparedStatement, parameters);
+            rows(call, preparedStatement.executeUpdate());
+            executed(call);
+            List<Object> keys = new ArrayList<>();
+            try (ResultSet resultSet = preparedStatement.getGeneratedKeys()) {
+                while (resultSet.next()) {
+                    keys.add(resultSet.getObject(1));
+                }
+            }
+            return keys;
+        } catch (SQLException | RuntimeException exception) {
+            failed(call, exception);
+            throw exception;
+        } finally {
+            written(query);
+            finish(call);
+        }
+    }
+
+    /**
+     * Method: executeWithKeys(String query, List<Object> generatedKeys, Object... parameters)
+     * <p>
+     * Executes the provided statement, adds the keys generated by the database to the list and returns the amount of affected rows.
+     * For INSERT ... ON DUPLICATE KEY UPDATE statements an inserted row counts 1, an updated row 2 and an unchanged row 0.
+     *
+     * @param query (String): The SQL query to execute, values are passed as `?` placeholders.
+     * @param generatedKeys (List<Object>): The list the generated keys are added to in insertion order.
+     * @param parameters (Object...): The values bound to the placeholders in order.
+     * @return int: The amount of affected rows.
+     */
+    public int executeWithKeys(String query, List<Object> generatedKeys, Object... parameters) throws SQLException {
+        DatabaseCall call = begin(DatabaseCall.Kind.INSERT, query, parameters, count(parameters));
+        try (Connection connection = borrow(call); PreparedStatement preparedStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            DatabaseStatements.bind(preparedStatement, parameters);
+            int affected = preparedStatement.executeUpdate();
+            executed(call);
+            rows(call, affected);
+            try (ResultSet resultSet = preparedStatement.getGeneratedKeys()) {
+                while (resultSet.next()) {
+                    generatedKeys.add(resultSet.getObject(1));
+                }
+            }
+            return affected;
+        } catch (SQLException | RuntimeException exception) {
+            failed(call, exception);
+            throw exception;
+        } finally {
+            written(query);
+            finish(call);
+        }
+    }
+
+    /**
+     * Method: executeBatch(String query, List<Object[]> parameters)
+     * <p>
+     * Executes the provided SQL query once for every parameter set as a single JDBC batch.
+     *
+     * @param query (String): The SQL query to execute, values are passed as `?` placeholders.
+     * @param parameters (List<Object[]>): One array of placeholder values per execution.
+     * @return int[]: The amount of affected rows per execution.
+     * <p>
+     * Example usage:
+     * <p>
+     * String query = "UPDATE mytable SET coins = ? WHERE uuid = ?"; // Specify the SQL query
+     * handler.executeBatch(query, List.of(new Object[]{10, uuidOne}, new Object[]{20, uuidTwo}));
+     */
+    public int[] executeBatch(String query, List<Object[]> parameters) throws SQLException {
+        DatabaseCall call = begin(DatabaseCall.Kind.BATCH, query, null, parameters.stream().mapToInt(DatabaseConnectHandler::count).sum());
+        try (Connection connection = borrow(call); PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            for (Object[] parameter : parameters) {
+                DatabaseStatements.bind(preparedStatement, parameter);
+                preparedStatement.addBatch();
+            }
+            int[] affected = preparedStatement.executeBatch();
+            executed(call);
+            if (call != null) {
+                call.rows(Arrays.stream(affected).filter(rows -> rows > 0).asLongStream().sum());
+            }
+            return affected;
+        } catch (SQLException | RuntimeException exception) {
+            failed(call, exception);
+            throw exception;
+        } finally {
+            written(query);
+            finish(call);
+        }
+    }
+
+    /**
+     * Method: stream(String query, SqlFunction<ResultSet, T> function, Object... parameters)
+     * <p>
+     * Executes the provided SQL query with a streaming cursor and maps the rows lazily while the stream is consumed.
+     * Only the current row is held in memory. The connection stays borrowed until the stream is closed or fully consumed.
+     *
+     * @param query (String): The SQL query to execute, values are passed as `?` placeholders.
+     * @param function (SqlFunction<ResultSet, T>): The function applied to every row, the result set is positioned on the row.
+     * @param parameters (Object...): The values bound to the placeholders in order.
+     * @return Stream<T>: The lazily mapped rows, it has to be closed if it is not fully consumed.
+     * @throws SQLException: If the query could not be executed.
+     * <p>
+     * Example usage:
+     * <p>
+     * try (Stream<String> names = handler.stream("SELECT name FROM mytable", resultSet -> resultSet.getString(1))) {
+     *     names.forEach(System.out::println);
+     * }
+     */
+    public <T> Stream<T> stream(String query, SqlFunction<ResultSet, T> function, Object... parameters) throws SQLException {
+        DatabaseCall call = begin(DatabaseCall.Kind.STREAM, query, parameters, count(parameters));
+        Connection connection;
+        try {
+            connection = borrowRead(query, call);
+        } catch (SQLException exception) {
+            failed(call, exception);
+            finish(call);
+            throw exception;
+        }
+        PreparedStatement statement = null;
+        ResultSet resultSet;
+        try {
+            statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(pool.getSettings().getStreamFetchSize());
+            DatabaseStatements.bind(statement, parameters);
+            resultSet = statement.executeQuery();
+            executed(call);
+        } catch (SQLException | RuntimeException exception) {
+            closeQuietly(statement);
+            closeQuietly(connection);
+            failed(call, exception);
+            finish(call);
+            throw exception;
+        }
+
+        PreparedStatement openStatement = statement;
+        long[] rows = new long[]{0};
+        Runnable close = new Runnable() {
+            private boolean closed;
+
+            @Override
+            public synchronized void run() {
+                if (!closed) {
+                    closed = true;
+                    closeQuietly(resultSet);
+                    closeQuietly(openStatement);
+                    closeQuietly(connection);
+                    rows(call, rows[0]);
+                    finish(call);
+                }
+            }
+        };
+        var spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        close.run();
+                        return false;
+                    }
+                    rows[0]++;
+                    action.accept(function.apply(resultSet));
+                    return true;
+                } catch (SQLException exception) {
+                    failed(call, exception);
+                    close.run();
+                    throw new RuntimeException(exception);
+                } catch (RuntimeException exception) {
+                    failed(call, exception);
+                    close.run();
+                    throw exception;
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(close);
+    }
+
+    private CachedRowSet read(String query, DatabaseCall call, Object... parameters) throws SQLException {
+        try (Connection connection = borrowRead(query, call); PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            DatabaseStatements.bind(preparedStatement, parameters);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                executed(call);
+                return DatabaseQueryCache.read(resultSet);
+            }
+        }
+    }
+
+    private DatabaseCall begin(DatabaseCall.Kind kind, String query, Object[] parameters, int parameterCount) {
+        DatabaseConnectHandler owner = owner();
+        DatabaseCallListener[] current = owner.listeners;
+        if (!DatabaseCall.isObserved(owner.metrics, current.length > 0)) {
+            return null;
+        }
+        DatabaseCall call = new DatabaseCall(kind, query, parameters, parameterCount);
+        for (DatabaseCallListener listener : current) {
+            try {
+                listener.onStart(call);
+            } catch (RuntimeException exception) {
+                System.err.println("[ERROR] Error in call listener " + listener + ": " + exception);
+            }
+        }
+        return call;
+    }
+
+    private Connection borrowRead(String query, DatabaseCall call) throws SQLException {
+        if (parent == null || transaction != null || parent.primaryReads.get()[0] > 0) {
+            return borrow(call);
+        }
+        DatabaseReplicaSet set = parent.replicas;
+        Connection connection = set == null ? null : set.borrow(query);
+        if (connection == null) {
+            return borrow(call);
+        }
+        if (call != null) {
+            call.borrowed();
+        }
+        return connection;
+    }
+
+    private Connection borrow(DatabaseCall call) throws SQLException {
+        Connection connection = getConnection();
+        if (call != null) {
+            call.borrowed();
+        }
+        return connection;
+    }
+
+    private void finish(DatabaseCall call) {
+        if (call == null) {
+            return;
+        }
+        DatabaseConnectHandler owner = owner();
+        call.finish(owner.metrics);
+        for (DatabaseCallListener listener : owner.listeners) {
+            try {
+                listener.onFinish(call);
+            } catch (RuntimeException exception) {
+                System.err.println("[ERROR] Error in call listener " + listener + ": " + exception);
+            }
+        }
+    }
+
+    private static void executed(DatabaseCall call) {
+        if (call != null) {
+            call.executed();
+        }
+    }
+
+    private static void cached(DatabaseCall call) {
+        if (call != null && !call.isExecuted()) {
+            call.cached(true);
+        }
+    }
+
+    private static void failed(DatabaseCall call, Throwable failure) {
+        if (call != null) {
+            call.failed(failure);
+        }
+    }
+
+    private static void rows(DatabaseCall call, long rows) {
+        if (call != null) {
+            call.rows(rows);
+        }
+    }
+
+    // Counts the rows the function reads through next(), unobserved calls get the result set itself
+    private static ResultSet counted(DatabaseCall call, ResultSet resultSet, long[] rows) {
+        if (call == null) {
+            return resultSet;
+        }
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next" -> {
+                    boolean next = resultSet.next();
+                    if (next) {
+                        rows[0]++;
+                    }
+                    return next;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(resultSet, args);
+            } catch (InvocationTargetException exception) {
+                throw exception.getCause();
+            }
+        });
+    }
+
+    private static int count(Object[] parameters) {
+        return parameters == null ? 0 : parameters.length;
+    }
+
+    private void checkTransaction() {
+        if (transaction == null) {
+            throw new IllegalStateException("The handler is not bound to a transaction, use beginTransaction() first");
+        }
+        if (transactionClosed) {
+            throw new IllegalStateException("The transaction was already closed");
+        }
+    }
+
+    private void written(String query) {
+        if (transaction != null) {
+            transactionWrites.add(query);
+            return;
+        }
+        if (parent != null) {
+            parent.written(query);
+            return;
+        }
+        DatabaseQueryCache cache = queryCache;
+        if (cache != null) {
+            cache.written(query);
+        }
+        DatabaseReplicaSet set = replicas;
+        if (set != null) {
+            set.written(query);
+        }
+    }
+
+    private DatabaseConnectHandler owner() {
+        return parent == null ? this : parent;
+    }
+
+    static String url(String host, int port, String database, DatabasePoolSettings settings) {
+        return "jdbc:mysql://" + host + ":" + port + "/" + database + "?useServerPrepStmts=" + settings.isServerPreparedStatements() + (settings.getStreamFetchSize() > 0 ? "&useCursorFetch=true" : "");
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
         }
     }
 }
@@ -0,0 +1,417 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import lombok.Getter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SuppressWarnings("unused")
+public final class DatabaseConnectionPool implements AutoCloseable {
+    private final String url;
+    private final String user;
+    private final String password;
+    @Getter
+    private final DatabasePoolSettings settings;
+
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    /**
+     * Constructor: DatabaseConnectionPool(String url, String user, String password, DatabasePoolSettings settings)
+     * <p>
+     * Constructs a new connection pool and opens the configured minimum amount of connections.
+     *
+     * @param url (String): The jdbc url used to open new connections.
+     * @param user (String): The username for authentication.
+     * @param password (String): The password for authentication.
+     * @param settings (DatabasePoolSettings): The sizing, timeout and leak detection settings of the pool.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseConnectionPool pool = new DatabaseConnectionPool("jdbc:mysql://localhost:3306/mydatabase", "myuser", "mypassword", new DatabasePoolSettings());
+     */
+    public DatabaseConnectionPool(String url, String user, String password, DatabasePoolSettings settings) {
+        if (settings.getMinSize() > settings.getMaxSize()) {
+            throw new IllegalArgumentException("minSize must not be greater than maxSize");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "PythiaSQL-Pool-Housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        fillMinimum();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, settings.getHousekeepingIntervalMillis(), settings.getHousekeepingIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method: borrow()
+     * <p>
+     * Borrows a validated connection from the pool. Closing the returned connection hands it back to the pool.
+     *
+     * @return Connection: A pooled connection which has to be closed after usage.
+     * @throws SQLException: If no connection became available within the acquisition timeout or a new one could not be opened.
+     * <p>
+     * Example usage:
+     * <p>
+     * try (Connection connection = pool.borrow()) {
+     *     // Use the connection
+     * }
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(settings.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after " + settings.getAcquireTimeoutMillis() + "ms waiting for a pooled connection (" + borrowed.size() + "/" + settings.getMaxSize() + " in use)");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", exception);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isValid(pooled)) {
+                    return lend(pooled);
+                }
+                discard(pooled);
+            }
+            return lend(open());
+        } catch (SQLException | RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+    /**
+     * Method: getTotalConnections()
+     * <p>
+     * Returns the amount of physical connections which are currently open, idle and borrowed.
+     *
+     * @return int: The amount of open connections.
+     */
+    public int getTotalConnections() {
+        return total.get();
+    }
+
+    /**
+     * Method: getActiveConnections()
+     * <p>
+     * Returns the amount of connections which are currently borrowed.
+     *
+     * @return int: The amount of borrowed connections.
+     */
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    /**
+     * Method: getIdleConnections()
+     * <p>
+     * Returns the amount of connections which are currently waiting in the pool.
+     *
+     * @return int: The amount of idle connections.
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * Method: close()
+     * <p>
+     * Closes all idle connections and stops the housekeeping. Borrowed connections are closed as soon as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        var connection = DriverManager.getConnection(url, user, password);
+        total.incrementAndGet();
+        return new PooledConnection(connection);
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.raw.isValid(settings.getValidationTimeoutSeconds());
+        } catch (SQLException exception) {
+            return false;
+        }
+    }
+
+    private Connection lend(PooledConnection pooled) {
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.leakReported = false;
+        pooled.borrowTrace = settings.getLeakDetectionThresholdMillis() > 0 ? new Throwable("Connection borrowed here") : null;
+        borrowed.add(pooled);
+        return pooled.createHandle();
+    }
+
+    private void release(PooledConnection pooled) {
+        if (!borrowed.remove(pooled)) {
+            return;
+        }
+        if (pooled.leakReported) {
+            System.out.println("[INFO] Previously reported connection was returned to the pool after " + (System.currentTimeMillis() - pooled.borrowedAt) + "ms");
+        }
+        try {
+            if (closed || pooled.raw.isClosed()) {
+                discard(pooled);
+            } else {
+                if (!pooled.raw.getAutoCommit()) {
+                    pooled.raw.rollback();
+                    pooled.raw.setAutoCommit(true);
+                }
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException exception) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        total.decrementAndGet();
+        try {
+            pooled.raw.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private void fillMinimum() {
+        while (!closed && total.get() < settings.getMinSize()) {
+            try {
+                var pooled = open();
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException exception) {
+                System.err.println("[ERROR] Could not open pooled connection: " + exception.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            if (settings.getIdleTimeoutMillis() > 0) {
+                for (PooledConnection pooled : idle) {
+                    if (total.get() <= settings.getMinSize()) {
+                        break;
+                    }
+                    if (now - pooled.lastUsed > settings.getIdleTimeoutMillis() && idle.remove(pooled)) {
+                        discard(pooled);
+                    }
+                }
+            }
+            fillMinimum();
+
+            long threshold = settings.getLeakDetectionThresholdMillis();
+            if (threshold > 0) {
+                for (PooledConnection pooled : borrowed) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > threshold) {
+                        pooled.leakReported = true;
+                        System.err.println("[WARN] Possible connection leak: connection was borrowed " + (now - pooled.borrowedAt) + "ms ago and not returned");
+                        if (pooled.borrowTrace != null) {
+                            pooled.borrowTrace.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection raw;
+        private final Map<String, CachedStatement> statements;
+        private volatile long lastUsed;
+        private volatile long borrowedAt;
+        private volatile boolean leakReported;
+        private volatile Throwable borrowTrace;
+
+        private PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() <= settings.getStatementCacheSize()) {
+                        return false;
+                    }
+                    eldest.getValue().evict();
+                    return true;
+                }
+            };
+        }
+
+        private PreparedStatement prepare(Connection handle, String sql, Integer autoGeneratedKeys) throws SQLException {
+            if (settings.getStatementCacheSize() == 0) {
+                return autoGeneratedKeys == null ? raw.prepareStatement(sql) : raw.prepareStatement(sql, autoGeneratedKeys);
+            }
+            String key = autoGeneratedKeys == null ? sql : autoGeneratedKeys + "|" + sql;
+            CachedStatement cached = statements.get(key);
+            if (cached != null && cached.inUse) {
+                return autoGeneratedKeys == null ? raw.prepareStatement(sql) : raw.prepareStatement(sql, autoGeneratedKeys);
+            }
+            if (cached == null) {
+                cached = new CachedStatement(key, autoGeneratedKeys == null ? raw.prepareStatement(sql) : raw.prepareStatement(sql, autoGeneratedKeys));
+                statements.put(key, cached);
+            }
+            return cached.createHandle(handle);
+        }
+
+        private final class CachedStatement {
+            private final String key;
+            private final PreparedStatement statement;
+            private boolean inUse;
+            private boolean evicted;
+            private boolean dirty;
+
+            private CachedStatement(String key, PreparedStatement statement) {
+                this.key = key;
+                this.statement = statement;
+            }
+
+            private void evict() {
+                evicted = true;
+                if (!inUse) {
+                    closeQuietly();
+                }
+            }
+
+            private void closeQuietly() {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                }
+            }
+
+            private PreparedStatement createHandle(Connection connection) {
+                inUse = true;
+                boolean[] closed = new boolean[]{false};
+                return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                inUse = false;
+                                if (evicted || dirty) {
+                                    statements.remove(key, this);
+                                    closeQuietly();
+                                } else {
+                                    statement.clearParameters();
+                                    statement.clearBatch();
+                                }
+                            }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            return closed[0] || statement.isClosed();
+                        }
+                        case "getConnection" -> {
+                            return connection;
+                        }
+                        case "setFetchSize", "setMaxRows", "setLargeMaxRows", "setQueryTimeout", "setFetchDirection", "setEscapeProcessing", "setPoolable", "closeOnCompletion" -> dirty = true;
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                        }
+                    }
+                    if (closed[0]) {
+                        throw new SQLException("Statement is already closed");
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException exception) {
+                        throw exception.getCause();
+                    }
+                });
+            }
+        }
+
+        private Connection createHandle() {
+            AtomicBoolean returned = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                if (!returned.get() && method.getName().equals("prepareStatement") && args[0] instanceof String sql) {
+                    if (args.length == 1) {
+                        return prepare((Connection) proxy, sql, null);
+                    }
+                    if (args.length == 2 && method.getParameterTypes()[1] == int.class) {
+                        return prepare((Connection) proxy, sql, (Integer) args[1]);
+                    }
+                }
+                switch (method.getName()) {
+                    case "close" -> {
+                        if (returned.compareAndSet(false, true)) {
+                            release(this);
+                        }
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return returned.get() || raw.isClosed();
+                    }
+                    case "unwrap" -> {
+                        if (((Class<?>) args[0]).isInstance(proxy)) {
+                            return proxy;
+                        }
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "toString" -> {
+                        return "PooledConnection[" + raw + "]";
+                    }
+                    default -> {
+                    }
+                }
+                if (returned.get()) {
+                    throw new SQLException("Connection was already returned to the pool");
+                }
+                try {
+                    return method.invoke(raw, args);
+                } catch (InvocationTargetException exception) {
+                    throw exception.getCause();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import lombok.Getter;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabasePoolSettings {
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long idleTimeoutMillis = 600_000;
+    private long acquireTimeoutMillis = 30_000;
+    private int validationTimeoutSeconds = 5;
+    private long leakDetectionThresholdMillis = 0;
+    private long housekeepingIntervalMillis = 30_000;
+    private int statementCacheSize = 256;
+    private boolean serverPreparedStatements = true;
+    private int streamFetchSize = Integer.MIN_VALUE;
+
+    /**
+     * Method: withMinSize(int minSize)
+     * <p>
+     * Sets the amount of connections the pool keeps open even when they are idle.
+     *
+     * @param minSize (int): The minimum amount of pooled connections.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabasePoolSettings settings = new DatabasePoolSettings().withMinSize(2);
+     */
+    public DatabasePoolSettings withMinSize(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("minSize must not be negative");
+        }
+        this.minSize = minSize;
+        return this;
+    }
+
+    /**
+     * Method: withMaxSize(int maxSize)
+     * <p>
+     * Sets the maximum amount of connections the pool opens at the same time.
+     *
+     * @param maxSize (int): The maximum amount of pooled connections.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabasePoolSettings settings = new DatabasePoolSettings().withMaxSize(16);
+     */
+    public DatabasePoolSettings withMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Method: withIdleTimeout(long idleTimeoutMillis)
+     * <p>
+     * Sets how long a connection may stay idle before it is evicted. Connections below the minimum size are never evicted.
+     *
+     * @param idleTimeoutMillis (long): The idle time in milliseconds, 0 disables the eviction.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     */
+    public DatabasePoolSettings withIdleTimeout(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Method: withAcquireTimeout(long acquireTimeoutMillis)
+     * <p>
+     * Sets how long a caller waits for a free connection before a SQLException is thrown.
+     *
+     * @param acquireTimeoutMillis (long): The acquisition timeout in milliseconds.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     */
+    public DatabasePoolSettings withAcquireTimeout(long acquireTimeoutMillis) {
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Method: withValidationTimeout(int validationTimeoutSeconds)
+     * <p>
+     * Sets the timeout used by Connection#isValid when a connection is validated on borrow.
+     *
+     * @param validationTimeoutSeconds (int): The validation timeout in seconds.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     */
+    public DatabasePoolSettings withValidationTimeout(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        return this;
+    }
+
+    /**
+     * Method: withLeakDetectionThreshold(long leakDetectionThresholdMillis)
+     * <p>
+     * Sets after which time a borrowed connection that was not returned is reported as possible leak.
+     *
+     * @param leakDetectionThresholdMillis (long): The threshold in milliseconds, 0 disables the leak detection.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     */
+    public DatabasePoolSettings withLeakDetectionThreshold(long leakDetectionThresholdMillis) {
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        return this;
+    }
+
+    /**
+     * Method: withHousekeepingInterval(long housekeepingIntervalMillis)
+     * <p>
+     * Sets how often idle eviction, minimum size refill and leak detection run.
+     *
+     * @param housekeepingIntervalMillis (long): The interval in milliseconds.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     */
+    public DatabasePoolSettings withHousekeepingInterval(long housekeepingIntervalMillis) {
+        if (housekeepingIntervalMillis <= 0) {
+            throw new IllegalArgumentException("housekeepingInterval must be positive");
+        }
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Method: withStatementCacheSize(int statementCacheSize)
+     * <p>
+     * Sets how many prepared statements every pooled connection keeps open for reuse. The least recently used statement is closed first.
+     *
+     * @param statementCacheSize (int): The amount of cached statements per connection, 0 disables the cache.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     */
+    public DatabasePoolSettings withStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("statementCacheSize must not be negative");
+        }
+        this.statementCacheSize = statementCacheSize;
+        return this;
+    }
+
+    /**
+     * Method: withServerPreparedStatements(boolean serverPreparedStatements)
+     * <p>
+     * Sets if statements are prepared on the database server, so cached statements are only parsed once per connection.
+     *
+     * @param serverPreparedStatements (boolean): True to use server side prepared statements.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     */
+    public DatabasePoolSettings withServerPreparedStatements(boolean serverPreparedStatements) {
+        this.serverPreparedStatements = serverPreparedStatements;
+        return this;
+    }
+
+    /**
+     * Method: withStreamFetchSize(int streamFetchSize)
+     * <p>
+     * Sets how streamed queries fetch their rows. Integer.MIN_VALUE streams the rows one by one, a positive value
+     * reads them in chunks of that size through a server side cursor.
+     *
+     * @param streamFetchSize (int): The fetch size of streamed queries.
+     * @return DatabasePoolSettings: The current DatabasePoolSettings instance.
+     */
+    public DatabasePoolSettings withStreamFetchSize(int streamFetchSize) {
+        if (streamFetchSize != Integer.MIN_VALUE && streamFetchSize < 1) {
+            throw new IllegalArgumentException("streamFetchSize must be positive or Integer.MIN_VALUE");
+        }
+        this.streamFetchSize = streamFetchSize;
+        return this;
+    }
+}
@@ -0,0 +1,448 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import lombok.Getter;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@SuppressWarnings("unused")
+public final class DatabaseQueryCache {
+    private static final String IDENTIFIER = "(?:`[^`]+`|[\\w$]+)(?:\\s*\\.\\s*(?:`[^`]+`|[\\w$]+))?";
+    private static final Pattern TABLE_REFERENCE = Pattern.compile("(?i)\\b(?:FROM|JOIN|INTO|UPDATE|TRUNCATE|TABLE)\\s+(?:(?:LOW_PRIORITY|HIGH_PRIORITY|DELAYED|IGNORE|QUICK|TABLE)\\s+)*(?:IF\\s+(?:NOT\\s+)?EXISTS\\s+)?(" + IDENTIFIER + ")");
+    private static final Pattern NEXT_TABLE_REFERENCE = Pattern.compile("(?i)\\G\\s*(?:(?:AS\\s+)?(?:`[^`]+`|[\\w$]+)\\s*)?,\\s*(" + IDENTIFIER + ")");
+    private static final Pattern UNCACHEABLE = Pattern.compile("(?i)\\b(?:NOW|SYSDATE|CURDATE|CURTIME|UTC_DATE|UTC_TIME|UTC_TIMESTAMP|UNIX_TIMESTAMP|RAND|UUID|UUID_SHORT|LAST_INSERT_ID|FOUND_ROWS|ROW_COUNT|CONNECTION_ID|SLEEP|BENCHMARK|GET_LOCK|IS_FREE_LOCK|IS_USED_LOCK|RELEASE_LOCK|USER|SESSION_USER|SYSTEM_USER|DATABASE|SCHEMA)\\s*\\("
+            + "|\\b(?:CURRENT_DATE|CURRENT_TIME|CURRENT_TIMESTAMP|CURRENT_USER|LOCALTIME|LOCALTIMESTAMP|SQL_NO_CACHE)\\b"
+            + "|\\bFOR\\s+(?:UPDATE|SHARE)\\b|\\bLOCK\\s+IN\\s+SHARE\\s+MODE\\b|\\bINTO\\s+(?:OUTFILE|DUMPFILE|@)|@");
+    private static final Set<String> SYSTEM_SCHEMAS = Set.of("information_schema", "performance_schema", "mysql", "sys");
+    private static final int MAX_SHAPES = 10_000;
+    private static RowSetFactory rowSetFactory;
+
+    @Getter
+    private final DatabaseQueryCacheSettings settings;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+    private final Map<String, Long> invalidatedAt = new HashMap<>();
+    private final Map<Key, CompletableFuture<CachedRowSet>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long epoch;
+    private long clearedAt;
+
+    /**
+     * Constructor: DatabaseQueryCache(DatabaseQueryCacheSettings settings)
+     * <p>
+     * Creates a cache for the results of SELECT queries, keyed by the query and its parameters. Every result remembers the tables
+     * the query reads and is dropped as soon as one of them is written through the same DatabaseConnectHandler.
+     * Queries which depend on anything else than the table contents, e.g. NOW(), RAND(), user variables or locking reads, are never cached.
+     *
+     * @param settings (DatabaseQueryCacheSettings): The limits and time to live of the cache.
+     * <p>
+     * Example usage:
+     * <p>
+     * handler.enableQueryCache(new DatabaseQueryCacheSettings().withMaxEntries(500).withTtl(30_000));
+     */
+    public DatabaseQueryCache(DatabaseQueryCacheSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Method: get(String query, Object[] parameters, Loader loader)
+     * <p>
+     * Returns the cached result of the query. On a miss the loader reads it and the result is cached.
+     * Concurrent misses of the same query and parameters wait for the first one and share its result.
+     *
+     * @param query (String): The SQL query.
+     * @param parameters (Object[]): The values bound to the placeholders in order.
+     * @param loader (Loader): Reads the result from the database.
+     * @return ResultSet: A read-only copy of the result with its own cursor, or null if the query can not be cached.
+     * @throws SQLException: If the result could not be read.
+     */
+    public ResultSet get(String query, Object[] parameters, Loader loader) throws SQLException {
+        Shape shape = shape(query);
+        if (!shape.cacheable()) {
+            return null;
+        }
+        Key key = new Key(query, normalize(parameters));
+        CachedRowSet rowSet = lookup(key);
+        if (rowSet == null) {
+            CompletableFuture<CachedRowSet> created = new CompletableFuture<>();
+            CompletableFuture<CachedRowSet> running = inFlight.putIfAbsent(key, created);
+            if (running != null) {
+                shared.incrementAndGet();
+                rowSet = await(running);
+            } else {
+                long expected;
+                synchronized (this) {
+                    expected = epoch;
+                }
+                try {
+                    rowSet = loader.load();
+                } catch (SQLException | RuntimeException exception) {
+                    inFlight.remove(key, created);
+                    created.completeExceptionally(exception);
+                    throw exception;
+                }
+                store(key, shape.tables(), rowSet, expected);
+                inFlight.remove(key, created);
+                created.complete(rowSet);
+            }
+        }
+        return view(rowSet);
+    }
+
+    /**
+     * Method: isCacheable(String query)
+     * <p>
+     * Checks if the results of the query can be cached: it is a SELECT of known tables which only depends on their contents.
+     *
+     * @param query (String): The SQL query.
+     * @return boolean: True if get(String, Object[], Loader) caches the result.
+     */
+    public boolean isCacheable(String query) {
+        return shape(query).cacheable();
+    }
+
+    /**
+     * Method: written(String query)
+     * <p>
+     * Drops the results of all queries which read one of the tables the statement writes. Statements without a recognizable
+     * table drop the whole cache. It is called by DatabaseConnectHandler after every write.
+     *
+     * @param query (String): The executed statement.
+     */
+    public void written(String query) {
+        Set<String> tables = shape(query).tables();
+        if (tables.isEmpty()) {
+            invalidateAll();
+        } else {
+            invalidate(tables);
+        }
+    }
+
+    /**
+     * Method: invalidate(String tableName)
+     * <p>
+     * Drops the results of all queries which read the table, e.g. after it was changed by another application.
+     *
+     * @param tableName (String): The name of the changed table.
+     * <p>
+     * Example usage:
+     * <p>
+     * handler.getQueryCache().invalidate("players");
+     */
+    public void invalidate(String tableName) {
+        invalidate(Set.of(name(tableName)));
+    }
+
+    /**
+     * Method: invalidateAll()
+     * <p>
+     * Drops all cached results.
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            clearedAt = ++epoch;
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+            keysByTable.clear();
+            invalidatedAt.clear();
+        }
+        inFlight.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Method: getSharedCount()
+     * <p>
+     * Returns how many misses did not run their own query but waited for an identical query which was already running.
+     *
+     * @return long: The amount of shared executions.
+     */
+    public long getSharedCount() {
+        return shared.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * Method: getHitRate()
+     * <p>
+     * Returns the share of cacheable queries which were answered from the cache.
+     *
+     * @return double: The hit rate between 0 and 1, or 0 if there were no queries yet.
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private void invalidate(Set<String> tables) {
+        synchronized (this) {
+            long current = ++epoch;
+            for (String table : tables) {
+                invalidatedAt.put(table, current);
+                Set<Key> keys = keysByTable.remove(table);
+                if (keys != null) {
+                    for (Key key : keys) {
+                        Entry entry = entries.remove(key);
+                        if (entry != null) {
+                            invalidations.incrementAndGet();
+                            unlink(key, entry);
+                        }
+                    }
+                }
+            }
+        }
+        inFlight.keySet().removeIf(key -> !Collections.disjoint(shape(key.query()).tables(), tables));
+    }
+
+    private synchronized CachedRowSet lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() != 0 && entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            unlink(key, entry);
+            expirations.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.rowSet();
+    }
+
+    private synchronized void store(Key key, Set<String> tables, CachedRowSet rowSet, long expected) {
+        if (rowSet.size() > settings.getMaxRowsPerEntry() || clearedAt > expected) {
+            return;
+        }
+        for (String table : tables) {
+            if (invalidatedAt.getOrDefault(table, 0L) > expected) {
+                return;
+            }
+        }
+        long ttl = settings.getTtlMillis();
+        Entry previous = entries.put(key, new Entry(rowSet, tables, ttl == 0 ? 0 : System.currentTimeMillis() + ttl));
+        if (previous != null) {
+            unlink(key, previous);
+        }
+        for (String table : tables) {
+            keysByTable.computeIfAbsent(table, ignored -> new HashSet<>()).add(key);
+        }
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > settings.getMaxEntries() && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            iterator.remove();
+            unlink(eldest.getKey(), eldest.getValue());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void unlink(Key key, Entry entry) {
+        for (String table : entry.tables()) {
+            Set<Key> keys = keysByTable.get(table);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByTable.remove(table);
+            }
+        }
+    }
+
+    private Shape shape(String query) {
+        Shape shape = shapes.get(query);
+        if (shape == null) {
+            if (shapes.size() >= MAX_SHAPES) {
+                shapes.clear();
+            }
+            shape = parse(query);
+            shapes.put(query, shape);
+        }
+        return shape;
+    }
+
+    private static Shape parse(String query) {
+        Set<String> tables = new HashSet<>();
+        boolean system = false;
+        Matcher matcher = TABLE_REFERENCE.matcher(query);
+        int start = 0;
+        while (start < query.length() && matcher.find(start)) {
+            system |= add(tables, matcher.group(1));
+            Matcher next = NEXT_TABLE_REFERENCE.matcher(query);
+            next.region(matcher.end(), query.length());
+            int end = matcher.end();
+            while (next.find()) {
+                system |= add(tables, next.group(1));
+                end = next.end();
+                next.region(end, query.length());
+            }
+            start = end;
+        }
+        String trimmed = query.stripLeading();
+        boolean select = trimmed.regionMatches(true, 0, "SELECT", 0, 6);
+        return new Shape(select && !system && !tables.isEmpty() && !UNCACHEABLE.matcher(query).find(), Set.copyOf(tables));
+    }
+
+    static Set<String> tables(String query) {
+        return parse(query).tables();
+    }
+
+    static String firstTable(String query) {
+        Matcher matcher = TABLE_REFERENCE.matcher(query);
+        if (!matcher.find()) {
+            return null;
+        }
+        String identifier = matcher.group(1);
+        return name(identifier.substring(identifier.lastIndexOf('.') + 1));
+    }
+
+    private static boolean add(Set<String> tables, String identifier) {
+        int dot = identifier.lastIndexOf('.');
+        if (dot != -1 && SYSTEM_SCHEMAS.contains(name(identifier.substring(0, dot)))) {
+            return true;
+        }
+        tables.add(name(dot == -1 ? identifier : identifier.substring(dot + 1)));
+        return false;
+    }
+
+    private static String name(String identifier) {
+        return identifier.strip().replace("`", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Object> normalize(Object[] parameters) {
+        if (parameters == null || parameters.length == 0) {
+            return List.of();
+        }
+        Object[] values = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            values[i] = parameters[i] instanceof byte[] bytes ? ByteBuffer.wrap(bytes.clone()) : parameters[i];
+        }
+        return Arrays.asList(values);
+    }
+
+    private static CachedRowSet await(CompletableFuture<CachedRowSet> future) throws SQLException {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw exception;
+        }
+    }
+
+    private static ResultSet view(CachedRowSet rowSet) throws SQLException {
+        ResultSet copy = (ResultSet) rowSet.createShared();
+        copy.beforeFirst();
+        boolean[] closed = new boolean[]{false};
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close" -> {
+                    closed[0] = true;
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed[0];
+                }
+                case "getStatement" -> {
+                    return null;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            if (closed[0]) {
+                throw new SQLException("ResultSet is already closed");
+            }
+            try {
+                return method.invoke(copy, args);
+            } catch (InvocationTargetException exception) {
+                throw exception.getCause();
+            }
+        });
+    }
+
+    /**
+     * Method: read(ResultSet resultSet)
+     * <p>
+     * Copies all rows of the result set into a detached CachedRowSet which can be cached.
+     *
+     * @param resultSet (ResultSet): The result set to copy, it is fully consumed.
+     * @return CachedRowSet: The copied rows.
+     * @throws SQLException: If the rows could not be read.
+     */
+    public static CachedRowSet read(ResultSet resultSet) throws SQLException {
+        RowSetFactory factory = rowSetFactory;
+        if (factory == null) {
+            factory = rowSetFactory = RowSetProvider.newFactory();
+        }
+        CachedRowSet rowSet = factory.createCachedRowSet();
+        rowSet.populate(resultSet);
+        return rowSet;
+    }
+
+    /**
+     * Functional Interface: Loader
+     * <p>
+     * Reads the result of a missed query from the database, see read(ResultSet).
+     */
+    @FunctionalInterface
+    public interface Loader {
+        CachedRowSet load() throws SQLException;
+    }
+
+    private record Key(String query, List<Object> parameters) {
+    }
+
+    private record Entry(CachedRowSet rowSet, Set<String> tables, long expiresAt) {
+    }
+
+    private record Shape(boolean cacheable, Set<String> tables) {
+    }
+}
@@ -0,0 +1,64 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import lombok.Getter;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseQueryCacheSettings {
+    private int maxEntries = 1_000;
+    private long ttlMillis = 60_000;
+    private int maxRowsPerEntry = 10_000;
+
+    /**
+     * Method: withMaxEntries(int maxEntries)
+     * <p>
+     * Sets how many query results the cache keeps. The least recently used result is evicted first.
+     *
+     * @param maxEntries (int): The maximum amount of cached results.
+     * @return DatabaseQueryCacheSettings: The current DatabaseQueryCacheSettings instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseQueryCacheSettings settings = new DatabaseQueryCacheSettings().withMaxEntries(500);
+     */
+    public DatabaseQueryCacheSettings withMaxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    /**
+     * Method: withTtl(long ttlMillis)
+     * <p>
+     * Sets how long a result stays valid after it was read. It bounds how stale a result can get through writes
+     * which do not run through this connection, e.g. from other applications.
+     *
+     * @param ttlMillis (long): The time to live in milliseconds, 0 keeps results until they are evicted or invalidated.
+     * @return DatabaseQueryCacheSettings: The current DatabaseQueryCacheSettings instance.
+     */
+    public DatabaseQueryCacheSettings withTtl(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        this.ttlMillis = ttlMillis;
+        return this;
+    }
+
+    /**
+     * Method: withMaxRowsPerEntry(int maxRowsPerEntry)
+     * <p>
+     * Sets how many rows a result may have to be cached. Larger results are still returned but read again every time.
+     *
+     * @param maxRowsPerEntry (int): The maximum amount of rows of a cached result.
+     * @return DatabaseQueryCacheSettings: The current DatabaseQueryCacheSettings instance.
+     */
+    public DatabaseQueryCacheSettings withMaxRowsPerEntry(int maxRowsPerEntry) {
+        if (maxRowsPerEntry < 1) {
+            throw new IllegalArgumentException("maxRowsPerEntry must be at least 1");
+        }
+        this.maxRowsPerEntry = maxRowsPerEntry;
+        return this;
+    }
+}
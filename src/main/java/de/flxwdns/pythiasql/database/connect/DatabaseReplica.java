@@ -0,0 +1,118 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import de.flxwdns.pythiasql.database.metrics.DatabaseMetrics;
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseReplica {
+    private final DatabaseReplicaSettings.Endpoint endpoint;
+    private final DatabaseConnectionPool pool;
+    private volatile boolean healthy;
+    private volatile long lagSeconds = -1;
+    private volatile String lastError;
+    private volatile long checkedAt;
+
+    DatabaseReplica(DatabaseReplicaSettings.Endpoint endpoint, DatabaseConnectionPool pool) {
+        this.endpoint = endpoint;
+        this.pool = pool;
+    }
+
+    /**
+     * Method: registerGauges(DatabaseMetrics metrics)
+     * <p>
+     * Registers the health, the replication lag and the active connections of this replica as gauges
+     * "replica.<host>:<port>.healthy", ".lag" and ".active".
+     *
+     * @param metrics (DatabaseMetrics): The registry to register the gauges at.
+     */
+    public void registerGauges(DatabaseMetrics metrics) {
+        metrics.registerGauge("replica." + endpoint + ".healthy", () -> healthy ? 1 : 0);
+        metrics.registerGauge("replica." + endpoint + ".lag", () -> lagSeconds);
+        metrics.registerGauge("replica." + endpoint + ".active", pool::getActiveConnections);
+    }
+
+    /**
+     * Method: removeGauges(DatabaseMetrics metrics)
+     * <p>
+     * Removes the gauges registered by registerGauges(DatabaseMetrics).
+     *
+     * @param metrics (DatabaseMetrics): The registry to remove the gauges from.
+     */
+    public void removeGauges(DatabaseMetrics metrics) {
+        metrics.removeGauge("replica." + endpoint + ".healthy");
+        metrics.removeGauge("replica." + endpoint + ".lag");
+        metrics.removeGauge("replica." + endpoint + ".active");
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseReplica[" + endpoint + ", " + (healthy ? "healthy" : "unhealthy" + (lastError == null ? "" : ": " + lastError)) + ", lag " + lagSeconds + "s]";
+    }
+
+    void check(long maxLagSeconds) {
+        checkedAt = System.currentTimeMillis();
+        try (Connection connection = pool.borrow(); Statement statement = connection.createStatement()) {
+            Long lag = readLag(statement);
+            if (lag == null) {
+                down("Replication is not running or the server is not a replica");
+                return;
+            }
+            lagSeconds = lag;
+            if (lag > maxLagSeconds) {
+                down("Replication lag of " + lag + "s exceeds " + maxLagSeconds + "s");
+                return;
+            }
+            if (!healthy) {
+                System.out.println("[INFO] Replica " + endpoint + " is available for reads (lag " + lag + "s)");
+            }
+            lastError = null;
+            healthy = true;
+        } catch (SQLTransientConnectionException exception) {
+            lastError = exception.getMessage();
+        } catch (SQLException exception) {
+            down(exception.getMessage());
+        }
+    }
+
+    void down(String reason) {
+        if (healthy) {
+            System.err.println("[ERROR] Replica " + endpoint + " was removed from reads: " + reason);
+        }
+        lastError = reason;
+        healthy = false;
+    }
+
+    private static Long readLag(Statement statement) throws SQLException {
+        try (ResultSet resultSet = status(statement)) {
+            if (!resultSet.next()) {
+                // An empty status means the server is not configured as a replica and may never receive the writes
+                return null;
+            }
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                String label = metaData.getColumnLabel(i);
+                if (label.equalsIgnoreCase("Seconds_Behind_Source") || label.equalsIgnoreCase("Seconds_Behind_Master")) {
+                    long lag = resultSet.getLong(i);
+                    return resultSet.wasNull() ? null : lag;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static ResultSet status(Statement statement) throws SQLException {
+        try {
+            return statement.executeQuery("SHOW REPLICA STATUS");
+        } catch (SQLException exception) {
+            return statement.executeQuery("SHOW SLAVE STATUS");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import de.flxwdns.pythiasql.database.metrics.DatabaseMetrics;
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class DatabaseReplicaSet {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "PythiaSQL-ReplicaCheck");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final int MAX_QUERIES = 10_000;
+
+    @Getter
+    private final DatabaseReplicaSettings settings;
+    @Getter
+    private final List<DatabaseReplica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> writtenAt = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> tables = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> task;
+    private volatile long unknownWrittenAt;
+
+    DatabaseReplicaSet(String database, String user, String password, DatabasePoolSettings primarySettings, DatabaseReplicaSettings settings) {
+        this.settings = settings;
+        DatabasePoolSettings poolSettings = settings.getPoolSettings() == null ? primarySettings : settings.getPoolSettings();
+        String replicaUser = settings.getUser() == null ? user : settings.getUser();
+        String replicaPassword = settings.getUser() == null ? password : settings.getPassword();
+        this.replicas = settings.getReplicas().stream()
+                .map(endpoint -> new DatabaseReplica(endpoint, new DatabaseConnectionPool(DatabaseConnectHandler.url(endpoint.host(), endpoint.port(), database, poolSettings), replicaUser, replicaPassword, poolSettings)))
+                .toList();
+        check();
+        this.task = SCHEDULER.scheduleWithFixedDelay(this::check, settings.getHealthCheckIntervalMillis(), settings.getHealthCheckIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    Connection borrow(String query) {
+        if (isRecentlyWritten(query)) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        DatabaseReplica best = null;
+        for (int i = 0; i < size; i++) {
+            DatabaseReplica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy() && (best == null || replica.getPool().getActiveConnections() < best.getPool().getActiveConnections())) {
+                best = replica;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        try {
+            return best.getPool().borrow();
+        } catch (SQLException exception) {
+            best.down(exception.getMessage());
+            return null;
+        }
+    }
+
+    void written(String query) {
+        long now = System.currentTimeMillis();
+        Set<String> written = tables(query);
+        if (written.isEmpty()) {
+            unknownWrittenAt = now;
+            return;
+        }
+        for (String table : written) {
+            writtenAt.put(table, now);
+        }
+    }
+
+    void registerGauges(DatabaseMetrics metrics) {
+        replicas.forEach(replica -> replica.registerGauges(metrics));
+    }
+
+    void removeGauges(DatabaseMetrics metrics) {
+        replicas.forEach(replica -> replica.removeGauges(metrics));
+    }
+
+    void close() {
+        task.cancel(false);
+        replicas.forEach(replica -> replica.getPool().close());
+    }
+
+    private boolean isRecentlyWritten(String query) {
+        long window = settings.getReadYourWritesMillis();
+        if (window == 0) {
+            return false;
+        }
+        long since = System.currentTimeMillis() - window;
+        if (unknownWrittenAt > since) {
+            return true;
+        }
+        if (writtenAt.isEmpty()) {
+            return false;
+        }
+        for (String table : tables(query)) {
+            Long at = writtenAt.get(table);
+            if (at != null) {
+                if (at > since) {
+                    return true;
+                }
+                writtenAt.remove(table, at);
+            }
+        }
+        return false;
+    }
+
+    private Set<String> tables(String query) {
+        Set<String> result = tables.get(query);
+        if (result == null) {
+            if (tables.size() >= MAX_QUERIES) {
+                tables.clear();
+            }
+            result = DatabaseQueryCache.tables(query);
+            tables.put(query, result);
+        }
+        return result;
+    }
+
+    private void check() {
+        for (DatabaseReplica replica : replicas) {
+            try {
+                replica.check(settings.getMaxLagSeconds());
+            } catch (RuntimeException exception) {
+                replica.down(exception.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseReplicaSettings {
+    private final List<Endpoint> replicas = new ArrayList<>();
+    private String user;
+    private String password;
+    private DatabasePoolSettings poolSettings;
+    private long maxLagSeconds = 5;
+    private long healthCheckIntervalMillis = 5_000;
+    private long readYourWritesMillis = -1;
+
+    /**
+     * Method: withReplica(String host, int port)
+     * <p>
+     * Adds a read replica. It has to serve the same database as the primary.
+     *
+     * @param host (String): The host address or name of the replica.
+     * @param port (int): The port of the replica.
+     * @return DatabaseReplicaSettings: The current DatabaseReplicaSettings instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseReplicaSettings settings = new DatabaseReplicaSettings().withReplica("replica-1", 3306).withReplica("replica-2", 3306);
+     */
+    public DatabaseReplicaSettings withReplica(String host, int port) {
+        replicas.add(new Endpoint(host, port));
+        return this;
+    }
+
+    /**
+     * Method: withCredentials(String user, String password)
+     * <p>
+     * Sets the user the replicas are connected with. By default the user of the primary is used.
+     * The health check needs the REPLICATION CLIENT privilege to read the replication lag.
+     *
+     * @param user (String): The username for authentication.
+     * @param password (String): The password for authentication.
+     * @return DatabaseReplicaSettings: The current DatabaseReplicaSettings instance.
+     */
+    public DatabaseReplicaSettings withCredentials(String user, String password) {
+        this.user = user;
+        this.password = password;
+        return this;
+    }
+
+    /**
+     * Method: withPoolSettings(DatabasePoolSettings poolSettings)
+     * <p>
+     * Sets the pool settings of every replica. By default the settings of the primary pool are used.
+     *
+     * @param poolSettings (DatabasePoolSettings): The settings of the replica pools.
+     * @return DatabaseReplicaSettings: The current DatabaseReplicaSettings instance.
+     */
+    public DatabaseReplicaSettings withPoolSettings(DatabasePoolSettings poolSettings) {
+        this.poolSettings = poolSettings;
+        return this;
+    }
+
+    /**
+     * Method: withMaxLag(long maxLagSeconds)
+     * <p>
+     * Sets how far a replica may fall behind the primary. A replica with a higher lag, or with stopped replication,
+     * receives no reads until it caught up again.
+     *
+     * @param maxLagSeconds (long): The maximum replication lag in seconds.
+     * @return DatabaseReplicaSettings: The current DatabaseReplicaSettings instance.
+     */
+    public DatabaseReplicaSettings withMaxLag(long maxLagSeconds) {
+        if (maxLagSeconds < 0) {
+            throw new IllegalArgumentException("maxLag must not be negative");
+        }
+        this.maxLagSeconds = maxLagSeconds;
+        return this;
+    }
+
+    /**
+     * Method: withHealthCheckInterval(long healthCheckIntervalMillis)
+     * <p>
+     * Sets how often the availability and the replication lag of every replica are checked.
+     *
+     * @param healthCheckIntervalMillis (long): The interval in milliseconds.
+     * @return DatabaseReplicaSettings: The current DatabaseReplicaSettings instance.
+     */
+    public DatabaseReplicaSettings withHealthCheckInterval(long healthCheckIntervalMillis) {
+        if (healthCheckIntervalMillis <= 0) {
+            throw new IllegalArgumentException("healthCheckInterval must be positive");
+        }
+        this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Method: withReadYourWritesWindow(long readYourWritesMillis)
+     * <p>
+     * Sets how long reads of a table are sent to the primary after the table was written through this connection,
+     * so a caller always reads its own writes. By default it is the maximum lag plus one health check interval,
+     * the longest time a replica in use can miss a write.
+     *
+     * @param readYourWritesMillis (long): The window in milliseconds, 0 reads written tables from the replicas right away.
+     * @return DatabaseReplicaSettings: The current DatabaseReplicaSettings instance.
+     */
+    public DatabaseReplicaSettings withReadYourWritesWindow(long readYourWritesMillis) {
+        if (readYourWritesMillis < 0) {
+            throw new IllegalArgumentException("readYourWritesWindow must not be negative");
+        }
+        this.readYourWritesMillis = readYourWritesMillis;
+        return this;
+    }
+
+    /**
+     * Method: getReadYourWritesMillis()
+     * <p>
+     * Returns how long reads of a written table are sent to the primary.
+     *
+     * @return long: The window in milliseconds.
+     */
+    public long getReadYourWritesMillis() {
+        return readYourWritesMillis < 0 ? maxLagSeconds * 1000 + healthCheckIntervalMillis : readYourWritesMillis;
+    }
+
+    public record Endpoint(String host, int port) {
+        @Override
+        public String toString() {
+            return host + ":" + port;
+        }
+    }
+}
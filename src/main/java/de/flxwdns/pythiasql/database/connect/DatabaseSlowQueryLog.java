@@ -0,0 +1,186 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@SuppressWarnings("unused")
+public final class DatabaseSlowQueryLog implements DatabaseCallListener {
+    private static final ExecutorService EXPLAINER = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), runnable -> {
+        var thread = new Thread(runnable, "PythiaSQL-SlowQueryLog");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.DiscardPolicy());
+    private static final int MAX_EXPLAINED_SHAPES = 10_000;
+
+    private final DatabaseConnectHandler connection;
+    private final Map<String, Long> explainedAt = new ConcurrentHashMap<>();
+    private final AtomicLong slowCount = new AtomicLong();
+    private final AtomicLong explainCount = new AtomicLong();
+    @Getter
+    private long thresholdMillis = 1_000;
+    @Getter
+    private long explainIntervalMillis = 60_000;
+    private Consumer<String> logger = System.err::println;
+
+    /**
+     * Constructor: DatabaseSlowQueryLog(DatabaseConnectHandler connection)
+     * <p>
+     * Creates a listener which logs every statement that takes longer than the threshold with its phase timings, statement shape,
+     * parameter count, rows, table and caller. For slow SELECT, INSERT, UPDATE and DELETE statements the EXPLAIN output is read
+     * in the background and logged as well, at most once per statement shape and explain interval.
+     *
+     * @param connection (DatabaseConnectHandler): The connection the EXPLAIN statements are run on.
+     * <p>
+     * Example usage:
+     * <p>
+     * handler.addListener(new DatabaseSlowQueryLog(handler).withThreshold(200).withExplainInterval(300_000));
+     */
+    public DatabaseSlowQueryLog(DatabaseConnectHandler connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Method: withThreshold(long thresholdMillis)
+     * <p>
+     * Sets from which duration on a statement is logged. The duration includes the pool wait time and reading the result.
+     *
+     * @param thresholdMillis (long): The threshold in milliseconds.
+     * @return DatabaseSlowQueryLog: The current DatabaseSlowQueryLog instance.
+     */
+    public DatabaseSlowQueryLog withThreshold(long thresholdMillis) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        this.thresholdMillis = thresholdMillis;
+        return this;
+    }
+
+    /**
+     * Method: withExplainInterval(long explainIntervalMillis)
+     * <p>
+     * Sets how often the same statement shape is explained again while it stays slow.
+     *
+     * @param explainIntervalMillis (long): The interval in milliseconds, 0 disables EXPLAIN.
+     * @return DatabaseSlowQueryLog: The current DatabaseSlowQueryLog instance.
+     */
+    public DatabaseSlowQueryLog withExplainInterval(long explainIntervalMillis) {
+        if (explainIntervalMillis < 0) {
+            throw new IllegalArgumentException("explainInterval must not be negative");
+        }
+        this.explainIntervalMillis = explainIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Method: withLogger(Consumer<String> logger)
+     * <p>
+     * Sets where the log lines are written to. By default they are printed to System.err.
+     *
+     * @param logger (Consumer<String>): Receives every log line.
+     * @return DatabaseSlowQueryLog: The current DatabaseSlowQueryLog instance.
+     */
+    public DatabaseSlowQueryLog withLogger(Consumer<String> logger) {
+        this.logger = logger;
+        return this;
+    }
+
+    @Override
+    public void onFinish(DatabaseCall call) {
+        if (call.getDurationNanos() < TimeUnit.MILLISECONDS.toNanos(thresholdMillis)) {
+            return;
+        }
+        String shape = call.getShape();
+        if (startsWith(shape, "EXPLAIN")) {
+            return;
+        }
+        slowCount.incrementAndGet();
+        String caller = call.getCaller();
+        logger.accept("[WARN] Slow " + call + (caller == null ? "" : " called by " + caller));
+        if (isExplainable(shape) && isExplainDue(shape)) {
+            String query = call.getQuery();
+            Object[] parameters = call.getParameters();
+            EXPLAINER.execute(() -> explain(query, shape, parameters));
+        }
+    }
+
+    /**
+     * Method: getSlowCount()
+     * <p>
+     * Returns how many statements exceeded the threshold.
+     *
+     * @return long: The amount of logged statements.
+     */
+    public long getSlowCount() {
+        return slowCount.get();
+    }
+
+    /**
+     * Method: getExplainCount()
+     * <p>
+     * Returns how many EXPLAIN outputs were logged.
+     *
+     * @return long: The amount of logged query plans.
+     */
+    public long getExplainCount() {
+        return explainCount.get();
+    }
+
+    private void explain(String query, String shape, Object[] parameters) {
+        List<String> plan = connection.executeUncachedQuery("EXPLAIN " + query, resultSet -> {
+            List<String> rows = new ArrayList<>();
+            int columns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    if (i > 1) {
+                        row.append(", ");
+                    }
+                    row.append(resultSet.getMetaData().getColumnLabel(i)).append('=').append(resultSet.getObject(i));
+                }
+                rows.add(row.toString());
+            }
+            return rows;
+        }, null, parameters);
+        if (plan == null) {
+            return;
+        }
+        explainCount.incrementAndGet();
+        StringBuilder message = new StringBuilder("[WARN] EXPLAIN ").append(shape);
+        plan.forEach(row -> message.append(System.lineSeparator()).append("    ").append(row));
+        logger.accept(message.toString());
+    }
+
+    private boolean isExplainDue(String shape) {
+        if (explainIntervalMillis == 0) {
+            return false;
+        }
+        if (explainedAt.size() >= MAX_EXPLAINED_SHAPES) {
+            explainedAt.clear();
+        }
+        long now = System.currentTimeMillis();
+        boolean[] due = new boolean[]{false};
+        explainedAt.compute(shape, (ignored, last) -> {
+            if (last == null || now - last >= explainIntervalMillis) {
+                due[0] = true;
+                return now;
+            }
+            return last;
+        });
+        return due[0];
+    }
+
+    private static boolean isExplainable(String shape) {
+        return startsWith(shape, "SELECT") || startsWith(shape, "INSERT") || startsWith(shape, "UPDATE")
+                || startsWith(shape, "DELETE") || startsWith(shape, "REPLACE");
+    }
+
+    private static boolean startsWith(String shape, String keyword) {
+        return shape.regionMatches(true, 0, keyword, 0, keyword.length());
+    }
+}
@@ -0,0 +1,153 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+@SuppressWarnings("unused")
+public final class DatabaseStatements {
+
+    private DatabaseStatements() {
+    }
+
+    /**
+     * Method: bind(PreparedStatement statement, Object... parameters)
+     * <p>
+     * Binds the parameters to the `?` placeholders of the statement with the setter matching their type.
+     *
+     * @param statement (PreparedStatement): The statement to bind the parameters to.
+     * @param parameters (Object...): The parameters in placeholder order.
+     * @throws SQLException: If a parameter could not be bound.
+     * <p>
+     * Example usage:
+     * <p>
+     * PreparedStatement statement = connection.prepareStatement("SELECT * FROM `players` WHERE `uuid` = ?");
+     * DatabaseStatements.bind(statement, uuid);
+     */
+    public static void bind(PreparedStatement statement, Object... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            bind(statement, i + 1, parameters[i]);
+        }
+    }
+
+    /**
+     * Method: bind(PreparedStatement statement, int index, Object value)
+     * <p>
+     * Binds a single value to the placeholder at the given 1-based index.
+     *
+     * @param statement (PreparedStatement): The statement to bind the value to.
+     * @param index (int): The 1-based placeholder index.
+     * @param value (Object): The value to bind.
+     * @throws SQLException: If the value could not be bound.
+     */
+    public static void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.NULL);
+        } else if (value instanceof String string) {
+            statement.setString(index, string);
+        } else if (value instanceof Integer number) {
+            statement.setInt(index, number);
+        } else if (value instanceof Long number) {
+            statement.setLong(index, number);
+        } else if (value instanceof Boolean bool) {
+            statement.setBoolean(index, bool);
+        } else if (value instanceof Double number) {
+            statement.setDouble(index, number);
+        } else if (value instanceof Float number) {
+            statement.setFloat(index, number);
+        } else if (value instanceof Short number) {
+            statement.setShort(index, number);
+        } else if (value instanceof Byte number) {
+            statement.setByte(index, number);
+        } else if (value instanceof BigDecimal decimal) {
+            statement.setBigDecimal(index, decimal);
+        } else if (value instanceof byte[] bytes) {
+            statement.setBytes(index, bytes);
+        } else if (value instanceof Timestamp timestamp) {
+            statement.setTimestamp(index, timestamp);
+        } else if (value instanceof Date date) {
+            statement.setDate(index, date);
+        } else if (value instanceof Time time) {
+            statement.setTime(index, time);
+        } else if (value instanceof UUID || value instanceof Character) {
+            statement.setString(index, value.toString());
+        } else if (value instanceof Enum<?> constant) {
+            statement.setString(index, constant.name());
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+
+    /**
+     * Method: quote(String identifier)
+     * <p>
+     * Quotes a table or column name with backticks, so it can safely be used in generated SQL.
+     *
+     * @param identifier (String): The table or column name.
+     * @return String: The quoted identifier.
+     * <p>
+     * Example usage:
+     * <p>
+     * String column = DatabaseStatements.quote("uuid"); // `uuid`
+     */
+    public static String quote(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+
+    /**
+     * Method: where(Map<String, Object> conditions, Collection<Object> parameters)
+     * <p>
+     * Builds a WHERE clause which matches all conditions. Null values are compared with IS NULL.
+     * The values of the conditions are added to the parameters in placeholder order.
+     *
+     * @param conditions (Map<String, Object>): The column names and values which have to match.
+     * @param parameters (Collection<Object>): The collection the bound values are added to.
+     * @return String: The WHERE clause including a leading space, or an empty string if there are no conditions.
+     * <p>
+     * Example usage:
+     * <p>
+     * List<Object> parameters = new ArrayList<>();
+     * String query = "SELECT * FROM `players`" + DatabaseStatements.where(Map.of("uuid", uuid), parameters);
+     */
+    public static String where(Map<String, Object> conditions, Collection<Object> parameters) {
+        if (conditions.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(" WHERE ");
+        int index = 0;
+        for (Map.Entry<String, Object> entry : conditions.entrySet()) {
+            if (index++ > 0) {
+                builder.append(" AND ");
+            }
+            builder.append(quote(entry.getKey()));
+            if (entry.getValue() == null) {
+                builder.append(" IS NULL");
+            } else {
+                builder.append(" = ?");
+                parameters.add(entry.getValue());
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Method: placeholders(int count)
+     * <p>
+     * Returns a comma separated list of `?` placeholders.
+     *
+     * @param count (int): The amount of placeholders.
+     * @return String: The placeholders, e.g. "?, ?, ?".
+     */
+    public static String placeholders(int count) {
+        StringBuilder builder = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('?');
+        }
+        return builder.toString();
+    }
+}
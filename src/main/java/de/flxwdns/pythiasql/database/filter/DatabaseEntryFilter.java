@@ -1,9 +1,13 @@
 package de.flxwdns.pythiasql.database.filter;
 
+import de.flxwdns.pythiasql.database.connect.DatabaseStatements;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 @Getter
 @SuppressWarnings("unused")
@@ -14,6 +18,14 @@ public class DatabaseEntryFilter {
     private final List<String> columns;
     private final List<Object> values;
 
+    @Getter(AccessLevel.NONE)
+    private final List<Condition> conditions = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final List<String> orders = new ArrayList<>();
+    private final List<String> selectedColumns = new ArrayList<>();
+    private Integer limit;
+    private Integer offset;
+
     public DatabaseEntryFilter() {
         this.columns = new ArrayList<>();
         this.values = new ArrayList<>();
@@ -70,6 +82,9 @@ public class DatabaseEntryFilter {
      */
     public DatabaseEntryFilter withValue(Object value) {
         values.add(value);
+        if (columnName != null) {
+            conditions.add(new Condition(columnName, value == null ? " IS NULL" : " = ?", value == null ? List.of() : List.of(value)));
+        }
         return this;
     }
 
@@ -90,6 +105,326 @@ public class DatabaseEntryFilter {
     public DatabaseEntryFilter withColumnAndValue(String column, Object value) {
         columns.add(column);
         values.add(value);
+        conditions.add(new Condition(column, value == null ? " IS NULL" : " = ?", value == null ? List.of() : List.of(value)));
+        return this;
+    }
+
+    /**
+     * Method: withNotEqual(String column, Object value)
+     * <p>
+     * Only matches entries whose column is not equal to the value.
+     *
+     * @param column (String): The column name to filter by.
+     * @param value (Object): The value the column must not have.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     */
+    public DatabaseEntryFilter withNotEqual(String column, Object value) {
+        conditions.add(new Condition(column, value == null ? " IS NOT NULL" : " <> ?", value == null ? List.of() : List.of(value)));
+        return this;
+    }
+
+    /**
+     * Method: withIn(String column, Collection<?> values)
+     * <p>
+     * Only matches entries whose column has one of the values.
+     *
+     * @param column (String): The column name to filter by.
+     * @param values (Collection<?>): The allowed values without null, an empty collection matches nothing.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseEntryFilter filter = new DatabaseEntryFilter();
+     * filter.withIn("rank", List.of("admin", "moderator"));
+     */
+    public DatabaseEntryFilter withIn(String column, Collection<?> values) {
+        if (values.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("withIn(" + column + ") does not accept null values, use withNull to match NULL");
+        }
+        if (values.isEmpty()) {
+            conditions.add(new Condition(null, "1 = 0", List.of()));
+        } else {
+            conditions.add(new Condition(column, " IN (" + DatabaseStatements.placeholders(values.size()) + ")", List.copyOf(values)));
+        }
+        return this;
+    }
+
+    /**
+     * Method: withGreaterThan(String column, Object value)
+     * <p>
+     * Only matches entries whose column is greater than the value.
+     *
+     * @param column (String): The column name to filter by.
+     * @param value (Object): The exclusive lower bound, must not be null.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     */
+    public DatabaseEntryFilter withGreaterThan(String column, Object value) {
+        conditions.add(new Condition(column, " > ?", List.of(bound("withGreaterThan", column, value))));
         return this;
     }
+
+    /**
+     * Method: withGreaterOrEqual(String column, Object value)
+     * <p>
+     * Only matches entries whose column is greater than or equal to the value.
+     *
+     * @param column (String): The column name to filter by.
+     * @param value (Object): The inclusive lower bound, must not be null.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     */
+    public DatabaseEntryFilter withGreaterOrEqual(String column, Object value) {
+        conditions.add(new Condition(column, " >= ?", List.of(bound("withGreaterOrEqual", column, value))));
+        return this;
+    }
+
+    /**
+     * Method: withLessThan(String column, Object value)
+     * <p>
+     * Only matches entries whose column is less than the value.
+     *
+     * @param column (String): The column name to filter by.
+     * @param value (Object): The exclusive upper bound, must not be null.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     */
+    public DatabaseEntryFilter withLessThan(String column, Object value) {
+        conditions.add(new Condition(column, " < ?", List.of(bound("withLessThan", column, value))));
+        return this;
+    }
+
+    /**
+     * Method: withLessOrEqual(String column, Object value)
+     * <p>
+     * Only matches entries whose column is less than or equal to the value.
+     *
+     * @param column (String): The column name to filter by.
+     * @param value (Object): The inclusive upper bound, must not be null.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     */
+    public DatabaseEntryFilter withLessOrEqual(String column, Object value) {
+        conditions.add(new Condition(column, " <= ?", List.of(bound("withLessOrEqual", column, value))));
+        return this;
+    }
+
+    /**
+     * Method: withBetween(String column, Object from, Object to)
+     * <p>
+     * Only matches entries whose column lies between both values, including the values themselves.
+     *
+     * @param column (String): The column name to filter by.
+     * @param from (Object): The inclusive lower bound, must not be null.
+     * @param to (Object): The inclusive upper bound, must not be null.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseEntryFilter filter = new DatabaseEntryFilter();
+     * filter.withBetween("level", 10, 20);
+     */
+    public DatabaseEntryFilter withBetween(String column, Object from, Object to) {
+        conditions.add(new Condition(column, " BETWEEN ? AND ?", List.of(bound("withBetween", column, from), bound("withBetween", column, to))));
+        return this;
+    }
+
+    /**
+     * Method: withLike(String column, String pattern)
+     * <p>
+     * Only matches entries whose column matches the LIKE pattern, `%` matches any text and `_` a single character.
+     *
+     * @param column (String): The column name to filter by.
+     * @param pattern (String): The LIKE pattern, must not be null.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseEntryFilter filter = new DatabaseEntryFilter();
+     * filter.withLike("name", "Jo%");
+     */
+    public DatabaseEntryFilter withLike(String column, String pattern) {
+        conditions.add(new Condition(column, " LIKE ?", List.of(bound("withLike", column, pattern))));
+        return this;
+    }
+
+    /**
+     * Method: withNull(String column)
+     * <p>
+     * Only matches entries whose column is NULL.
+     *
+     * @param column (String): The column name to filter by.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     */
+    public DatabaseEntryFilter withNull(String column) {
+        conditions.add(new Condition(column, " IS NULL", List.of()));
+        return this;
+    }
+
+    /**
+     * Method: withNotNull(String column)
+     * <p>
+     * Only matches entries whose column is not NULL.
+     *
+     * @param column (String): The column name to filter by.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     */
+    public DatabaseEntryFilter withNotNull(String column) {
+        conditions.add(new Condition(column, " IS NOT NULL", List.of()));
+        return this;
+    }
+
+    /**
+     * Method: withOrderBy(String column, boolean ascending)
+     * <p>
+     * Sorts the matching entries by the column. Calling it multiple times sorts by multiple columns in call order.
+     *
+     * @param column (String): The column name to sort by.
+     * @param ascending (boolean): True for ascending, false for descending order.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseEntryFilter filter = new DatabaseEntryFilter();
+     * filter.withOrderBy("kills", false).withLimit(10);
+     */
+    public DatabaseEntryFilter withOrderBy(String column, boolean ascending) {
+        orders.add(DatabaseStatements.quote(column) + (ascending ? " ASC" : " DESC"));
+        return this;
+    }
+
+    /**
+     * Method: withLimit(int limit)
+     * <p>
+     * Limits the amount of returned entries.
+     *
+     * @param limit (int): The maximum amount of entries.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     */
+    public DatabaseEntryFilter withLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Method: withOffset(int offset)
+     * <p>
+     * Skips the first matching entries.
+     *
+     * @param offset (int): The amount of entries to skip.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     */
+    public DatabaseEntryFilter withOffset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Method: withSelect(String... columns)
+     * <p>
+     * Only returns the specified columns instead of all columns.
+     *
+     * @param columns (String...): The column names to return.
+     * @return DatabaseEntryFilter: The current DatabaseEntryFilter instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseEntryFilter filter = new DatabaseEntryFilter();
+     * filter.withSelect("uuid", "name");
+     */
+    public DatabaseEntryFilter withSelect(String... columns) {
+        selectedColumns.addAll(List.of(columns));
+        return this;
+    }
+
+    /**
+     * Method: toQuery(String tableName, List<Object> parameters)
+     * <p>
+     * Compiles the filter into a SELECT query with `?` placeholders. The values are added to the parameters in placeholder order.
+     *
+     * @param tableName (String): The name of the table to query.
+     * @param parameters (List<Object>): The list the bound values are added to.
+     * @return String: The SELECT query.
+     * <p>
+     * Example usage:
+     * <p>
+     * List<Object> parameters = new ArrayList<>();
+     * String query = new DatabaseEntryFilter().withColumnAndValue("rank", "admin").toQuery("players", parameters);
+     * // SELECT * FROM `players` WHERE `rank` = ?
+     */
+    public String toQuery(String tableName, List<Object> parameters) {
+        StringBuilder builder = new StringBuilder("SELECT ");
+        if (selectedColumns.isEmpty()) {
+            builder.append('*');
+        } else {
+            for (int i = 0; i < selectedColumns.size(); i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(DatabaseStatements.quote(selectedColumns.get(i)));
+            }
+        }
+        builder.append(" FROM ").append(DatabaseStatements.quote(tableName));
+        appendWhere(builder, parameters);
+        if (!orders.isEmpty()) {
+            builder.append(" ORDER BY ").append(String.join(", ", orders));
+        }
+        if (limit != null) {
+            builder.append(" LIMIT ").append(limit);
+        }
+        if (offset != null) {
+            if (limit == null) {
+                builder.append(" LIMIT ").append(Long.MAX_VALUE);
+            }
+            builder.append(" OFFSET ").append(offset);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Method: toWhere(List<Object> parameters)
+     * <p>
+     * Compiles only the conditions of the filter into a WHERE clause, e.g. for UPDATE or DELETE statements.
+     *
+     * @param parameters (List<Object>): The list the bound values are added to.
+     * @return String: The WHERE clause including a leading space, or an empty string if there are no conditions.
+     */
+    public String toWhere(List<Object> parameters) {
+        StringBuilder builder = new StringBuilder();
+        appendWhere(builder, parameters);
+        return builder.toString();
+    }
+
+    private void appendWhere(StringBuilder builder, List<Object> parameters) {
+        for (int i = 0; i < conditions.size(); i++) {
+            Condition condition = conditions.get(i);
+            builder.append(i == 0 ? " WHERE " : " AND ");
+            if (condition.column != null) {
+                builder.append(DatabaseStatements.quote(condition.column));
+            }
+            builder.append(condition.operator);
+            parameters.addAll(condition.values);
+        }
+    }
+
+    private static Object bound(String method, String column, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException(method + "(" + column + ") does not accept null, comparisons with NULL never match, use withNull or withNotNull instead");
+        }
+        return value;
+    }
+
+    private static final class Condition {
+        private final String column;
+        private final String operator;
+        private final List<Object> values;
+
+        private Condition(String column, String operator, List<?> values) {
+            this.column = column;
+            this.operator = operator;
+            this.values = new ArrayList<>(values);
+        }
+    }
 }
\ No newline at end of file
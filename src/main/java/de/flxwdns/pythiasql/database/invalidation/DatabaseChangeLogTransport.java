@@ -0,0 +1,290 @@
+package de.flxwdns.pythiasql.database.invalidation;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import de.flxwdns.pythiasql.database.connect.DatabaseStatements;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Class: DatabaseChangeLogTransport
+ * <p>
+ * Sends invalidations through a change log table in the shared database. Published invalidations are inserted in batches,
+ * and every instance polls the rows added by the others. The table is created if it does not exist, and rows older than
+ * the retention time are deleted.
+ * <p>
+ * Ids are assigned when a row is inserted but become visible when its transaction commits, so a smaller id can appear after a larger one was
+ * received. Skipped ids are polled again until they appear or GAP_TIMEOUT_MILLIS passed, e.g. because their transaction was rolled back.
+ * <p>
+ * Example usage:
+ * <p>
+ * PythiaSQL.invalidationBus(new DatabaseChangeLogTransport(handler, "pythia_invalidations", 250, 3_600_000));
+ */
+@SuppressWarnings("unused")
+public final class DatabaseChangeLogTransport implements DatabaseInvalidationTransport {
+    public static final String DEFAULT_TABLE = "pythia_invalidations";
+    public static final long GAP_TIMEOUT_MILLIS = 10_000;
+    private static final int MAX_ROWS_PER_POLL = 1000;
+    private static final int MAX_GAPS = 1000;
+
+    private final DatabaseConnectHandler connection;
+    private final String table;
+    private final long pollIntervalMillis;
+    private final long retentionMillis;
+    private final ScheduledExecutorService scheduler;
+    private final List<DatabaseInvalidation> outgoing = new ArrayList<>();
+    private Consumer<DatabaseInvalidation> listener;
+    private long lastId;
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private long lastCleanup;
+
+    /**
+     * Constructor: DatabaseChangeLogTransport(DatabaseConnectHandler connection)
+     * <p>
+     * Creates a transport with the table DEFAULT_TABLE, which polls every 250 milliseconds and keeps the rows for one hour.
+     *
+     * @param connection (DatabaseConnectHandler): The connection to the shared database.
+     */
+    public DatabaseChangeLogTransport(DatabaseConnectHandler connection) {
+        this(connection, DEFAULT_TABLE, 250, 3_600_000);
+    }
+
+    /**
+     * Constructor: DatabaseChangeLogTransport(DatabaseConnectHandler connection, String table, long pollIntervalMillis, long retentionMillis)
+     * <p>
+     * Creates a transport through the given change log table.
+     *
+     * @param connection (DatabaseConnectHandler): The connection to the shared database.
+     * @param table (String): The name of the change log table.
+     * @param pollIntervalMillis (long): How often new invalidations are sent and received.
+     * @param retentionMillis (long): How long rows are kept in the change log table.
+     */
+    public DatabaseChangeLogTransport(DatabaseConnectHandler connection, String table, long pollIntervalMillis, long retentionMillis) {
+        if (pollIntervalMillis <= 0) {
+            throw new IllegalArgumentException("pollInterval must be positive");
+        }
+        this.connection = connection;
+        this.table = table;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.retentionMillis = retentionMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "PythiaSQL-Invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void start(Consumer<DatabaseInvalidation> listener) {
+        this.listener = listener;
+        connection.execute("CREATE TABLE IF NOT EXISTS " + DatabaseStatements.quote(table) + " ("
+                + "`id` BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+                + "`origin` CHAR(36) NOT NULL, "
+                + "`table_name` VARCHAR(64) NOT NULL, "
+                + "`kind` VARCHAR(16) NOT NULL, "
+                + "`conditions` TEXT NOT NULL, "
+                + "`changes` TEXT NOT NULL, "
+                + "`created_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                + "INDEX (`created_at`))");
+        Long max = connection.executeUncachedQuery("SELECT MAX(`id`) FROM " + DatabaseStatements.quote(table), resultSet -> resultSet.next() ? resultSet.getLong(1) : 0L, 0L);
+        lastId = max == null ? 0 : max;
+        scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(DatabaseInvalidation invalidation) {
+        synchronized (outgoing) {
+            outgoing.add(invalidation);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(pollIntervalMillis * 4, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        send();
+    }
+
+    void poll() {
+        try {
+            send();
+            receive();
+            if (retentionMillis > 0 && System.currentTimeMillis() - lastCleanup > retentionMillis / 10) {
+                lastCleanup = System.currentTimeMillis();
+                connection.executeUpdate("DELETE FROM " + DatabaseStatements.quote(table) + " WHERE `created_at` < ?", new Timestamp(System.currentTimeMillis() - retentionMillis));
+            }
+        } catch (Exception exception) {
+            System.err.println("[ERROR] Error while polling the invalidation table " + table + ": " + exception);
+        }
+    }
+
+    private void send() {
+        List<DatabaseInvalidation> batch;
+        synchronized (outgoing) {
+            if (outgoing.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(outgoing);
+            outgoing.clear();
+        }
+        List<Object[]> parameters = new ArrayList<>(batch.size());
+        for (DatabaseInvalidation invalidation : batch) {
+            parameters.add(new Object[]{invalidation.getOrigin(), invalidation.getTableName(), invalidation.getKind().name(), encode(invalidation.getConditions()), encode(invalidation.getValues())});
+        }
+        try {
+            connection.executeBatch("INSERT INTO " + DatabaseStatements.quote(table) + " (`origin`, `table_name`, `kind`, `conditions`, `changes`) VALUES (?, ?, ?, ?, ?)", parameters);
+        } catch (Exception exception) {
+            System.err.println("[ERROR] Could not send " + batch.size() + " invalidations: " + exception);
+        }
+    }
+
+    private void receive() {
+        long now = System.currentTimeMillis();
+        gaps.values().removeIf(missedAt -> now - missedAt > GAP_TIMEOUT_MILLIS);
+        List<Object> parameters = new ArrayList<>(gaps.size() + 1);
+        parameters.add(lastId);
+        parameters.addAll(gaps.keySet());
+        String missing = gaps.isEmpty() ? "" : " OR `id` IN (" + String.join(", ", Collections.nCopies(gaps.size(), "?")) + ")";
+        List<Map.Entry<Long, DatabaseInvalidation>> received = connection.executeUncachedQuery("SELECT `id`, `origin`, `table_name`, `kind`, `conditions`, `changes` FROM " + DatabaseStatements.quote(table)
+                + " WHERE `id` > ?" + missing + " ORDER BY `id` LIMIT " + MAX_ROWS_PER_POLL, resultSet -> {
+            List<Map.Entry<Long, DatabaseInvalidation>> result = new ArrayList<>();
+            while (resultSet.next()) {
+                result.add(Map.entry(resultSet.getLong("id"), new DatabaseInvalidation(resultSet.getString("origin"), resultSet.getString("table_name"),
+                        DatabaseInvalidation.Kind.valueOf(resultSet.getString("kind")), decode(resultSet.getString("conditions")), decode(resultSet.getString("changes")))));
+            }
+            return result;
+        }, List.of(), parameters.toArray());
+        for (Map.Entry<Long, DatabaseInvalidation> entry : received) {
+            long id = entry.getKey();
+            if (id <= lastId) {
+                // A late commit fills a gap, ids that were already received are not delivered again
+                if (gaps.remove(id) == null) {
+                    continue;
+                }
+            } else {
+                for (long skipped = Math.max(lastId + 1, id - MAX_GAPS); skipped < id; skipped++) {
+                    gaps.put(skipped, now);
+                }
+                lastId = id;
+            }
+            listener.accept(entry.getValue());
+        }
+        while (gaps.size() > MAX_GAPS) {
+            gaps.remove(gaps.keySet().iterator().next());
+        }
+    }
+
+    static String encode(Map<String, Object> values) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            Object value = entry.getValue();
+            String encoded;
+            if (value == null) {
+                encoded = "N:";
+            } else if (value instanceof Integer) {
+                encoded = "I:" + value;
+            } else if (value instanceof Short) {
+                encoded = "H:" + value;
+            } else if (value instanceof Byte) {
+                encoded = "Y:" + value;
+            } else if (value instanceof Long) {
+                encoded = "L:" + value;
+            } else if (value instanceof BigInteger) {
+                encoded = "G:" + value;
+            } else if (value instanceof BigDecimal decimal) {
+                encoded = "D:" + decimal.toPlainString();
+            } else if (value instanceof Double) {
+                encoded = "F:" + value;
+            } else if (value instanceof Float) {
+                encoded = "R:" + value;
+            } else if (value instanceof Boolean) {
+                encoded = "B:" + value;
+            } else if (value instanceof UUID) {
+                encoded = "U:" + value;
+            } else if (value instanceof Timestamp timestamp) {
+                encoded = "T:" + timestamp;
+            } else if (value instanceof Date date) {
+                encoded = "K:" + date;
+            } else if (value instanceof Time time) {
+                encoded = "J:" + time;
+            } else if (value instanceof LocalDateTime) {
+                encoded = "M:" + value;
+            } else if (value instanceof LocalDate) {
+                encoded = "A:" + value;
+            } else if (value instanceof LocalTime) {
+                encoded = "E:" + value;
+            } else if (value instanceof Instant) {
+                encoded = "Z:" + value;
+            } else if (value instanceof Character) {
+                encoded = "C:" + value;
+            } else if (value instanceof byte[] bytes) {
+                encoded = "X:" + Base64.getEncoder().encodeToString(bytes);
+            } else if (value instanceof Enum<?> constant) {
+                encoded = "S:" + constant.name();
+            } else {
+                encoded = "S:" + value;
+            }
+            builder.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8)).append('=').append(URLEncoder.encode(encoded, StandardCharsets.UTF_8));
+        }
+        return builder.toString();
+    }
+
+    static Map<String, Object> decode(String text) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (text == null || text.isEmpty()) {
+            return values;
+        }
+        for (String pair : text.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8);
+            String encoded = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            String value = encoded.substring(2);
+            values.put(key, switch (encoded.charAt(0)) {
+                case 'N' -> null;
+                case 'I' -> Integer.valueOf(value);
+                case 'H' -> Short.valueOf(value);
+                case 'Y' -> Byte.valueOf(value);
+                case 'L' -> Long.valueOf(value);
+                case 'G' -> new BigInteger(value);
+                case 'D' -> new BigDecimal(value);
+                case 'F' -> Double.valueOf(value);
+                case 'R' -> Float.valueOf(value);
+                case 'B' -> Boolean.valueOf(value);
+                case 'U' -> UUID.fromString(value);
+                case 'T' -> Timestamp.valueOf(value);
+                case 'K' -> Date.valueOf(value);
+                case 'J' -> Time.valueOf(value);
+                case 'M' -> LocalDateTime.parse(value);
+                case 'A' -> LocalDate.parse(value);
+                case 'E' -> LocalTime.parse(value);
+                case 'Z' -> Instant.parse(value);
+                case 'C' -> value.charAt(0);
+                case 'X' -> Base64.getDecoder().decode(value);
+                default -> value;
+            });
+        }
+        return values;
+    }
+}
@@ -0,0 +1,39 @@
+package de.flxwdns.pythiasql.database.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Class: DatabaseInProcessTransport
+ * <p>
+ * Delivers invalidations synchronously to all buses of the same JVM which share the transport instance,
+ * e.g. to simulate several instances in tests.
+ * <p>
+ * Example usage:
+ * <p>
+ * DatabaseInProcessTransport transport = new DatabaseInProcessTransport();
+ * DatabaseInvalidationBus first = new DatabaseInvalidationBus(transport, firstTables::get);
+ * DatabaseInvalidationBus second = new DatabaseInvalidationBus(transport, secondTables::get);
+ */
+@SuppressWarnings("unused")
+public final class DatabaseInProcessTransport implements DatabaseInvalidationTransport {
+    private final List<Consumer<DatabaseInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void start(Consumer<DatabaseInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void publish(DatabaseInvalidation invalidation) {
+        for (Consumer<DatabaseInvalidation> listener : listeners) {
+            listener.accept(invalidation);
+        }
+    }
+
+    @Override
+    public void close() {
+        listeners.clear();
+    }
+}
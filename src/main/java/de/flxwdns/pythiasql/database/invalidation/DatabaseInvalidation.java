@@ -0,0 +1,53 @@
+package de.flxwdns.pythiasql.database.invalidation;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseInvalidation {
+    private final String origin;
+    private final String tableName;
+    private final Kind kind;
+    private final Map<String, Object> conditions;
+    private final Map<String, Object> values;
+
+    /**
+     * Enum: Kind
+     * <p>
+     * Describes how the cached rows matching the conditions are changed by the receiving instances.
+     * DELETE removes them, UPDATE applies the values to them and RELOAD reads them again from the database.
+     */
+    public enum Kind {
+        DELETE,
+        UPDATE,
+        RELOAD
+    }
+
+    /**
+     * Constructor: DatabaseInvalidation(String origin, String tableName, Kind kind, Map<String, Object> conditions, Map<String, Object> values)
+     * <p>
+     * Describes a row level change of a table, which is sent to the other instances by the invalidation bus.
+     *
+     * @param origin (String): The id of the instance which changed the rows.
+     * @param tableName (String): The name of the changed table.
+     * @param kind (Kind): How the cached rows have to be changed.
+     * @param conditions (Map<String, Object>): The column names and values of the changed rows.
+     * @param values (Map<String, Object>): The new column values of an UPDATE, empty otherwise.
+     */
+    public DatabaseInvalidation(String origin, String tableName, Kind kind, Map<String, Object> conditions, Map<String, Object> values) {
+        this.origin = origin;
+        this.tableName = tableName;
+        this.kind = kind;
+        this.conditions = Collections.unmodifiableMap(new LinkedHashMap<>(conditions));
+        this.values = values == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseInvalidation{table=" + tableName + ", kind=" + kind + ", conditions=" + conditions + ", values=" + values + "}";
+    }
+}
@@ -0,0 +1,133 @@
+package de.flxwdns.pythiasql.database.invalidation;
+
+import de.flxwdns.pythiasql.database.table.DatabaseTable;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@SuppressWarnings("unused")
+public final class DatabaseInvalidationBus {
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+    @Getter
+    private final DatabaseInvalidationTransport transport;
+    private final Function<String, DatabaseTable> tables;
+    private final List<Consumer<DatabaseInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Constructor: DatabaseInvalidationBus(DatabaseInvalidationTransport transport, Function<String, DatabaseTable> tables)
+     * <p>
+     * Creates a bus which sends the row changes of the local tables to the other instances and applies their changes to the local tables.
+     *
+     * @param transport (DatabaseInvalidationTransport): The transport the invalidations are sent with.
+     * @param tables (Function<String, DatabaseTable>): Returns the loaded table with the given name, or null if it is not loaded.
+     * <p>
+     * Example usage:
+     * <p>
+     * PythiaSQL.invalidationBus(new DatabaseChangeLogTransport(handler));
+     */
+    public DatabaseInvalidationBus(DatabaseInvalidationTransport transport, Function<String, DatabaseTable> tables) {
+        this.transport = transport;
+        this.tables = tables;
+        transport.start(this::receive);
+    }
+
+    /**
+     * Method: publish(String tableName, DatabaseInvalidation.Kind kind, Map<String, Object> conditions, Map<String, Object> values)
+     * <p>
+     * Sends a row change of a local table to the other instances. It is called by the tables after every successful write.
+     *
+     * @param tableName (String): The name of the changed table.
+     * @param kind (DatabaseInvalidation.Kind): How the cached rows have to be changed.
+     * @param conditions (Map<String, Object>): The column names and values of the changed rows.
+     * @param values (Map<String, Object>): The new column values of an UPDATE, or null.
+     */
+    public void publish(String tableName, DatabaseInvalidation.Kind kind, Map<String, Object> conditions, Map<String, Object> values) {
+        if (closed) {
+            return;
+        }
+        published.incrementAndGet();
+        try {
+            transport.publish(new DatabaseInvalidation(instanceId, tableName, kind, conditions, values));
+        } catch (RuntimeException exception) {
+            System.err.println("[ERROR] Could not publish invalidation of table " + tableName + ": " + exception);
+        }
+    }
+
+    /**
+     * Method: onReceive(Consumer<DatabaseInvalidation> listener)
+     * <p>
+     * Registers a listener which is called with every invalidation received from another instance, also for tables which are not loaded.
+     *
+     * @param listener (Consumer<DatabaseInvalidation>): The listener to call.
+     * <p>
+     * Example usage:
+     * <p>
+     * bus.onReceive(invalidation -> handler.getQueryCache().invalidate(invalidation.getTableName()));
+     */
+    public void onReceive(Consumer<DatabaseInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Method: getPublishedCount()
+     * <p>
+     * Returns how many invalidations this instance has sent.
+     *
+     * @return long: The amount of sent invalidations.
+     */
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Method: getReceivedCount()
+     * <p>
+     * Returns how many invalidations of other instances were received.
+     *
+     * @return long: The amount of received invalidations.
+     */
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    /**
+     * Method: close()
+     * <p>
+     * Stops sending and receiving invalidations and closes the transport.
+     */
+    public void close() {
+        closed = true;
+        transport.close();
+    }
+
+    private void receive(DatabaseInvalidation invalidation) {
+        if (closed || instanceId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        received.incrementAndGet();
+        for (Consumer<DatabaseInvalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException exception) {
+                System.err.println("[ERROR] Could not handle " + invalidation + ": " + exception);
+            }
+        }
+        DatabaseTable table = tables.apply(invalidation.getTableName());
+        if (table != null) {
+            table.applyInvalidation(invalidation).exceptionally(throwable -> {
+                System.err.println("[ERROR] Could not apply " + invalidation + ": " + throwable);
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package de.flxwdns.pythiasql.database.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Interface: DatabaseInvalidationTransport
+ * <p>
+ * Delivers the invalidations of one instance to all other instances. Implementations have to deliver the invalidations
+ * of an instance in the order they were published. An instance may receive its own invalidations, they are ignored by the bus.
+ */
+public interface DatabaseInvalidationTransport {
+
+    /**
+     * Method: start(Consumer<DatabaseInvalidation> listener)
+     * <p>
+     * Starts receiving invalidations.
+     *
+     * @param listener (Consumer<DatabaseInvalidation>): Is called for every received invalidation.
+     */
+    void start(Consumer<DatabaseInvalidation> listener);
+
+    /**
+     * Method: publish(DatabaseInvalidation invalidation)
+     * <p>
+     * Sends an invalidation to all other instances.
+     *
+     * @param invalidation (DatabaseInvalidation): The invalidation to send.
+     */
+    void publish(DatabaseInvalidation invalidation);
+
+    /**
+     * Method: close()
+     * <p>
+     * Stops receiving and sending invalidations.
+     */
+    void close();
+}
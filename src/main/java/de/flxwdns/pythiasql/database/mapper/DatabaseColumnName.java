@@ -0,0 +1,21 @@
+package de.flxwdns.pythiasql.database.mapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation: DatabaseColumnName
+ * <p>
+ * Sets the column a field or record component is mapped from, if it differs from the field name and its snake_case form.
+ * <p>
+ * Example usage:
+ * <p>
+ * public record Player(@DatabaseColumnName("player_uuid") UUID uuid, String name) {}
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+public @interface DatabaseColumnName {
+    String value();
+}
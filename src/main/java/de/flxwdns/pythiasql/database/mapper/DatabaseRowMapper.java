@@ -0,0 +1,397 @@
+package de.flxwdns.pythiasql.database.mapper;
+
+import de.flxwdns.pythiasql.database.table.DatabaseRow;
+import de.flxwdns.pythiasql.database.table.DatabaseRowLayout;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+@SuppressWarnings("unused")
+public final class DatabaseRowMapper<T> {
+    private static final ClassValue<DatabaseRowMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected DatabaseRowMapper<?> computeValue(Class<?> type) {
+            return new DatabaseRowMapper<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final String[] columns;
+    private final String[] alternatives;
+    private final List<Function<Object, Object>> converters;
+    private final MethodHandle constructor;
+    private final MethodHandle[] setters;
+    private volatile Binding binding;
+
+    /**
+     * Method: of(Class<T> type)
+     * <p>
+     * Returns the mapper of a record or POJO class. The binding plan of a class is built once with method handles and shared afterwards,
+     * so mapping a row does not use reflection.
+     * <p>
+     * Records are created with their canonical constructor. POJOs need a no-argument constructor, their non-static, non-transient fields
+     * are set through a matching setter or directly. A field is read from the column with the name of the field, its snake_case form
+     * or the name given by @DatabaseColumnName. Fields without a matching column keep their default value.
+     *
+     * @param type (Class<T>): The class to map rows to.
+     * @return DatabaseRowMapper<T>: The mapper of the class.
+     * <p>
+     * Example usage:
+     * <p>
+     * public record Player(UUID uuid, String name, int kills) {}
+     * DatabaseRowMapper<Player> mapper = DatabaseRowMapper.of(Player.class);
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DatabaseRowMapper<T> of(Class<T> type) {
+        return (DatabaseRowMapper<T>) MAPPERS.get(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private DatabaseRowMapper(Class<T> type) {
+        this.type = type;
+        try {
+            MethodHandles.Lookup lookup = lookup(type);
+            List<String> names = new ArrayList<>();
+            List<String> columnNames = new ArrayList<>();
+            List<Class<?>> types = new ArrayList<>();
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameters = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    DatabaseColumnName name = components[i].getAnnotation(DatabaseColumnName.class);
+                    names.add(components[i].getName());
+                    columnNames.add(name == null ? null : name.value());
+                    types.add(components[i].getType());
+                    parameters[i] = components[i].getType();
+                }
+                Constructor<T> canonical = type.getDeclaredConstructor(parameters);
+                this.constructor = lookup.unreflectConstructor(canonical)
+                        .asType(MethodType.methodType(Object.class, parameters).generic())
+                        .asSpreader(Object[].class, parameters.length);
+                this.setters = null;
+            } else {
+                Constructor<T> empty = type.getDeclaredConstructor();
+                this.constructor = lookup.unreflectConstructor(empty).asType(MethodType.methodType(Object.class));
+                List<MethodHandle> handles = new ArrayList<>();
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    MethodHandles.Lookup currentLookup = current == type ? lookup : lookup(current);
+                    for (Field field : current.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+                            continue;
+                        }
+                        DatabaseColumnName name = field.getAnnotation(DatabaseColumnName.class);
+                        names.add(field.getName());
+                        columnNames.add(name == null ? null : name.value());
+                        types.add(field.getType());
+                        handles.add(setter(currentLookup, current, field).asType(MethodType.methodType(void.class, Object.class, Object.class)));
+                    }
+                }
+                this.setters = handles.toArray(MethodHandle[]::new);
+            }
+            this.columns = new String[names.size()];
+            this.alternatives = new String[names.size()];
+            List<Function<Object, Object>> converters = new ArrayList<>(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                columns[i] = columnNames.get(i) == null ? names.get(i) : columnNames.get(i);
+                alternatives[i] = columnNames.get(i) == null ? snakeCase(names.get(i)) : columns[i];
+                converters.add(converter(types.get(i)));
+            }
+            this.converters = List.copyOf(converters);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalArgumentException("Cannot map rows to " + type.getName() + ", records need a canonical constructor and classes a no-argument constructor", exception);
+        }
+    }
+
+    /**
+     * Method: getType()
+     * <p>
+     * Returns the class the mapper creates.
+     *
+     * @return Class<T>: The mapped class.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Method: map(DatabaseRowLayout layout, DatabaseRow row)
+     * <p>
+     * Creates an object from a cached row. The column positions are resolved once per layout.
+     *
+     * @param layout (DatabaseRowLayout): The layout of the row.
+     * @param row (DatabaseRow): The row to map.
+     * @return T: The created object.
+     */
+    public T map(DatabaseRowLayout layout, DatabaseRow row) {
+        Binding current = binding;
+        if (current == null || current.layout != layout) {
+            current = new Binding(layout, resolve(layout));
+            binding = current;
+        }
+        int[] positions = current.positions;
+        Object[] values = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] >= 0 && positions[i] < row.size()) {
+                values[i] = row.get(positions[i]);
+            }
+        }
+        return create(values);
+    }
+
+    /**
+     * Method: resolve(ResultSet resultSet)
+     * <p>
+     * Resolves the result set position of every mapped field once, so the rows of the result set can be read with read(ResultSet, int[]).
+     *
+     * @param resultSet (ResultSet): The result set to map.
+     * @return int[]: The 1-based result set position of every field, or 0 if the result set has no matching column.
+     * @throws SQLException: If the metadata could not be read.
+     */
+    public int[] resolve(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        Map<String, Integer> labels = new HashMap<>(metaData.getColumnCount() * 2);
+        for (int i = metaData.getColumnCount(); i >= 1; i--) {
+            labels.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        int[] positions = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Integer position = labels.get(columns[i].toLowerCase(Locale.ROOT));
+            if (position == null) {
+                position = labels.get(alternatives[i].toLowerCase(Locale.ROOT));
+            }
+            positions[i] = position == null ? 0 : position;
+        }
+        return positions;
+    }
+
+    /**
+     * Method: read(ResultSet resultSet, int[] positions)
+     * <p>
+     * Creates an object from the current row of a result set, without creating an intermediate row.
+     *
+     * @param resultSet (ResultSet): The result set positioned on the row to read.
+     * @param positions (int[]): The positions returned by resolve(ResultSet).
+     * @return T: The created object.
+     * @throws SQLException: If a value could not be read.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseRowMapper<Player> mapper = DatabaseRowMapper.of(Player.class);
+     * int[] positions = mapper.resolve(resultSet);
+     * while (resultSet.next()) {
+     *     players.add(mapper.read(resultSet, positions));
+     * }
+     */
+    public T read(ResultSet resultSet, int[] positions) throws SQLException {
+        Object[] values = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] > 0) {
+                values[i] = resultSet.getObject(positions[i]);
+            }
+        }
+        return create(values);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T create(Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = converters.get(i).apply(values[i]);
+        }
+        try {
+            if (setters == null) {
+                return (T) (Object) constructor.invokeExact(values);
+            }
+            Object instance = (Object) constructor.invokeExact();
+            for (int i = 0; i < setters.length; i++) {
+                setters[i].invokeExact(instance, values[i]);
+            }
+            return (T) instance;
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Could not create " + type.getName(), throwable);
+        }
+    }
+
+    private int[] resolve(DatabaseRowLayout layout) {
+        int[] positions = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            int position = layout.indexOf(columns[i]);
+            positions[i] = position < 0 ? layout.indexOf(alternatives[i]) : position;
+        }
+        return positions;
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> type) throws IllegalAccessException {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException exception) {
+            return MethodHandles.lookup();
+        }
+    }
+
+    private static MethodHandle setter(MethodHandles.Lookup lookup, Class<?> owner, Field field) throws IllegalAccessException {
+        String name = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        try {
+            Method method = owner.getDeclaredMethod(name, field.getType());
+            if (!Modifier.isStatic(method.getModifiers())) {
+                return lookup.unreflect(method);
+            }
+        } catch (NoSuchMethodException | IllegalAccessException ignored) {
+        }
+        return lookup.unreflectSetter(field);
+    }
+
+    private static String snakeCase(String name) {
+        StringBuilder builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char character = name.charAt(i);
+            if (Character.isUpperCase(character)) {
+                if (i > 0) {
+                    builder.append('_');
+                }
+                builder.append(Character.toLowerCase(character));
+            } else {
+                builder.append(character);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static Function<Object, Object> converter(Class<?> type) {
+        Class<?> boxed = MethodType.methodType(type).wrap().returnType();
+        Object nullValue = type.isPrimitive() ? defaultValue(type) : null;
+        Function<Object, Object> conversion = conversion(boxed);
+        return value -> value == null ? nullValue : boxed.isInstance(value) ? value : conversion.apply(value);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        return conversion(MethodType.methodType(type).wrap().returnType()).apply(0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Object, Object> conversion(Class<?> type) {
+        if (type == Integer.class) {
+            return value -> number(value).intValue();
+        }
+        if (type == Long.class) {
+            return value -> number(value).longValue();
+        }
+        if (type == Double.class) {
+            return value -> number(value).doubleValue();
+        }
+        if (type == Float.class) {
+            return value -> number(value).floatValue();
+        }
+        if (type == Short.class) {
+            return value -> number(value).shortValue();
+        }
+        if (type == Byte.class) {
+            return value -> number(value).byteValue();
+        }
+        if (type == Boolean.class) {
+            return value -> value instanceof Number number ? number.longValue() != 0 : value.toString().equalsIgnoreCase("true") || value.toString().equals("1");
+        }
+        if (type == Character.class) {
+            return value -> value.toString().charAt(0);
+        }
+        if (type == String.class) {
+            return value -> value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : value.toString();
+        }
+        if (type == UUID.class) {
+            return value -> {
+                if (value instanceof byte[] bytes && bytes.length == 16) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    return new UUID(buffer.getLong(), buffer.getLong());
+                }
+                return UUID.fromString(value.toString());
+            };
+        }
+        if (type == BigDecimal.class) {
+            return value -> value instanceof BigInteger integer ? new BigDecimal(integer) : new BigDecimal(value.toString());
+        }
+        if (type == BigInteger.class) {
+            return value -> value instanceof BigDecimal decimal ? decimal.toBigInteger() : value instanceof Number number ? BigInteger.valueOf(number.longValue()) : new BigInteger(value.toString());
+        }
+        if (type.isEnum()) {
+            return value -> Enum.valueOf((Class) type, value.toString());
+        }
+        if (type == byte[].class) {
+            return value -> value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        if (type == LocalDateTime.class) {
+            return value -> value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value instanceof LocalDate date ? date.atStartOfDay() : fail(type, value);
+        }
+        if (type == LocalDate.class) {
+            return value -> value instanceof Date date ? date.toLocalDate() : value instanceof LocalDateTime dateTime ? dateTime.toLocalDate() : value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toLocalDate() : fail(type, value);
+        }
+        if (type == LocalTime.class) {
+            return value -> value instanceof Time time ? time.toLocalTime() : value instanceof LocalDateTime dateTime ? dateTime.toLocalTime() : fail(type, value);
+        }
+        if (type == Instant.class) {
+            return value -> value instanceof java.util.Date date ? Instant.ofEpochMilli(date.getTime()) : value instanceof LocalDateTime dateTime ? dateTime.atZone(ZoneId.systemDefault()).toInstant() : fail(type, value);
+        }
+        if (type == Timestamp.class) {
+            return value -> value instanceof LocalDateTime dateTime ? Timestamp.valueOf(dateTime) : value instanceof java.util.Date date ? new Timestamp(date.getTime()) : fail(type, value);
+        }
+        if (type == Date.class) {
+            return value -> value instanceof LocalDate date ? Date.valueOf(date) : value instanceof LocalDateTime dateTime ? Date.valueOf(dateTime.toLocalDate()) : value instanceof java.util.Date date ? new Date(date.getTime()) : fail(type, value);
+        }
+        if (type == Time.class) {
+            return value -> value instanceof LocalTime time ? Time.valueOf(time) : value instanceof java.util.Date date ? new Time(date.getTime()) : fail(type, value);
+        }
+        return value -> fail(type, value);
+    }
+
+    private static Number number(Object value) {
+        if (value instanceof Number number) {
+            return number;
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? 1 : 0;
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    private static Object fail(Class<?> type, Object value) {
+        throw new ClassCastException("Cannot convert " + value.getClass().getName() + " to " + type.getName());
+    }
+
+    private record Binding(DatabaseRowLayout layout, int[] positions) {
+    }
+}
@@ -0,0 +1,117 @@
+package de.flxwdns.pythiasql.database.metrics;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseCall;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+@SuppressWarnings("unused")
+public final class DatabaseInMemoryMetrics implements DatabaseMetrics {
+    private final Map<String, DatabaseStatementStats> statements = new ConcurrentHashMap<>();
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+    @Getter
+    private final DatabaseLatencyHistogram poolWait = new DatabaseLatencyHistogram();
+
+    /**
+     * Method: recordCall(DatabaseCall call)
+     * <p>
+     * Adds the call to the statistics of its statement shape and its pool wait time to the pool wait histogram.
+     *
+     * @param call (DatabaseCall): The finished call.
+     */
+    @Override
+    public void recordCall(DatabaseCall call) {
+        String kind = call.getKind().name();
+        String shape = call.getShape();
+        statements.computeIfAbsent(kind + " " + shape, ignored -> new DatabaseStatementStats(kind, shape)).record(call);
+        if (call.isBorrowed()) {
+            poolWait.record(call.getWaitNanos());
+        }
+    }
+
+    @Override
+    public void registerGauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    @Override
+    public void removeGauge(String name) {
+        gauges.remove(name);
+    }
+
+    /**
+     * Method: getStatements()
+     * <p>
+     * Returns the statistics of every statement shape, sorted by the total time spent in it, the most expensive first.
+     *
+     * @return List<DatabaseStatementStats>: The statistics per statement shape.
+     * <p>
+     * Example usage:
+     * <p>
+     * metrics.getStatements().stream().limit(10).forEach(System.out::println);
+     */
+    public List<DatabaseStatementStats> getStatements() {
+        List<DatabaseStatementStats> result = new ArrayList<>(statements.values());
+        result.sort(Comparator.comparingDouble((DatabaseStatementStats stats) -> stats.getLatency().getMean() * stats.getCount()).reversed());
+        return result;
+    }
+
+    /**
+     * Method: getErrorCount()
+     * <p>
+     * Returns how many calls failed over all statement shapes.
+     *
+     * @return long: The amount of failed calls.
+     */
+    public long getErrorCount() {
+        long errors = 0;
+        for (DatabaseStatementStats stats : statements.values()) {
+            errors += stats.getErrors();
+        }
+        return errors;
+    }
+
+    /**
+     * Method: getGauges()
+     * <p>
+     * Reads the current value of every registered gauge, e.g. table sizes, cache hit rates and pool usage.
+     *
+     * @return Map<String, Double>: The values by gauge name, sorted by name.
+     */
+    public Map<String, Double> getGauges() {
+        Map<String, Double> result = new TreeMap<>();
+        gauges.forEach((name, value) -> {
+            try {
+                result.put(name, value.getAsDouble());
+            } catch (RuntimeException exception) {
+                result.put(name, Double.NaN);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Method: getGauge(String name)
+     * <p>
+     * Reads the current value of a gauge.
+     *
+     * @param name (String): The name of the gauge.
+     * @return double: The value, or NaN if no gauge has the name.
+     */
+    public double getGauge(String name) {
+        DoubleSupplier value = gauges.get(name);
+        return value == null ? Double.NaN : value.getAsDouble();
+    }
+
+    /**
+     * Method: reset()
+     * <p>
+     * Removes all recorded calls. Registered gauges are kept.
+     */
+    public void reset() {
+        statements.clear();
+        poolWait.reset();
+    }
+}
@@ -0,0 +1,114 @@
+package de.flxwdns.pythiasql.database.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+@SuppressWarnings("unused")
+public final class DatabaseLatencyHistogram {
+    private static final int SUB_BUCKETS = 4;
+    private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Method: record(long nanos)
+     * <p>
+     * Records a duration. Durations are kept in exponential buckets with four steps per power of two, so recording is lock-free,
+     * needs no allocation and percentiles are accurate to about 25 percent.
+     *
+     * @param nanos (long): The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Method: getMean()
+     * <p>
+     * Returns the average of all recorded durations.
+     *
+     * @return double: The average in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long total = count.sum();
+        return total == 0 ? 0 : (double) sum.sum() / total;
+    }
+
+    /**
+     * Method: getPercentile(double percentile)
+     * <p>
+     * Returns the duration below which the given share of all recorded durations lies.
+     *
+     * @param percentile (double): The percentile between 0 and 100, e.g. 99.
+     * @return long: The upper bound of the bucket the percentile falls in, in nanoseconds, or 0 if nothing was recorded.
+     * <p>
+     * Example usage:
+     * <p>
+     * long p99 = histogram.getPercentile(99);
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Method: reset()
+     * <p>
+     * Removes all recorded durations.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        return highestBit * SUB_BUCKETS + (int) ((value >>> (highestBit - 2)) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int highestBit = index / SUB_BUCKETS;
+        long width = 1L << (highestBit - 2);
+        return ((SUB_BUCKETS | (index % SUB_BUCKETS)) * width) + width - 1;
+    }
+}
@@ -0,0 +1,60 @@
+package de.flxwdns.pythiasql.database.metrics;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseCall;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Interface: DatabaseMetrics
+ * <p>
+ * Receives the measurements of a DatabaseConnectHandler and the loaded tables. Implementations can keep them in memory,
+ * see DatabaseInMemoryMetrics, or forward them to a monitoring system.
+ * <p>
+ * Example usage:
+ * <p>
+ * DatabaseInMemoryMetrics metrics = new DatabaseInMemoryMetrics();
+ * PythiaSQL.metrics(metrics);
+ */
+public interface DatabaseMetrics {
+
+    /**
+     * Method: isEnabled()
+     * <p>
+     * Returns if calls should be measured at all. If false, no DatabaseCall is created for this registry.
+     *
+     * @return boolean: True if recordCall(DatabaseCall) should be called.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Method: recordCall(DatabaseCall call)
+     * <p>
+     * Records a finished statement with its shape, duration, pool wait time, affected or read rows and failure.
+     * It is called on the thread which ran the statement and should return quickly.
+     *
+     * @param call (DatabaseCall): The finished call.
+     */
+    void recordCall(DatabaseCall call);
+
+    /**
+     * Method: registerGauge(String name, DoubleSupplier value)
+     * <p>
+     * Registers a value which is read whenever the metrics are reported, e.g. the size of a loaded table or a cache hit rate.
+     * A gauge with the same name is replaced.
+     *
+     * @param name (String): The name of the gauge, e.g. "table.players.rows".
+     * @param value (DoubleSupplier): Returns the current value.
+     */
+    void registerGauge(String name, DoubleSupplier value);
+
+    /**
+     * Method: removeGauge(String name)
+     * <p>
+     * Removes a gauge, e.g. after its table was unloaded.
+     *
+     * @param name (String): The name of the gauge.
+     */
+    void removeGauge(String name);
+}
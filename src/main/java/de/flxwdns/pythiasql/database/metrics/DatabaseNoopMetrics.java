@@ -0,0 +1,32 @@
+package de.flxwdns.pythiasql.database.metrics;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseCall;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * The default DatabaseMetrics, which measures nothing. Calls are not timed while it is used.
+ */
+public final class DatabaseNoopMetrics implements DatabaseMetrics {
+    public static final DatabaseNoopMetrics INSTANCE = new DatabaseNoopMetrics();
+
+    private DatabaseNoopMetrics() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void recordCall(DatabaseCall call) {
+    }
+
+    @Override
+    public void registerGauge(String name, DoubleSupplier value) {
+    }
+
+    @Override
+    public void removeGauge(String name) {
+    }
+}
@@ -0,0 +1,56 @@
+package de.flxwdns.pythiasql.database.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event of a single statement, recorded by DatabaseConnectHandler while a recording with the event enabled is running.
+ * <p>
+ * Example usage:
+ * <p>
+ * java -XX:StartFlightRecording:filename=recording.jfr,settings=profile -jar app.jar
+ * jfr print --events de.flxwdns.pythiasql.Query recording.jfr
+ */
+@Name("de.flxwdns.pythiasql.Query")
+@Label("PythiaSQL Query")
+@Category({"PythiaSQL"})
+@Description("A statement executed through a DatabaseConnectHandler")
+@StackTrace(false)
+public final class DatabaseQueryEvent extends Event {
+    @Label("Kind")
+    public String kind;
+
+    @Label("Statement")
+    @Description("The SQL with collapsed placeholder lists")
+    public String shape;
+
+    @Label("Table")
+    @Description("The table the statement names first")
+    public String tableName;
+
+    @Label("Parameters")
+    public int parameterCount;
+
+    @Label("Rows")
+    @Description("The read or affected rows, -1 if unknown")
+    public long rows;
+
+    @Label("Pool Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long poolWait;
+
+    @Label("Execute")
+    @Timespan(Timespan.NANOSECONDS)
+    public long execute;
+
+    @Label("Map")
+    @Description("The time spent reading the result")
+    @Timespan(Timespan.NANOSECONDS)
+    public long map;
+
+    @Label("Cached")
+    @Description("If the result was served by the query cache")
+    public boolean cached;
+
+    @Label("Failure")
+    public String failure;
+}
@@ -0,0 +1,66 @@
+package de.flxwdns.pythiasql.database.metrics;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseCall;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@SuppressWarnings("unused")
+public final class DatabaseStatementStats {
+    @Getter
+    private final String kind;
+    @Getter
+    private final String shape;
+    @Getter
+    private final DatabaseLatencyHistogram latency = new DatabaseLatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Constructor: DatabaseStatementStats(String kind, String shape)
+     * <p>
+     * Creates the statistics of all calls with the same kind and statement shape, see DatabaseCall#getShape().
+     *
+     * @param kind (String): The kind of the calls, e.g. QUERY or UPDATE.
+     * @param shape (String): The statement shape.
+     */
+    public DatabaseStatementStats(String kind, String shape) {
+        this.kind = kind;
+        this.shape = shape;
+    }
+
+    void record(DatabaseCall call) {
+        latency.record(call.getDurationNanos());
+        if (call.getRows() > 0) {
+            rows.add(call.getRows());
+        }
+        if (call.isFailed()) {
+            errors.increment();
+        }
+    }
+
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * Method: getRows()
+     * <p>
+     * Returns how many rows all calls read or changed together. Streamed rows are counted once the stream is closed.
+     *
+     * @return long: The amount of rows.
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + shape + " [count=" + getCount() + ", errors=" + getErrors() + ", rows=" + getRows()
+                + ", mean=" + Math.round(latency.getMean() / 1_000) + "us, p99=" + latency.getPercentile(99) / 1_000 + "us, max=" + latency.getMax() / 1_000 + "us]";
+    }
+}
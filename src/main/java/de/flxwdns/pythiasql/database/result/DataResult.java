@@ -1,124 +1,459 @@
 package de.flxwdns.pythiasql.database.result;
 
+import de.flxwdns.pythiasql.database.mapper.DatabaseRowMapper;
+import de.flxwdns.pythiasql.database.schema.DatabaseColumn;
 import de.flxwdns.pythiasql.database.table.DatabaseEntry;
+import de.flxwdns.pythiasql.database.table.DatabaseRow;
+import de.flxwdns.pythiasql.database.table.DatabaseRowLayout;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
-@RequiredArgsConstructor
 @SuppressWarnings("unused")
 public class DataResult {
     @Getter
-    private final List<DatabaseEntry> entries;
+    private final DatabaseRowLayout layout;
+    @Getter
+    private final DatabaseRow row;
+
+    public DataResult(List<DatabaseEntry> entries) {
+        this.layout = new DatabaseRowLayout(entries.stream().map(DatabaseEntry::getColumnName).toList());
+        this.row = new DatabaseRow(entries.isEmpty() ? -1 : entries.get(0).getId(), entries.stream().map(DatabaseEntry::getValue).toArray());
+    }
+
+    public DataResult(DatabaseRowLayout layout, DatabaseRow row) {
+        this.layout = layout;
+        this.row = row;
+    }
+
+    public List<DatabaseEntry> getEntries() {
+        return row.asEntries(layout);
+    }
+
+    /**
+     * Method: getColumnInfo(String column)
+     * <p>
+     * Returns the schema information of a column, such as its JDBC type and nullability.
+     *
+     * @param column (String): The column name.
+     * @return DatabaseColumn: The column information, or null if the row was not read from a table with a known schema.
+     * <p>
+     * Example usage:
+     * <p>
+     * if (result.getColumnInfo("payload").getJdbcType() == Types.LONGVARBINARY) { ... }
+     */
+    public DatabaseColumn getColumnInfo(String column) {
+        return layout.getColumnInfo(column);
+    }
+
+    /**
+     * Method: indexOf(String column)
+     * <p>
+     * Returns the position of a column. The position is the same for all rows of a table,
+     * so hot loops can resolve it once and use the index based getters afterwards.
+     *
+     * @param column (String): The column name.
+     * @return int: The position of the column, or -1 if the row does not contain it.
+     * <p>
+     * Example usage:
+     * <p>
+     * int kills = rows.get(0).indexOf("kills");
+     * for (DataResult row : rows) {
+     *     total += row.getInt(kills);
+     * }
+     */
+    public int indexOf(String column) {
+        return layout.indexOf(column);
+    }
+
+    /**
+     * Method: map(Class<T> type)
+     * <p>
+     * Maps the row to a record or POJO, see DatabaseRowMapper.of(Class).
+     *
+     * @param type (Class<T>): The class to map the row to.
+     * @return T: The created object.
+     * <p>
+     * Example usage:
+     * <p>
+     * public record Player(UUID uuid, String name, int kills) {}
+     * Player player = result.map(Player.class);
+     */
+    public <T> T map(Class<T> type) {
+        return DatabaseRowMapper.of(type).map(layout, row);
+    }
 
     public String getString(String column) {
-        try {
-            return String.valueOf(getObject(column));
-        } catch (Exception e) {
-            System.err.println("Column is null and does not exist!");
-            e.printStackTrace();
-            return null;
-        }
+        return toString(getObject(column));
+    }
+
+    public String getString(int index) {
+        return toString(getObject(index));
     }
 
     public UUID getUUID(String column) {
-        if(getObject(column) instanceof String value) {
-            return UUID.fromString(value);
-        }
-        System.err.println("Value is not a valid UUID!");
-        return null;
+        return toUUID(getObject(column));
+    }
+
+    public UUID getUUID(int index) {
+        return toUUID(getObject(index));
     }
 
     public boolean getBoolean(String column) {
-        try {
-            return Boolean.parseBoolean(getString(column));
-        } catch (Exception e) {
-            System.err.println("Value is not a boolean!");
-            e.printStackTrace();
-            return false;
-        }
+        return toBoolean(value(column));
+    }
+
+    public boolean getBoolean(int index) {
+        return toBoolean(value(index));
     }
 
     public byte getByte(String column) {
-        return (Byte) getObject(column);
+        return getByte(position(column));
+    }
+
+    public byte getByte(int index) {
+        Number value = toNumber(value(index));
+        return value == null ? 0 : (byte) exact(value, Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
     }
 
     public short getShort(String column) {
-        return Short.parseShort(String.valueOf(getObject(column)));
+        return getShort(position(column));
+    }
+
+    public short getShort(int index) {
+        Number value = toNumber(value(index));
+        return value == null ? 0 : (short) exact(value, Short.MIN_VALUE, Short.MAX_VALUE, "short");
     }
 
+    /**
+     * Method: getInt(String column)
+     * <p>
+     * Returns the value of a numeric column as int.
+     * <p>
+     * Note: Like ResultSet#getInt, a NULL value is returned as 0. Use isNull to tell both apart.
+     * A column which does not exist in the row is an error and is not returned as 0.
+     * Decimal places are cut off, a value outside of the int range is an error and is not wrapped around.
+     *
+     * @param column (String): The column name.
+     * @return int: The value, or 0 if the value is NULL.
+     * @throws IllegalArgumentException If the row does not contain the column.
+     * @throws ArithmeticException If the value does not fit into an int.
+     */
     public int getInt(String column) {
-        return Integer.parseInt(String.valueOf(getObject(column)));
+        return getInt(position(column));
+    }
+
+    /**
+     * Method: getInt(int index)
+     * <p>
+     * Returns the value at a position resolved with indexOf as int, see getInt(String).
+     *
+     * @param index (int): The position of the column.
+     * @return int: The value, or 0 if the value is NULL.
+     * @throws IllegalArgumentException If the position is outside of the row.
+     */
+    public int getInt(int index) {
+        Object value = value(index);
+        if (value instanceof Integer number) {
+            return number;
+        }
+        Number number = toNumber(value);
+        return number == null ? 0 : (int) exact(number, Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
     }
 
     public long getLong(String column) {
-        return Long.parseLong(String.valueOf(getObject(column)));
+        return getLong(position(column));
+    }
+
+    public long getLong(int index) {
+        Object value = value(index);
+        if (value instanceof Long number) {
+            return number;
+        }
+        Number number = toNumber(value);
+        return number == null ? 0 : exact(number, Long.MIN_VALUE, Long.MAX_VALUE, "long");
     }
 
     public float getFloat(String column) {
-        return Float.parseFloat(String.valueOf(getObject(column)));
+        return getFloat(position(column));
+    }
+
+    public float getFloat(int index) {
+        Object value = value(index);
+        if (value instanceof Float number) {
+            return number;
+        }
+        Number number = toNumber(value);
+        if (number == null) {
+            return 0;
+        }
+        double exact = number.doubleValue();
+        if (Double.isFinite(exact) && Math.abs(exact) > Float.MAX_VALUE) {
+            throw new ArithmeticException("Value " + number + " does not fit into a float");
+        }
+        return (float) exact;
     }
 
     public double getDouble(String column) {
-        if(getObject(column) instanceof BigDecimal decimal) {
-            return decimal.doubleValue();
+        return getDouble(position(column));
+    }
+
+    public double getDouble(int index) {
+        Object value = value(index);
+        if (value instanceof Double number) {
+            return number;
         }
-        return Double.parseDouble(String.valueOf(getObject(column)));
+        Number number = toNumber(value);
+        return number == null ? 0 : number.doubleValue();
+    }
+
+    /**
+     * Method: isNull(String column)
+     * <p>
+     * Returns if the value of a column is NULL. The primitive getters return 0 or false for NULL,
+     * so this is the counterpart of ResultSet#wasNull.
+     *
+     * @param column (String): The column name.
+     * @return boolean: True if the value is NULL.
+     * @throws IllegalArgumentException If the row does not contain the column.
+     * <p>
+     * Example usage:
+     * <p>
+     * Integer level = result.isNull("level") ? null : result.getInt("level");
+     */
+    public boolean isNull(String column) {
+        return value(column) == null;
     }
 
+    /**
+     * Method: getBigDecimal(String column)
+     * <p>
+     * Returns the value of a numeric column as BigDecimal without changing its scale.
+     *
+     * @param column (String): The column name.
+     * @return BigDecimal: The value, or null if the value is NULL.
+     */
+    public BigDecimal getBigDecimal(String column) {
+        return toBigDecimal(getObject(column));
+    }
+
+    /**
+     * Method: getBigDecimal(String column, int scale)
+     * <p>
+     * Returns the value of a numeric column as BigDecimal with the given amount of decimal places, rounded half up.
+     *
+     * @param column (String): The column name.
+     * @param scale (int): The amount of decimal places.
+     * @return BigDecimal: The value, or null if the value is NULL.
+     * <p>
+     * Example usage:
+     * <p>
+     * BigDecimal balance = result.getBigDecimal("balance", 2);
+     */
     public BigDecimal getBigDecimal(String column, int scale) {
-        if(getObject(column) instanceof BigDecimal value) {
-            return value;
-        }
-        System.err.println("Value is not a bigDecimal!");
-        return null;
+        BigDecimal value = toBigDecimal(getObject(column));
+        return value == null ? null : value.setScale(scale, RoundingMode.HALF_UP);
     }
 
     /**
      * Method: getBytes(String column)
      * <p>
-     * Is deprecated please do not use this method now.
-     * <p>
-     * The method is currently not implemented.
+     * Returns the value of a binary or BLOB column. Text values are returned UTF-8 encoded.
+     *
+     * @param column (String): The column name.
+     * @return byte[]: A copy of the value, or null if the value is NULL.
      */
-    @Deprecated
     public byte[] getBytes(String column) {
-        return new byte[0];
+        Object value = getObject(column);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.clone();
+        }
+        if (value instanceof Blob blob) {
+            try {
+                return blob.getBytes(1, (int) blob.length());
+            } catch (SQLException exception) {
+                throw new IllegalStateException("Could not read blob of column " + column, exception);
+            }
+        }
+        if (value instanceof UUID uuid) {
+            return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+        }
+        return value.toString().getBytes(StandardCharsets.UTF_8);
     }
 
     public Date getDate(String column) {
-        if(getObject(column) instanceof Date value) {
-            return value;
+        Object value = getObject(column);
+        if (value == null || value instanceof Date) {
+            return (Date) value;
+        }
+        if (value instanceof LocalDate date) {
+            return Date.valueOf(date);
         }
-        System.err.println("Value is not a data!");
-        return null;
+        if (value instanceof LocalDateTime dateTime) {
+            return Date.valueOf(dateTime.toLocalDate());
+        }
+        if (value instanceof java.util.Date date) {
+            return new Date(date.getTime());
+        }
+        throw new ClassCastException("Value of column " + column + " is not a date: " + value.getClass().getName());
     }
 
     public Time getTime(String column) {
-        if(getObject(column) instanceof Time value) {
-            return value;
+        Object value = getObject(column);
+        if (value == null || value instanceof Time) {
+            return (Time) value;
+        }
+        if (value instanceof LocalTime time) {
+            return Time.valueOf(time);
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return Time.valueOf(dateTime.toLocalTime());
         }
-        System.err.println("Value is not a time!");
-        return null;
+        if (value instanceof java.util.Date date) {
+            return new Time(date.getTime());
+        }
+        throw new ClassCastException("Value of column " + column + " is not a time: " + value.getClass().getName());
     }
 
     public Timestamp getTimestamp(String column) {
-        if(getObject(column) instanceof Timestamp value) {
-            return value;
+        Object value = getObject(column);
+        if (value == null || value instanceof Timestamp) {
+            return (Timestamp) value;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return Timestamp.valueOf(dateTime);
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return Timestamp.from(dateTime.toInstant());
+        }
+        if (value instanceof LocalDate date) {
+            return Timestamp.valueOf(date.atStartOfDay());
         }
-        System.err.println("Value is not a timestamp!");
-        return null;
+        if (value instanceof java.util.Date date) {
+            return new Timestamp(date.getTime());
+        }
+        throw new ClassCastException("Value of column " + column + " is not a timestamp: " + value.getClass().getName());
     }
 
     public Object getObject(String column) {
-        var result = entries.stream().filter(entry -> entry.getColumnName().equalsIgnoreCase(column)).findFirst().map(DatabaseEntry::getValue).orElse(null);
-        if(result == null) {
-            System.err.println("This value does not exists!");
+        return getObject(layout.indexOf(column));
+    }
+
+    public Object getObject(int index) {
+        return index < 0 || index >= row.size() ? null : row.get(index);
+    }
+
+    private Object value(String column) {
+        return value(position(column));
+    }
+
+    private Object value(int index) {
+        if (index < 0 || index >= row.size()) {
+            throw new IllegalArgumentException("Column index " + index + " is outside of the row " + layout.getColumns());
+        }
+        return row.get(index);
+    }
+
+    private int position(String column) {
+        int index = layout.indexOf(column);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column " + column + ", the row contains " + layout.getColumns());
+        }
+        return index;
+    }
+
+    private static String toString(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value.toString();
+    }
+
+    private static boolean toBoolean(Object value) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value instanceof Number number) {
+            return number.longValue() != 0;
+        }
+        if (value instanceof String text) {
+            return text.equalsIgnoreCase("true") || text.equals("1");
+        }
+        return false;
+    }
+
+    private static UUID toUUID(Object value) {
+        if (value == null || value instanceof UUID) {
+            return (UUID) value;
+        }
+        if (value instanceof byte[] bytes && bytes.length == 16) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return UUID.fromString(toString(value));
+    }
+
+    private static Number toNumber(Object value) {
+        if (value == null || value instanceof Number) {
+            return (Number) value;
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? 1 : 0;
+        }
+        if (value instanceof String text) {
+            return new BigDecimal(text.trim());
+        }
+        throw new ClassCastException("Value is not a number: " + value.getClass().getName());
+    }
+
+    private static long exact(Number number, long min, long max, String type) {
+        long value;
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            value = number.longValue();
+        } else {
+            if ((number instanceof Double || number instanceof Float) && !Double.isFinite(number.doubleValue())) {
+                throw new ArithmeticException("Value " + number + " does not fit into a " + type);
+            }
+            BigInteger integer = toBigDecimal(number).toBigInteger();
+            if (integer.bitLength() > 63) {
+                throw new ArithmeticException("Value " + number + " does not fit into a " + type);
+            }
+            value = integer.longValue();
+        }
+        if (value < min || value > max) {
+            throw new ArithmeticException("Value " + number + " does not fit into a " + type);
+        }
+        return value;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        Number number = toNumber(value);
+        if (number == null || number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        }
+        if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue());
         }
-        return result;
+        return BigDecimal.valueOf(number.longValue());
     }
 }
@@ -0,0 +1,49 @@
+package de.flxwdns.pythiasql.database.schema;
+
+import lombok.Getter;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseColumn {
+    private final String name;
+    private final int position;
+    private final String typeName;
+    private final int jdbcType;
+    private final String className;
+    private final boolean nullable;
+    private final String defaultValue;
+    private final boolean autoIncrement;
+    private final boolean primaryKey;
+
+    /**
+     * Constructor: DatabaseColumn(String name, int position, String typeName, int jdbcType, String className, boolean nullable, String defaultValue, boolean autoIncrement, boolean primaryKey)
+     * <p>
+     * Describes a single column of a table as it is stored in the schema catalog.
+     *
+     * @param name (String): The column name.
+     * @param position (int): The 0-based position of the column in the table.
+     * @param typeName (String): The SQL type of the column, e.g. `varchar(36)` or `int unsigned`.
+     * @param jdbcType (int): The java.sql.Types constant of the column.
+     * @param className (String): The fully-qualified Java class the driver uses for values of the column.
+     * @param nullable (boolean): True if the column accepts NULL.
+     * @param defaultValue (String): The default value expression of the column, or null.
+     * @param autoIncrement (boolean): True if the column is filled by the database on insert.
+     * @param primaryKey (boolean): True if the column is part of the primary key.
+     */
+    public DatabaseColumn(String name, int position, String typeName, int jdbcType, String className, boolean nullable, String defaultValue, boolean autoIncrement, boolean primaryKey) {
+        this.name = name;
+        this.position = position;
+        this.typeName = typeName;
+        this.jdbcType = jdbcType;
+        this.className = className;
+        this.nullable = nullable;
+        this.defaultValue = defaultValue;
+        this.autoIncrement = autoIncrement;
+        this.primaryKey = primaryKey;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseColumn{name=" + name + ", type=" + typeName + ", nullable=" + nullable + "}";
+    }
+}
@@ -0,0 +1,135 @@
+package de.flxwdns.pythiasql.database.schema;
+
+import com.mysql.cj.MysqlType;
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@SuppressWarnings("unused")
+public final class DatabaseSchemaCatalog {
+    private static final String QUERY = "SELECT c.COLUMN_NAME, c.COLUMN_TYPE, c.IS_NULLABLE, c.COLUMN_DEFAULT, c.EXTRA, s.INDEX_NAME, s.SEQ_IN_INDEX"
+            + " FROM INFORMATION_SCHEMA.COLUMNS c"
+            + " LEFT JOIN INFORMATION_SCHEMA.STATISTICS s ON s.TABLE_SCHEMA = c.TABLE_SCHEMA AND s.TABLE_NAME = c.TABLE_NAME AND s.COLUMN_NAME = c.COLUMN_NAME AND s.NON_UNIQUE = 0"
+            + " WHERE c.TABLE_SCHEMA = DATABASE() AND c.TABLE_NAME = ?"
+            + " ORDER BY c.ORDINAL_POSITION, s.INDEX_NAME, s.SEQ_IN_INDEX";
+
+    private final DatabaseConnectHandler connection;
+    private final Map<String, DatabaseTableSchema> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor: DatabaseSchemaCatalog(DatabaseConnectHandler connection)
+     * <p>
+     * Creates an empty catalog which loads the schema of a table on first use.
+     *
+     * @param connection (DatabaseConnectHandler): The connection the metadata is read with.
+     */
+    public DatabaseSchemaCatalog(DatabaseConnectHandler connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Method: getSchema(String tableName)
+     * <p>
+     * Returns the schema of a table of the current database. It is loaded with a single metadata query the first time and cached afterwards.
+     *
+     * @param tableName (String): The name of the table.
+     * @return DatabaseTableSchema: The schema, or null if the table does not exist.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTableSchema schema = handler.getCatalog().getSchema("players");
+     */
+    public DatabaseTableSchema getSchema(String tableName) {
+        DatabaseTableSchema schema = schemas.get(tableName);
+        if (schema != null) {
+            return schema;
+        }
+        schema = load(tableName);
+        if (schema == null) {
+            return null;
+        }
+        DatabaseTableSchema existing = schemas.putIfAbsent(tableName, schema);
+        return existing == null ? schema : existing;
+    }
+
+    /**
+     * Method: refresh(String tableName)
+     * <p>
+     * Loads the schema of a table again, e.g. after the table was altered.
+     *
+     * @param tableName (String): The name of the table.
+     * @return DatabaseTableSchema: The new schema, or null if the table does not exist anymore.
+     */
+    public DatabaseTableSchema refresh(String tableName) {
+        DatabaseTableSchema schema = load(tableName);
+        if (schema == null) {
+            schemas.remove(tableName);
+        } else {
+            schemas.put(tableName, schema);
+        }
+        return schema;
+    }
+
+    /**
+     * Method: invalidate(String tableName)
+     * <p>
+     * Removes the cached schema of a table, so it is loaded again on the next use.
+     *
+     * @param tableName (String): The name of the table.
+     */
+    public void invalidate(String tableName) {
+        schemas.remove(tableName);
+    }
+
+    /**
+     * Method: clear()
+     * <p>
+     * Removes all cached schemas.
+     */
+    public void clear() {
+        schemas.clear();
+    }
+
+    private DatabaseTableSchema load(String tableName) {
+        Map<String, DatabaseColumn> columns = new LinkedHashMap<>();
+        Map<String, TreeMap<Integer, String>> keys = new LinkedHashMap<>();
+        Boolean found = connection.executeQuery(QUERY, resultSet -> {
+            List<Object[]> definitions = new ArrayList<>();
+            while (resultSet.next()) {
+                String name = resultSet.getString("COLUMN_NAME");
+                String index = resultSet.getString("INDEX_NAME");
+                if (index != null) {
+                    // The rows are ordered by column, the key order of a composite key is SEQ_IN_INDEX
+                    keys.computeIfAbsent(index, it -> new TreeMap<>()).put(resultSet.getInt("SEQ_IN_INDEX"), name);
+                }
+                if (definitions.isEmpty() || !definitions.get(definitions.size() - 1)[0].equals(name)) {
+                    definitions.add(new Object[]{name, resultSet.getString("COLUMN_TYPE"), resultSet.getString("IS_NULLABLE"), resultSet.getString("COLUMN_DEFAULT"), resultSet.getString("EXTRA")});
+                }
+            }
+            Collection<String> primaryKey = keys.containsKey("PRIMARY") ? keys.get("PRIMARY").values() : List.of();
+            for (Object[] definition : definitions) {
+                String name = (String) definition[0];
+                String typeName = (String) definition[1];
+                MysqlType type = MysqlType.getByName(typeName);
+                String extra = (String) definition[4];
+                columns.put(name, new DatabaseColumn(name, columns.size(), typeName, type.getJdbcType(), type.getClassName(),
+                        "YES".equalsIgnoreCase((String) definition[2]), (String) definition[3],
+                        extra != null && extra.toLowerCase(Locale.ROOT).contains("auto_increment"), primaryKey.contains(name)));
+            }
+            return !definitions.isEmpty();
+        }, false, tableName);
+        if (!found) {
+            return null;
+        }
+        List<List<String>> uniqueKeys = keys.values().stream().map(key -> List.copyOf(key.values())).toList();
+        List<String> primaryKey = keys.containsKey("PRIMARY") ? List.copyOf(keys.get("PRIMARY").values()) : List.of();
+        return new DatabaseTableSchema(tableName, new ArrayList<>(columns.values()), primaryKey, uniqueKeys);
+    }
+}
@@ -0,0 +1,89 @@
+package de.flxwdns.pythiasql.database.schema;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseTableSchema {
+    private final String tableName;
+    private final List<DatabaseColumn> columns;
+    private final List<String> primaryKey;
+    private final List<List<String>> uniqueKeys;
+    private final String generatedColumn;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, DatabaseColumn> byName;
+
+    /**
+     * Constructor: DatabaseTableSchema(String tableName, List<DatabaseColumn> columns, List<String> primaryKey, List<List<String>> uniqueKeys)
+     * <p>
+     * Describes the columns and keys of a table.
+     *
+     * @param tableName (String): The name of the table.
+     * @param columns (List<DatabaseColumn>): The columns in table order.
+     * @param primaryKey (List<String>): The columns of the primary key in key order, empty if the table has none.
+     * @param uniqueKeys (List<List<String>>): The columns of every unique key including the primary key.
+     */
+    public DatabaseTableSchema(String tableName, List<DatabaseColumn> columns, List<String> primaryKey, List<List<String>> uniqueKeys) {
+        this.tableName = tableName;
+        this.columns = List.copyOf(columns);
+        this.primaryKey = List.copyOf(primaryKey);
+        this.uniqueKeys = uniqueKeys.stream().map(List::copyOf).toList();
+        this.byName = new HashMap<>(columns.size() * 2);
+        String generated = null;
+        for (DatabaseColumn column : columns) {
+            byName.putIfAbsent(column.getName(), column);
+            byName.putIfAbsent(column.getName().toLowerCase(Locale.ROOT), column);
+            if (column.isAutoIncrement()) {
+                generated = column.getName();
+            }
+        }
+        this.generatedColumn = generated;
+    }
+
+    /**
+     * Method: getColumn(String column)
+     * <p>
+     * Returns the column with the given name. The exact name is looked up first, then the name ignoring case.
+     *
+     * @param column (String): The column name.
+     * @return DatabaseColumn: The column, or null if the table does not contain it.
+     * <p>
+     * Example usage:
+     * <p>
+     * boolean nullable = schema.getColumn("last_login").isNullable();
+     */
+    public DatabaseColumn getColumn(String column) {
+        DatabaseColumn result = byName.get(column);
+        return result == null ? byName.get(column.toLowerCase(Locale.ROOT)) : result;
+    }
+
+    /**
+     * Method: getColumnNames()
+     * <p>
+     * Returns the names of all columns in table order.
+     *
+     * @return List<String>: The column names.
+     */
+    public List<String> getColumnNames() {
+        return columns.stream().map(DatabaseColumn::getName).toList();
+    }
+
+    /**
+     * Method: isUniqueKey(List<String> columns)
+     * <p>
+     * Checks if the columns form the primary key or a unique key of the table, in any order.
+     *
+     * @param columns (List<String>): The column names.
+     * @return boolean: True if a unique key consists of exactly these columns.
+     */
+    public boolean isUniqueKey(List<String> columns) {
+        return uniqueKeys.stream().anyMatch(key -> key.size() == columns.size() && key.stream().allMatch(name -> columns.stream().anyMatch(name::equalsIgnoreCase)));
+    }
+}
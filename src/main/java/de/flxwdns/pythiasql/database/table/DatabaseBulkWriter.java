@@ -0,0 +1,91 @@
+package de.flxwdns.pythiasql.database.table;
+
+import lombok.Getter;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+@SuppressWarnings("unused")
+public final class DatabaseBulkWriter implements Consumer<Map<String, Object>>, AutoCloseable {
+    private final DatabaseTable table;
+    @Getter
+    private final int batchSize;
+    private final Map<List<String>, List<Object[]>> groups = new LinkedHashMap<>();
+    @Getter
+    private int written;
+    private boolean closed;
+
+    DatabaseBulkWriter(DatabaseTable table, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.table = table;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Method: accept(Map<String, Object> values)
+     * <p>
+     * Collects a new entry. As soon as batchSize entries with the same columns were collected, they are inserted on the calling thread.
+     *
+     * @param values (Map<String, Object>): The column names and values of the new entry.
+     * <p>
+     * Example usage:
+     * <p>
+     * writer.accept(Map.of("uuid", uuid, "name", name));
+     */
+    @Override
+    public synchronized void accept(Map<String, Object> values) {
+        if (closed) {
+            throw new IllegalStateException("Bulk writer of table " + table.getTableName() + " is already closed");
+        }
+        List<String> columns = List.copyOf(values.keySet());
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = values.get(columns.get(i));
+        }
+        List<Object[]> group = groups.computeIfAbsent(columns, it -> new ArrayList<>(batchSize));
+        group.add(row);
+        if (group.size() >= batchSize) {
+            write(columns, group);
+        }
+    }
+
+    /**
+     * Method: flush()
+     * <p>
+     * Inserts all collected entries.
+     */
+    public synchronized void flush() {
+        for (Map.Entry<List<String>, List<Object[]>> group : groups.entrySet()) {
+            if (!group.getValue().isEmpty()) {
+                write(group.getKey(), group.getValue());
+            }
+        }
+    }
+
+    /**
+     * Method: close()
+     * <p>
+     * Inserts all remaining entries and closes the writer.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            flush();
+            closed = true;
+        }
+    }
+
+    private void write(List<String> columns, List<Object[]> group) {
+        try {
+            written += table.insertBatch(null, columns, new ArrayList<>(group), batchSize);
+        } catch (RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        } finally {
+            group.clear();
+        }
+    }
+}
@@ -1,12 +1,79 @@
 package de.flxwdns.pythiasql.database.table;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
 
-@Data
-@AllArgsConstructor
+import java.util.Objects;
+
+@Getter
 public class DatabaseEntry {
     private final int id;
+    @Getter(AccessLevel.NONE)
     private Object value;
     private final String columnName;
+
+    @Getter(AccessLevel.NONE)
+    private final DatabaseRow row;
+    @Getter(AccessLevel.NONE)
+    private final int index;
+    @Getter(AccessLevel.NONE)
+    private final DatabaseTable table;
+
+    public DatabaseEntry(int id, Object value, String columnName) {
+        this.id = id;
+        this.value = value;
+        this.columnName = columnName;
+        this.row = null;
+        this.index = -1;
+        this.table = null;
+    }
+
+    DatabaseEntry(DatabaseRow row, int index, String columnName, DatabaseTable table) {
+        this.id = row.getId();
+        this.columnName = columnName;
+        this.row = row;
+        this.index = index;
+        this.table = table;
+    }
+
+    public Object getValue() {
+        return row == null ? value : row.get(index);
+    }
+
+    /**
+     * Method: setValue(Object value)
+     * <p>
+     * Changes the value of the entry. Entries of DatabaseTable#getEntries change the cached row of the table, the indexes
+     * of the table are updated with it. The database is not changed, use DatabaseTable#editEntry for that.
+     *
+     * @param value (Object): The new value.
+     * @throws UnsupportedOperationException: If the entry is a view of a row which does not belong to a table, e.g. of a DataResult.
+     * @throws IllegalStateException: If the value would duplicate a key of a unique index of the table.
+     */
+    public void setValue(Object value) {
+        if (row == null) {
+            this.value = value;
+        } else if (table == null) {
+            throw new UnsupportedOperationException("The entry is a read-only view of a row, use DatabaseTable#editEntry to change it");
+        } else {
+            table.setCachedValue(row, index, value);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DatabaseEntry that)) return false;
+        return id == that.id && Objects.equals(getValue(), that.getValue()) && Objects.equals(columnName, that.columnName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, getValue(), columnName);
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseEntry(id=" + id + ", value=" + getValue() + ", columnName=" + columnName + ")";
+    }
 }
@@ -0,0 +1,287 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+@SuppressWarnings("unused")
+public final class DatabaseGroupCommit implements AutoCloseable {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "PythiaSQL-GroupCommit");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DatabaseConnectHandler connection;
+    private final Executor executor;
+    @Getter
+    private final DatabaseGroupCommitSettings settings;
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final AtomicBoolean commitRequested = new AtomicBoolean();
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong operationCount = new AtomicLong();
+    private List<Pending<?>> pending = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Constructor: DatabaseGroupCommit(DatabaseConnectHandler connection, Executor executor, DatabaseGroupCommitSettings settings)
+     * <p>
+     * Creates a group commit which collects the writes of many callers and commits them in one transaction per time slice,
+     * so the commit latency of the database is paid once per group instead of once per write. Every write runs behind its own
+     * savepoint, a failing write is rolled back alone and only its future fails. If the shared transaction fails as a whole,
+     * e.g. because of a deadlock, its writes are run again one by one in their own transactions.
+     *
+     * @param connection (DatabaseConnectHandler): The connection the transactions are started on.
+     * @param executor (Executor): The executor the transactions are run on, one at a time.
+     * @param settings (DatabaseGroupCommitSettings): The time slice and the maximum amount of writes per transaction.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseGroupCommit groupCommit = new DatabaseGroupCommit(handler, executor, new DatabaseGroupCommitSettings().withInterval(10));
+     * table.setGroupCommit(groupCommit);
+     * <p>
+     * Note: The futures complete after the commit, so a single caller which waits for every write before the next one
+     *       still waits one time slice per write. The throughput grows with the amount of concurrent writes.
+     *       The writes run in the order they were submitted, but outside of the operation queues of the tables,
+     *       see DatabaseTable#setGroupCommit.
+     */
+    public DatabaseGroupCommit(DatabaseConnectHandler connection, Executor executor, DatabaseGroupCommitSettings settings) {
+        this.connection = connection;
+        this.executor = executor;
+        this.settings = settings;
+    }
+
+    /**
+     * Method: submit(DatabaseTransaction.Work work)
+     * <p>
+     * Queues the work for the next group transaction. The cached rows of the written tables are changed after the commit.
+     *
+     * @param work (DatabaseTransaction.Work): The writes to commit together, they may run a second time if the shared transaction failed.
+     * @return CompletableFuture<Boolean>: A future completed with true after the commit, or false if the work called rollback().
+     * <p>
+     * Example usage:
+     * <p>
+     * groupCommit.submit(transaction -> transaction.incrementEntry(table, Map.of("uuid", uuid), "coins", 10));
+     */
+    public CompletableFuture<Boolean> submit(DatabaseTransaction.Work work) {
+        return submitOperation(transaction -> {
+            work.run(transaction);
+            return !transaction.isRollbackOnly();
+        });
+    }
+
+    <T> CompletableFuture<T> submitOperation(Operation<T> operation) {
+        var entry = new Pending<>(operation);
+        int size;
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("Group commit is already closed"));
+            }
+            pending.add(entry);
+            size = pending.size();
+        }
+        if (size >= settings.getMaxBatchSize() || settings.getIntervalMillis() == 0) {
+            requestCommit();
+        } else if (size == 1) {
+            SCHEDULER.schedule(this::requestCommit, settings.getIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+        return entry.future;
+    }
+
+    /**
+     * Method: flush()
+     * <p>
+     * Commits all queued writes on the calling thread.
+     */
+    public void flush() {
+        commitPending();
+    }
+
+    /**
+     * Method: close()
+     * <p>
+     * Commits all queued writes and rejects further writes.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        commitPending();
+    }
+
+    /**
+     * Method: getPending()
+     * <p>
+     * Returns the amount of writes waiting for the next commit.
+     *
+     * @return int: The amount of queued writes.
+     */
+    public synchronized int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * Method: getCommitCount()
+     * <p>
+     * Returns how many transactions were committed or rolled back.
+     *
+     * @return long: The amount of finished transactions.
+     */
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+
+    /**
+     * Method: getOperationCount()
+     * <p>
+     * Returns how many writes were run. Together with getCommitCount() it shows how many writes share a commit on average.
+     *
+     * @return long: The amount of finished writes.
+     */
+    public long getOperationCount() {
+        return operationCount.get();
+    }
+
+    private void requestCommit() {
+        if (commitRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::commitPending);
+            } catch (RejectedExecutionException exception) {
+                commitPending();
+            }
+        }
+    }
+
+    private void commitPending() {
+        commitLock.lock();
+        try {
+            commitRequested.set(false);
+            List<Pending<?>> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            for (int offset = 0; offset < batch.size(); offset += settings.getMaxBatchSize()) {
+                List<Pending<?>> group = batch.subList(offset, Math.min(batch.size(), offset + settings.getMaxBatchSize()));
+                if (group.size() == 1 || !commitTogether(group)) {
+                    group.forEach(this::commitAlone);
+                }
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private boolean commitTogether(List<Pending<?>> group) {
+        try (DatabaseConnectHandler bound = connection.beginTransaction()) {
+            Connection raw = bound.getConnection();
+            for (Pending<?> entry : group) {
+                entry.reset(bound);
+                Savepoint savepoint = raw.setSavepoint();
+                try {
+                    entry.run();
+                    if (entry.transaction.isRollbackOnly()) {
+                        raw.rollback(savepoint);
+                        entry.transaction.rolledBack();
+                    }
+                } catch (Exception exception) {
+                    entry.failure = exception;
+                    raw.rollback(savepoint);
+                    entry.transaction.rolledBack();
+                }
+            }
+            bound.commit();
+        } catch (SQLException | RuntimeException exception) {
+            System.err.println("[ERROR] Group commit of " + group.size() + " writes failed, committing them one by one: " + exception);
+            for (Pending<?> entry : group) {
+                if (entry.transaction != null) {
+                    entry.transaction.rolledBack();
+                }
+            }
+            return false;
+        }
+        commitCount.incrementAndGet();
+        operationCount.addAndGet(group.size());
+        group.forEach(Pending::complete);
+        return true;
+    }
+
+    private void commitAlone(Pending<?> entry) {
+        entry.failure = null;
+        try (DatabaseConnectHandler bound = connection.beginTransaction()) {
+            entry.reset(bound);
+            try {
+                entry.run();
+            } catch (Exception exception) {
+                entry.failure = exception;
+            }
+            if (entry.failure != null || entry.transaction.isRollbackOnly()) {
+                bound.rollback();
+                entry.transaction.rolledBack();
+            } else {
+                bound.commit();
+            }
+        } catch (SQLException | RuntimeException exception) {
+            if (entry.failure == null) {
+                entry.failure = exception;
+            }
+            if (entry.transaction != null) {
+                entry.transaction.rolledBack();
+            }
+        }
+        commitCount.incrementAndGet();
+        operationCount.incrementAndGet();
+        entry.complete();
+    }
+
+    @FunctionalInterface
+    interface Operation<T> {
+        T apply(DatabaseTransaction transaction) throws Exception;
+    }
+
+    private static final class Pending<T> {
+        private final Operation<T> operation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private DatabaseTransaction transaction;
+        private T result;
+        private Exception failure;
+
+        private Pending(Operation<T> operation) {
+            this.operation = operation;
+        }
+
+        private void reset(DatabaseConnectHandler bound) {
+            transaction = new DatabaseTransaction(bound);
+            result = null;
+            failure = null;
+        }
+
+        private void run() throws Exception {
+            result = operation.apply(transaction);
+        }
+
+        private void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+                return;
+            }
+            if (!transaction.isRollbackOnly()) {
+                transaction.committed();
+            }
+            future.complete(result);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package de.flxwdns.pythiasql.database.table;
+
+import lombok.Getter;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseGroupCommitSettings {
+    private long intervalMillis = 5;
+    private int maxBatchSize = 500;
+
+    /**
+     * Method: withInterval(long intervalMillis)
+     * <p>
+     * Sets how long writes are collected before they are committed together. A longer interval puts more writes into one commit,
+     * but every write waits up to the interval before it is executed.
+     *
+     * @param intervalMillis (long): The time slice in milliseconds, 0 commits as soon as the previous commit finished.
+     * @return DatabaseGroupCommitSettings: The current DatabaseGroupCommitSettings instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseGroupCommitSettings settings = new DatabaseGroupCommitSettings().withInterval(10);
+     */
+    public DatabaseGroupCommitSettings withInterval(long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("interval must not be negative");
+        }
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    /**
+     * Method: withMaxBatchSize(int maxBatchSize)
+     * <p>
+     * Sets how many writes share one transaction at most. When as many writes are queued, they are committed without waiting for the interval.
+     *
+     * @param maxBatchSize (int): The maximum amount of writes per transaction.
+     * @return DatabaseGroupCommitSettings: The current DatabaseGroupCommitSettings instance.
+     */
+    public DatabaseGroupCommitSettings withMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+}
@@ -0,0 +1,179 @@
+package de.flxwdns.pythiasql.database.table;
+
+import lombok.Getter;
+
+import java.util.*;
+
+@SuppressWarnings("unused")
+public final class DatabaseIndex {
+    private static final Object NULL_KEY = new Object();
+
+    @Getter
+    private final String tableName;
+    @Getter
+    private final List<String> columns;
+    @Getter
+    private final boolean unique;
+
+    private final int[] positions;
+    private final Map<Object, Object> buckets = new HashMap<>();
+
+    DatabaseIndex(String tableName, DatabaseRowLayout layout, List<String> columns, boolean unique) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("An index needs at least one column");
+        }
+        this.tableName = tableName;
+        this.columns = List.copyOf(columns);
+        this.unique = unique;
+        this.positions = new int[columns.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = layout.indexOf(columns.get(i));
+            if (positions[i] < 0) {
+                throw new IllegalArgumentException("Column " + columns.get(i) + " does not exist in table " + tableName);
+            }
+        }
+    }
+
+    /**
+     * Method: size()
+     * <p>
+     * Returns the amount of distinct keys of the index.
+     *
+     * @return int: The amount of keys.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    boolean covers(int[] conditionPositions) {
+        for (int position : positions) {
+            if (indexOf(conditionPositions, position) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean touches(int[] changedPositions) {
+        for (int position : positions) {
+            if (indexOf(changedPositions, position) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int width() {
+        return positions.length;
+    }
+
+    List<DatabaseRow> lookup(int[] conditionPositions, Object[] expected) {
+        Object bucket = buckets.get(key(conditionPositions, expected));
+        if (bucket == null) {
+            return List.of();
+        }
+        if (bucket instanceof DatabaseRow row) {
+            return List.of(row);
+        }
+        return castBucket(bucket);
+    }
+
+    Object key(int[] valuePositions, Object[] values) {
+        Object[] key = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            key[i] = values[indexOf(valuePositions, positions[i])];
+        }
+        return key(key);
+    }
+
+    DatabaseRow holder(Object key) {
+        Object bucket = buckets.get(key);
+        if (bucket == null || bucket instanceof DatabaseRow) {
+            return (DatabaseRow) bucket;
+        }
+        return castBucket(bucket).get(0);
+    }
+
+    void add(DatabaseRow row) {
+        Object key = key(row);
+        Object bucket = buckets.get(key);
+        if (bucket == null) {
+            buckets.put(key, row);
+            return;
+        }
+        if (unique && !isNull(key)) {
+            throw new IllegalStateException("Unique index " + columns + " of table " + tableName + " already contains key " + key);
+        }
+        if (bucket instanceof DatabaseRow existing) {
+            List<DatabaseRow> list = new ArrayList<>(2);
+            list.add(existing);
+            list.add(row);
+            buckets.put(key, list);
+        } else {
+            castBucket(bucket).add(row);
+        }
+    }
+
+    void remove(DatabaseRow row) {
+        Object key = key(row);
+        Object bucket = buckets.get(key);
+        if (bucket == row) {
+            buckets.remove(key);
+        } else if (bucket != null && !(bucket instanceof DatabaseRow)) {
+            List<DatabaseRow> list = castBucket(bucket);
+            list.remove(row);
+            if (list.size() == 1) {
+                buckets.put(key, list.get(0));
+            }
+        }
+    }
+
+    void addAll(Collection<DatabaseRow> rows) {
+        try {
+            rows.forEach(this::add);
+        } catch (IllegalStateException exception) {
+            buckets.clear();
+            throw new IllegalStateException("Cannot create unique index " + columns + " on table " + tableName + ": " + exception.getMessage(), exception);
+        }
+    }
+
+    private Object key(DatabaseRow row) {
+        if (positions.length == 1) {
+            return wrap(row.get(positions[0]));
+        }
+        Object[] key = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            key[i] = row.get(positions[i]);
+        }
+        return key(key);
+    }
+
+    private Object key(Object[] values) {
+        if (values.length == 1) {
+            return wrap(values[0]);
+        }
+        return Arrays.asList(values);
+    }
+
+    static boolean isNull(Object key) {
+        return key == NULL_KEY || key instanceof List<?> values && values.contains(null);
+    }
+
+    private static Object wrap(Object value) {
+        return value == null ? NULL_KEY : value;
+    }
+
+    private static int indexOf(int[] array, int value) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DatabaseRow> castBucket(Object bucket) {
+        return (List<DatabaseRow>) bucket;
+    }
+}
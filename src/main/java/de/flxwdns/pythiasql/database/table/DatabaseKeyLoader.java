@@ -0,0 +1,234 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import de.flxwdns.pythiasql.database.connect.DatabaseStatements;
+import de.flxwdns.pythiasql.database.result.DataResult;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@SuppressWarnings("unused")
+public final class DatabaseKeyLoader {
+    public static final long DEFAULT_WINDOW_MILLIS = 2;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "PythiaSQL-KeyLoader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DatabaseConnectHandler connection;
+    @Getter
+    private final String tableName;
+    @Getter
+    private final String keyColumn;
+    private final DatabaseRowLayout layout;
+    private final Executor executor;
+    @Getter
+    private final long windowMillis;
+    @Getter
+    private final int maxBatchSize;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private Map<Object, CompletableFuture<DataResult>> pending = new LinkedHashMap<>();
+    private long generation;
+
+    /**
+     * Constructor: DatabaseKeyLoader(DatabaseConnectHandler connection, String tableName, String keyColumn, DatabaseRowLayout layout, Executor executor, long windowMillis, int maxBatchSize)
+     * <p>
+     * Creates a loader which collects single key lookups and sends them together as one SELECT ... WHERE key IN (...) query.
+     * A batch is sent when the window after its first key has passed or when it reaches the maximum batch size.
+     * <p>
+     * Note: The rows are matched to the requested keys in Java after the database compared them with the collation of the key column.
+     * Text keys which only differ in case or trailing spaces, as in the default _ci collations, are matched to the same row.
+     * Collations which also ignore accents are not covered, so the key column should be numeric, binary or use a _bin or _cs collation.
+     *
+     * @param connection (DatabaseConnectHandler): The connection to run the queries on.
+     * @param tableName (String): The name of the table to read.
+     * @param keyColumn (String): The column the rows are looked up by.
+     * @param layout (DatabaseRowLayout): The layout the rows are read with, or null to create it from the result set.
+     * @param executor (Executor): The executor the queries run on.
+     * @param windowMillis (long): How long keys are collected before the batch is sent.
+     * @param maxBatchSize (int): The maximum amount of keys per query.
+     */
+    public DatabaseKeyLoader(DatabaseConnectHandler connection, String tableName, String keyColumn, DatabaseRowLayout layout, Executor executor, long windowMillis, int maxBatchSize) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("windowMillis must not be negative");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.connection = connection;
+        this.tableName = tableName;
+        this.keyColumn = keyColumn;
+        this.layout = layout;
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Method: load(Object key)
+     * <p>
+     * Looks up the row with the given key. Concurrent lookups are sent together as one query and the same key is only queried once per batch.
+     *
+     * @param key (Object): The value of the key column.
+     * @return CompletableFuture<DataResult>: A future completed with the row, or with null if no row has the key.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseKeyLoader loader = table.loader("uuid");
+     * loader.load(player.getUniqueId()).thenAccept(row -> {
+     *     // Use the row
+     * });
+     */
+    public CompletableFuture<DataResult> load(Object key) {
+        requests.incrementAndGet();
+        Map<Object, CompletableFuture<DataResult>> batch = null;
+        CompletableFuture<DataResult> future;
+        long scheduled = -1;
+        synchronized (this) {
+            Object normalized = normalize(key);
+            future = pending.get(normalized);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                pending.put(normalized, future);
+                if (pending.size() >= maxBatchSize) {
+                    batch = pending;
+                    pending = new LinkedHashMap<>();
+                    generation++;
+                } else if (pending.size() == 1) {
+                    scheduled = generation;
+                }
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        } else if (scheduled >= 0) {
+            long expected = scheduled;
+            SCHEDULER.schedule(() -> dispatchPending(expected), windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return future.copy();
+    }
+
+    /**
+     * Method: loadAll(Collection<?> keys)
+     * <p>
+     * Looks up the rows of several keys, see load(Object).
+     *
+     * @param keys (Collection<?>): The values of the key column.
+     * @return CompletableFuture<Map<Object, DataResult>>: A future completed with the found rows by key, missing keys are left out.
+     * <p>
+     * Example usage:
+     * <p>
+     * loader.loadAll(onlineUuids).thenAccept(rows -> rows.forEach((uuid, row) -> ...));
+     */
+    public CompletableFuture<Map<Object, DataResult>> loadAll(Collection<?> keys) {
+        Map<Object, CompletableFuture<DataResult>> futures = new LinkedHashMap<>();
+        for (Object key : keys) {
+            futures.putIfAbsent(key, load(key));
+        }
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            Map<Object, DataResult> result = new LinkedHashMap<>();
+            futures.forEach((key, future) -> {
+                DataResult row = future.join();
+                if (row != null) {
+                    result.put(key, row);
+                }
+            });
+            return result;
+        });
+    }
+
+    /**
+     * Method: getRequestCount()
+     * <p>
+     * Returns how many lookups were requested from the loader.
+     *
+     * @return long: The amount of lookups.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Method: getQueryCount()
+     * <p>
+     * Returns how many queries the loader sent to the database.
+     *
+     * @return long: The amount of queries.
+     */
+    public long getQueryCount() {
+        return queries.get();
+    }
+
+    private void dispatchPending(long expected) {
+        Map<Object, CompletableFuture<DataResult>> batch;
+        synchronized (this) {
+            if (generation != expected || pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            generation++;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<Object, CompletableFuture<DataResult>> batch) {
+        try {
+            executor.execute(() -> run(batch));
+        } catch (RejectedExecutionException exception) {
+            batch.values().forEach(future -> future.completeExceptionally(exception));
+        }
+    }
+
+    private void run(Map<Object, CompletableFuture<DataResult>> batch) {
+        queries.incrementAndGet();
+        List<Object> keys = new ArrayList<>(batch.keySet());
+        String query = "SELECT * FROM " + DatabaseStatements.quote(tableName) + " WHERE " + DatabaseStatements.quote(keyColumn) + " IN (" + DatabaseStatements.placeholders(keys.size()) + ")";
+        Map<Object, DataResult> found = new HashMap<>(keys.size() * 2);
+        Map<String, DataResult> folded = new HashMap<>();
+        try (Stream<DataResult> rows = DatabaseTable.streamQuery(connection, layout, query, keys.toArray())) {
+            rows.forEach(row -> {
+                Object key = normalize(row.getObject(keyColumn));
+                found.putIfAbsent(key, row);
+                if (key instanceof String text) {
+                    folded.putIfAbsent(fold(text), row);
+                }
+            });
+        } catch (RuntimeException exception) {
+            System.err.println("[ERROR] Error while loading " + keys.size() + " keys from table " + tableName + ": " + exception);
+            batch.values().forEach(future -> future.completeExceptionally(exception));
+            return;
+        }
+        batch.forEach((key, future) -> {
+            DataResult row = found.get(key);
+            if (row == null && key instanceof String text) {
+                row = folded.get(fold(text));
+            }
+            future.complete(row);
+        });
+    }
+
+    private static String fold(String key) {
+        return key.stripTrailing().toLowerCase(Locale.ROOT);
+    }
+
+    static Object normalize(Object key) {
+        if (key instanceof UUID || key instanceof Character) {
+            return key.toString();
+        }
+        if (key instanceof Enum<?> value) {
+            return value.name();
+        }
+        if (key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        }
+        return key;
+    }
+}
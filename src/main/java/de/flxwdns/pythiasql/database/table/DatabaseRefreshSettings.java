@@ -0,0 +1,115 @@
+package de.flxwdns.pythiasql.database.table;
+
+import lombok.Getter;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseRefreshSettings {
+    private final String versionColumn;
+    private String keyColumn;
+    private String deletedColumn;
+    private String changeLogTable;
+    private String changeLogKeyColumn;
+    private String changeLogVersionColumn;
+    private long intervalMillis = 0;
+    private long lookbackMillis = 10000;
+
+    /**
+     * Constructor: DatabaseRefreshSettings(String versionColumn)
+     * <p>
+     * Creates the settings of the incremental refresh. The version column has to grow with every insert and update of a row,
+     * e.g. an `updated_at` timestamp with ON UPDATE CURRENT_TIMESTAMP or a version counter.
+     *
+     * @param versionColumn (String): The monotonic column the changed rows are found by.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseRefreshSettings settings = new DatabaseRefreshSettings("updated_at").withDeletedColumn("deleted_at").withInterval(5000);
+     */
+    public DatabaseRefreshSettings(String versionColumn) {
+        this.versionColumn = versionColumn;
+    }
+
+    /**
+     * Method: withKeyColumn(String keyColumn)
+     * <p>
+     * Sets the column which identifies a row. By default the single column primary key or the AUTO_INCREMENT column is used.
+     *
+     * @param keyColumn (String): The primary or unique key column.
+     * @return DatabaseRefreshSettings: The current DatabaseRefreshSettings instance.
+     */
+    public DatabaseRefreshSettings withKeyColumn(String keyColumn) {
+        this.keyColumn = keyColumn;
+        return this;
+    }
+
+    /**
+     * Method: withDeletedColumn(String deletedColumn)
+     * <p>
+     * Sets the tombstone column of soft deleted rows. Rows whose value is true, not 0 or, e.g. for a `deleted_at` timestamp, not NULL
+     * are removed from the cache.
+     *
+     * @param deletedColumn (String): The tombstone column.
+     * @return DatabaseRefreshSettings: The current DatabaseRefreshSettings instance.
+     */
+    public DatabaseRefreshSettings withDeletedColumn(String deletedColumn) {
+        this.deletedColumn = deletedColumn;
+        return this;
+    }
+
+    /**
+     * Method: withChangeLog(String changeLogTable, String changeLogKeyColumn, String changeLogVersionColumn)
+     * <p>
+     * Sets a change log table with one row per deleted row, e.g. filled by an AFTER DELETE trigger. The cached rows of the logged keys are removed.
+     *
+     * @param changeLogTable (String): The name of the change log table.
+     * @param changeLogKeyColumn (String): The column with the key of the deleted row.
+     * @param changeLogVersionColumn (String): The monotonic column of the change log, e.g. an AUTO_INCREMENT id.
+     * @return DatabaseRefreshSettings: The current DatabaseRefreshSettings instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * CREATE TRIGGER players_deleted AFTER DELETE ON players FOR EACH ROW INSERT INTO players_deleted (uuid) VALUES (OLD.uuid);
+     * DatabaseRefreshSettings settings = new DatabaseRefreshSettings("updated_at").withChangeLog("players_deleted", "uuid", "id");
+     */
+    public DatabaseRefreshSettings withChangeLog(String changeLogTable, String changeLogKeyColumn, String changeLogVersionColumn) {
+        this.changeLogTable = changeLogTable;
+        this.changeLogKeyColumn = changeLogKeyColumn;
+        this.changeLogVersionColumn = changeLogVersionColumn;
+        return this;
+    }
+
+    /**
+     * Method: withInterval(long intervalMillis)
+     * <p>
+     * Sets how often the table is refreshed automatically.
+     *
+     * @param intervalMillis (long): The interval in milliseconds, 0 only refreshes when refresh() is called.
+     * @return DatabaseRefreshSettings: The current DatabaseRefreshSettings instance.
+     */
+    public DatabaseRefreshSettings withInterval(long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("interval must not be negative");
+        }
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    /**
+     * Method: withLookback(long lookbackMillis)
+     * <p>
+     * Sets how long the versions of a refresh are read again. A transaction that writes an older version but commits after a newer version was
+     * already read is still found if it commits within this time. Rows read again are only counted as changes if they differ from the cached rows
+     * and change log rows are only applied once.
+     *
+     * @param lookbackMillis (long): The lookback in milliseconds, 0 only reads from the newest version. Default is 10000.
+     * @return DatabaseRefreshSettings: The current DatabaseRefreshSettings instance.
+     */
+    public DatabaseRefreshSettings withLookback(long lookbackMillis) {
+        if (lookbackMillis < 0) {
+            throw new IllegalArgumentException("lookback must not be negative");
+        }
+        this.lookbackMillis = lookbackMillis;
+        return this;
+    }
+}
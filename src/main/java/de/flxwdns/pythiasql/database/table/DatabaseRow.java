@@ -0,0 +1,90 @@
+package de.flxwdns.pythiasql.database.table;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SuppressWarnings("unused")
+public final class DatabaseRow {
+    @Getter
+    private final int id;
+    private volatile Object[] values;
+
+    /**
+     * Constructor: DatabaseRow(int id, Object[] values)
+     * <p>
+     * Constructs a row holding one value per column of the table layout.
+     *
+     * @param id (int): The in-memory id of the row.
+     * @param values (Object[]): The values ordered like the columns of the DatabaseRowLayout.
+     */
+    public DatabaseRow(int id, Object[] values) {
+        this.id = id;
+        this.values = values;
+    }
+
+    /**
+     * Method: get(int index)
+     * <p>
+     * Returns the value of the column at the given position.
+     *
+     * @param index (int): The position of the column in the layout.
+     * @return Object: The value of the column.
+     */
+    public Object get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Method: size()
+     * <p>
+     * Returns the amount of values of the row.
+     *
+     * @return int: The amount of values.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Method: snapshot()
+     * <p>
+     * Returns a copy of the current values of the row.
+     *
+     * @return Object[]: The copied values.
+     */
+    public Object[] snapshot() {
+        return values.clone();
+    }
+
+    /**
+     * Method: asEntries(DatabaseRowLayout layout)
+     * <p>
+     * Returns one read-only DatabaseEntry view per column.
+     *
+     * @param layout (DatabaseRowLayout): The layout the row was stored with.
+     * @return List<DatabaseEntry>: The entries of the row.
+     */
+    public List<DatabaseEntry> asEntries(DatabaseRowLayout layout) {
+        return asEntries(layout, null);
+    }
+
+    List<DatabaseEntry> asEntries(DatabaseRowLayout layout, DatabaseTable table) {
+        List<DatabaseEntry> entries = new ArrayList<>(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            entries.add(new DatabaseEntry(this, i, layout.getColumn(i), table));
+        }
+        return entries;
+    }
+
+    void set(int index, Object value) {
+        Object[] copy = values.clone();
+        copy[index] = value;
+        values = copy;
+    }
+
+    void replace(Object[] values) {
+        this.values = values;
+    }
+}
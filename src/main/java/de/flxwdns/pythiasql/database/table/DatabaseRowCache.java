@@ -0,0 +1,429 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import de.flxwdns.pythiasql.database.connect.DatabaseStatements;
+import de.flxwdns.pythiasql.database.invalidation.DatabaseInvalidation;
+import de.flxwdns.pythiasql.database.metrics.DatabaseMetrics;
+import de.flxwdns.pythiasql.database.result.DataResult;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SuppressWarnings("unused")
+public final class DatabaseRowCache {
+    private final DatabaseConnectHandler connection;
+    @Getter
+    private final String tableName;
+    @Getter
+    private final String keyColumn;
+    @Getter
+    private final DatabaseRowCacheSettings settings;
+    private final DatabaseKeyLoader loader;
+    private final Executor executor;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final Map<Object, Long> invalidatedAt = new HashMap<>();
+    private long bytes;
+    private long clock;
+    private long clearedAt;
+    private int loading;
+
+    /**
+     * Constructor: DatabaseRowCache(DatabaseConnectHandler connection, String tableName, String keyColumn, DatabaseRowLayout layout, Executor executor, DatabaseRowCacheSettings settings)
+     * <p>
+     * Creates a bounded cache which keeps the recently used rows of a table by key. Missed keys are loaded from the database
+     * and concurrent misses are sent together as one query, see DatabaseKeyLoader.
+     *
+     * @param connection (DatabaseConnectHandler): The connection to run the queries on.
+     * @param tableName (String): The name of the table.
+     * @param keyColumn (String): The primary or unique key column the rows are cached by.
+     * @param layout (DatabaseRowLayout): The layout the rows are read with, or null to create it from the result set.
+     * @param executor (Executor): The executor the queries run on.
+     * @param settings (DatabaseRowCacheSettings): The limits, time to live and load batching of the cache.
+     */
+    public DatabaseRowCache(DatabaseConnectHandler connection, String tableName, String keyColumn, DatabaseRowLayout layout, Executor executor, DatabaseRowCacheSettings settings) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.keyColumn = keyColumn;
+        this.settings = settings;
+        this.executor = executor;
+        this.loader = new DatabaseKeyLoader(connection, tableName, keyColumn, layout, executor, settings.getLoadWindowMillis(), settings.getMaxLoadBatchSize());
+    }
+
+    /**
+     * Method: get(Object key)
+     * <p>
+     * Returns the row with the given key. Cached rows are returned right away, missed rows are loaded from the database and cached.
+     *
+     * @param key (Object): The value of the key column.
+     * @return CompletableFuture<DataResult>: A future completed with the row, or with null if no row has the key.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseRowCache players = PythiaSQL.getRowCache("players", "uuid");
+     * players.get(uuid).thenAccept(row -> ...);
+     */
+    public CompletableFuture<DataResult> get(Object key) {
+        DataResult cached = getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long startedAt;
+        synchronized (this) {
+            startedAt = clock;
+            loading++;
+        }
+        return loader.load(key).whenComplete((row, throwable) -> loaded(key, throwable == null ? row : null, startedAt));
+    }
+
+    /**
+     * Method: getAll(Collection<?> keys)
+     * <p>
+     * Returns the rows of several keys, see get(Object). All missed keys are loaded together.
+     *
+     * @param keys (Collection<?>): The values of the key column.
+     * @return CompletableFuture<Map<Object, DataResult>>: A future completed with the found rows by key, missing keys are left out.
+     */
+    public CompletableFuture<Map<Object, DataResult>> getAll(Collection<?> keys) {
+        Map<Object, CompletableFuture<DataResult>> futures = new LinkedHashMap<>();
+        for (Object key : keys) {
+            futures.computeIfAbsent(key, this::get);
+        }
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            Map<Object, DataResult> result = new LinkedHashMap<>();
+            futures.forEach((key, future) -> {
+                DataResult row = future.join();
+                if (row != null) {
+                    result.put(key, row);
+                }
+            });
+            return result;
+        });
+    }
+
+    /**
+     * Method: getIfPresent(Object key)
+     * <p>
+     * Returns the cached row with the given key without loading it.
+     *
+     * @param key (Object): The value of the key column.
+     * @return DataResult: The cached row, or null if it is not cached or expired.
+     */
+    public DataResult getIfPresent(Object key) {
+        Object normalized = DatabaseKeyLoader.normalize(key);
+        synchronized (this) {
+            Entry entry = entries.get(normalized);
+            if (entry != null && entry.expiresAt != 0 && entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(normalized);
+                bytes -= entry.bytes;
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.row;
+        }
+    }
+
+    /**
+     * Method: editEntry(Object key, Map<String, Object> values)
+     * <p>
+     * Updates the row with the given key in the database and in the cache.
+     *
+     * @param key (Object): The value of the key column.
+     * @param values (Map<String, Object>): The column names and new values.
+     * @return CompletableFuture<Void>: A future completed as soon as the row was updated.
+     * <p>
+     * Example usage:
+     * <p>
+     * players.editEntry(uuid, Map.of("name", name));
+     */
+    public CompletableFuture<Void> editEntry(Object key, Map<String, Object> values) {
+        return CompletableFuture.runAsync(() -> {
+            List<Object> parameters = new ArrayList<>(values.size() + 1);
+            StringBuilder query = new StringBuilder("UPDATE ").append(DatabaseStatements.quote(tableName)).append(" SET ");
+            int index = 0;
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                query.append(index++ == 0 ? "" : ", ").append(DatabaseStatements.quote(entry.getKey())).append(" = ?");
+                parameters.add(entry.getValue());
+            }
+            query.append(DatabaseStatements.where(Map.of(keyColumn, key), parameters));
+            write(query.toString(), parameters);
+            synchronized (this) {
+                touch(DatabaseKeyLoader.normalize(key));
+                touch(DatabaseKeyLoader.normalize(values.getOrDefault(keyColumn, key)));
+                Entry entry = entries.get(DatabaseKeyLoader.normalize(key));
+                if (entry != null) {
+                    Object[] copy = entry.row.getRow().snapshot();
+                    DatabaseRowLayout layout = entry.row.getLayout();
+                    values.forEach((column, value) -> {
+                        int position = layout.indexOf(column);
+                        if (position >= 0) {
+                            copy[position] = value;
+                        }
+                    });
+                    replace(DatabaseKeyLoader.normalize(values.getOrDefault(keyColumn, key)), new DataResult(layout, new DatabaseRow(entry.row.getRow().getId(), copy)), key);
+                }
+            }
+        }, executor);
+    }
+
+    /**
+     * Method: removeEntry(Object key)
+     * <p>
+     * Deletes the row with the given key from the database and the cache.
+     *
+     * @param key (Object): The value of the key column.
+     * @return CompletableFuture<Void>: A future completed as soon as the row was deleted.
+     */
+    public CompletableFuture<Void> removeEntry(Object key) {
+        return CompletableFuture.runAsync(() -> {
+            List<Object> parameters = new ArrayList<>(1);
+            write("DELETE FROM " + DatabaseStatements.quote(tableName) + DatabaseStatements.where(Map.of(keyColumn, key), parameters), parameters);
+            invalidate(key);
+        }, executor);
+    }
+
+    /**
+     * Method: invalidate(Object key)
+     * <p>
+     * Removes the row with the given key from the cache, e.g. after it was changed by another application.
+     *
+     * @param key (Object): The value of the key column.
+     */
+    public synchronized void invalidate(Object key) {
+        Object normalized = DatabaseKeyLoader.normalize(key);
+        touch(normalized);
+        Entry entry = entries.remove(normalized);
+        if (entry != null) {
+            bytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * Method: invalidate(DatabaseInvalidation invalidation)
+     * <p>
+     * Removes the rows of a row change from the cache. Only the keys named in the conditions and new values are removed,
+     * a change which does not name the key column removes all rows. PythiaSQL calls it for every write through the loaded
+     * table and for every row change received through the invalidation bus.
+     *
+     * @param invalidation (DatabaseInvalidation): The row change of the table.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.onWrite(players::invalidate);
+     */
+    public void invalidate(DatabaseInvalidation invalidation) {
+        if (!invalidation.getTableName().equals(tableName)) {
+            return;
+        }
+        Object key = find(invalidation.getConditions());
+        if (key == null) {
+            invalidateAll();
+            return;
+        }
+        invalidate(key);
+        Object changed = find(invalidation.getValues());
+        if (changed != null) {
+            invalidate(changed);
+        }
+    }
+
+    /**
+     * Method: invalidateAll()
+     * <p>
+     * Removes all rows from the cache.
+     */
+    public synchronized void invalidateAll() {
+        clearedAt = ++clock;
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Method: size()
+     * <p>
+     * Returns the amount of cached rows, including expired rows which were not accessed since they expired.
+     *
+     * @return int: The amount of cached rows.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Method: getEstimatedBytes()
+     * <p>
+     * Returns the estimated heap size of all cached rows.
+     *
+     * @return long: The estimated size in bytes.
+     */
+    public synchronized long getEstimatedBytes() {
+        return bytes;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    /**
+     * Method: getLoadQueryCount()
+     * <p>
+     * Returns how many queries were sent to load missed rows. Concurrent misses share one query.
+     *
+     * @return long: The amount of load queries.
+     */
+    public long getLoadQueryCount() {
+        return loader.getQueryCount();
+    }
+
+    /**
+     * Method: getHitRate()
+     * <p>
+     * Returns the share of lookups which were answered from the cache.
+     *
+     * @return double: The hit rate between 0 and 1, or 0 if there were no lookups yet.
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Method: registerGauges(DatabaseMetrics metrics)
+     * <p>
+     * Registers the size, estimated bytes, hit rate, hits, misses and evictions of this cache as gauges named
+     * "cache.row.<table>.<keyColumn>.<value>".
+     *
+     * @param metrics (DatabaseMetrics): The registry to register the gauges at.
+     */
+    public void registerGauges(DatabaseMetrics metrics) {
+        String prefix = "cache.row." + tableName + "." + keyColumn + ".";
+        metrics.registerGauge(prefix + "size", this::size);
+        metrics.registerGauge(prefix + "bytes", this::getEstimatedBytes);
+        metrics.registerGauge(prefix + "hitRate", this::getHitRate);
+        metrics.registerGauge(prefix + "hits", this::getHitCount);
+        metrics.registerGauge(prefix + "misses", this::getMissCount);
+        metrics.registerGauge(prefix + "evictions", this::getEvictionCount);
+    }
+
+    /**
+     * Method: removeGauges(DatabaseMetrics metrics)
+     * <p>
+     * Removes the gauges registered by registerGauges(DatabaseMetrics).
+     *
+     * @param metrics (DatabaseMetrics): The registry to remove the gauges from.
+     */
+    public void removeGauges(DatabaseMetrics metrics) {
+        String prefix = "cache.row." + tableName + "." + keyColumn + ".";
+        for (String gauge : List.of("size", "bytes", "hitRate", "hits", "misses", "evictions")) {
+            metrics.removeGauge(prefix + gauge);
+        }
+    }
+
+    private void write(String query, List<Object> parameters) {
+        try {
+            connection.executeUpdate(query, parameters.toArray());
+        } catch (Exception e) {
+            System.err.println("[ERROR] Error while writing cached row of table " + tableName + ": " + e);
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Object find(Map<String, Object> values) {
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(keyColumn)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remembers that the key changed, so a load which started before is not cached. The versions are only kept while loads
+     * are running, a load which starts later reads the changed row anyway.
+     */
+    private void touch(Object normalized) {
+        if (loading > 0) {
+            invalidatedAt.put(normalized, ++clock);
+        }
+    }
+
+    private synchronized void loaded(Object key, DataResult row, long startedAt) {
+        Object normalized = DatabaseKeyLoader.normalize(key);
+        if (row != null && clearedAt <= startedAt && invalidatedAt.getOrDefault(normalized, Long.MIN_VALUE) <= startedAt) {
+            replace(normalized, row, null);
+        }
+        if (--loading == 0) {
+            invalidatedAt.clear();
+        }
+    }
+
+    private void replace(Object normalized, DataResult row, Object previousKey) {
+        if (previousKey != null) {
+            Entry previous = entries.remove(DatabaseKeyLoader.normalize(previousKey));
+            if (previous != null) {
+                bytes -= previous.bytes;
+            }
+        }
+        Entry entry = new Entry(row, settings.getTtlMillis() == 0 ? 0 : System.currentTimeMillis() + settings.getTtlMillis(), estimate(row.getRow()));
+        Entry previous = entries.put(normalized, entry);
+        bytes += entry.bytes - (previous == null ? 0 : previous.bytes);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && entries.size() > 1
+                && ((settings.getMaxEntries() > 0 && entries.size() > settings.getMaxEntries()) || (settings.getMaxBytes() > 0 && bytes > settings.getMaxBytes()))) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            bytes -= eldest.bytes;
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static long estimate(DatabaseRow row) {
+        long size = 32 + 16 + 8L * row.size();
+        for (int i = 0; i < row.size(); i++) {
+            Object value = row.get(i);
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof String text) {
+                size += 40 + text.length();
+            } else if (value instanceof byte[] data) {
+                size += 16 + data.length;
+            } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+                size += 48;
+            } else {
+                size += 24;
+            }
+        }
+        return size;
+    }
+
+    private record Entry(DataResult row, long expiresAt, long bytes) {
+    }
+}
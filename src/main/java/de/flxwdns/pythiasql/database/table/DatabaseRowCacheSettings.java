@@ -0,0 +1,101 @@
+package de.flxwdns.pythiasql.database.table;
+
+import lombok.Getter;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseRowCacheSettings {
+    private int maxEntries = 10_000;
+    private long maxBytes = 0;
+    private long ttlMillis = 0;
+    private long loadWindowMillis = DatabaseKeyLoader.DEFAULT_WINDOW_MILLIS;
+    private int maxLoadBatchSize = DatabaseKeyLoader.DEFAULT_MAX_BATCH_SIZE;
+
+    /**
+     * Method: withMaxEntries(int maxEntries)
+     * <p>
+     * Sets how many rows the cache keeps. The least recently used row is evicted first.
+     *
+     * @param maxEntries (int): The maximum amount of cached rows, 0 removes the limit.
+     * @return DatabaseRowCacheSettings: The current DatabaseRowCacheSettings instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseRowCacheSettings settings = new DatabaseRowCacheSettings().withMaxEntries(50_000);
+     */
+    public DatabaseRowCacheSettings withMaxEntries(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative");
+        }
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    /**
+     * Method: withMaxBytes(long maxBytes)
+     * <p>
+     * Sets how much heap the cached rows may use, based on an estimate of the row values. The least recently used rows are evicted first.
+     *
+     * @param maxBytes (long): The maximum estimated size in bytes, 0 removes the limit.
+     * @return DatabaseRowCacheSettings: The current DatabaseRowCacheSettings instance.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseRowCacheSettings settings = new DatabaseRowCacheSettings().withMaxBytes(64L * 1024 * 1024);
+     */
+    public DatabaseRowCacheSettings withMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * Method: withTtl(long ttlMillis)
+     * <p>
+     * Sets how long a row stays valid after it was loaded. Expired rows are loaded again on the next access.
+     *
+     * @param ttlMillis (long): The time to live in milliseconds, 0 keeps rows until they are evicted.
+     * @return DatabaseRowCacheSettings: The current DatabaseRowCacheSettings instance.
+     */
+    public DatabaseRowCacheSettings withTtl(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        this.ttlMillis = ttlMillis;
+        return this;
+    }
+
+    /**
+     * Method: withLoadWindow(long loadWindowMillis)
+     * <p>
+     * Sets how long missed keys are collected before they are loaded together, see DatabaseKeyLoader.
+     *
+     * @param loadWindowMillis (long): The window in milliseconds.
+     * @return DatabaseRowCacheSettings: The current DatabaseRowCacheSettings instance.
+     */
+    public DatabaseRowCacheSettings withLoadWindow(long loadWindowMillis) {
+        if (loadWindowMillis < 0) {
+            throw new IllegalArgumentException("loadWindow must not be negative");
+        }
+        this.loadWindowMillis = loadWindowMillis;
+        return this;
+    }
+
+    /**
+     * Method: withMaxLoadBatchSize(int maxLoadBatchSize)
+     * <p>
+     * Sets how many missed keys are loaded with one query at most, see DatabaseKeyLoader.
+     *
+     * @param maxLoadBatchSize (int): The maximum amount of keys per query.
+     * @return DatabaseRowCacheSettings: The current DatabaseRowCacheSettings instance.
+     */
+    public DatabaseRowCacheSettings withMaxLoadBatchSize(int maxLoadBatchSize) {
+        if (maxLoadBatchSize < 1) {
+            throw new IllegalArgumentException("maxLoadBatchSize must be at least 1");
+        }
+        this.maxLoadBatchSize = maxLoadBatchSize;
+        return this;
+    }
+}
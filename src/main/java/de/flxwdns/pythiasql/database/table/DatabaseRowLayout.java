@@ -0,0 +1,268 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.database.schema.DatabaseColumn;
+import de.flxwdns.pythiasql.database.schema.DatabaseTableSchema;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+@SuppressWarnings("unused")
+public final class DatabaseRowLayout {
+    @Getter
+    private final List<String> columns;
+    private final Map<String, Integer> positions;
+    @Getter
+    private final DatabaseTableSchema schema;
+    private volatile String[] classNames;
+    private volatile boolean resolved;
+
+    /**
+     * Constructor: DatabaseRowLayout(List<String> columns)
+     * <p>
+     * Resolves the position of every column once, so rows can be addressed by index instead of by name.
+     *
+     * @param columns (List<String>): The column names in the order the row values are stored.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseRowLayout layout = new DatabaseRowLayout(List.of("uuid", "name"));
+     * int index = layout.indexOf("name"); // 1
+     */
+    public DatabaseRowLayout(List<String> columns) {
+        this(columns, null);
+    }
+
+    /**
+     * Constructor: DatabaseRowLayout(DatabaseTableSchema schema)
+     * <p>
+     * Creates a layout with all columns of the table schema in table order. The column classes are known right away
+     * and the schema is available to all rows read with the layout.
+     *
+     * @param schema (DatabaseTableSchema): The schema of the table.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseRowLayout layout = new DatabaseRowLayout(handler.getCatalog().getSchema("players"));
+     */
+    public DatabaseRowLayout(DatabaseTableSchema schema) {
+        this(schema.getColumnNames(), schema);
+        this.classNames = schema.getColumns().stream().map(DatabaseColumn::getClassName).toArray(String[]::new);
+    }
+
+    private DatabaseRowLayout(List<String> columns, DatabaseTableSchema schema) {
+        this.schema = schema;
+        this.columns = List.copyOf(columns);
+        this.positions = new HashMap<>(columns.size() * 2);
+        for (int i = 0; i < columns.size(); i++) {
+            positions.putIfAbsent(columns.get(i), i);
+            positions.putIfAbsent(columns.get(i).toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * Method: of(ResultSet resultSet)
+     * <p>
+     * Creates a layout with all columns of the result set in result set order.
+     *
+     * @param resultSet (ResultSet): The result set to read the column labels from.
+     * @return DatabaseRowLayout: The layout of the result set.
+     * @throws SQLException: If the metadata could not be read.
+     */
+    public static DatabaseRowLayout of(ResultSet resultSet) throws SQLException {
+        var metaData = resultSet.getMetaData();
+        List<String> columns = new ArrayList<>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(metaData.getColumnLabel(i));
+        }
+        return new DatabaseRowLayout(columns);
+    }
+
+    /**
+     * Method: indexOf(String column)
+     * <p>
+     * Returns the position of the column. The exact name is looked up first, then the name ignoring case.
+     *
+     * @param column (String): The column name.
+     * @return int: The position of the column or -1 if the layout does not contain it.
+     */
+    public int indexOf(String column) {
+        Integer index = positions.get(column);
+        if (index == null) {
+            index = positions.get(column.toLowerCase(Locale.ROOT));
+        }
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Method: size()
+     * <p>
+     * Returns the amount of columns of the layout.
+     *
+     * @return int: The amount of columns.
+     */
+    public int size() {
+        return columns.size();
+    }
+
+    /**
+     * Method: getColumn(int index)
+     * <p>
+     * Returns the name of the column at the given position.
+     *
+     * @param index (int): The position of the column.
+     * @return String: The column name.
+     */
+    public String getColumn(int index) {
+        return columns.get(index);
+    }
+
+    /**
+     * Method: getColumnInfo(String column)
+     * <p>
+     * Returns the schema information of a column, if the layout was created from a table schema.
+     *
+     * @param column (String): The column name.
+     * @return DatabaseColumn: The column information, or null if the layout has no schema or does not contain the column.
+     */
+    public DatabaseColumn getColumnInfo(String column) {
+        return schema == null ? null : schema.getColumn(column);
+    }
+
+    /**
+     * Method: getColumnClassName(int index)
+     * <p>
+     * Returns the Java class the driver uses for values of the column, as soon as it is known from the table schema or
+     * the layout was resolved against a result set once.
+     *
+     * @param index (int): The position of the column.
+     * @return String: The fully-qualified class name, or null if it is not known yet.
+     */
+    public String getColumnClassName(int index) {
+        String[] names = classNames;
+        return names == null ? null : names[index];
+    }
+
+    /**
+     * Method: resolve(ResultSet resultSet)
+     * <p>
+     * Resolves the result set position of every layout column once, so the rows can be read by index afterwards.
+     *
+     * @param resultSet (ResultSet): The result set which contains the columns of the layout.
+     * @return int[]: The 1-based result set position for every layout column.
+     * @throws SQLException: If the result set does not contain a column of the layout.
+     */
+    public int[] resolve(ResultSet resultSet) throws SQLException {
+        int[] positions = new int[columns.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = resultSet.findColumn(columns.get(i));
+        }
+        if (!resolved) {
+            var metaData = resultSet.getMetaData();
+            String[] names = new String[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                names[i] = metaData.getColumnClassName(positions[i]);
+            }
+            classNames = names;
+            resolved = true;
+        }
+        return positions;
+    }
+
+    /**
+     * Method: read(ResultSet resultSet, int[] positions)
+     * <p>
+     * Reads the current row of the result set into a value array ordered like the layout.
+     *
+     * @param resultSet (ResultSet): The result set positioned on the row to read.
+     * @param positions (int[]): The positions returned by resolve(ResultSet).
+     * @return Object[]: The values of the row.
+     * @throws SQLException: If a value could not be read.
+     */
+    public Object[] read(ResultSet resultSet, int[] positions) throws SQLException {
+        Object[] values = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            values[i] = resultSet.getObject(positions[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Method: convert(int index, Object value)
+     * <p>
+     * Converts a value given by the caller to the class the driver returns for the column, so cached values look the same
+     * as values read from the database. A UUID becomes a String for a CHAR column, a Boolean becomes 1 or 0 for a
+     * TINYINT column and an Integer becomes a Long for a BIGINT column.
+     *
+     * @param index (int): The position of the column.
+     * @param value (Object): The value given by the caller.
+     * @return Object: The converted value, or the value itself if the column class is not known yet or the value can
+     * not be converted without losing information.
+     * <p>
+     * Example usage:
+     * <p>
+     * Object cached = layout.convert(layout.indexOf("uuid"), UUID.randomUUID()); // String
+     */
+    public Object convert(int index, Object value) {
+        String className = getColumnClassName(index);
+        if (value == null || className == null || value.getClass().getName().equals(className)) {
+            return value;
+        }
+        if (value instanceof Boolean bool && !className.equals("java.lang.String")) {
+            value = bool ? 1 : 0;
+        }
+        return switch (className) {
+            case "java.lang.String" -> value instanceof Enum<?> constant ? constant.name() : value instanceof CharSequence || value instanceof Character || value instanceof UUID ? value.toString() : value;
+            case "java.lang.Boolean" -> value instanceof Number number ? number.intValue() != 0 : value;
+            case "java.sql.Timestamp" -> value instanceof LocalDateTime time ? Timestamp.valueOf(time) : value instanceof Instant instant ? Timestamp.from(instant) : value;
+            case "java.time.LocalDateTime" -> value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+            case "java.sql.Date" -> value instanceof LocalDate date ? Date.valueOf(date) : value;
+            case "java.time.LocalDate" -> value instanceof Date date ? date.toLocalDate() : value;
+            case "java.sql.Time" -> value instanceof LocalTime time ? Time.valueOf(time) : value;
+            case "java.time.LocalTime" -> value instanceof Time time ? time.toLocalTime() : value;
+            default -> value instanceof Number number ? convertNumber(number, className) : value;
+        };
+    }
+
+    private static Object convertNumber(Number number, String className) {
+        BigDecimal exact;
+        try {
+            exact = number instanceof BigDecimal decimal ? decimal : number instanceof BigInteger integer ? new BigDecimal(integer)
+                    : number instanceof Double || number instanceof Float ? BigDecimal.valueOf(number.doubleValue()) : BigDecimal.valueOf(number.longValue());
+        } catch (NumberFormatException exception) {
+            // NaN and infinity have no exact value and are kept as they are
+            return number;
+        }
+        try {
+            return switch (className) {
+                case "java.lang.Integer" -> exact.intValueExact();
+                case "java.lang.Long" -> exact.longValueExact();
+                case "java.lang.Short" -> exact.shortValueExact();
+                case "java.lang.Byte" -> exact.byteValueExact();
+                case "java.math.BigInteger" -> exact.toBigIntegerExact();
+                case "java.math.BigDecimal" -> exact;
+                case "java.lang.Double" -> number.doubleValue();
+                case "java.lang.Float" -> number.floatValue();
+                default -> number;
+            };
+        } catch (ArithmeticException exception) {
+            // The database rejects a value which does not fit the column, the write fails before it is cached
+            return number;
+        }
+    }
+}
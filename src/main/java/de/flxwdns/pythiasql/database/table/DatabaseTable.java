@@ -1,36 +1,194 @@
 package de.flxwdns.pythiasql.database.table;
 
+import de.flxwdns.pythiasql.database.async.DatabaseExecutors;
+import de.flxwdns.pythiasql.database.async.DatabaseTaskLimiter;
 import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import de.flxwdns.pythiasql.database.connect.DatabaseStatements;
 import de.flxwdns.pythiasql.database.filter.DatabaseEntryFilter;
+import de.flxwdns.pythiasql.database.invalidation.DatabaseInvalidation;
+import de.flxwdns.pythiasql.database.invalidation.DatabaseInvalidationBus;
+import de.flxwdns.pythiasql.database.metrics.DatabaseMetrics;
+import de.flxwdns.pythiasql.database.mapper.DatabaseRowMapper;
 import de.flxwdns.pythiasql.database.result.DataResult;
+import de.flxwdns.pythiasql.database.schema.DatabaseTableSchema;
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Getter
-@AllArgsConstructor
 @SuppressWarnings("unused")
 public final class DatabaseTable {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int MAX_PARAMETERS = 65_535;
+    private static final ScheduledExecutorService REFRESH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "PythiaSQL-Refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     @Getter(AccessLevel.NONE)
     private final DatabaseConnectHandler connection;
 
     private final String tableName;
     private final List<String> types;
-    private final List<DatabaseEntry> entries;
+    private final DatabaseRowLayout layout;
+    private final String generatedColumn;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<Integer, DatabaseRow> rows;
+    @Getter(AccessLevel.NONE)
+    private int nextId;
+    @Getter(AccessLevel.NONE)
+    private final List<DatabaseIndex> indexes = new ArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    private final DatabaseTaskLimiter limiter;
+    @Getter(AccessLevel.NONE)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    @Getter(AccessLevel.NONE)
+    private volatile DatabaseWriteBehind writeBehind;
+    @Getter(AccessLevel.NONE)
+    private volatile DatabaseInvalidationBus invalidationBus;
+    @Getter(AccessLevel.NONE)
+    private final List<Consumer<DatabaseInvalidation>> writeListeners = new CopyOnWriteArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private volatile DatabaseGroupCommit groupCommit;
+    @Getter(AccessLevel.NONE)
+    private volatile DatabaseRefreshSettings refreshSettings;
+    @Getter(AccessLevel.NONE)
+    private ScheduledFuture<?> refreshTask;
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    @Getter(AccessLevel.NONE)
+    private String refreshKeyColumn;
+    @Getter(AccessLevel.NONE)
+    private final Object refreshLock = new Object();
+    @Getter(AccessLevel.NONE)
+    private final Deque<RefreshCheckpoint> refreshCheckpoints = new ArrayDeque<>();
+    @Getter(AccessLevel.NONE)
+    private final Set<Object> appliedChanges = new HashSet<>();
+
+    /**
+     * Constructor: DatabaseTable(DatabaseConnectHandler connection, String tableName, List<String> types, List<DatabaseEntry> entries)
+     * <p>
+     * Constructs a new table cache from single cells, as tables were created before rows were stored as value arrays.
+     * The entries are grouped into rows by their ID, asynchronous operations run on a shared default executor.
+     *
+     * @param connection (DatabaseConnectHandler): The connection used for the table operations.
+     * @param tableName (String): The name of the table.
+     * @param types (List<String>): The column names of the table.
+     * @param entries (List<DatabaseEntry>): The cells of the table, cells with the same ID form one row.
+     * <p>
+     * Note: The entries are copied into the rows. Use getEntries to get entries which change the cached rows.
+     */
+    public DatabaseTable(DatabaseConnectHandler connection, String tableName, List<String> types, List<DatabaseEntry> entries) {
+        this(connection, tableName, types, new DatabaseRowLayout(types), new LinkedHashMap<>(), new DatabaseTaskLimiter(DefaultExecutor.INSTANCE, 1), null);
+        Map<Integer, Object[]> values = new LinkedHashMap<>();
+        for (DatabaseEntry entry : entries) {
+            int index = layout.indexOf(entry.getColumnName());
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown column " + entry.getColumnName() + " of table " + tableName);
+            }
+            values.computeIfAbsent(entry.getId(), id -> new Object[types.size()])[index] = entry.getValue();
+        }
+        values.forEach((id, row) -> {
+            rows.put(id, new DatabaseRow(id, row));
+            nextId = Math.max(nextId, id + 1);
+        });
+    }
+
+    /**
+     * Constructor: DatabaseTable(DatabaseConnectHandler connection, String tableName, List<String> types, List<Object[]> values, DatabaseTaskLimiter limiter)
+     * <p>
+     * Constructs a new table cache. Every value array is stored as one row, ordered like the columns in `types`.
+     *
+     * @param connection (DatabaseConnectHandler): The connection used for the table operations.
+     * @param tableName (String): The name of the table.
+     * @param types (List<String>): The column names of the table.
+     * @param values (List<Object[]>): The loaded rows of the table.
+     * @param limiter (DatabaseTaskLimiter): The limiter asynchronous operations of the table are run on.
+     */
+    public DatabaseTable(DatabaseConnectHandler connection, String tableName, List<String> types, List<Object[]> values, DatabaseTaskLimiter limiter) {
+        this(connection, tableName, types, values, limiter, null);
+    }
+
+    /**
+     * Constructor: DatabaseTable(DatabaseConnectHandler connection, String tableName, List<String> types, List<Object[]> values, DatabaseTaskLimiter limiter, String generatedColumn)
+     * <p>
+     * Constructs a new table cache for a table with a column generated by the database, e.g. an AUTO_INCREMENT id.
+     *
+     * @param connection (DatabaseConnectHandler): The connection used for the table operations.
+     * @param tableName (String): The name of the table.
+     * @param types (List<String>): The column names of the table.
+     * @param values (List<Object[]>): The loaded rows of the table.
+     * @param limiter (DatabaseTaskLimiter): The limiter asynchronous operations of the table are run on.
+     * @param generatedColumn (String): The column filled by the database on insert, or null.
+     */
+    public DatabaseTable(DatabaseConnectHandler connection, String tableName, List<String> types, List<Object[]> values, DatabaseTaskLimiter limiter, String generatedColumn) {
+        this(connection, tableName, new DatabaseRowLayout(types), values, limiter, generatedColumn);
+    }
+
+    /**
+     * Constructor: DatabaseTable(DatabaseConnectHandler connection, String tableName, DatabaseRowLayout layout, List<Object[]> values, DatabaseTaskLimiter limiter, String generatedColumn)
+     * <p>
+     * Constructs a new table cache with a layout that was already resolved while loading the rows.
+     *
+     * @param connection (DatabaseConnectHandler): The connection used for the table operations.
+     * @param tableName (String): The name of the table.
+     * @param layout (DatabaseRowLayout): The column layout the values are ordered by.
+     * @param values (List<Object[]>): The loaded rows of the table.
+     * @param limiter (DatabaseTaskLimiter): The limiter asynchronous operations of the table are run on.
+     * @param generatedColumn (String): The column filled by the database on insert, or null.
+     */
+    public DatabaseTable(DatabaseConnectHandler connection, String tableName, DatabaseRowLayout layout, List<Object[]> values, DatabaseTaskLimiter limiter, String generatedColumn) {
+        this(connection, tableName, layout.getColumns(), layout, new LinkedHashMap<>(Math.max(16, values.size() * 4 / 3 + 1)), limiter, generatedColumn);
+        values.forEach(this::addRow);
+    }
+
+    private static final class DefaultExecutor {
+        private static final ExecutorService INSTANCE = DatabaseExecutors.createDefault();
+    }
+
+    private DatabaseTable(DatabaseConnectHandler connection, String tableName, List<String> types, DatabaseRowLayout layout, Map<Integer, DatabaseRow> rows, DatabaseTaskLimiter limiter, String generatedColumn) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.types = types;
+        this.layout = layout;
+        this.rows = rows;
+        this.limiter = limiter;
+        this.generatedColumn = generatedColumn;
+        rows.keySet().forEach(id -> nextId = Math.max(nextId, id + 1));
+    }
 
     /**
      * Method: isEntryExists(Map<String, Object> values)
      * <p>
      * Checks if an entry exists in the database table based on the specified columns and values.
+     * A row matches if it has all of the given values, like the conditions of filter and editEntry.
      *
      * @param values (Map<String, Object>): An array of values corresponding to the columns used for identification.
-     * @return boolean: True if an entry with the specified columns and values exists, false otherwise.
+     * @return boolean: True if an entry with all the specified columns and values exists, false otherwise or if no values are given.
      * <p>
      * Example usage:
      * <p>
@@ -38,10 +196,32 @@ public final class DatabaseTable {
      * Map<String, Object> targetValues = Map.of("uuid", "49d12a56-f1e9-4918-a521-fcd4d7c838b9"); // Specify the values
      * boolean entryExists = table.isEntryExists(targetValues);
      *
-     * Note: The behavior of this method assumes that the `entries` list has been populated with DatabaseEntry objects prior to calling this method.
+     * Note: The behavior of this method assumes that the rows of the table have been loaded prior to calling this method.
+     * Earlier versions returned true if a single value matched, e.g. Map.of("name", "John", "age", 30) was true for any John.
+     * Call isEntryExists once per value to keep that behavior.
      */
     public boolean isEntryExists(Map<String, Object> values) {
-        return values.entrySet().stream().anyMatch(set -> entries.stream().anyMatch(entry -> entry.getColumnName().equals(set.getKey()) && entry.getValue().equals(set.getValue())));
+        if (values.isEmpty()) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return !match(values, 1).isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Method: isEntryExistsAsync(Map<String, Object> values)
+     * <p>
+     * Asynchronous variant of isEntryExists which runs on the table executor.
+     *
+     * @param values (Map<String, Object>): The columns and values used for identification.
+     * @return CompletableFuture<Boolean>: A future completed with true if a matching entry exists.
+     */
+    public CompletableFuture<Boolean> isEntryExistsAsync(Map<String, Object> values) {
+        return limiter.submit(() -> isEntryExists(values));
     }
 
     /**
@@ -57,7 +237,7 @@ public final class DatabaseTable {
      * Map<String, Object> targetValues = Map.of("uuid", "49d12a56-f1e9-4918-a521-fcd4d7c838b9"); // Specify the values
      * table.ifEntryExists(targetValues, runnable);
      *
-     * Note: The behavior of this method assumes that the `entries` list has been populated with DatabaseEntry objects prior to calling this method.
+     * Note: The behavior of this method assumes that the rows of the table have been loaded prior to calling this method.
      */
     public void ifEntryExists(Map<String, Object> values, Runnable runnable) {
         if(isEntryExists(values)) {
@@ -78,7 +258,7 @@ public final class DatabaseTable {
      * Map<String, Object> targetValues = Map.of("uuid", "49d12a56-f1e9-4918-a521-fcd4d7c838b9"); // Specify the values
      * table.ifEntryExistsOrElse(targetValues, runnable, runnable);
      *
-     * Note: The behavior of this method assumes that the `entries` list has been populated with DatabaseEntry objects prior to calling this method.
+     * Note: The behavior of this method assumes that the rows of the table have been loaded prior to calling this method.
      */
     public void ifEntryExistsOrElse(Map<String, Object> values, Runnable ifPresent, Runnable ifNotPresent) {
         if(isEntryExists(values)) {
@@ -103,292 +283,2005 @@ public final class DatabaseTable {
      * table.createEntry(values);
      * <p>
      * Note: Ensure that you correctly initialize and connect the `connection` instance to the database before using this method.
-     *       Additionally, take care to avoid potential SQL injections by properly sanitizing or handling the values in the database query.
+     *       The values are bound as statement parameters, the column names are quoted.
+     *       The cached row is built from the values and the generated AUTO_INCREMENT key. The row is only read back
+     *       from the database if columns were left out and have to be filled with their server defaults.
      */
     public CompletableFuture<Void> createEntry(Map<String, Object> values) {
-        String[] stringArray = values.values()
-                .stream()
-                .map(o -> "'" + o + "'")
-                .toArray(String[]::new);
-        try {
-            connection.executeUpdate("INSERT INTO `" + tableName + "` (" + "`" + String.join("`, `", values.keySet().toArray(new String[]{})) + "`" + ") VALUES (" +  String.join(", ", stringArray) + ")");
-
-            StringBuilder queryBuilder = new StringBuilder();
-            queryBuilder.append(" WHERE ");
-            int index = 0;
-            for (Map.Entry<String, Object> entry : values.entrySet()) {
-                queryBuilder.append("`").append(entry.getKey()).append("`='").append(entry.getValue()).append("'");
-                if (index < values.size() - 1) {
-                    queryBuilder.append(" AND ");
-                }
-                index++;
-            }
-            connection.executeQuery("SELECT * FROM " + tableName + queryBuilder, resultSet -> {
-                List<DatabaseEntry> tempEntries = new ArrayList<>();
-                int[] id = new int[]{0};
-                while (resultSet.next()) {
-                    types.forEach(it -> {
-                        try {
-                            entries.add(new DatabaseEntry(id[0], resultSet.getObject(it), it));
-                        } catch (SQLException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
-                    id[0]++;
-                }
-                return null;
-            }, null);
-
-            //values.forEach((key, value) -> entries.add(new DatabaseEntry(index, value, key)));
-        } catch (Exception e) {
-            System.err.println("[ERROR] Error while creating entry in table " + tableName + ": " + e);
-            e.printStackTrace();
-            return CompletableFuture.failedFuture(e);
-        }
-        return CompletableFuture.completedFuture(null);
+        return submit(transaction -> {
+            insert(transaction, values);
+            return null;
+        });
     }
 
-    public CompletableFuture<Void> editEntry(Map<String, Object> conditions, Map<String, Object> values) {
-        CompletableFuture<Void> future = new CompletableFuture<>();
-
-        StringBuilder queryBuilder = new StringBuilder();
-        queryBuilder.append("UPDATE ").append(tableName).append(" SET ");
-
-        int index = 0;
-        for (Map.Entry<String, Object> entry : values.entrySet()) {
-            queryBuilder.append(entry.getKey()).append(" = '").append(entry.getValue()).append("'");
-            if (index < values.size() - 1) {
-                queryBuilder.append(", ");
-            }
-            index++;
-        }
-
-        queryBuilder.append(" WHERE ");
-        index = 0;
-        for (Map.Entry<String, Object> entry : conditions.entrySet()) {
-            queryBuilder.append("`").append(entry.getKey()).append("`='").append(entry.getValue()).append("'");
-            if (index < conditions.size() - 1) {
-                queryBuilder.append(" AND ");
-            }
-            index++;
-        }
-
-        try {
-            connection.executeUpdate(queryBuilder.toString());
-            for (Map.Entry<String, Object> conditionEntry : conditions.entrySet()) {
-                String conditionColumn = conditionEntry.getKey();
-                Object conditionValue = conditionEntry.getValue();
-
-                for (DatabaseEntry entry : entries) {
-                    if (entry.getValue().equals(conditionValue) && entry.getColumnName().equals(conditionColumn)) {
-                        int entryId = entry.getId();
-
-                        for (DatabaseEntry updatedEntry : entries) {
-                            if (updatedEntry.getId() == entryId && values.containsKey(updatedEntry.getColumnName())) {
-                                updatedEntry.setValue(values.get(updatedEntry.getColumnName()));
-                            }
-                        }
-                    }
-                }
-            }
-            future.complete(null);
-        } catch (Exception e) {
-            System.err.println("[ERROR] Error while editing entry in table " + tableName + ": " + e);
-            e.printStackTrace();
-            future.completeExceptionally(e);
+    void insert(DatabaseTransaction transaction, Map<String, Object> values) throws Exception {
+        List<String> columns = List.copyOf(values.keySet());
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = values.get(columns.get(i));
         }
-
-        return future;
+        insertBatch(transaction, columns, List.<Object[]>of(row), 1);
     }
 
     /**
-     * Method: removeEntry(Map<String, Object> conditions)
+     * Method: createEntries(List<Map<String, Object>> values)
      * <p>
-     * Removes an entry from the database table based on the specified columns and values.
+     * Creates many entries at once. Rows with the same columns are sent together as multi-row INSERT statements
+     * of up to DEFAULT_BATCH_SIZE rows, and the cache is updated from the inserted batches instead of reloading every row.
      *
-     * @param conditions (Map<String, Object>): An map of column names and values to identify the entry to be removed.
+     * @param values (List<Map<String, Object>>): The column names and values of every new entry.
+     * @return CompletableFuture<Integer>: A future completed with the amount of inserted rows.
      * <p>
      * Example usage:
      * <p>
-     * Map<String, Object> conditions = Map.of("ColumnName", false);
-     * <p>
-     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
-     * table.removeEntry(conditions);
+     * List<Map<String, Object>> values = List.of(Map.of("name", "John"), Map.of("name", "Jane"));
+     * table.createEntries(values).thenAccept(count -> System.out.println(count + " rows inserted"));
+     */
+    public CompletableFuture<Integer> createEntries(List<Map<String, Object>> values) {
+        return createEntries(values, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Method: createEntries(List<Map<String, Object>> values, int batchSize)
      * <p>
-     * Note: Ensure that you correctly initialize and connect the `connection` instance to the database before using this method.
-     *       Additionally, take care to properly sanitize or handle the values in the database query to prevent SQL injection vulnerabilities.
+     * Creates many entries at once like createEntries(List), with a custom amount of rows per INSERT statement.
+     *
+     * @param values (List<Map<String, Object>>): The column names and values of every new entry.
+     * @param batchSize (int): The maximum amount of rows per INSERT statement.
+     * @return CompletableFuture<Integer>: A future completed with the amount of inserted rows.
      */
-    public CompletableFuture<Void> removeEntry(Map<String, Object> conditions) {
-        StringBuilder queryBuilder = new StringBuilder();
-        queryBuilder.append("DELETE FROM `").append(tableName).append("` WHERE ");
+    public CompletableFuture<Integer> createEntries(List<Map<String, Object>> values, int batchSize) {
+        return submit(transaction -> insertAll(transaction, values, batchSize));
+    }
 
-        int index = 0;
-        for (Map.Entry<String, Object> entry : conditions.entrySet()) {
-            queryBuilder.append("`").append(entry.getKey()).append("`='").append(entry.getValue()).append("'");
-            if (index < conditions.size() - 1) {
-                queryBuilder.append(" AND ");
-            }
-            index++;
+    int insertAll(DatabaseTransaction transaction, List<Map<String, Object>> values, int batchSize) throws Exception {
+        int inserted = 0;
+        for (Map.Entry<List<String>, List<Object[]>> group : group(values).entrySet()) {
+            inserted += insertBatch(transaction, group.getKey(), group.getValue(), batchSize);
         }
-        try {
-            connection.executeUpdate(queryBuilder.toString());
-            for (Map.Entry<String, Object> set : conditions.entrySet()) {
-                entries.removeIf(entry -> entry.getValue().equals(set.getValue()) && entry.getColumnName().equals(set.getKey()));
+        return inserted;
+    }
+
+    private static Map<List<String>, List<Object[]>> group(List<Map<String, Object>> values) {
+        Map<List<String>, List<Object[]>> groups = new LinkedHashMap<>();
+        for (Map<String, Object> entry : values) {
+            List<String> columns = List.copyOf(entry.keySet());
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = entry.get(columns.get(i));
             }
-        } catch (Exception e) {
-            System.err.println("[ERROR] Error while removing entry in table " + tableName + ": " + e);
-            e.printStackTrace();
-            return CompletableFuture.failedFuture(e);
+            groups.computeIfAbsent(columns, it -> new ArrayList<>()).add(row);
         }
-        return CompletableFuture.completedFuture(null);
+        return groups;
     }
 
     /**
-     * Method: firstAsResult()
+     * Method: bulkWriter()
      * <p>
-     * Retrieves the first occurrence of a DatabaseEntry from the entries list.
+     * Creates a writer which collects entries and inserts them in batches of DEFAULT_BATCH_SIZE rows.
+     * The remaining entries are inserted when the writer is closed.
      *
-     * @return DataResult: A data result containing the first occurrence of a DatabaseEntry.
+     * @return DatabaseBulkWriter: A new bulk writer for this table.
      * <p>
      * Example usage:
      * <p>
-     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
-     * DataResult dataResult = table.firstAsResult();
-     *
-     * Note: The behavior of this method assumes that the `entries` list has been populated with DatabaseEntry objects prior to calling this method.
+     * try (DatabaseBulkWriter writer = table.bulkWriter()) {
+     *     players.forEach(player -> writer.accept(Map.of("uuid", player.uuid(), "name", player.name())));
+     * }
      */
-    public DataResult firstAsResult() {
-        List<DatabaseEntry> tempList = new ArrayList<>();
-        entries.stream().findFirst().ifPresent(tempList::add);
-
-        entries.forEach(entry -> {
-            if(tempList.stream().anyMatch(it -> it.getId() == entry.getId()) && entry != tempList.stream().findFirst().get()) {
-                tempList.add(entry);
-            }
-        });
-        return new DataResult(tempList);
-    }
-
-    public boolean isEmpty() {
-        return entries.isEmpty();
+    public DatabaseBulkWriter bulkWriter() {
+        return bulkWriter(DEFAULT_BATCH_SIZE);
     }
 
     /**
-     * Method: allAsResult()
-     * <p>
-     * Retrieves the first occurrence of a DatabaseEntry from the entries list.
-     *
-     * @return List<DataResult>: A data result list containing the first occurrence of a DatabaseEntry.
+     * Method: bulkWriter(int batchSize)
      * <p>
-     * Example usage:
-     * <p>
-     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
-     * List<DataResult> dataResults = table.allAsResult();
+     * Creates a writer like bulkWriter() with a custom amount of rows per INSERT statement.
      *
-     * Note: The behavior of this method assumes that the `entries` list has been populated with DatabaseEntry objects prior to calling this method.
+     * @param batchSize (int): The amount of rows collected per column set before they are inserted.
+     * @return DatabaseBulkWriter: A new bulk writer for this table.
      */
-    public List<DataResult> allAsResult() {
-        Map<Integer, List<DatabaseEntry>> groupedEntries = new HashMap<>();
-
-        for (DatabaseEntry entry : entries) {
-            int id = entry.getId();
-            groupedEntries.computeIfAbsent(id, k -> new ArrayList<>()).add(entry);
-        }
-
-        List<DataResult> resultList = new ArrayList<>();
-        for (List<DatabaseEntry> group : groupedEntries.values()) {
-            resultList.add(new DataResult(group));
-        }
-        return resultList;
+    public DatabaseBulkWriter bulkWriter(int batchSize) {
+        return new DatabaseBulkWriter(this, batchSize);
     }
 
     /**
-     * Method: getEntriesById(int id)
+     * Method: upsertEntry(List<String> keyColumns, Map<String, Object> values)
      * <p>
-     * Retrieves a list of DatabaseEntry objects from the entries list based on the specified ID.
+     * Inserts the entry, or updates the existing entry if a row with the same primary or unique key already exists.
+     * It runs as a single INSERT ... ON DUPLICATE KEY UPDATE statement, so it is atomic even if several applications write at the same time,
+     * and replaces the ifEntryExistsOrElse(..., editEntry, createEntry) pattern.
      *
-     * @param id (int): The ID value used to filter the DatabaseEntry objects.
-     * @return List<DatabaseEntry>: A list containing the DatabaseEntry objects matching the specified ID.
+     * @param keyColumns (List<String>): The columns of the primary or unique key which identifies the entry, the values have to contain them.
+     * @param values (Map<String, Object>): The column names and values of the entry.
+     * @return CompletableFuture<Void>: A future completed as soon as the entry was written and cached.
      * <p>
      * Example usage:
      * <p>
-     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
-     * int targetId = 123; // Specify the ID value
-     * List<DatabaseEntry> entriesById = table.getEntriesById(targetId);
-     *
-     * Note: The behavior of this method assumes that the `entries` list has been populated with DatabaseEntry objects prior to calling this method.
+     * table.upsertEntry(List.of("uuid"), Map.of("uuid", uuid, "name", name, "last_login", now));
+     * <p>
+     * Note: The cached row is updated in place. If the row was not cached yet, it is built from the values and the generated key
+     *       when it was inserted, and read back from the database when an existing row was updated.
      */
-    public List<DatabaseEntry> getEntriesById(int id) {
-        return entries.stream().filter(it -> it.getId() == id).collect(Collectors.toList());
+    public CompletableFuture<Void> upsertEntry(List<String> keyColumns, Map<String, Object> values) {
+        return submit(transaction -> {
+            upsert(transaction, keyColumns, values);
+            return null;
+        });
+    }
+
+    void upsert(DatabaseTransaction transaction, List<String> keyColumns, Map<String, Object> values) throws Exception {
+        List<String> columns = List.copyOf(values.keySet());
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = values.get(columns.get(i));
+        }
+        upsertBatch(transaction, keyColumns, columns, List.<Object[]>of(row), 1);
     }
 
     /**
-     * Method: filter(DatabaseEntryFilter filter)
+     * Method: upsertEntries(List<String> keyColumns, List<Map<String, Object>> values)
      * <p>
-     * Filters the entries in the database table based on the provided filter.
+     * Inserts or updates many entries at once like upsertEntry. Rows with the same columns are sent together as multi-row
+     * INSERT ... ON DUPLICATE KEY UPDATE statements of up to DEFAULT_BATCH_SIZE rows.
      *
-     * @param values (Map<String, Object> values): The filter used to specify the criteria for filtering the entries.
-     * @return DatabaseTable: A new DatabaseTable instance containing the filtered entries.
+     * @param keyColumns (List<String>): The columns of the primary or unique key which identifies the entries, the values have to contain them.
+     * @param values (List<Map<String, Object>>): The column names and values of every entry.
+     * @return CompletableFuture<Integer>: A future completed with the amount of written entries.
      * <p>
      * Example usage:
      * <p>
-     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
-     * DatabaseTable filteredTable = table.filter(Map.of("", ""));
-     *
-     * Note: The behavior of this method assumes that the `entries` list has been populated with DatabaseEntry objects prior to calling this method.
+     * table.upsertEntries(List.of("uuid"), players.stream().map(player -> Map.<String, Object>of("uuid", player.uuid(), "kills", player.kills())).toList());
      */
-    public DatabaseTable filter(Map<String, Object> values) {
-        List<DatabaseEntry> filteredEntries = new ArrayList<>();
-        Map<Integer, Boolean> idFilterMap = new HashMap<>();
+    public CompletableFuture<Integer> upsertEntries(List<String> keyColumns, List<Map<String, Object>> values) {
+        return submit(transaction -> upsertAll(transaction, keyColumns, values));
+    }
 
-        for (DatabaseEntry entry : entries) {
-            int entryId = entry.getId();
+    int upsertAll(DatabaseTransaction transaction, List<String> keyColumns, List<Map<String, Object>> values) throws Exception {
+        int written = 0;
+        for (Map.Entry<List<String>, List<Object[]>> group : group(values).entrySet()) {
+            written += upsertBatch(transaction, keyColumns, group.getKey(), group.getValue(), DEFAULT_BATCH_SIZE);
+        }
+        return written;
+    }
 
-            // Überprüfen, ob die ID bereits gefiltert wurde
-            if (idFilterMap.containsKey(entryId) && !idFilterMap.get(entryId)) {
-                continue;
+    private int upsertBatch(DatabaseTransaction transaction, List<String> keyColumns, List<String> columns, List<Object[]> values, int batchSize) throws Exception {
+        if (keyColumns.isEmpty()) {
+            throw new IllegalArgumentException("upsertEntry needs at least one key column");
+        }
+        int[] keyPositions = new int[keyColumns.size()];
+        for (int i = 0; i < keyPositions.length; i++) {
+            keyPositions[i] = columns.indexOf(keyColumns.get(i));
+            if (keyPositions[i] < 0) {
+                throw new IllegalArgumentException("The values of upsertEntry have to contain the key column " + keyColumns.get(i));
             }
+        }
+        flushPending(transaction);
+        List<String> updated = columns.stream().filter(column -> !keyColumns.contains(column)).toList();
+        String prefix = "INSERT INTO " + DatabaseStatements.quote(tableName) + " (" + String.join(", ", columns.stream().map(DatabaseStatements::quote).toList()) + ") VALUES ";
+        String suffix = " ON DUPLICATE KEY UPDATE " + String.join(", ", (updated.isEmpty() ? List.of(keyColumns.get(0)) : updated).stream()
+                .map(column -> DatabaseStatements.quote(column) + " = VALUES(" + DatabaseStatements.quote(column) + ")").toList());
+        String rowPlaceholders = "(" + DatabaseStatements.placeholders(columns.size()) + ")";
+        int rowsPerStatement = Math.max(1, Math.min(batchSize, MAX_PARAMETERS / Math.max(1, columns.size())));
+        int[] positions = columns.stream().mapToInt(layout::indexOf).toArray();
 
-            if (matchesFilter(entry, values)) {
-                //filteredEntries.add(entry);
-                idFilterMap.put(entryId, true);
-            } else {
-                idFilterMap.put(entryId, false);
+        int written = 0;
+        try {
+            for (int offset = 0; offset < values.size(); offset += rowsPerStatement) {
+                List<Object[]> chunk = values.subList(offset, Math.min(values.size(), offset + rowsPerStatement));
+                StringBuilder query = new StringBuilder(prefix.length() + suffix.length() + chunk.size() * (rowPlaceholders.length() + 2)).append(prefix);
+                Object[] parameters = new Object[chunk.size() * columns.size()];
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (i > 0) {
+                        query.append(", ");
+                    }
+                    query.append(rowPlaceholders);
+                    System.arraycopy(chunk.get(i), 0, parameters, i * columns.size(), columns.size());
+                }
+                query.append(suffix);
+                List<Object> keys = new ArrayList<>();
+                int affected = connection(transaction).executeWithKeys(query.toString(), keys, parameters);
+                onCommit(transaction, () -> {
+                    cacheUpserted(keyColumns, keyPositions, columns, chunk, positions, keys, affected);
+                    if (invalidationBus != null || !writeListeners.isEmpty()) {
+                        for (Object[] value : chunk) {
+                            Map<String, Object> conditions = new LinkedHashMap<>();
+                            for (int i = 0; i < keyPositions.length; i++) {
+                                conditions.put(keyColumns.get(i), value[keyPositions[i]]);
+                            }
+                            publish(DatabaseInvalidation.Kind.RELOAD, conditions, null);
+                        }
+                    }
+                });
+                written += chunk.size();
             }
+        } catch (Exception e) {
+            System.err.println("[ERROR] Error while upserting entries in table " + tableName + ": " + e);
+            e.printStackTrace();
+            throw e;
         }
+        return written;
+    }
 
-        entries.forEach(it -> {
-            if(idFilterMap.get(it.getId())) {
-                filteredEntries.add(it);
+    private void cacheUpserted(List<String> keyColumns, int[] keyPositions, List<String> columns, List<Object[]> chunk, int[] positions, List<Object> keys, int affected) {
+        List<Map<String, Object>> missing = new ArrayList<>();
+        for (Object[] value : chunk) {
+            Map<String, Object> conditions = new LinkedHashMap<>();
+            for (int i = 0; i < keyPositions.length; i++) {
+                conditions.put(keyColumns.get(i), value[keyPositions[i]]);
             }
+            if (read(() -> match(conditions, 1).isEmpty())) {
+                missing.add(conditions);
+                continue;
+            }
+            Map<String, Object> changes = new LinkedHashMap<>();
+            for (int i = 0; i < value.length; i++) {
+                changes.put(columns.get(i), value[i]);
+            }
+            applyUpdate(conditions, changes);
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        if (chunk.size() == 1 && affected == 1) {
+            cacheInserted(chunk, positions, keys);
+            return;
+        }
+
+        reload(keyColumns, missing.stream().map(conditions -> conditions.values().toArray()).toList());
+    }
+
+    int insertBatch(DatabaseTransaction transaction, List<String> columns, List<Object[]> values, int batchSize) throws Exception {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        flushPending(transaction);
+        int rowsPerStatement = Math.max(1, Math.min(batchSize, MAX_PARAMETERS / Math.max(1, columns.size())));
+        String prefix = "INSERT INTO " + DatabaseStatements.quote(tableName) + " (" + String.join(", ", columns.stream().map(DatabaseStatements::quote).toList()) + ") VALUES ";
+        String rowPlaceholders = "(" + DatabaseStatements.placeholders(columns.size()) + ")";
+        int[] positions = columns.stream().mapToInt(layout::indexOf).toArray();
+        read(() -> {
+            checkUnique(positions, values);
+            return null;
         });
 
-        return new DatabaseTable(connection, tableName, types, filteredEntries);
+        int inserted = 0;
+        try {
+            for (int offset = 0; offset < values.size(); offset += rowsPerStatement) {
+                List<Object[]> chunk = values.subList(offset, Math.min(values.size(), offset + rowsPerStatement));
+                StringBuilder query = new StringBuilder(prefix.length() + chunk.size() * (rowPlaceholders.length() + 2)).append(prefix);
+                Object[] parameters = new Object[chunk.size() * columns.size()];
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (i > 0) {
+                        query.append(", ");
+                    }
+                    query.append(rowPlaceholders);
+                    System.arraycopy(chunk.get(i), 0, parameters, i * columns.size(), columns.size());
+                }
+                List<Object> keys = connection(transaction).executeInsert(query.toString(), parameters);
+                onCommit(transaction, () -> {
+                    cacheInserted(chunk, positions, keys);
+                    publishInserted(columns, chunk, keys);
+                });
+                inserted += chunk.size();
+            }
+        } catch (Exception e) {
+            System.err.println("[ERROR] Error while creating entries in table " + tableName + ": " + e);
+            e.printStackTrace();
+            throw e;
+        }
+        return inserted;
     }
 
+    private void cacheInserted(List<Object[]> chunk, int[] positions, List<Object> keys) {
+        int generated = generatedColumn == null ? -1 : layout.indexOf(generatedColumn);
+        boolean generatedGiven = generated < 0 || contains(positions, generated);
+        boolean complete = true;
+        for (int i = 0; i < layout.size(); i++) {
+            if (i != generated && !contains(positions, i)) {
+                complete = false;
+                break;
+            }
+        }
 
+        if (!generatedGiven && !keys.isEmpty() && (!complete || keys.size() != chunk.size() || layout.getColumnClassName(generated) == null)) {
+            reload(List.of(generatedColumn), keys.stream().map(key -> new Object[]{key}).toList());
+            return;
+        }
+        if (!complete) {
+            // Omitted columns hold the DEFAULT of the server, only a read back caches the real values
+            List<String> keyColumns = readBackKey(chunk, positions);
+            if (keyColumns != null) {
+                int[] keyPositions = keyColumns.stream().mapToInt(column -> indexOf(positions, layout.indexOf(column))).toArray();
+                List<Object[]> tuples = new ArrayList<>(chunk.size());
+                for (Object[] value : chunk) {
+                    Object[] tuple = new Object[keyPositions.length];
+                    for (int i = 0; i < keyPositions.length; i++) {
+                        tuple[i] = value[keyPositions[i]];
+                    }
+                    tuples.add(tuple);
+                }
+                reload(keyColumns, tuples);
+                return;
+            }
+        }
 
-    /**
-     * Method: getFirstValue(String column)
-     * <p>
-     * Is deprecated please do not use this method.
-     * <p>
-     * Use now firstAsResult()
-     */
-    @Deprecated
-    public Object getFirstValue(String column) {
-        return entries.stream().filter(entry -> entry.getColumnName().equalsIgnoreCase(column)).findFirst().map(DatabaseEntry::getValue).orElse(null);
+        lock.writeLock().lock();
+        try {
+            for (int index = 0; index < chunk.size(); index++) {
+                Object[] value = chunk.get(index);
+                Object[] row = new Object[layout.size()];
+                for (int i = 0; i < positions.length; i++) {
+                    if (positions[i] >= 0) {
+                        row[positions[i]] = layout.convert(positions[i], value[i]);
+                    }
+                }
+                if (!generatedGiven && index < keys.size()) {
+                    row[generated] = convertKey(keys.get(index), layout.getColumnClassName(generated));
+                }
+                addRow(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<String> readBackKey(List<Object[]> chunk, int[] positions) {
+        List<List<String>> candidates = new ArrayList<>();
+        if (generatedColumn != null) {
+            candidates.add(List.of(generatedColumn));
+        }
+        DatabaseTableSchema schema = layout.getSchema();
+        if (schema != null) {
+            if (!schema.getPrimaryKey().isEmpty()) {
+                candidates.add(schema.getPrimaryKey());
+            }
+            candidates.addAll(schema.getUniqueKeys());
+        }
+        indexes.stream().filter(DatabaseIndex::isUnique).map(DatabaseIndex::getColumns).forEach(candidates::add);
+
+        for (List<String> candidate : candidates) {
+            int[] keyPositions = candidate.stream().mapToInt(column -> indexOf(positions, layout.indexOf(column))).toArray();
+            if (Arrays.stream(keyPositions).allMatch(position -> position >= 0) && chunk.stream().allMatch(value -> Arrays.stream(keyPositions).allMatch(position -> value[position] != null))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void reload(List<String> keyColumns, List<Object[]> tuples) {
+        List<Object> parameters = new ArrayList<>(tuples.size() * keyColumns.size());
+        StringBuilder query = new StringBuilder("SELECT * FROM ").append(DatabaseStatements.quote(tableName)).append(" WHERE ");
+        if (keyColumns.size() == 1) {
+            query.append(DatabaseStatements.quote(keyColumns.get(0))).append(" IN (").append(DatabaseStatements.placeholders(tuples.size())).append(')');
+        } else {
+            query.append('(').append(String.join(", ", keyColumns.stream().map(DatabaseStatements::quote).toList())).append(") IN (");
+            String tuple = "(" + DatabaseStatements.placeholders(keyColumns.size()) + ")";
+            for (int i = 0; i < tuples.size(); i++) {
+                query.append(i == 0 ? "" : ", ").append(tuple);
+            }
+            query.append(')');
+        }
+        tuples.forEach(tuple -> parameters.addAll(Arrays.asList(tuple)));
+        if (keyColumns.size() == 1) {
+            query.append(" ORDER BY ").append(DatabaseStatements.quote(keyColumns.get(0)));
+        }
+        connection.executeUncachedQuery(query.toString(), resultSet -> {
+            List<Object[]> tempRows = new ArrayList<>(tuples.size());
+            int[] resultPositions = layout.resolve(resultSet);
+            while (resultSet.next()) {
+                tempRows.add(layout.read(resultSet, resultPositions));
+            }
+            lock.writeLock().lock();
+            try {
+                tempRows.forEach(this::addRow);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return null;
+        }, null, parameters.toArray());
     }
 
-    private boolean matchesFilter(DatabaseEntry entry, Map<String, Object> values) {
-        for (Map.Entry<String, Object> filterEntry : values.entrySet()) {
-            String columnName = filterEntry.getKey();
-            Object filterValue = filterEntry.getValue();
+    private void publishInserted(List<String> columns, List<Object[]> chunk, List<Object> keys) {
+        if (invalidationBus == null && writeListeners.isEmpty()) {
+            return;
+        }
+        boolean generated = generatedColumn != null && !columns.contains(generatedColumn) && keys.size() == chunk.size();
+        for (int index = 0; index < chunk.size(); index++) {
+            Map<String, Object> conditions = new LinkedHashMap<>();
+            if (generated) {
+                conditions.put(generatedColumn, convertKey(keys.get(index), layout.getColumnClassName(layout.indexOf(generatedColumn))));
+            } else {
+                for (int i = 0; i < columns.size(); i++) {
+                    conditions.put(columns.get(i), chunk.get(index)[i]);
+                }
+            }
+            publish(DatabaseInvalidation.Kind.RELOAD, conditions, null);
+        }
+    }
 
-            if (columnName.equals(entry.getColumnName()) && !filterValue.equals(entry.getValue())) {
-                return false; // Eintrag erfüllt nicht die Filterbedingung für diese Spalte
+    private void publish(DatabaseInvalidation.Kind kind, Map<String, Object> conditions, Map<String, Object> values) {
+        var bus = invalidationBus;
+        if (!writeListeners.isEmpty()) {
+            var invalidation = new DatabaseInvalidation(bus == null ? null : bus.getInstanceId(), tableName, kind, conditions, values);
+            for (Consumer<DatabaseInvalidation> listener : writeListeners) {
+                try {
+                    listener.accept(invalidation);
+                } catch (RuntimeException exception) {
+                    System.err.println("[ERROR] Could not handle " + invalidation + ": " + exception);
+                }
             }
         }
-        return true; // Eintrag erfüllt alle Filterbedingungen oder Spalte ist nicht im Filter enthalten
+        if (bus != null) {
+            bus.publish(tableName, kind, conditions, values);
+        }
+    }
+
+    private static Object convertKey(Object key, String className) {
+        if (!(key instanceof Number number) || className == null) {
+            return key;
+        }
+        return switch (className) {
+            case "java.lang.Integer" -> number.intValue();
+            case "java.lang.Long" -> number.longValue();
+            case "java.lang.Short" -> number.shortValue();
+            case "java.math.BigInteger" -> key instanceof BigInteger ? key : BigInteger.valueOf(number.longValue());
+            default -> key;
+        };
+    }
+
+    private static boolean contains(int[] array, int value) {
+        return indexOf(array, value) >= 0;
+    }
+
+    private static int indexOf(int[] array, int value) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public CompletableFuture<Void> editEntry(Map<String, Object> conditions, Map<String, Object> values) {
+        DatabaseWriteBehind buffer = writeBehind;
+        if (buffer != null) {
+            if (conditions.isEmpty()) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException("editEntry needs at least one condition"));
+            }
+            CompletableFuture<Void> future;
+            try {
+                checkUnique(conditions, values, false);
+                future = buffer.enqueue(conditions, values);
+            } catch (RejectedExecutionException | IllegalStateException exception) {
+                return CompletableFuture.failedFuture(exception);
+            }
+            if (future != null) {
+                applyUpdate(conditions, values);
+                // Other instances only hear about the update once it is written, otherwise they reload the old row
+                return future.thenRun(() -> publish(DatabaseInvalidation.Kind.UPDATE, conditions, values));
+            }
+        }
+        return submit(transaction -> {
+            update(transaction, conditions, values);
+            return null;
+        });
+    }
+
+    void update(DatabaseTransaction transaction, Map<String, Object> conditions, Map<String, Object> values) throws Exception {
+        if (conditions.isEmpty()) {
+            throw new IllegalArgumentException("editEntry needs at least one condition");
+        }
+        checkUnique(conditions, values, false);
+        flushPending(transaction);
+        List<Object> parameters = new ArrayList<>(values.size() + conditions.size());
+        String query = updateQuery(conditions, values, parameters);
+
+        try {
+            connection(transaction).executeUpdate(query, parameters.toArray());
+            onCommit(transaction, () -> {
+                applyUpdate(conditions, values);
+                publish(DatabaseInvalidation.Kind.UPDATE, conditions, values);
+            });
+        } catch (Exception e) {
+            System.err.println("[ERROR] Error while editing entry in table " + tableName + ": " + e);
+            e.printStackTrace();
+            throw e;
+        }
+    }
+
+    String updateQuery(Map<String, Object> conditions, Map<String, Object> values, List<Object> parameters) {
+        StringBuilder queryBuilder = new StringBuilder();
+        queryBuilder.append("UPDATE ").append(DatabaseStatements.quote(tableName)).append(" SET ");
+
+        int index = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            queryBuilder.append(DatabaseStatements.quote(entry.getKey())).append(" = ?");
+            parameters.add(entry.getValue());
+            if (index < values.size() - 1) {
+                queryBuilder.append(", ");
+            }
+            index++;
+        }
+        queryBuilder.append(DatabaseStatements.where(conditions, parameters));
+        return queryBuilder.toString();
+    }
+
+    private void applyUpdate(Map<String, Object> conditions, Map<String, Object> values) {
+        lock.writeLock().lock();
+        try {
+            int[] positions = new int[values.size()];
+            Object[] newValues = new Object[values.size()];
+            int column = 0;
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                positions[column] = layout.indexOf(entry.getKey());
+                newValues[column] = positions[column] < 0 ? null : layout.convert(positions[column], entry.getValue());
+                column++;
+            }
+            List<DatabaseIndex> touched = indexes.stream().filter(it -> it.touches(positions)).toList();
+            for (DatabaseRow row : match(conditions, Integer.MAX_VALUE)) {
+                Object[] copy = row.snapshot();
+                for (int i = 0; i < positions.length; i++) {
+                    if (positions[i] >= 0) {
+                        copy[positions[i]] = newValues[i];
+                    }
+                }
+                replaceRow(row, copy, touched);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method: incrementEntry(Map<String, Object> conditions, String column, Number amount)
+     * <p>
+     * Adds the amount to a numeric column of all matching entries. The new value is calculated by the database in a single
+     * UPDATE ... SET column = column + ? statement, so concurrent increments from several applications are never lost.
+     *
+     * @param conditions (Map<String, Object>): The column names and values of the entries to change.
+     * @param column (String): The numeric column to increase.
+     * @param amount (Number): The amount to add, negative values decrease the column.
+     * @return CompletableFuture<Void>: A future completed as soon as the entries were changed.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.incrementEntry(Map.of("uuid", uuid), "kills", 1);
+     * <p>
+     * Note: The same amount is added to the cached values, a NULL value stays NULL like in the database.
+     */
+    public CompletableFuture<Void> incrementEntry(Map<String, Object> conditions, String column, Number amount) {
+        return incrementEntry(conditions, Map.of(column, amount));
+    }
+
+    /**
+     * Method: incrementEntry(Map<String, Object> conditions, Map<String, Number> amounts)
+     * <p>
+     * Adds the amounts to several numeric columns of all matching entries in one statement, see incrementEntry(Map, String, Number).
+     *
+     * @param conditions (Map<String, Object>): The column names and values of the entries to change.
+     * @param amounts (Map<String, Number>): The amount to add per column.
+     * @return CompletableFuture<Void>: A future completed as soon as the entries were changed.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.incrementEntry(Map.of("uuid", uuid), Map.of("kills", 1, "coins", 25));
+     */
+    public CompletableFuture<Void> incrementEntry(Map<String, Object> conditions, Map<String, Number> amounts) {
+        return submit(transaction -> {
+            increment(transaction, conditions, amounts);
+            return null;
+        });
+    }
+
+    /**
+     * Method: decrementEntry(Map<String, Object> conditions, String column, Number amount)
+     * <p>
+     * Subtracts the amount from a numeric column of all matching entries, see incrementEntry(Map, String, Number).
+     *
+     * @param conditions (Map<String, Object>): The column names and values of the entries to change.
+     * @param column (String): The numeric column to decrease.
+     * @param amount (Number): The amount to subtract.
+     * @return CompletableFuture<Void>: A future completed as soon as the entries were changed.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.decrementEntry(Map.of("uuid", uuid), "coins", price);
+     */
+    public CompletableFuture<Void> decrementEntry(Map<String, Object> conditions, String column, Number amount) {
+        return incrementEntry(conditions, Map.of(column, negate(amount)));
+    }
+
+    void increment(DatabaseTransaction transaction, Map<String, Object> conditions, Map<String, Number> amounts) throws Exception {
+        if (conditions.isEmpty()) {
+            throw new IllegalArgumentException("incrementEntry needs at least one condition");
+        }
+        if (amounts.isEmpty()) {
+            return;
+        }
+        checkUnique(conditions, amounts, true);
+        flushPending(transaction);
+        List<Object> parameters = new ArrayList<>(amounts.size() + conditions.size());
+        StringBuilder query = new StringBuilder("UPDATE ").append(DatabaseStatements.quote(tableName)).append(" SET ");
+        int index = 0;
+        for (Map.Entry<String, Number> entry : amounts.entrySet()) {
+            String column = DatabaseStatements.quote(entry.getKey());
+            query.append(index++ == 0 ? "" : ", ").append(column).append(" = ").append(column).append(" + ?");
+            parameters.add(entry.getValue());
+        }
+        query.append(DatabaseStatements.where(conditions, parameters));
+
+        try {
+            connection(transaction).executeUpdate(query.toString(), parameters.toArray());
+            onCommit(transaction, () -> {
+                applyIncrement(conditions, amounts);
+                publish(DatabaseInvalidation.Kind.RELOAD, conditions, null);
+            });
+        } catch (Exception e) {
+            System.err.println("[ERROR] Error while incrementing entry in table " + tableName + ": " + e);
+            e.printStackTrace();
+            throw e;
+        }
+    }
+
+    private void applyIncrement(Map<String, Object> conditions, Map<String, Number> amounts) {
+        lock.writeLock().lock();
+        try {
+            int[] positions = amounts.keySet().stream().mapToInt(layout::indexOf).toArray();
+            Number[] deltas = amounts.values().toArray(Number[]::new);
+            List<DatabaseIndex> touched = indexes.stream().filter(it -> it.touches(positions)).toList();
+            for (DatabaseRow row : match(conditions, Integer.MAX_VALUE)) {
+                Object[] copy = row.snapshot();
+                for (int i = 0; i < positions.length; i++) {
+                    if (positions[i] >= 0) {
+                        copy[positions[i]] = add(copy[positions[i]], deltas[i]);
+                    }
+                }
+                replaceRow(row, copy, touched);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Object add(Object value, Number amount) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Integer number) {
+            return number + amount.intValue();
+        }
+        if (value instanceof Long number) {
+            return number + amount.longValue();
+        }
+        if (value instanceof Short number) {
+            return (short) (number + amount.shortValue());
+        }
+        if (value instanceof Byte number) {
+            return (byte) (number + amount.byteValue());
+        }
+        if (value instanceof BigInteger number) {
+            return number.add(new BigDecimal(amount.toString()).toBigInteger());
+        }
+        if (value instanceof BigDecimal number) {
+            return number.add(new BigDecimal(amount.toString()));
+        }
+        if (value instanceof Float number) {
+            return number + amount.floatValue();
+        }
+        if (value instanceof Double number) {
+            return number + amount.doubleValue();
+        }
+        return value;
+    }
+
+    static Number negate(Number amount) {
+        if (amount instanceof BigDecimal number) {
+            return number.negate();
+        }
+        if (amount instanceof BigInteger number) {
+            return number.negate();
+        }
+        if (amount instanceof Double || amount instanceof Float) {
+            return -amount.doubleValue();
+        }
+        return -amount.longValue();
+    }
+
+    /**
+     * Method: removeEntry(Map<String, Object> conditions)
+     * <p>
+     * Removes an entry from the database table based on the specified columns and values.
+     *
+     * @param conditions (Map<String, Object>): An map of column names and values to identify the entry to be removed.
+     * <p>
+     * Example usage:
+     * <p>
+     * Map<String, Object> conditions = Map.of("ColumnName", false);
+     * <p>
+     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
+     * table.removeEntry(conditions);
+     * <p>
+     * Note: Ensure that you correctly initialize and connect the `connection` instance to the database before using this method.
+     *       The values are bound as statement parameters, the column names are quoted.
+     */
+    public CompletableFuture<Void> removeEntry(Map<String, Object> conditions) {
+        return submit(transaction -> {
+            delete(transaction, conditions);
+            return null;
+        });
+    }
+
+    void delete(DatabaseTransaction transaction, Map<String, Object> conditions) throws Exception {
+        if (conditions.isEmpty()) {
+            throw new IllegalArgumentException("removeEntry needs at least one condition");
+        }
+        flushPending(transaction);
+        List<Object> parameters = new ArrayList<>(conditions.size());
+        String query = "DELETE FROM " + DatabaseStatements.quote(tableName) + DatabaseStatements.where(conditions, parameters);
+        try {
+            connection(transaction).executeUpdate(query, parameters.toArray());
+            onCommit(transaction, () -> {
+                lock.writeLock().lock();
+                try {
+                    match(conditions, Integer.MAX_VALUE).forEach(this::removeRow);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                publish(DatabaseInvalidation.Kind.DELETE, conditions, null);
+            });
+        } catch (Exception e) {
+            System.err.println("[ERROR] Error while removing entry in table " + tableName + ": " + e);
+            e.printStackTrace();
+            throw e;
+        }
+    }
+
+    /**
+     * Method: firstAsResult()
+     * <p>
+     * Retrieves the first occurrence of a DatabaseEntry from the cached rows.
+     *
+     * @return DataResult: A data result containing the first occurrence of a DatabaseEntry.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
+     * DataResult dataResult = table.firstAsResult();
+     *
+     * Note: The behavior of this method assumes that the rows of the table have been loaded prior to calling this method.
+     */
+    public DataResult firstAsResult() {
+        return read(() -> rows.values().stream().findFirst().map(row -> new DataResult(layout, row)).orElseGet(() -> new DataResult(List.of())));
+    }
+
+    /**
+     * Method: firstAsResultAsync()
+     * <p>
+     * Asynchronous variant of firstAsResult which runs on the table executor.
+     *
+     * @return CompletableFuture<DataResult>: A future completed with the first row of the table.
+     */
+    public CompletableFuture<DataResult> firstAsResultAsync() {
+        return limiter.submit(this::firstAsResult);
+    }
+
+    public boolean isEmpty() {
+        return read(rows::isEmpty);
+    }
+
+    /**
+     * Method: allAsResult()
+     * <p>
+     * Retrieves the first occurrence of a DatabaseEntry from the cached rows.
+     *
+     * @return List<DataResult>: A data result list containing the first occurrence of a DatabaseEntry.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
+     * List<DataResult> dataResults = table.allAsResult();
+     *
+     * Note: The behavior of this method assumes that the rows of the table have been loaded prior to calling this method.
+     */
+    public List<DataResult> allAsResult() {
+        return read(() -> {
+            List<DataResult> resultList = new ArrayList<>(rows.size());
+            for (DatabaseRow row : rows.values()) {
+                resultList.add(new DataResult(layout, row));
+            }
+            return resultList;
+        });
+    }
+
+    /**
+     * Method: allAsResultAsync()
+     * <p>
+     * Asynchronous variant of allAsResult which runs on the table executor.
+     *
+     * @return CompletableFuture<List<DataResult>>: A future completed with all rows of the table.
+     */
+    public CompletableFuture<List<DataResult>> allAsResultAsync() {
+        return limiter.submit(this::allAsResult);
+    }
+
+    /**
+     * Method: getEntriesById(int id)
+     * <p>
+     * Retrieves a list of DatabaseEntry objects from the cached rows based on the specified ID.
+     *
+     * @param id (int): The ID value used to filter the DatabaseEntry objects.
+     * @return List<DatabaseEntry>: A list containing the DatabaseEntry objects matching the specified ID.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
+     * int targetId = 123; // Specify the ID value
+     * List<DatabaseEntry> entriesById = table.getEntriesById(targetId);
+     *
+     * Note: The behavior of this method assumes that the rows of the table have been loaded prior to calling this method.
+     */
+    public List<DatabaseEntry> getEntriesById(int id) {
+        return read(() -> {
+            DatabaseRow row = rows.get(id);
+            return row == null ? new ArrayList<>() : row.asEntries(layout, this);
+        });
+    }
+
+    /**
+     * Method: getResultById(int id)
+     * <p>
+     * Retrieves the row with the specified in-memory ID.
+     *
+     * @param id (int): The ID of the row.
+     * @return DataResult: The row with the specified ID, or null if no such row is cached.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
+     * DataResult result = table.getResultById(123);
+     */
+    public DataResult getResultById(int id) {
+        return read(() -> {
+            DatabaseRow row = rows.get(id);
+            return row == null ? null : new DataResult(layout, row);
+        });
+    }
+
+    /**
+     * Method: getEntries()
+     * <p>
+     * Retrieves all cells of the table as DatabaseEntry views on the cached rows. Setting the value of an entry changes the cached row.
+     * <p>
+     * Note: Earlier versions returned the internal entry list of the table. The returned list is now created per call: the values
+     *       of its entries follow the cached rows, but rows inserted or removed later are not added to or removed from the list.
+     *
+     * @return List<DatabaseEntry>: The entries of all rows, row by row.
+     */
+    public List<DatabaseEntry> getEntries() {
+        return read(() -> {
+            List<DatabaseEntry> entries = new ArrayList<>(rows.size() * layout.size());
+            rows.values().forEach(row -> entries.addAll(row.asEntries(layout, this)));
+            return entries;
+        });
+    }
+
+    /**
+     * Method: size()
+     * <p>
+     * Returns the amount of cached rows.
+     *
+     * @return int: The amount of rows.
+     */
+    public int size() {
+        return read(rows::size);
+    }
+
+    /**
+     * Method: filter(DatabaseEntryFilter filter)
+     * <p>
+     * Filters the entries in the database table based on the provided filter.
+     *
+     * @param values (Map<String, Object> values): The filter used to specify the criteria for filtering the entries.
+     * @return DatabaseTable: A new DatabaseTable instance containing the filtered entries.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTable table = new DatabaseTable(); // Example instance of the database table
+     * DatabaseTable filteredTable = table.filter(Map.of("", ""));
+     *
+     * Note: The behavior of this method assumes that the rows of the table have been loaded prior to calling this method.
+     */
+    public DatabaseTable filter(Map<String, Object> values) {
+        lock.readLock().lock();
+        try {
+            return filterLocked(values);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Method: filterAsync(Map<String, Object> values)
+     * <p>
+     * Asynchronous variant of filter which runs on the table executor.
+     *
+     * @param values (Map<String, Object> values): The filter used to specify the criteria for filtering the entries.
+     * @return CompletableFuture<DatabaseTable>: A future completed with the filtered table.
+     */
+    public CompletableFuture<DatabaseTable> filterAsync(Map<String, Object> values) {
+        return limiter.submit(() -> filter(values));
+    }
+
+    private DatabaseTable filterLocked(Map<String, Object> values) {
+        Map<Integer, DatabaseRow> filteredRows = new LinkedHashMap<>();
+        match(values, Integer.MAX_VALUE).forEach(row -> filteredRows.put(row.getId(), new DatabaseRow(row.getId(), row.snapshot())));
+        return new DatabaseTable(connection, tableName, types, layout, filteredRows, limiter, generatedColumn);
+    }
+
+    /**
+     * Method: stream()
+     * <p>
+     * Reads all rows of the table directly from the database with a streaming cursor, without using or changing the cached rows.
+     * The rows are read lazily and only the current row is held in memory.
+     *
+     * @return Stream<DataResult>: The rows of the table, the stream has to be closed if it is not fully consumed.
+     * <p>
+     * Example usage:
+     * <p>
+     * try (Stream<DataResult> rows = table.stream()) {
+     *     rows.filter(row -> row.getInt("kills") > 100).forEach(row -> System.out.println(row.getString("name")));
+     * }
+     */
+    public Stream<DataResult> stream() {
+        return stream(Map.of());
+    }
+
+    /**
+     * Method: stream(Map<String, Object> conditions)
+     * <p>
+     * Reads all rows matching the conditions directly from the database with a streaming cursor, see stream().
+     *
+     * @param conditions (Map<String, Object>): The column names and values the rows have to match.
+     * @return Stream<DataResult>: The matching rows, the stream has to be closed if it is not fully consumed.
+     */
+    public Stream<DataResult> stream(Map<String, Object> conditions) {
+        List<Object> parameters = new ArrayList<>(conditions.size());
+        String query = "SELECT * FROM " + DatabaseStatements.quote(tableName) + DatabaseStatements.where(conditions, parameters);
+        return streamQuery(connection.getReader(), layout, query, parameters.toArray());
+    }
+
+    /**
+     * Method: forEachRow(Consumer<DataResult> consumer)
+     * <p>
+     * Streams all rows of the table from the database into the consumer and closes the cursor afterwards.
+     *
+     * @param consumer (Consumer<DataResult>): The consumer called for every row.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.forEachRow(row -> export(row));
+     */
+    public void forEachRow(Consumer<DataResult> consumer) {
+        try (Stream<DataResult> stream = stream()) {
+            stream.forEach(consumer);
+        }
+    }
+
+    /**
+     * Method: getSchema()
+     * <p>
+     * Returns the schema of the table with the column types, nullability and keys.
+     *
+     * @return DatabaseTableSchema: The schema, or null if the table was created without one.
+     * <p>
+     * Example usage:
+     * <p>
+     * int type = table.getSchema().getColumn("kills").getJdbcType(); // java.sql.Types.INTEGER
+     */
+    public DatabaseTableSchema getSchema() {
+        return layout.getSchema();
+    }
+
+    /**
+     * Method: query(DatabaseEntryFilter filter)
+     * <p>
+     * Runs the filter as SELECT query on the database, so only the matching rows are transferred. Unlike filter(Map), the cached rows are neither used nor changed,
+     * which makes it usable for tables that are too large to be loaded into memory.
+     *
+     * @param filter (DatabaseEntryFilter): The conditions, order, limit and selected columns of the query.
+     * @return List<DataResult>: The matching rows, or an empty list if the query failed.
+     * <p>
+     * Example usage:
+     * <p>
+     * List<DataResult> top = table.query(new DatabaseEntryFilter()
+     *         .withGreaterOrEqual("level", 10)
+     *         .withOrderBy("kills", false)
+     *         .withLimit(10));
+     */
+    public List<DataResult> query(DatabaseEntryFilter filter) {
+        List<Object> parameters = new ArrayList<>();
+        String query = filter.toQuery(tableName, parameters);
+        return selectQuery(connection.getReader(), filter.getSelectedColumns().isEmpty() ? layout : null, query, parameters.toArray());
+    }
+
+    /**
+     * Method: queryAsync(DatabaseEntryFilter filter)
+     * <p>
+     * Asynchronous variant of query which runs on the table executor.
+     *
+     * @param filter (DatabaseEntryFilter): The conditions, order, limit and selected columns of the query.
+     * @return CompletableFuture<List<DataResult>>: A future completed with the matching rows.
+     */
+    public CompletableFuture<List<DataResult>> queryAsync(DatabaseEntryFilter filter) {
+        return limiter.submit(() -> query(filter));
+    }
+
+    /**
+     * Method: stream(DatabaseEntryFilter filter)
+     * <p>
+     * Runs the filter as SELECT query on the database and streams the matching rows with a streaming cursor, see stream().
+     *
+     * @param filter (DatabaseEntryFilter): The conditions, order, limit and selected columns of the query.
+     * @return Stream<DataResult>: The matching rows, the stream has to be closed if it is not fully consumed.
+     */
+    public Stream<DataResult> stream(DatabaseEntryFilter filter) {
+        List<Object> parameters = new ArrayList<>();
+        String query = filter.toQuery(tableName, parameters);
+        return streamQuery(connection.getReader(), filter.getSelectedColumns().isEmpty() ? layout : null, query, parameters.toArray());
+    }
+
+    /**
+     * Method: loader(String keyColumn)
+     * <p>
+     * Creates a loader which collects concurrent single key lookups and sends them together as one WHERE key IN (...) query,
+     * see DatabaseKeyLoader. The rows are read from the database, the cached rows are not used or changed.
+     *
+     * @param keyColumn (String): The column the rows are looked up by.
+     * @return DatabaseKeyLoader: A new loader with a window of DEFAULT_WINDOW_MILLIS and batches of up to DEFAULT_MAX_BATCH_SIZE keys.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseKeyLoader loader = table.loader("uuid");
+     * loader.load(uuid).thenAccept(row -> ...);
+     */
+    public DatabaseKeyLoader loader(String keyColumn) {
+        return loader(keyColumn, DatabaseKeyLoader.DEFAULT_WINDOW_MILLIS, DatabaseKeyLoader.DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Method: loader(String keyColumn, long windowMillis, int maxBatchSize)
+     * <p>
+     * Creates a loader like loader(String) with a custom window and batch size.
+     *
+     * @param keyColumn (String): The column the rows are looked up by.
+     * @param windowMillis (long): How long keys are collected before the batch is sent.
+     * @param maxBatchSize (int): The maximum amount of keys per query.
+     * @return DatabaseKeyLoader: A new loader.
+     */
+    public DatabaseKeyLoader loader(String keyColumn, long windowMillis, int maxBatchSize) {
+        return new DatabaseKeyLoader(connection, tableName, keyColumn, layout, limiter.getExecutor(), windowMillis, maxBatchSize);
+    }
+
+    /**
+     * Method: as(Class<T> type)
+     * <p>
+     * Maps all cached rows to records or POJOs, see DatabaseRowMapper.of(Class).
+     *
+     * @param type (Class<T>): The class to map the rows to.
+     * @return List<T>: The mapped rows in table order.
+     * <p>
+     * Example usage:
+     * <p>
+     * public record Player(UUID uuid, String name, int kills) {}
+     * List<Player> players = table.as(Player.class);
+     */
+    public <T> List<T> as(Class<T> type) {
+        DatabaseRowMapper<T> mapper = DatabaseRowMapper.of(type);
+        return read(() -> {
+            List<T> result = new ArrayList<>(rows.size());
+            for (DatabaseRow row : rows.values()) {
+                result.add(mapper.map(layout, row));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Method: streamAs(DatabaseEntryFilter filter, Class<T> type)
+     * <p>
+     * Runs the filter as SELECT query on the database and maps the streamed rows directly from the result set to records or POJOs,
+     * without creating intermediate rows.
+     *
+     * @param filter (DatabaseEntryFilter): The conditions, order, limit and selected columns of the query.
+     * @param type (Class<T>): The class to map the rows to.
+     * @return Stream<T>: The mapped rows, the stream has to be closed if it is not fully consumed.
+     * <p>
+     * Example usage:
+     * <p>
+     * try (Stream<Player> players = table.streamAs(new DatabaseEntryFilter(), Player.class)) {
+     *     players.forEach(player -> export(player));
+     * }
+     */
+    public <T> Stream<T> streamAs(DatabaseEntryFilter filter, Class<T> type) {
+        List<Object> parameters = new ArrayList<>();
+        String query = filter.toQuery(tableName, parameters);
+        DatabaseRowMapper<T> mapper = DatabaseRowMapper.of(type);
+        int[][] positions = new int[1][];
+        try {
+            return connection.getReader().stream(query, resultSet -> {
+                if (positions[0] == null) {
+                    positions[0] = mapper.resolve(resultSet);
+                }
+                return mapper.read(resultSet, positions[0]);
+            }, parameters.toArray());
+        } catch (SQLException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * Method: selectQuery(DatabaseConnectHandler connection, DatabaseRowLayout layout, String query, Object... parameters)
+     * <p>
+     * Reads all rows of a query as DataResult views. If no layout is given, it is created from the result set columns.
+     *
+     * @param connection (DatabaseConnectHandler): The connection to run the query on.
+     * @param layout (DatabaseRowLayout): The layout the rows are read with, or null.
+     * @param query (String): The SQL query, values are passed as `?` placeholders.
+     * @param parameters (Object...): The values bound to the placeholders in order.
+     * @return List<DataResult>: The read rows, or an empty list if the query failed.
+     */
+    public static List<DataResult> selectQuery(DatabaseConnectHandler connection, DatabaseRowLayout layout, String query, Object... parameters) {
+        return connection.executeQuery(query, resultSet -> {
+            DatabaseRowLayout resolvedLayout = layout == null ? DatabaseRowLayout.of(resultSet) : layout;
+            int[] positions = resolvedLayout.resolve(resultSet);
+            List<DataResult> results = new ArrayList<>();
+            while (resultSet.next()) {
+                results.add(new DataResult(resolvedLayout, new DatabaseRow(results.size(), resolvedLayout.read(resultSet, positions))));
+            }
+            return results;
+        }, new ArrayList<>(), parameters);
+    }
+
+    /**
+     * Method: streamQuery(DatabaseConnectHandler connection, DatabaseRowLayout layout, String query, Object... parameters)
+     * <p>
+     * Streams the rows of a query as DataResult views. If no layout is given, it is created from the result set columns.
+     *
+     * @param connection (DatabaseConnectHandler): The connection to run the query on.
+     * @param layout (DatabaseRowLayout): The layout the rows are read with, or null.
+     * @param query (String): The SQL query, values are passed as `?` placeholders.
+     * @param parameters (Object...): The values bound to the placeholders in order.
+     * @return Stream<DataResult>: The lazily read rows.
+     */
+    public static Stream<DataResult> streamQuery(DatabaseConnectHandler connection, DatabaseRowLayout layout, String query, Object... parameters) {
+        DatabaseRowLayout[] resolvedLayout = new DatabaseRowLayout[]{layout};
+        int[][] positions = new int[1][];
+        int[] id = new int[]{0};
+        try {
+            return connection.stream(query, resultSet -> {
+                if (positions[0] == null) {
+                    if (resolvedLayout[0] == null) {
+                        resolvedLayout[0] = DatabaseRowLayout.of(resultSet);
+                    }
+                    positions[0] = resolvedLayout[0].resolve(resultSet);
+                }
+                return new DataResult(resolvedLayout[0], new DatabaseRow(id[0]++, resolvedLayout[0].read(resultSet, positions[0])));
+            }, parameters);
+        } catch (SQLException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * Method: enableWriteBehind()
+     * <p>
+     * Enables the write-behind mode with the default settings, see enableWriteBehind(DatabaseWriteBehindSettings).
+     */
+    public void enableWriteBehind() {
+        enableWriteBehind(new DatabaseWriteBehindSettings());
+    }
+
+    /**
+     * Method: enableWriteBehind(DatabaseWriteBehindSettings settings)
+     * <p>
+     * Enables the write-behind mode. editEntry changes the cached rows right away and queues the UPDATE.
+     * Repeated updates with the same conditions are merged into one, and the queue is written as JDBC batches
+     * when it reaches the flush size, after the flush interval and when PythiaSQL is disabled.
+     * The future returned by editEntry completes as soon as its update was written.
+     * Other instances are informed through the invalidation bus only after the update was written, failed updates are not sent.
+     * createEntry, createEntries and removeEntry flush the queue before they run, so the order of the writes is kept.
+     * Inside a transaction or group commit the queue is written as part of it, its futures complete after the commit
+     * and the updates are queued again if it is rolled back.
+     *
+     * @param settings (DatabaseWriteBehindSettings): The queue size, flush triggers and failure callback.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.enableWriteBehind(new DatabaseWriteBehindSettings().withFlushInterval(500).withMaxQueueSize(50000));
+     * table.editEntry(Map.of("uuid", uuid), Map.of("kills", kills)); // Applied to the cache, written later
+     */
+    public synchronized void enableWriteBehind(DatabaseWriteBehindSettings settings) {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+        writeBehind = new DatabaseWriteBehind(this, settings);
+    }
+
+    /**
+     * Method: disableWriteBehind()
+     * <p>
+     * Writes all queued updates and disables the write-behind mode.
+     */
+    public synchronized void disableWriteBehind() {
+        if (writeBehind != null) {
+            var buffer = writeBehind;
+            writeBehind = null;
+            buffer.close();
+        }
+    }
+
+    /**
+     * Method: isWriteBehind()
+     * <p>
+     * Returns if the write-behind mode is enabled.
+     *
+     * @return boolean: True if updates are queued.
+     */
+    public boolean isWriteBehind() {
+        return writeBehind != null;
+    }
+
+    /**
+     * Method: getPendingWrites()
+     * <p>
+     * Returns the amount of rows with queued updates.
+     *
+     * @return int: The amount of dirty rows, 0 if the write-behind mode is disabled.
+     */
+    public int getPendingWrites() {
+        var buffer = writeBehind;
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    /**
+     * Method: registerGauges(DatabaseMetrics metrics)
+     * <p>
+     * Registers the amount of cached rows and queued write-behind updates of this table as gauges
+     * "table.<name>.rows" and "table.<name>.pendingWrites". PythiaSQL registers them for every loaded table.
+     *
+     * @param metrics (DatabaseMetrics): The registry to register the gauges at.
+     */
+    public void registerGauges(DatabaseMetrics metrics) {
+        metrics.registerGauge("table." + tableName + ".rows", this::size);
+        metrics.registerGauge("table." + tableName + ".pendingWrites", this::getPendingWrites);
+    }
+
+    /**
+     * Method: removeGauges(DatabaseMetrics metrics)
+     * <p>
+     * Removes the gauges registered by registerGauges(DatabaseMetrics).
+     *
+     * @param metrics (DatabaseMetrics): The registry to remove the gauges from.
+     */
+    public void removeGauges(DatabaseMetrics metrics) {
+        metrics.removeGauge("table." + tableName + ".rows");
+        metrics.removeGauge("table." + tableName + ".pendingWrites");
+    }
+
+    /**
+     * Method: flush()
+     * <p>
+     * Writes all queued updates on the table executor.
+     *
+     * @return CompletableFuture<Void>: A future completed after the queued updates were written, or completed exceptionally
+     * with the first error if an update could not be written.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.flush().join();
+     */
+    public CompletableFuture<Void> flush() {
+        return limiter.submit(() -> {
+            var buffer = writeBehind;
+            Exception failure = buffer == null ? null : buffer.flushNow();
+            if (failure != null) {
+                throw failure;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Method: awaitFlush(long timeout, TimeUnit unit)
+     * <p>
+     * Writes all queued updates and waits until they were written.
+     *
+     * @param timeout (long): The maximum time to wait.
+     * @param unit (TimeUnit): The unit of the timeout.
+     * @return boolean: True if all queued updates were written in time, false on timeout or if an update failed.
+     * Updates which failed are reported to the failure callback.
+     */
+    public boolean awaitFlush(long timeout, TimeUnit unit) {
+        try {
+            flush().get(timeout, unit);
+            return true;
+        } catch (TimeoutException | ExecutionException exception) {
+            return false;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Method: refresh()
+     * <p>
+     * Brings the cached rows up to date with changes made by other applications. Without incremental refresh all rows are loaded again.
+     * With enableIncrementalRefresh only the rows changed since the last refresh are loaded, so the work grows with the amount of changes instead of the table size.
+     *
+     * @return CompletableFuture<Integer>: A future completed with the amount of added, changed and removed rows.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.refresh().thenAccept(changes -> System.out.println(changes + " rows changed"));
+     */
+    public CompletableFuture<Integer> refresh() {
+        return limiter.submit(this::refreshNow);
+    }
+
+    /**
+     * Method: enableIncrementalRefresh(DatabaseRefreshSettings settings)
+     * <p>
+     * Makes refresh() load only the rows whose version column is at least the highest version seen so far.
+     * Changed rows replace the cached rows with the same key, soft deleted rows and rows logged in the change log are removed.
+     * If the settings have an interval, the table is refreshed automatically.
+     *
+     * @param settings (DatabaseRefreshSettings): The version, key, tombstone and change log columns and the refresh interval.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.enableIncrementalRefresh(new DatabaseRefreshSettings("updated_at").withDeletedColumn("deleted_at").withInterval(5000));
+     * <p>
+     * Note: Each refresh reads again from the versions that were the newest one lookback (DatabaseRefreshSettings.withLookback) ago, so rows of
+     *       transactions which commit after a newer version was already read are found if they commit within the lookback.
+     */
+    public synchronized void enableIncrementalRefresh(DatabaseRefreshSettings settings) {
+        String keyColumn = settings.getKeyColumn();
+        if (keyColumn == null && getSchema() != null && getSchema().getPrimaryKey().size() == 1) {
+            keyColumn = getSchema().getPrimaryKey().get(0);
+        }
+        if (keyColumn == null) {
+            keyColumn = generatedColumn;
+        }
+        if (keyColumn == null || layout.indexOf(keyColumn) < 0) {
+            throw new IllegalArgumentException("The incremental refresh of table " + tableName + " needs a key column");
+        }
+        int versionIndex = layout.indexOf(settings.getVersionColumn());
+        if (versionIndex < 0) {
+            throw new IllegalArgumentException("Table " + tableName + " has no column " + settings.getVersionColumn());
+        }
+        disableIncrementalRefresh();
+        int keyIndex = layout.indexOf(keyColumn);
+        if (getIndexes().stream().noneMatch(it -> it.covers(new int[]{keyIndex}))) {
+            createIndex(false, keyColumn);
+        }
+
+        synchronized (refreshLock) {
+            Object max = null;
+            lock.readLock().lock();
+            try {
+                for (DatabaseRow row : rows.values()) {
+                    max = newest(max, row.get(versionIndex));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            long readAt = System.currentTimeMillis();
+            Object changeMax = settings.getChangeLogTable() == null ? null : connection.executeUncachedQuery("SELECT MAX(" + DatabaseStatements.quote(settings.getChangeLogVersionColumn()) + ") FROM " + DatabaseStatements.quote(settings.getChangeLogTable()),
+                    resultSet -> resultSet.next() ? resultSet.getObject(1) : null, null);
+            refreshCheckpoints.clear();
+            refreshCheckpoints.add(new RefreshCheckpoint(readAt, max, changeMax));
+            appliedChanges.clear();
+            refreshKeyColumn = keyColumn;
+            refreshSettings = settings;
+        }
+
+        if (settings.getIntervalMillis() > 0) {
+            refreshTask = REFRESH_SCHEDULER.scheduleWithFixedDelay(() -> {
+                if (!refreshing.compareAndSet(false, true)) {
+                    return;
+                }
+                refresh().whenComplete((changes, throwable) -> {
+                    refreshing.set(false);
+                    if (throwable != null) {
+                        System.err.println("[ERROR] Scheduled refresh of table " + tableName + " failed: " + throwable);
+                    }
+                });
+            }, settings.getIntervalMillis(), settings.getIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Method: disableIncrementalRefresh()
+     * <p>
+     * Stops the scheduled refresh, refresh() loads all rows again afterwards.
+     */
+    public synchronized void disableIncrementalRefresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+        refreshSettings = null;
+    }
+
+    /**
+     * Method: isIncrementalRefresh()
+     * <p>
+     * Returns if the incremental refresh is enabled.
+     *
+     * @return boolean: True if refresh() only loads changed rows.
+     */
+    public boolean isIncrementalRefresh() {
+        return refreshSettings != null;
+    }
+
+    private int refreshNow() throws Exception {
+        flushPending();
+        synchronized (refreshLock) {
+            return refreshLocked();
+        }
+    }
+
+    private int refreshLocked() throws Exception {
+        DatabaseRefreshSettings settings = refreshSettings;
+        if (settings == null) {
+            List<Object[]> values = fetch("SELECT * FROM " + DatabaseStatements.quote(tableName));
+            lock.writeLock().lock();
+            try {
+                int changes = Math.max(rows.size(), values.size());
+                new ArrayList<>(rows.values()).forEach(this::removeRow);
+                values.forEach(this::addRow);
+                return changes;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long readAt = System.currentTimeMillis();
+        while (refreshCheckpoints.size() > 1 && secondCheckpoint().readAt() <= readAt - settings.getLookbackMillis()) {
+            refreshCheckpoints.removeFirst();
+        }
+        RefreshCheckpoint checkpoint = refreshCheckpoints.getFirst();
+        Object sinceChange = checkpoint.changeVersion();
+        if (sinceChange != null) {
+            appliedChanges.removeIf(version -> !isNewer(version, sinceChange));
+        }
+
+        List<Object> deletedKeys = new ArrayList<>();
+        List<Object> readChanges = new ArrayList<>();
+        Object changeVersion = refreshCheckpoints.getLast().changeVersion();
+        if (settings.getChangeLogTable() != null) {
+            String versionColumn = DatabaseStatements.quote(settings.getChangeLogVersionColumn());
+            String query = "SELECT " + DatabaseStatements.quote(settings.getChangeLogKeyColumn()) + ", " + versionColumn + " FROM " + DatabaseStatements.quote(settings.getChangeLogTable())
+                    + (sinceChange == null ? "" : " WHERE " + versionColumn + " > ?") + " ORDER BY " + versionColumn;
+            try (Stream<Object[]> changes = connection.stream(query, resultSet -> new Object[]{resultSet.getObject(1), resultSet.getObject(2)}, sinceChange == null ? new Object[0] : new Object[]{sinceChange})) {
+                for (Object[] change : (Iterable<Object[]>) changes::iterator) {
+                    // A change read again within the lookback was already applied, a row inserted again after it must stay
+                    if (change[1] != null && (appliedChanges.contains(change[1]) || readChanges.contains(change[1]))) {
+                        continue;
+                    }
+                    deletedKeys.add(change[0]);
+                    readChanges.add(change[1]);
+                    changeVersion = newest(changeVersion, change[1]);
+                }
+            }
+        }
+
+        Object since = checkpoint.version();
+        String versionColumn = DatabaseStatements.quote(settings.getVersionColumn());
+        List<Object[]> changed = fetch("SELECT * FROM " + DatabaseStatements.quote(tableName) + (since == null ? "" : " WHERE " + versionColumn + " >= ?") + " ORDER BY " + versionColumn,
+                since == null ? new Object[0] : new Object[]{since});
+
+        String keyColumn = refreshKeyColumn;
+        int keyIndex = layout.indexOf(keyColumn);
+        int versionIndex = layout.indexOf(settings.getVersionColumn());
+        int deletedIndex = settings.getDeletedColumn() == null ? -1 : layout.indexOf(settings.getDeletedColumn());
+        int changes = 0;
+        lock.writeLock().lock();
+        try {
+            for (Object key : deletedKeys) {
+                for (DatabaseRow row : match(Collections.singletonMap(keyColumn, key), Integer.MAX_VALUE)) {
+                    removeRow(row);
+                    changes++;
+                }
+            }
+            Object max = refreshCheckpoints.getLast().version();
+            for (Object[] values : changed) {
+                max = newest(max, values[versionIndex]);
+                List<DatabaseRow> existing = match(Collections.singletonMap(keyColumn, values[keyIndex]), 1);
+                if (deletedIndex >= 0 && isDeleted(values[deletedIndex])) {
+                    if (!existing.isEmpty()) {
+                        removeRow(existing.get(0));
+                        changes++;
+                    }
+                } else if (existing.isEmpty()) {
+                    addRow(values);
+                    changes++;
+                } else if (!Arrays.equals(existing.get(0).snapshot(), values)) {
+                    replaceRow(existing.get(0), values, List.copyOf(indexes));
+                    changes++;
+                }
+            }
+            refreshCheckpoints.addLast(new RefreshCheckpoint(readAt, max, changeVersion));
+            readChanges.stream().filter(Objects::nonNull).forEach(appliedChanges::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return changes;
+    }
+
+    private RefreshCheckpoint secondCheckpoint() {
+        Iterator<RefreshCheckpoint> iterator = refreshCheckpoints.iterator();
+        iterator.next();
+        return iterator.next();
+    }
+
+    private List<Object[]> fetch(String query, Object... parameters) throws SQLException {
+        int[][] positions = new int[1][];
+        List<Object[]> values = new ArrayList<>();
+        try (Stream<Object[]> stream = connection.stream(query, resultSet -> {
+            if (positions[0] == null) {
+                positions[0] = layout.resolve(resultSet);
+            }
+            return layout.read(resultSet, positions[0]);
+        }, parameters)) {
+            stream.forEach(values::add);
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object newest(Object current, Object candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        if (current == null) {
+            return candidate;
+        }
+        return ((Comparable<Object>) candidate).compareTo(current) > 0 ? candidate : current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isNewer(Object value, Object than) {
+        return ((Comparable<Object>) value).compareTo(than) > 0;
+    }
+
+    private static boolean isDeleted(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean deleted) {
+            return deleted;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue() != 0;
+        }
+        if (value instanceof String text) {
+            return text.equals("1") || text.equalsIgnoreCase("true");
+        }
+        return true;
+    }
+
+    /**
+     * Method: setInvalidationBus(DatabaseInvalidationBus bus)
+     * <p>
+     * Sets the bus the row changes of this table are sent to, so other instances can update their cached rows.
+     * PythiaSQL sets it for all loaded tables when an invalidation bus is configured.
+     *
+     * @param bus (DatabaseInvalidationBus): The invalidation bus, or null to stop sending changes.
+     */
+    public void setInvalidationBus(DatabaseInvalidationBus bus) {
+        this.invalidationBus = bus;
+    }
+
+    /**
+     * Method: onWrite(Consumer<DatabaseInvalidation> listener)
+     * <p>
+     * Registers a listener which is called after every successful write through this table with the changed rows, the same
+     * row change the invalidation bus sends to other instances. PythiaSQL uses it to drop written keys from the row caches.
+     *
+     * @param listener (Consumer<DatabaseInvalidation>): The listener to call.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.onWrite(invalidation -> rowCache.invalidate(invalidation));
+     */
+    public void onWrite(Consumer<DatabaseInvalidation> listener) {
+        writeListeners.add(listener);
+    }
+
+    /**
+     * Method: applyInvalidation(DatabaseInvalidation invalidation)
+     * <p>
+     * Applies a row change of another instance to the cached rows. DELETE removes the matching rows, UPDATE applies the new values
+     * and RELOAD reads the matching rows again from the database. The change is not written or sent again.
+     *
+     * @param invalidation (DatabaseInvalidation): The received row change.
+     * @return CompletableFuture<Void>: A future completed as soon as the cached rows were changed.
+     */
+    public CompletableFuture<Void> applyInvalidation(DatabaseInvalidation invalidation) {
+        return limiter.submit(() -> {
+            Map<String, Object> conditions = invalidation.getConditions();
+            if (conditions.isEmpty()) {
+                return null;
+            }
+            switch (invalidation.getKind()) {
+                case UPDATE -> applyUpdate(conditions, invalidation.getValues());
+                case DELETE -> {
+                    lock.writeLock().lock();
+                    try {
+                        match(conditions, Integer.MAX_VALUE).forEach(this::removeRow);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+                case RELOAD -> reloadRows(conditions);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Reads the matching rows again from the database and replaces the cached ones. Updates still queued for write-behind
+     * are applied on top, because the database does not contain them yet.
+     */
+    void reloadRows(Map<String, Object> conditions) throws SQLException {
+        List<Object> parameters = new ArrayList<>(conditions.size());
+        List<Object[]> values = fetch("SELECT * FROM " + DatabaseStatements.quote(tableName) + DatabaseStatements.where(conditions, parameters), parameters.toArray());
+        lock.writeLock().lock();
+        try {
+            match(conditions, Integer.MAX_VALUE).forEach(this::removeRow);
+            values.forEach(this::addRow);
+            var buffer = writeBehind;
+            Map<String, Object> queued = buffer == null ? null : buffer.pendingValues(conditions);
+            if (queued != null) {
+                applyUpdate(conditions, queued);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method: setGroupCommit(DatabaseGroupCommit groupCommit)
+     * <p>
+     * Routes the writes of this table through a group commit, so the writes of many callers share one transaction per time slice,
+     * see DatabaseGroupCommit. PythiaSQL sets it for all loaded tables when group commit is enabled.
+     * <p>
+     * Note: Group-committed writes are run by the group commit instead of the operation queue of the table. They keep their order
+     *       among each other and with queued write-behind updates, but a refresh or async read already waiting in the queue of the
+     *       table may run before or after them.
+     *
+     * @param groupCommit (DatabaseGroupCommit): The group commit, or null to commit every write on its own.
+     */
+    public void setGroupCommit(DatabaseGroupCommit groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    /**
+     * Method: isGroupCommit()
+     * <p>
+     * Returns if the writes of this table are committed in groups.
+     *
+     * @return boolean: True if a group commit is set.
+     */
+    public boolean isGroupCommit() {
+        return groupCommit != null;
+    }
+
+    private <T> CompletableFuture<T> submit(DatabaseGroupCommit.Operation<T> operation) {
+        var group = groupCommit;
+        if (group != null) {
+            return group.submitOperation(operation);
+        }
+        return limiter.submit(() -> operation.apply(null));
+    }
+
+    private DatabaseConnectHandler connection(DatabaseTransaction transaction) {
+        return transaction == null ? connection : transaction.getConnection();
+    }
+
+    private static void onCommit(DatabaseTransaction transaction, Runnable action) {
+        if (transaction == null) {
+            action.run();
+        } else {
+            transaction.afterCommit(action);
+        }
+    }
+
+    void submitFlush() {
+        limiter.submit(() -> {
+            flushPending();
+            return null;
+        });
+    }
+
+    DatabaseConnectHandler getConnection() {
+        return connection;
+    }
+
+    private void flushPending() {
+        var buffer = writeBehind;
+        if (buffer != null) {
+            buffer.flushNow();
+        }
+    }
+
+    private void flushPending(DatabaseTransaction transaction) {
+        var buffer = writeBehind;
+        if (buffer == null) {
+            return;
+        }
+        if (transaction == null) {
+            buffer.flushNow();
+        } else {
+            // Flushing on another connection could wait for row locks held by the transaction itself
+            buffer.flushNow(transaction);
+        }
+    }
+
+    /**
+     * Method: createIndex(String... columns)
+     * <p>
+     * Creates a hash index over the specified columns of the cached rows. Lookups with conditions on all indexed columns
+     * in isEntryExists, filter, editEntry and removeEntry use the index instead of scanning every row.
+     *
+     * @param columns (String...): The column names of the index, more than one column creates a composite index.
+     * @return DatabaseIndex: The created index, or the existing one if the columns are already indexed.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTable table = PythiaSQL.getTable("players");
+     * table.createIndex("uuid");
+     * table.createIndex("server", "rank");
+     */
+    public DatabaseIndex createIndex(String... columns) {
+        return createIndex(false, columns);
+    }
+
+    /**
+     * Method: createUniqueIndex(String... columns)
+     * <p>
+     * Creates a hash index like createIndex(String...) which requires the indexed values to be unique.
+     * createEntry, createEntries, editEntry and incrementEntry fail with an IllegalStateException before anything is written
+     * if they would duplicate a key. Keys containing NULL are not checked, like in MySQL.
+     *
+     * @param columns (String...): The column names of the index.
+     * @return DatabaseIndex: The created index.
+     * @throws IllegalStateException: If the cached rows already contain duplicate keys.
+     * <p>
+     * Note: The cache follows the database. If a refresh, an upsert or another instance brings a duplicate key into the cached rows,
+     *       the index is dropped with an error, because the table evidently has no such unique key.
+     * <p>
+     * Example usage:
+     * <p>
+     * table.createUniqueIndex("uuid");
+     */
+    public DatabaseIndex createUniqueIndex(String... columns) {
+        return createIndex(true, columns);
+    }
+
+    /**
+     * Method: dropIndex(String... columns)
+     * <p>
+     * Removes the index over the specified columns.
+     *
+     * @param columns (String...): The column names of the index.
+     * @return boolean: True if an index was removed.
+     */
+    public boolean dropIndex(String... columns) {
+        lock.writeLock().lock();
+        try {
+            return indexes.removeIf(index -> index.getColumns().equals(List.of(columns)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method: getIndexes()
+     * <p>
+     * Returns the indexes of the table.
+     *
+     * @return List<DatabaseIndex>: The indexes of the table.
+     */
+    public List<DatabaseIndex> getIndexes() {
+        return read(() -> List.copyOf(indexes));
+    }
+
+    private DatabaseIndex createIndex(boolean unique, String... columns) {
+        lock.writeLock().lock();
+        try {
+            for (DatabaseIndex index : indexes) {
+                if (index.getColumns().equals(List.of(columns)) && index.isUnique() == unique) {
+                    return index;
+                }
+            }
+            var index = new DatabaseIndex(tableName, layout, List.of(columns), unique);
+            index.addAll(rows.values());
+            indexes.add(index);
+            return index;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method: getFirstValue(String column)
+     * <p>
+     * Is deprecated please do not use this method.
+     * <p>
+     * Use now firstAsResult()
+     */
+    @Deprecated
+    public Object getFirstValue(String column) {
+        int index = layout.indexOf(column);
+        return index < 0 ? null : read(() -> rows.values().stream().findFirst().map(row -> row.get(index)).orElse(null));
+    }
+
+    private <T> T read(Supplier<T> supplier) {
+        lock.readLock().lock();
+        try {
+            return supplier.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addRow(Object[] values) {
+        int id = nextId++;
+        var row = new DatabaseRow(id, values);
+        rows.put(id, row);
+        index(row, List.copyOf(indexes));
+    }
+
+    void setCachedValue(DatabaseRow row, int index, Object value) {
+        lock.writeLock().lock();
+        try {
+            if (rows.get(row.getId()) != row) {
+                row.set(index, value);
+                return;
+            }
+            Object[] copy = row.snapshot();
+            copy[index] = value;
+            int[] changed = new int[]{index};
+            checkUnique(List.of(row), List.<Object[]>of(copy), changed);
+            replaceRow(row, copy, indexes.stream().filter(it -> it.touches(changed)).toList());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replaceRow(DatabaseRow row, Object[] values, List<DatabaseIndex> touched) {
+        touched.forEach(it -> it.remove(row));
+        row.replace(values);
+        index(row, touched);
+    }
+
+    private void index(DatabaseRow row, List<DatabaseIndex> targets) {
+        for (DatabaseIndex index : targets) {
+            try {
+                index.add(row);
+            } catch (IllegalStateException exception) {
+                // The database is the source of truth, a duplicate from a refresh, an upsert or another instance breaks the index
+                indexes.remove(index);
+                System.err.println("[ERROR] " + exception.getMessage() + ", the index was dropped. Create it with createIndex if the key is not unique.");
+            }
+        }
+    }
+
+    private void checkUnique(int[] positions, List<Object[]> values) {
+        checkUnique(indexes.stream().filter(it -> it.isUnique() && it.covers(positions)).toList(), positions, values, List.of());
+    }
+
+    private void checkUnique(List<DatabaseRow> changed, List<Object[]> values, int[] changedPositions) {
+        int[] positions = new int[layout.size()];
+        Arrays.setAll(positions, i -> i);
+        checkUnique(indexes.stream().filter(it -> it.isUnique() && it.touches(changedPositions)).toList(), positions, values, changed);
+    }
+
+    private void checkUnique(List<DatabaseIndex> unique, int[] positions, List<Object[]> values, Collection<DatabaseRow> replaced) {
+        for (DatabaseIndex index : unique) {
+            Set<Object> keys = new HashSet<>();
+            for (Object[] value : values) {
+                Object key = index.key(positions, value);
+                if (DatabaseIndex.isNull(key)) {
+                    continue;
+                }
+                DatabaseRow holder = index.holder(key);
+                if (!keys.add(key) || (holder != null && !replaced.contains(holder))) {
+                    throw new IllegalStateException("Unique index " + index.getColumns() + " of table " + tableName + " already contains key " + key);
+                }
+            }
+        }
+    }
+
+    private void checkUnique(Map<String, Object> conditions, Map<String, ?> values, boolean increment) {
+        int[] changed = values.keySet().stream().mapToInt(layout::indexOf).toArray();
+        if (indexes.stream().noneMatch(it -> it.isUnique() && it.touches(changed))) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            List<DatabaseRow> matched = match(conditions, Integer.MAX_VALUE);
+            List<Object[]> updated = new ArrayList<>(matched.size());
+            for (DatabaseRow row : matched) {
+                Object[] copy = row.snapshot();
+                int i = 0;
+                for (Object value : values.values()) {
+                    if (changed[i] >= 0) {
+                        copy[changed[i]] = increment ? add(copy[changed[i]], (Number) value) : value;
+                    }
+                    i++;
+                }
+                updated.add(copy);
+            }
+            checkUnique(matched, updated, changed);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeRow(DatabaseRow row) {
+        rows.remove(row.getId());
+        for (DatabaseIndex index : indexes) {
+            index.remove(row);
+        }
+    }
+
+    private List<DatabaseRow> match(Map<String, Object> conditions, int limit) {
+        int[] positions = new int[conditions.size()];
+        Object[] expected = new Object[conditions.size()];
+        int index = 0;
+        for (Map.Entry<String, Object> condition : conditions.entrySet()) {
+            positions[index] = layout.indexOf(condition.getKey());
+            if (positions[index] < 0) {
+                return new ArrayList<>();
+            }
+            expected[index] = layout.convert(positions[index], condition.getValue());
+            index++;
+        }
+
+        DatabaseIndex best = null;
+        for (DatabaseIndex candidate : indexes) {
+            if (candidate.covers(positions) && (best == null || (candidate.isUnique() && !best.isUnique()) || (candidate.isUnique() == best.isUnique() && candidate.width() > best.width()))) {
+                best = candidate;
+            }
+        }
+        Collection<DatabaseRow> candidates = best == null ? rows.values() : best.lookup(positions, expected);
+
+        List<DatabaseRow> matches = new ArrayList<>();
+        for (DatabaseRow row : candidates) {
+            if (matches(row, positions, expected)) {
+                matches.add(row);
+                if (matches.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private boolean matches(DatabaseRow row, int[] positions, Object[] expected) {
+        for (int i = 0; i < positions.length; i++) {
+            if (!Objects.equals(row.get(positions[i]), expected[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record RefreshCheckpoint(long readAt, Object version, Object changeVersion) {
     }
 }
@@ -0,0 +1,264 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import lombok.Getter;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@SuppressWarnings("unused")
+public final class DatabaseTransaction {
+    @Getter
+    private final DatabaseConnectHandler connection;
+    private final List<Runnable> commitActions = new ArrayList<>();
+    private final List<Runnable> rollbackActions = new ArrayList<>();
+    @Getter
+    private boolean rollbackOnly;
+
+    DatabaseTransaction(DatabaseConnectHandler connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Method: run(DatabaseConnectHandler connection, Work work)
+     * <p>
+     * Runs the work in a new transaction on the calling thread. The transaction is committed when the work returns and
+     * rolled back when it throws an exception or called rollback(). The cached rows of the written tables are only changed
+     * after the commit, in the order the writes were made.
+     *
+     * @param connection (DatabaseConnectHandler): The connection the transaction is started on.
+     * @param work (Work): The writes of the transaction.
+     * @return boolean: True if the transaction was committed, false if the work called rollback().
+     * @throws Exception: The exception thrown by the work or by the commit, the transaction was rolled back in that case.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTransaction.run(handler, transaction -> {
+     *     transaction.decrementEntry(accounts, Map.of("id", from), "balance", amount);
+     *     transaction.incrementEntry(accounts, Map.of("id", to), "balance", amount);
+     * });
+     */
+    public static boolean run(DatabaseConnectHandler connection, Work work) throws Exception {
+        try (DatabaseConnectHandler bound = connection.beginTransaction()) {
+            var transaction = new DatabaseTransaction(bound);
+            try {
+                work.run(transaction);
+            } catch (Exception exception) {
+                try {
+                    bound.rollback();
+                } catch (SQLException rollbackException) {
+                    exception.addSuppressed(rollbackException);
+                }
+                transaction.rolledBack();
+                throw exception;
+            }
+            if (transaction.rollbackOnly) {
+                bound.rollback();
+                transaction.rolledBack();
+                return false;
+            }
+            try {
+                bound.commit();
+            } catch (SQLException exception) {
+                transaction.rolledBack();
+                throw exception;
+            }
+            transaction.committed();
+            return true;
+        }
+    }
+
+    /**
+     * Method: createEntry(DatabaseTable table, Map<String, Object> values)
+     * <p>
+     * Inserts an entry like DatabaseTable#createEntry as part of this transaction.
+     *
+     * @param table (DatabaseTable): The table to insert into.
+     * @param values (Map<String, Object>): The column names and values of the new entry.
+     * @throws Exception: If the statement failed.
+     */
+    public void createEntry(DatabaseTable table, Map<String, Object> values) throws Exception {
+        table.insert(this, values);
+    }
+
+    /**
+     * Method: createEntries(DatabaseTable table, List<Map<String, Object>> values)
+     * <p>
+     * Inserts many entries like DatabaseTable#createEntries as part of this transaction.
+     *
+     * @param table (DatabaseTable): The table to insert into.
+     * @param values (List<Map<String, Object>>): The column names and values of every new entry.
+     * @return int: The amount of inserted rows.
+     * @throws Exception: If a statement failed.
+     */
+    public int createEntries(DatabaseTable table, List<Map<String, Object>> values) throws Exception {
+        return table.insertAll(this, values, DatabaseTable.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Method: upsertEntry(DatabaseTable table, List<String> keyColumns, Map<String, Object> values)
+     * <p>
+     * Inserts or updates an entry like DatabaseTable#upsertEntry as part of this transaction.
+     *
+     * @param table (DatabaseTable): The table to write.
+     * @param keyColumns (List<String>): The columns of the primary or unique key which identifies the entry.
+     * @param values (Map<String, Object>): The column names and values of the entry.
+     * @throws Exception: If the statement failed.
+     */
+    public void upsertEntry(DatabaseTable table, List<String> keyColumns, Map<String, Object> values) throws Exception {
+        table.upsert(this, keyColumns, values);
+    }
+
+    /**
+     * Method: upsertEntries(DatabaseTable table, List<String> keyColumns, List<Map<String, Object>> values)
+     * <p>
+     * Inserts or updates many entries like DatabaseTable#upsertEntries as part of this transaction.
+     *
+     * @param table (DatabaseTable): The table to write.
+     * @param keyColumns (List<String>): The columns of the primary or unique key which identifies the entries.
+     * @param values (List<Map<String, Object>>): The column names and values of every entry.
+     * @return int: The amount of written entries.
+     * @throws Exception: If a statement failed.
+     */
+    public int upsertEntries(DatabaseTable table, List<String> keyColumns, List<Map<String, Object>> values) throws Exception {
+        return table.upsertAll(this, keyColumns, values);
+    }
+
+    /**
+     * Method: editEntry(DatabaseTable table, Map<String, Object> conditions, Map<String, Object> values)
+     * <p>
+     * Updates the matching entries like DatabaseTable#editEntry as part of this transaction. Queued write-behind updates
+     * of the table are written before.
+     *
+     * @param table (DatabaseTable): The table to update.
+     * @param conditions (Map<String, Object>): The column names and values of the entries to change.
+     * @param values (Map<String, Object>): The new column values.
+     * @throws Exception: If the statement failed.
+     */
+    public void editEntry(DatabaseTable table, Map<String, Object> conditions, Map<String, Object> values) throws Exception {
+        table.update(this, conditions, values);
+    }
+
+    /**
+     * Method: incrementEntry(DatabaseTable table, Map<String, Object> conditions, String column, Number amount)
+     * <p>
+     * Adds the amount to a numeric column like DatabaseTable#incrementEntry as part of this transaction.
+     *
+     * @param table (DatabaseTable): The table to update.
+     * @param conditions (Map<String, Object>): The column names and values of the entries to change.
+     * @param column (String): The numeric column to increase.
+     * @param amount (Number): The amount to add.
+     * @throws Exception: If the statement failed.
+     */
+    public void incrementEntry(DatabaseTable table, Map<String, Object> conditions, String column, Number amount) throws Exception {
+        table.increment(this, conditions, Map.of(column, amount));
+    }
+
+    /**
+     * Method: incrementEntry(DatabaseTable table, Map<String, Object> conditions, Map<String, Number> amounts)
+     * <p>
+     * Adds the amounts to several numeric columns like DatabaseTable#incrementEntry as part of this transaction.
+     *
+     * @param table (DatabaseTable): The table to update.
+     * @param conditions (Map<String, Object>): The column names and values of the entries to change.
+     * @param amounts (Map<String, Number>): The amount to add per column.
+     * @throws Exception: If the statement failed.
+     */
+    public void incrementEntry(DatabaseTable table, Map<String, Object> conditions, Map<String, Number> amounts) throws Exception {
+        table.increment(this, conditions, amounts);
+    }
+
+    /**
+     * Method: decrementEntry(DatabaseTable table, Map<String, Object> conditions, String column, Number amount)
+     * <p>
+     * Subtracts the amount from a numeric column like DatabaseTable#decrementEntry as part of this transaction.
+     *
+     * @param table (DatabaseTable): The table to update.
+     * @param conditions (Map<String, Object>): The column names and values of the entries to change.
+     * @param column (String): The numeric column to decrease.
+     * @param amount (Number): The amount to subtract.
+     * @throws Exception: If the statement failed.
+     */
+    public void decrementEntry(DatabaseTable table, Map<String, Object> conditions, String column, Number amount) throws Exception {
+        table.increment(this, conditions, Map.of(column, DatabaseTable.negate(amount)));
+    }
+
+    /**
+     * Method: removeEntry(DatabaseTable table, Map<String, Object> conditions)
+     * <p>
+     * Removes the matching entries like DatabaseTable#removeEntry as part of this transaction.
+     *
+     * @param table (DatabaseTable): The table to delete from.
+     * @param conditions (Map<String, Object>): The column names and values of the entries to remove.
+     * @throws Exception: If the statement failed.
+     */
+    public void removeEntry(DatabaseTable table, Map<String, Object> conditions) throws Exception {
+        table.delete(this, conditions);
+    }
+
+    /**
+     * Method: rollback()
+     * <p>
+     * Marks the transaction to be rolled back instead of committed when the work returns. No cached row is changed.
+     */
+    public void rollback() {
+        rollbackOnly = true;
+    }
+
+    /**
+     * Method: afterCommit(Runnable action)
+     * <p>
+     * Runs the action after the transaction was committed, e.g. to notify other parts of the application. It is not run on rollback.
+     *
+     * @param action (Runnable): The action to run.
+     */
+    public void afterCommit(Runnable action) {
+        commitActions.add(action);
+    }
+
+    void afterRollback(Runnable action) {
+        rollbackActions.add(action);
+    }
+
+    void committed() {
+        rollbackActions.clear();
+        for (Runnable action : commitActions) {
+            try {
+                action.run();
+            } catch (RuntimeException exception) {
+                System.err.println("[ERROR] Error while applying a committed transaction: " + exception);
+                exception.printStackTrace();
+            }
+        }
+        commitActions.clear();
+    }
+
+    void rolledBack() {
+        commitActions.clear();
+        for (Runnable action : rollbackActions) {
+            try {
+                action.run();
+            } catch (RuntimeException exception) {
+                System.err.println("[ERROR] Error while undoing a rolled back transaction: " + exception);
+                exception.printStackTrace();
+            }
+        }
+        rollbackActions.clear();
+    }
+
+    /**
+     * Functional Interface: Work
+     * <p>
+     * Represents the writes of a transaction.
+     * <p>
+     * Example usage:
+     * <p>
+     * DatabaseTransaction.Work work = transaction -> transaction.removeEntry(table, Map.of("uuid", uuid));
+     */
+    @FunctionalInterface
+    public interface Work {
+        void run(DatabaseTransaction transaction) throws Exception;
+    }
+}
@@ -0,0 +1,214 @@
+package de.flxwdns.pythiasql.database.table;
+
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+final class DatabaseWriteBehind {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "PythiaSQL-WriteBehind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DatabaseTable table;
+    @Getter
+    private final DatabaseWriteBehindSettings settings;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledFuture<?> task;
+    private Map<Map<String, Object>, Pending> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    DatabaseWriteBehind(DatabaseTable table, DatabaseWriteBehindSettings settings) {
+        this.table = table;
+        this.settings = settings;
+        this.task = SCHEDULER.scheduleWithFixedDelay(this::requestFlush, settings.getFlushIntervalMillis(), settings.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    CompletableFuture<Void> enqueue(Map<String, Object> conditions, Map<String, Object> values) {
+        Map<String, Object> key = new LinkedHashMap<>(conditions);
+        CompletableFuture<Void> future;
+        boolean flush;
+        synchronized (this) {
+            if (closed) {
+                return null;
+            }
+            Pending entry = pending.get(key);
+            if (entry == null) {
+                long deadline = System.currentTimeMillis() + settings.getMaxBlockMillis();
+                while (pending.size() >= settings.getMaxQueueSize()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (!settings.isBlockWhenFull() || remaining <= 0) {
+                        throw new RejectedExecutionException("Write-behind queue of table " + table.getTableName() + " is full (" + settings.getMaxQueueSize() + " rows)");
+                    }
+                    requestFlush();
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for the write-behind queue of table " + table.getTableName(), exception);
+                    }
+                }
+                entry = new Pending(key);
+                pending.put(key, entry);
+            }
+            entry.values.putAll(values);
+            future = entry.future.copy();
+            flush = pending.size() >= settings.getFlushSize();
+        }
+        if (flush) {
+            requestFlush();
+        }
+        return future;
+    }
+
+    void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            table.submitFlush();
+        }
+    }
+
+    /**
+     * Writes the queued rows and returns the first error, or null if all rows were written.
+     */
+    Exception flushNow() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            Map<Map<String, Object>, Pending> batch = take();
+            return batch == null ? null : write(batch, null);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the queued rows as part of the transaction. Their futures complete after the commit and the rows are queued
+     * again on rollback. A flush which is already running on another connection is not waited for, because it may wait
+     * for row locks held by the transaction.
+     */
+    void flushNow(DatabaseTransaction transaction) {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            Map<Map<String, Object>, Pending> batch = take();
+            if (batch != null) {
+                write(batch, transaction);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    synchronized Map<String, Object> pendingValues(Map<String, Object> conditions) {
+        Pending entry = pending.get(conditions);
+        return entry == null ? null : new LinkedHashMap<>(entry.values);
+    }
+
+    private synchronized Map<Map<String, Object>, Pending> take() {
+        if (pending.isEmpty()) {
+            return null;
+        }
+        Map<Map<String, Object>, Pending> batch = pending;
+        pending = new LinkedHashMap<>();
+        notifyAll();
+        return batch;
+    }
+
+    private Exception write(Map<Map<String, Object>, Pending> batch, DatabaseTransaction transaction) {
+        Map<String, List<Pending>> statements = new LinkedHashMap<>();
+        Map<String, List<Object[]>> parameters = new HashMap<>();
+        Exception failure = null;
+        for (Pending entry : batch.values()) {
+            List<Object> values = new ArrayList<>();
+            String query = table.updateQuery(entry.conditions, entry.values, values);
+            statements.computeIfAbsent(query, it -> new ArrayList<>()).add(entry);
+            parameters.computeIfAbsent(query, it -> new ArrayList<>()).add(values.toArray());
+        }
+
+        for (Map.Entry<String, List<Pending>> statement : statements.entrySet()) {
+            List<Pending> entries = statement.getValue();
+            try {
+                if (transaction == null) {
+                    table.getConnection().executeBatch(statement.getKey(), parameters.get(statement.getKey()));
+                    entries.forEach(entry -> entry.future.complete(null));
+                } else {
+                    transaction.getConnection().executeBatch(statement.getKey(), parameters.get(statement.getKey()));
+                    transaction.afterCommit(() -> entries.forEach(entry -> entry.future.complete(null)));
+                    transaction.afterRollback(() -> requeue(entries));
+                }
+            } catch (Exception exception) {
+                failure = failure == null ? exception : failure;
+                for (Pending entry : entries) {
+                    revert(entry);
+                    try {
+                        settings.getFailureCallback().onFailure(table.getTableName(), entry.conditions, entry.values, exception);
+                    } catch (RuntimeException callbackException) {
+                        callbackException.printStackTrace();
+                    }
+                    entry.future.completeExceptionally(exception);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private void revert(Pending entry) {
+        // The cached rows already show the rejected values, the database still has the old ones
+        try {
+            table.reloadRows(entry.conditions);
+        } catch (Exception exception) {
+            System.err.println("[ERROR] Could not reload the rows of table " + table.getTableName() + " after a failed write-behind update, they keep the unwritten values until the next refresh: " + exception);
+        }
+    }
+
+    private void requeue(List<Pending> entries) {
+        synchronized (this) {
+            Map<Map<String, Object>, Pending> merged = new LinkedHashMap<>();
+            for (Pending entry : entries) {
+                Pending newer = pending.remove(entry.conditions);
+                if (newer != null) {
+                    entry.values.putAll(newer.values);
+                    entry.future.whenComplete((ignored, throwable) -> {
+                        if (throwable == null) {
+                            newer.future.complete(null);
+                        } else {
+                            newer.future.completeExceptionally(throwable);
+                        }
+                    });
+                }
+                merged.put(entry.conditions, entry);
+            }
+            merged.putAll(pending);
+            pending = merged;
+        }
+        requestFlush();
+    }
+
+    void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        task.cancel(false);
+        flushNow();
+    }
+
+    private static final class Pending {
+        private final Map<String, Object> conditions;
+        private final Map<String, Object> values = new LinkedHashMap<>();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Pending(Map<String, Object> conditions) {
+            this.conditions = conditions;
+        }
+    }
+}
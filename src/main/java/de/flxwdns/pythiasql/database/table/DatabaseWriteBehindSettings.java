@@ -0,0 +1,112 @@
+package de.flxwdns.pythiasql.database.table;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@SuppressWarnings("unused")
+public final class DatabaseWriteBehindSettings {
+    private int flushSize = 500;
+    private long flushIntervalMillis = 1000;
+    private int maxQueueSize = 10_000;
+    private boolean blockWhenFull = false;
+    private long maxBlockMillis = 0;
+    private FailureCallback failureCallback = (tableName, conditions, values, throwable) -> {
+        System.err.println("[ERROR] Write-behind update of table " + tableName + " for " + conditions + " failed: " + throwable);
+        throwable.printStackTrace();
+    };
+
+    /**
+     * Functional Interface: FailureCallback
+     * <p>
+     * Is called for every coalesced update which could not be written to the database. The update is dropped afterwards.
+     */
+    @FunctionalInterface
+    public interface FailureCallback {
+        void onFailure(String tableName, Map<String, Object> conditions, Map<String, Object> values, Throwable throwable);
+    }
+
+    /**
+     * Method: withFlushSize(int flushSize)
+     * <p>
+     * Sets after how many dirty rows the queue is flushed without waiting for the flush interval.
+     *
+     * @param flushSize (int): The amount of queued rows which triggers a flush.
+     * @return DatabaseWriteBehindSettings: The current DatabaseWriteBehindSettings instance.
+     */
+    public DatabaseWriteBehindSettings withFlushSize(int flushSize) {
+        if (flushSize < 1) {
+            throw new IllegalArgumentException("flushSize must be at least 1");
+        }
+        this.flushSize = flushSize;
+        return this;
+    }
+
+    /**
+     * Method: withFlushInterval(long flushIntervalMillis)
+     * <p>
+     * Sets how often the queue is flushed.
+     *
+     * @param flushIntervalMillis (long): The flush interval in milliseconds.
+     * @return DatabaseWriteBehindSettings: The current DatabaseWriteBehindSettings instance.
+     */
+    public DatabaseWriteBehindSettings withFlushInterval(long flushIntervalMillis) {
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("flushInterval must be positive");
+        }
+        this.flushIntervalMillis = flushIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Method: withMaxQueueSize(int maxQueueSize)
+     * <p>
+     * Sets how many dirty rows may be queued. Updates of already queued rows are always merged.
+     *
+     * @param maxQueueSize (int): The maximum amount of queued rows.
+     * @return DatabaseWriteBehindSettings: The current DatabaseWriteBehindSettings instance.
+     */
+    public DatabaseWriteBehindSettings withMaxQueueSize(int maxQueueSize) {
+        if (maxQueueSize < 1) {
+            throw new IllegalArgumentException("maxQueueSize must be at least 1");
+        }
+        this.maxQueueSize = maxQueueSize;
+        return this;
+    }
+
+    /**
+     * Method: withBlockWhenFull(boolean blockWhenFull, long maxBlockMillis)
+     * <p>
+     * Sets what happens when the queue is full. Either the caller waits up to maxBlockMillis for the running flush,
+     * or the update is rejected right away. Rejected updates return a failed future and are not applied to the cache.
+     * <p>
+     * Note: By default the update is rejected, because waiting blocks the thread which calls editEntry.
+     * Only enable waiting if editEntry is never called from a thread which must not block, like a game tick.
+     *
+     * @param blockWhenFull (boolean): True to wait for free space, false to reject right away.
+     * @param maxBlockMillis (long): The maximum time to wait in milliseconds.
+     * @return DatabaseWriteBehindSettings: The current DatabaseWriteBehindSettings instance.
+     */
+    public DatabaseWriteBehindSettings withBlockWhenFull(boolean blockWhenFull, long maxBlockMillis) {
+        if (maxBlockMillis < 0) {
+            throw new IllegalArgumentException("maxBlockMillis must not be negative");
+        }
+        this.blockWhenFull = blockWhenFull;
+        this.maxBlockMillis = maxBlockMillis;
+        return this;
+    }
+
+    /**
+     * Method: withFailureCallback(FailureCallback failureCallback)
+     * <p>
+     * Sets the callback which is informed about updates that could not be written.
+     *
+     * @param failureCallback (FailureCallback): The callback.
+     * @return DatabaseWriteBehindSettings: The current DatabaseWriteBehindSettings instance.
+     */
+    public DatabaseWriteBehindSettings withFailureCallback(FailureCallback failureCallback) {
+        this.failureCallback = failureCallback;
+        return this;
+    }
+}
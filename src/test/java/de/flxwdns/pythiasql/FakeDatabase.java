@@ -0,0 +1,470 @@
+package de.flxwdns.pythiasql;
+
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import de.flxwdns.pythiasql.database.connect.DatabasePoolSettings;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * An in-memory stand-in for a MySQL server, reachable through DriverManager as jdbc:mysql://fake-N:3306/test.
+ * It records every statement with the connection it ran on, answers queries from registered results and lets
+ * a test fail or block statements. It does not interpret SQL.
+ */
+public final class FakeDatabase {
+    private static final Map<String, FakeDatabase> DATABASES = new ConcurrentHashMap<>();
+    private static final AtomicInteger HOSTS = new AtomicInteger();
+
+    static {
+        try {
+            for (Driver driver : Collections.list(DriverManager.getDrivers())) {
+                if (driver.getClass().getName().startsWith("com.mysql")) {
+                    DriverManager.deregisterDriver(driver);
+                }
+            }
+            DriverManager.registerDriver(proxy(Driver.class, (proxy, method, args) -> switch (method.getName()) {
+                case "connect" -> {
+                    FakeDatabase database = DATABASES.get(host((String) args[0]));
+                    yield database == null ? null : database.open();
+                }
+                case "acceptsURL" -> DATABASES.containsKey(host((String) args[0]));
+                case "getParentLogger" -> Logger.getGlobal();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> defaultValue(method.getReturnType());
+            }));
+        } catch (SQLException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    private final String host;
+    private final List<Call> calls = new CopyOnWriteArrayList<>();
+    private final List<Result> results = new CopyOnWriteArrayList<>();
+    private final List<Hook> hooks = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong generatedKeys = new AtomicLong();
+    private volatile boolean available = true;
+
+    private FakeDatabase(String host) {
+        this.host = host;
+    }
+
+    public static FakeDatabase create() {
+        FakeDatabase database = new FakeDatabase("fake-" + HOSTS.incrementAndGet());
+        DATABASES.put(database.host, database);
+        return database;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public DatabaseConnectHandler connect(DatabasePoolSettings settings) {
+        return new DatabaseConnectHandler(host, 3306, "test", "user", "password", settings);
+    }
+
+    public DatabaseConnectHandler connect() {
+        return connect(new DatabasePoolSettings().withMinSize(0).withMaxSize(4).withAcquireTimeout(2000));
+    }
+
+    /**
+     * Answers every query which contains the fragment with the rows, the latest matching result wins.
+     */
+    public FakeDatabase result(String fragment, List<String> columns, List<Object[]> rows) {
+        results.add(0, new Result(sql -> sql.contains(fragment), columns, rows));
+        return this;
+    }
+
+    /**
+     * Runs the hook before every statement, commit and rollback. A hook can block or throw to fail the statement.
+     */
+    public FakeDatabase hook(Hook hook) {
+        hooks.add(hook);
+        return this;
+    }
+
+    public FakeDatabase failWhen(Predicate<Call> predicate) {
+        return hook(call -> {
+            if (predicate.test(call)) {
+                throw new SQLException("Simulated failure of " + call.sql());
+            }
+        });
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    public List<Call> getCalls() {
+        return List.copyOf(calls);
+    }
+
+    public List<Call> calls(String fragment) {
+        return calls.stream().filter(call -> call.sql().contains(fragment)).toList();
+    }
+
+    public void clear() {
+        calls.clear();
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    private Connection open() throws SQLException {
+        if (!available) {
+            throw new SQLException("Connection refused: " + host);
+        }
+        int id = connections.incrementAndGet();
+        openConnections.incrementAndGet();
+        boolean[] autoCommit = {true};
+        boolean[] closed = {false};
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement" -> {
+                    return statement(id, (String) args[0], args.length == 2 && method.getParameterTypes()[1] == int.class && (Integer) args[1] == Statement.RETURN_GENERATED_KEYS);
+                }
+                case "createStatement" -> {
+                    return statement(id, null, false);
+                }
+                case "setAutoCommit" -> {
+                    autoCommit[0] = (Boolean) args[0];
+                    return null;
+                }
+                case "getAutoCommit" -> {
+                    return autoCommit[0];
+                }
+                case "commit" -> {
+                    record(new Call(id, "COMMIT", List.of()));
+                    return null;
+                }
+                case "rollback" -> {
+                    record(new Call(id, args == null ? "ROLLBACK" : "ROLLBACK TO SAVEPOINT", List.of()));
+                    return null;
+                }
+                case "setSavepoint" -> {
+                    record(new Call(id, "SAVEPOINT", List.of()));
+                    return proxy(Savepoint.class, (p, m, a) -> defaultValue(m.getReturnType()));
+                }
+                case "releaseSavepoint" -> {
+                    return null;
+                }
+                case "isValid" -> {
+                    return available && !closed[0];
+                }
+                case "isClosed" -> {
+                    return closed[0];
+                }
+                case "close" -> {
+                    if (!closed[0]) {
+                        closed[0] = true;
+                        openConnections.decrementAndGet();
+                    }
+                    return null;
+                }
+                case "getCatalog" -> {
+                    return "test";
+                }
+                case "toString" -> {
+                    return host + "#" + id;
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                default -> {
+                    return defaultValue(method.getReturnType());
+                }
+            }
+        });
+    }
+
+    private Object statement(int connection, String prepared, boolean returnKeys) {
+        List<Object> parameters = new ArrayList<>();
+        List<List<Object>> batch = new ArrayList<>();
+        long[] keys = {0, 0};
+        boolean[] closed = {false};
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index && !name.equals("setFetchSize") && !name.equals("setMaxRows")) {
+                while (parameters.size() < index) {
+                    parameters.add(null);
+                }
+                parameters.set(index - 1, name.equals("setNull") ? null : args[1]);
+                return null;
+            }
+            switch (name) {
+                case "clearParameters" -> {
+                    parameters.clear();
+                    return null;
+                }
+                case "addBatch" -> {
+                    batch.add(copy(parameters));
+                    parameters.clear();
+                    return null;
+                }
+                case "clearBatch" -> {
+                    batch.clear();
+                    return null;
+                }
+                case "executeQuery" -> {
+                    String sql = prepared != null ? prepared : (String) args[0];
+                    record(new Call(connection, sql, copy(parameters)));
+                    return query(sql);
+                }
+                case "executeUpdate", "execute" -> {
+                    String sql = prepared != null ? prepared : (String) args[0];
+                    record(new Call(connection, sql, copy(parameters)));
+                    int affected = affected(sql);
+                    keys[0] = generatedKeys.get() + 1;
+                    keys[1] = generatedKeys.addAndGet(sql.trim().toUpperCase(Locale.ROOT).startsWith("INSERT") ? affected : 0);
+                    if (name.equals("execute")) {
+                        return sql.trim().toUpperCase(Locale.ROOT).startsWith("SELECT");
+                    }
+                    return affected;
+                }
+                case "executeBatch" -> {
+                    int[] affected = new int[batch.size()];
+                    try {
+                        for (int i = 0; i < batch.size(); i++) {
+                            record(new Call(connection, prepared, batch.get(i)));
+                            affected[i] = affected(prepared);
+                        }
+                    } finally {
+                        batch.clear();
+                    }
+                    return affected;
+                }
+                case "getGeneratedKeys" -> {
+                    List<Object[]> rows = new ArrayList<>();
+                    for (long key = keys[0]; returnKeys && key <= keys[1]; key++) {
+                        rows.add(new Object[]{key});
+                    }
+                    return resultSet(List.of("GENERATED_KEY"), rows);
+                }
+                case "close" -> {
+                    closed[0] = true;
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                default -> {
+                    return defaultValue(method.getReturnType());
+                }
+            }
+        });
+    }
+
+    private static List<Object> copy(List<Object> values) {
+        return Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    private void record(Call call) throws SQLException {
+        for (Hook hook : hooks) {
+            hook.before(call);
+        }
+        calls.add(call);
+    }
+
+    private static int affected(String sql) {
+        String upper = sql.toUpperCase(Locale.ROOT);
+        if (upper.trim().startsWith("INSERT") && upper.contains("VALUES")) {
+            String values = upper.substring(upper.indexOf("VALUES"));
+            int end = values.indexOf(" ON DUPLICATE");
+            return (end < 0 ? values : values.substring(0, end)).split("\\)\\s*,\\s*\\(").length;
+        }
+        return 1;
+    }
+
+    private ResultSet query(String sql) {
+        for (Result result : results) {
+            if (result.matches().test(sql)) {
+                return resultSet(result.columns(), result.rows());
+            }
+        }
+        return resultSet(List.of(), List.of());
+    }
+
+    public static ResultSet resultSet(List<String> columns, List<Object[]> rows) {
+        int[] position = {-1};
+        boolean[] wasNull = {false};
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getColumnCount" -> columns.size();
+            case "getColumnLabel", "getColumnName" -> columns.get((Integer) args[0] - 1);
+            case "getColumnClassName" -> className(rows, (Integer) args[0] - 1);
+            case "getColumnType" -> Types.JAVA_OBJECT;
+            case "getTableName", "getSchemaName", "getCatalogName", "getColumnTypeName" -> "";
+            case "isNullable" -> ResultSetMetaData.columnNullable;
+            default -> defaultValue(method.getReturnType());
+        });
+        return proxy(ResultSet.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, java.lang.reflect.Method method, Object[] args) throws SQLException {
+                switch (method.getName()) {
+                    case "next" -> {
+                        return ++position[0] < rows.size();
+                    }
+                    case "getMetaData" -> {
+                        return metaData;
+                    }
+                    case "findColumn" -> {
+                        return column((String) args[0]);
+                    }
+                    case "wasNull" -> {
+                        return wasNull[0];
+                    }
+                    case "getRow" -> {
+                        return position[0] + 1;
+                    }
+                    case "isWrapperFor" -> {
+                        return false;
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    default -> {
+                    }
+                }
+                if (method.getName().startsWith("get") && args != null && args.length >= 1 && (args[0] instanceof Integer || args[0] instanceof String)) {
+                    int index = args[0] instanceof Integer integer ? integer : column((String) args[0]);
+                    Object value = rows.get(position[0])[index - 1];
+                    wasNull[0] = value == null;
+                    return convert(value, method.getReturnType(), args.length == 2 && args[1] instanceof Class<?> type ? type : null);
+                }
+                return defaultValue(method.getReturnType());
+            }
+
+            private int column(String label) throws SQLException {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (columns.get(i).equalsIgnoreCase(label)) {
+                        return i + 1;
+                    }
+                }
+                throw new SQLException("Column '" + label + "' not found");
+            }
+        });
+    }
+
+    private static String className(List<Object[]> rows, int column) {
+        for (Object[] row : rows) {
+            if (row[column] != null) {
+                return row[column].getClass().getName();
+            }
+        }
+        return Object.class.getName();
+    }
+
+    private static Object convert(Object value, Class<?> returnType, Class<?> requested) {
+        if (requested != null) {
+            return requested.cast(value);
+        }
+        if (returnType == Object.class) {
+            return value;
+        }
+        if (value == null) {
+            return defaultValue(returnType);
+        }
+        if (returnType == String.class) {
+            return String.valueOf(value);
+        }
+        if (value instanceof Number number) {
+            if (returnType == int.class) {
+                return number.intValue();
+            }
+            if (returnType == long.class) {
+                return number.longValue();
+            }
+            if (returnType == double.class) {
+                return number.doubleValue();
+            }
+            if (returnType == float.class) {
+                return number.floatValue();
+            }
+            if (returnType == short.class) {
+                return number.shortValue();
+            }
+            if (returnType == byte.class) {
+                return number.byteValue();
+            }
+            if (returnType == boolean.class) {
+                return number.intValue() != 0;
+            }
+        }
+        return value;
+    }
+
+    private static String host(String url) {
+        if (url == null || !url.startsWith("jdbc:mysql://")) {
+            return "";
+        }
+        String rest = url.substring("jdbc:mysql://".length());
+        int end = 0;
+        while (end < rest.length() && rest.charAt(end) != ':' && rest.charAt(end) != '/') {
+            end++;
+        }
+        return rest.substring(0, end);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeDatabase.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    public record Call(int connection, String sql, List<Object> parameters) {
+    }
+
+    private record Result(Predicate<String> matches, List<String> columns, List<Object[]> rows) {
+    }
+
+    @FunctionalInterface
+    public interface Hook {
+        void before(Call call) throws SQLException;
+    }
+}
@@ -0,0 +1,100 @@
+package de.flxwdns.pythiasql;
+
+import de.flxwdns.pythiasql.database.connect.DatabasePoolSettings;
+import de.flxwdns.pythiasql.database.table.DatabaseTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PythiaSQLTest {
+    private static final String LOAD = "SELECT * FROM `players`";
+
+    private final FakeDatabase database = FakeDatabase.create();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        database.result("INFORMATION_SCHEMA", List.of("COLUMN_NAME", "COLUMN_TYPE", "IS_NULLABLE", "COLUMN_DEFAULT", "EXTRA", "INDEX_NAME", "SEQ_IN_INDEX"), List.of(
+                new Object[]{"id", "int", "NO", null, "", "PRIMARY", 1},
+                new Object[]{"name", "varchar(16)", "NO", null, "", null, null}));
+        database.result(LOAD, List.of("id", "name"), List.of(new Object[]{1, "John"}, new Object[]{2, "Jane"}));
+        database.hook(call -> {
+            if (call.sql().equals(LOAD)) {
+                loads.incrementAndGet();
+            }
+        });
+        PythiaSQL.enable(database.getHost(), 3306, "test", "user", "password", new DatabasePoolSettings().withMinSize(0).withMaxSize(4).withAcquireTimeout(2000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        PythiaSQL.disable();
+    }
+
+    @Test
+    void concurrentRequestsShareOneLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        database.hook(call -> {
+            if (call.sql().equals(LOAD)) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException exception) {
+                    throw new SQLException(exception);
+                }
+            }
+        });
+
+        CompletableFuture<DatabaseTable> first = PythiaSQL.getTableAsync("players");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<DatabaseTable> second = PythiaSQL.getTableAsync("players");
+        assertFalse(PythiaSQL.isTableLoaded("players"));
+        release.countDown();
+
+        DatabaseTable table = first.get(5, TimeUnit.SECONDS);
+        assertSame(table, second.get(5, TimeUnit.SECONDS));
+        assertSame(table, PythiaSQL.getTable("players"));
+        assertEquals(2, table.size());
+        assertEquals(1, loads.get());
+        assertTrue(PythiaSQL.isTableLoaded("players"));
+    }
+
+    @Test
+    void failedLoadIsNotKept() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        database.failWhen(call -> failing.get() && call.sql().equals(LOAD));
+
+        assertNull(PythiaSQL.getTableAsync("players").get(5, TimeUnit.SECONDS));
+        assertFalse(PythiaSQL.isTableLoaded("players"));
+
+        failing.set(false);
+        DatabaseTable table = PythiaSQL.getTable("players");
+
+        assertNotNull(table);
+        assertEquals(2, loads.get());
+        assertTrue(PythiaSQL.isTableLoaded("players"));
+    }
+
+    @Test
+    void unloadedTableIsLoadedAgain() {
+        DatabaseTable table = PythiaSQL.getTable("players");
+
+        assertTrue(PythiaSQL.unloadTable("players"));
+        assertFalse(PythiaSQL.isTableLoaded("players"));
+        assertFalse(PythiaSQL.unloadTable("players"));
+
+        assertNotSame(table, PythiaSQL.getTable("players"));
+        assertEquals(2, loads.get());
+    }
+}
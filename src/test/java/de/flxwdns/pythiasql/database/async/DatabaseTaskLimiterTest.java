@@ -0,0 +1,103 @@
+package de.flxwdns.pythiasql.database.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseTaskLimiterTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void singleSlotRunsTasksInSubmissionOrder() {
+        var limiter = new DatabaseTaskLimiter(executor, 1);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            int value = i;
+            futures.add(limiter.submit(() -> {
+                order.add(value);
+                return value;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, order.get(i));
+            assertEquals(i, futures.get(i).join());
+        }
+        assertEquals(0, limiter.getPending());
+    }
+
+    @Test
+    void neverRunsMoreThanMaxInFlight() {
+        var limiter = new DatabaseTaskLimiter(executor, 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            futures.add(limiter.submit(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                running.decrementAndGet();
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertTrue(peak.get() <= 3, "peak " + peak.get());
+    }
+
+    @Test
+    void fullQueueRejectsInsteadOfGrowing() throws Exception {
+        var limiter = new DatabaseTaskLimiter(executor, 1, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        var blocking = limiter.submit(() -> {
+            started.countDown();
+            release.await();
+            return 0;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var first = limiter.submit(() -> 1);
+        var second = limiter.submit(() -> 2);
+        var rejected = limiter.submit(() -> 3);
+
+        assertTrue(rejected.isCompletedExceptionally());
+        var exception = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        assertEquals(2, limiter.getPending());
+
+        release.countDown();
+        assertEquals(0, blocking.get(5, TimeUnit.SECONDS));
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, second.get(5, TimeUnit.SECONDS));
+        assertEquals(4, limiter.submit(() -> 4).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failingTaskDoesNotBlockTheQueue() throws Exception {
+        var limiter = new DatabaseTaskLimiter(executor, 1);
+
+        var failed = limiter.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        var next = limiter.submit(() -> "next");
+
+        assertEquals("next", next.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, failed::get).getCause());
+    }
+}
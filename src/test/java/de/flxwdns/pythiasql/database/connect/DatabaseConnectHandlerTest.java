@@ -0,0 +1,93 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConnectHandlerTest {
+    private final FakeDatabase database = FakeDatabase.create();
+    private final DatabaseConnectHandler handler = database.connect();
+
+    @AfterEach
+    void tearDown() {
+        handler.close();
+    }
+
+    @Test
+    void readRowsAreCountedWhileIterating() {
+        List<DatabaseCall> calls = new CopyOnWriteArrayList<>();
+        handler.addListener(calls::add);
+        database.result("FROM `players`", List.of("id"), List.of(new Object[]{1}, new Object[]{2}, new Object[]{3}));
+
+        int sum = handler.executeQuery("SELECT * FROM `players`", resultSet -> {
+            int total = 0;
+            while (resultSet.next()) {
+                total += resultSet.getInt("id");
+            }
+            return total;
+        }, 0);
+        boolean exists = handler.executeQuery("SELECT * FROM `players` LIMIT 1", resultSet -> resultSet.next(), false);
+
+        assertEquals(6, sum);
+        assertTrue(exists);
+        assertEquals(3, calls.get(0).getRows());
+        assertEquals(1, calls.get(1).getRows());
+    }
+
+    @Test
+    void closingAStreamEarlyReleasesItsConnection() throws Exception {
+        List<DatabaseCall> calls = new CopyOnWriteArrayList<>();
+        handler.addListener(calls::add);
+        database.result("FROM `players`", List.of("id"), List.of(new Object[]{1}, new Object[]{2}, new Object[]{3}));
+
+        try (Stream<Integer> ids = handler.stream("SELECT * FROM `players`", resultSet -> resultSet.getInt("id"))) {
+            assertEquals(1, ids.findFirst().orElseThrow());
+            assertEquals(1, handler.getPool().getActiveConnections());
+            assertTrue(calls.isEmpty());
+        }
+
+        assertEquals(0, handler.getPool().getActiveConnections());
+        assertEquals(1, calls.size());
+        assertEquals(1, calls.get(0).getRows());
+    }
+
+    @Test
+    void consumingAStreamReleasesItsConnectionWithoutClose() throws Exception {
+        List<DatabaseCall> calls = new CopyOnWriteArrayList<>();
+        handler.addListener(calls::add);
+        database.result("FROM `players`", List.of("id"), List.of(new Object[]{1}, new Object[]{2}, new Object[]{3}));
+
+        Stream<Integer> ids = handler.stream("SELECT * FROM `players`", resultSet -> resultSet.getInt("id"));
+
+        assertEquals(List.of(1, 2, 3), ids.toList());
+        assertEquals(0, handler.getPool().getActiveConnections());
+        ids.close();
+        assertEquals(1, calls.size());
+        assertEquals(3, calls.get(0).getRows());
+    }
+
+    @Test
+    void failedMappingClosesTheStream() throws Exception {
+        List<DatabaseCall> calls = new CopyOnWriteArrayList<>();
+        handler.addListener(calls::add);
+        database.result("FROM `players`", List.of("id"), List.of(new Object[]{1}, new Object[]{2}));
+
+        try (Stream<Integer> ids = handler.stream("SELECT * FROM `players`", resultSet -> {
+            throw new SQLException("mapping failed");
+        })) {
+            RuntimeException exception = assertThrows(RuntimeException.class, ids::toList);
+            assertInstanceOf(SQLException.class, exception.getCause());
+            assertEquals(0, handler.getPool().getActiveConnections());
+        }
+
+        assertEquals(1, calls.size());
+        assertTrue(calls.get(0).isFailed());
+    }
+}
@@ -0,0 +1,129 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConnectionPoolTest {
+    private FakeDatabase database;
+    private DatabaseConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        database = FakeDatabase.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private DatabaseConnectionPool pool(DatabasePoolSettings settings) {
+        pool = new DatabaseConnectionPool("jdbc:mysql://" + database.getHost() + ":3306/test", "user", "password", settings);
+        return pool;
+    }
+
+    @Test
+    void returnedConnectionIsReused() throws SQLException {
+        pool(new DatabasePoolSettings().withMinSize(0).withMaxSize(2));
+
+        try (Connection connection = pool.borrow()) {
+            assertEquals(1, pool.getActiveConnections());
+        }
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+        }
+
+        assertEquals(1, pool.getTotalConnections());
+        assertEquals(1, pool.getIdleConnections());
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, database.getOpenConnections());
+    }
+
+    @Test
+    void closingTwiceReleasesTheConnectionOnce() throws SQLException {
+        pool(new DatabasePoolSettings().withMinSize(0).withMaxSize(1).withAcquireTimeout(100));
+
+        Connection connection = pool.borrow();
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1"));
+        Connection second = pool.borrow();
+        assertThrows(SQLTransientConnectionException.class, pool::borrow);
+        second.close();
+    }
+
+    @Test
+    void borrowTimesOutWhenThePoolIsExhausted() throws SQLException {
+        pool(new DatabasePoolSettings().withMinSize(0).withMaxSize(1).withAcquireTimeout(50));
+
+        try (Connection ignored = pool.borrow()) {
+            assertThrows(SQLTransientConnectionException.class, pool::borrow);
+        }
+        pool.borrow().close();
+    }
+
+    @Test
+    void releaseRollsBackAnOpenTransaction() throws SQLException {
+        pool(new DatabasePoolSettings().withMinSize(0).withMaxSize(1));
+
+        try (Connection connection = pool.borrow()) {
+            connection.setAutoCommit(false);
+            connection.prepareStatement("UPDATE t SET a = 1").executeUpdate();
+        }
+
+        assertEquals(1, database.calls("ROLLBACK").size());
+        try (Connection connection = pool.borrow()) {
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    @Test
+    void invalidIdleConnectionIsReplaced() throws SQLException {
+        pool(new DatabasePoolSettings().withMinSize(0).withMaxSize(1));
+
+        pool.borrow().close();
+        database.setAvailable(false);
+        assertThrows(SQLException.class, pool::borrow);
+        assertEquals(0, pool.getTotalConnections());
+
+        database.setAvailable(true);
+        pool.borrow().close();
+        assertEquals(1, database.getOpenConnections());
+    }
+
+    @Test
+    void unreturnedConnectionIsReportedAsLeak() throws Exception {
+        PrintStream previous = System.err;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(output, true));
+        try {
+            pool(new DatabasePoolSettings().withMinSize(0).withMaxSize(1).withLeakDetectionThreshold(20).withHousekeepingInterval(10));
+            Connection connection = pool.borrow();
+            long deadline = System.currentTimeMillis() + 2000;
+            while (!output.toString().contains("Connection borrowed here") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            connection.close();
+        } finally {
+            System.setErr(previous);
+        }
+
+        assertTrue(output.toString().contains("Possible connection leak"));
+        assertTrue(output.toString().contains("Connection borrowed here"));
+        assertEquals(0, pool.getActiveConnections());
+    }
+}
@@ -0,0 +1,166 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.rowset.CachedRowSet;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseQueryCacheTest {
+    private static final String QUERY = "SELECT * FROM `players` WHERE `id` = ?";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final DatabaseQueryCache cache = new DatabaseQueryCache(new DatabaseQueryCacheSettings());
+    private final AtomicInteger loads = new AtomicInteger();
+    private final FakeDatabase database = FakeDatabase.create();
+    private final DatabaseConnectHandler handler = database.connect();
+
+    @AfterEach
+    void tearDown() {
+        handler.close();
+        executor.shutdownNow();
+    }
+
+    private String query() {
+        return handler.executeQuery(QUERY, resultSet -> resultSet.next() ? resultSet.getString("name") : null, null, 1);
+    }
+
+    private CachedRowSet load(String name) throws SQLException {
+        loads.incrementAndGet();
+        return DatabaseQueryCache.read(FakeDatabase.resultSet(List.of("id", "name"), List.<Object[]>of(new Object[]{1, name})));
+    }
+
+    private String get(DatabaseQueryCache.Loader loader) throws SQLException {
+        try (ResultSet resultSet = cache.get(QUERY, new Object[]{1}, loader)) {
+            assertTrue(resultSet.next());
+            return resultSet.getString("name");
+        }
+    }
+
+    private Future<String> blockedLoad(CountDownLatch started, CountDownLatch release, String name) {
+        return executor.submit(() -> get(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                throw new SQLException(exception);
+            }
+            return load(name);
+        }));
+    }
+
+    @Test
+    void resultIsCachedUntilTheTableIsWritten() throws Exception {
+        assertEquals("John", get(() -> load("John")));
+        assertEquals("John", get(() -> load("Jack")));
+        assertEquals(1, loads.get());
+
+        cache.written("UPDATE `players` SET `name` = ? WHERE `id` = ?");
+
+        assertEquals("Jack", get(() -> load("Jack")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = blockedLoad(started, release, "John");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<String> second = executor.submit(() -> get(() -> load("Other")));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.getSharedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertEquals("John", first.get(5, TimeUnit.SECONDS));
+        assertEquals("John", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getSharedCount());
+    }
+
+    @Test
+    void resultLoadedDuringAWriteIsNotCached() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> stale = blockedLoad(started, release, "John");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        cache.written("UPDATE `players` SET `name` = ? WHERE `id` = ?");
+        assertEquals("Jack", get(() -> load("Jack")));
+        release.countDown();
+
+        assertEquals("John", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("Jack", get(() -> load("Other")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void resultLoadedDuringInvalidateAllIsNotCached() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> stale = blockedLoad(started, release, "John");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        cache.invalidateAll();
+        release.countDown();
+
+        assertEquals("John", stale.get(5, TimeUnit.SECONDS));
+        assertEquals(0, cache.size());
+        assertEquals("Jack", get(() -> load("Jack")));
+    }
+
+    @Test
+    void writeOfAnotherTableKeepsTheLoadedResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> loaded = blockedLoad(started, release, "John");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        cache.invalidate("teams");
+        release.countDown();
+
+        assertEquals("John", loaded.get(5, TimeUnit.SECONDS));
+        assertEquals(1, cache.size());
+        assertEquals("John", get(() -> load("Jack")));
+    }
+
+    @Test
+    void handlerReadsTheDatabaseAgainAfterAWrite() throws Exception {
+        handler.enableQueryCache(new DatabaseQueryCacheSettings());
+        database.result(QUERY, List.of("id", "name"), List.<Object[]>of(new Object[]{1, "John"}));
+
+        assertEquals("John", query());
+        assertEquals("John", query());
+        assertEquals(1, database.calls(QUERY).size());
+
+        database.result(QUERY, List.of("id", "name"), List.<Object[]>of(new Object[]{1, "Jack"}));
+        handler.executeUpdate("UPDATE `players` SET `name` = ? WHERE `id` = ?", "Jack", 1);
+
+        assertEquals("Jack", query());
+        assertEquals(2, database.calls(QUERY).size());
+    }
+
+    @Test
+    void uncachedQueriesAlwaysReadTheDatabase() {
+        handler.enableQueryCache(new DatabaseQueryCacheSettings());
+        database.result(QUERY, List.of("id", "name"), List.<Object[]>of(new Object[]{1, "John"}));
+        query();
+
+        // Refreshes and key loads must see rows written by other applications, which the cache is not told about
+        String name = handler.executeUncachedQuery(QUERY, resultSet -> resultSet.next() ? resultSet.getString("name") : null, null, 1);
+
+        assertEquals("John", name);
+        assertEquals(2, database.calls(QUERY).size());
+        assertEquals(1, handler.getQueryCache().getHitCount() + handler.getQueryCache().getMissCount());
+    }
+}
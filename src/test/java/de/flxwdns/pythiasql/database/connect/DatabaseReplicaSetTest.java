@@ -0,0 +1,145 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseReplicaSetTest {
+    private final FakeDatabase primary = FakeDatabase.create();
+    private final FakeDatabase replica = FakeDatabase.create();
+    private final DatabaseConnectHandler handler = primary.connect();
+
+    @AfterEach
+    void tearDown() {
+        handler.close();
+    }
+
+    private void enable(long readYourWritesMillis) {
+        lag(0L);
+        handler.enableReplicas(new DatabaseReplicaSettings().withReplica(replica.getHost(), 3306).withHealthCheckInterval(60_000).withReadYourWritesWindow(readYourWritesMillis));
+        replica.clear();
+    }
+
+    private void lag(Long seconds) {
+        replica.result("REPLICA STATUS", List.of("Replica_IO_Running", "Seconds_Behind_Source"), List.<Object[]>of(new Object[]{"Yes", seconds}));
+    }
+
+    private void read(String table) {
+        handler.getReader().executeQuery("SELECT * FROM `" + table + "`", resultSet -> resultSet.next(), false);
+    }
+
+    private static int reads(FakeDatabase database, String table) {
+        return database.calls("SELECT * FROM `" + table + "`").size();
+    }
+
+    @Test
+    void readsAreServedByTheReplica() {
+        enable(10_000);
+
+        read("players");
+
+        assertEquals(1, reads(replica, "players"));
+        assertEquals(0, reads(primary, "players"));
+    }
+
+    @Test
+    void writtenTableIsReadFromThePrimaryWithinTheWindow() throws SQLException {
+        enable(10_000);
+
+        handler.executeUpdate("UPDATE `players` SET `age` = ? WHERE `id` = ?", 31, 1);
+        read("players");
+        read("teams");
+
+        assertEquals(1, reads(primary, "players"));
+        assertEquals(0, reads(replica, "players"));
+        assertEquals(1, reads(replica, "teams"));
+    }
+
+    @Test
+    void writtenTableIsReadFromTheReplicaAfterTheWindow() throws Exception {
+        enable(50);
+
+        handler.executeUpdate("UPDATE `players` SET `age` = ? WHERE `id` = ?", 31, 1);
+        Thread.sleep(100);
+        read("players");
+
+        assertEquals(1, reads(replica, "players"));
+        assertEquals(0, reads(primary, "players"));
+    }
+
+    @Test
+    void readYourWritesSendsAllReadsToThePrimary() {
+        enable(10_000);
+
+        handler.readYourWrites(() -> {
+            read("teams");
+            return null;
+        });
+        read("teams");
+
+        assertEquals(1, reads(primary, "teams"));
+        assertEquals(1, reads(replica, "teams"));
+    }
+
+    @Test
+    void unreachableReplicaIsSkipped() {
+        replica.setAvailable(false);
+        enable(10_000);
+
+        read("players");
+
+        assertFalse(handler.getReplicas().get(0).isHealthy());
+        assertEquals(1, reads(primary, "players"));
+    }
+
+    @Test
+    void readsInATransactionUseThePrimary() throws SQLException {
+        enable(10_000);
+
+        try (DatabaseConnectHandler transaction = handler.beginTransaction()) {
+            transaction.getReader().executeQuery("SELECT * FROM `players`", resultSet -> resultSet.next(), false);
+            transaction.commit();
+        }
+
+        assertEquals(1, reads(primary, "players"));
+        assertEquals(0, reads(replica, "players"));
+    }
+
+    @Test
+    void replicaBehindTheMaxLagIsSkipped() {
+        lag(30L);
+        handler.enableReplicas(new DatabaseReplicaSettings().withReplica(replica.getHost(), 3306).withHealthCheckInterval(60_000).withMaxLag(5));
+
+        read("players");
+
+        assertFalse(handler.getReplicas().get(0).isHealthy());
+        assertEquals(1, reads(primary, "players"));
+        assertEquals(0, reads(replica, "players"));
+    }
+
+    @Test
+    void replicaWithoutLagIsSkipped() {
+        lag(null);
+        handler.enableReplicas(new DatabaseReplicaSettings().withReplica(replica.getHost(), 3306).withHealthCheckInterval(60_000));
+
+        read("players");
+
+        assertFalse(handler.getReplicas().get(0).isHealthy());
+        assertEquals(1, reads(primary, "players"));
+    }
+
+    @Test
+    void serverWithoutReplicaStatusIsSkipped() {
+        handler.enableReplicas(new DatabaseReplicaSettings().withReplica(replica.getHost(), 3306).withHealthCheckInterval(60_000));
+
+        read("players");
+
+        assertFalse(handler.getReplicas().get(0).isHealthy());
+        assertEquals(1, reads(primary, "players"));
+    }
+}
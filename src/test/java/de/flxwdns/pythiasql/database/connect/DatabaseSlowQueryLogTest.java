@@ -0,0 +1,126 @@
+package de.flxwdns.pythiasql.database.connect;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseSlowQueryLogTest {
+    private static final String SLOW = "SELECT * FROM `players` WHERE `name` = ?";
+    private static final String FAST = "SELECT * FROM `teams`";
+
+    private final FakeDatabase database = FakeDatabase.create();
+    private final DatabaseConnectHandler handler = database.connect();
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        handler.close();
+    }
+
+    private void delay(String query, long millis) {
+        database.hook(call -> {
+            if (call.sql().equals(query)) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException exception) {
+                    throw new SQLException(exception);
+                }
+            }
+        });
+    }
+
+    private void query(String query, Object... parameters) {
+        handler.executeQuery(query, resultSet -> resultSet.next(), false, parameters);
+    }
+
+    @Test
+    void onlyCallsOverTheThresholdAreLogged() {
+        var log = new DatabaseSlowQueryLog(handler).withThreshold(50).withExplainInterval(0).withLogger(messages::add);
+        handler.addListener(log);
+        delay(SLOW, 80);
+
+        query(FAST);
+        query(SLOW, "John");
+
+        assertEquals(1, log.getSlowCount());
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).startsWith("[WARN] Slow "));
+        assertTrue(messages.get(0).contains(SLOW));
+        assertEquals(0, log.getExplainCount());
+    }
+
+    @Test
+    void slowShapesAreExplainedOncePerInterval() throws Exception {
+        CountDownLatch explained = new CountDownLatch(1);
+        var log = new DatabaseSlowQueryLog(handler).withThreshold(0).withLogger(message -> {
+            messages.add(message);
+            if (message.startsWith("[WARN] EXPLAIN")) {
+                explained.countDown();
+            }
+        });
+        handler.addListener(log);
+        database.result("EXPLAIN", List.of("id", "type"), List.<Object[]>of(new Object[]{1, "ALL"}));
+
+        query(SLOW, "John");
+        query(SLOW, "Jane");
+
+        assertTrue(explained.await(5, TimeUnit.SECONDS));
+        assertEquals(2, log.getSlowCount());
+        assertEquals(1, log.getExplainCount());
+        assertEquals(List.of("John"), database.calls("EXPLAIN " + SLOW).get(0).parameters());
+        assertTrue(messages.stream().anyMatch(message -> message.contains("type=ALL")));
+        assertTrue(messages.stream().noneMatch(message -> message.startsWith("[WARN] Slow EXPLAIN")));
+    }
+
+    @Test
+    void listenersAreCalledInTheOrderTheyWereAdded() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        DatabaseCallListener first = new DatabaseCallListener() {
+            @Override
+            public void onStart(DatabaseCall call) {
+                events.add("first start");
+            }
+
+            @Override
+            public void onFinish(DatabaseCall call) {
+                events.add("first finish");
+            }
+        };
+        DatabaseCallListener failing = call -> {
+            events.add("failing finish");
+            throw new IllegalStateException("listener failed");
+        };
+        DatabaseCallListener last = call -> events.add("last finish " + call.getShape());
+        handler.addListener(first);
+        handler.addListener(failing);
+        handler.addListener(last);
+
+        query(FAST);
+
+        assertEquals(List.of("first start", "first finish", "failing finish", "last finish " + FAST), events);
+
+        assertTrue(handler.removeListener(failing));
+        assertFalse(handler.removeListener(failing));
+        events.clear();
+        query(FAST);
+
+        assertEquals(List.of("first start", "first finish", "last finish " + FAST), events);
+    }
+
+    @Test
+    void negativeSettingsAreRejected() {
+        var log = new DatabaseSlowQueryLog(handler);
+
+        assertThrows(IllegalArgumentException.class, () -> log.withThreshold(-1));
+        assertThrows(IllegalArgumentException.class, () -> log.withExplainInterval(-1));
+        assertEquals(1_000, log.getThresholdMillis());
+    }
+}
@@ -0,0 +1,46 @@
+package de.flxwdns.pythiasql.database.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseEntryFilterTest {
+
+    @Test
+    void rangeConditionsRejectNull() {
+        var filter = new DatabaseEntryFilter();
+
+        assertThrows(IllegalArgumentException.class, () -> filter.withGreaterThan("level", null));
+        assertThrows(IllegalArgumentException.class, () -> filter.withGreaterOrEqual("level", null));
+        assertThrows(IllegalArgumentException.class, () -> filter.withLessThan("level", null));
+        assertThrows(IllegalArgumentException.class, () -> filter.withLessOrEqual("level", null));
+        assertThrows(IllegalArgumentException.class, () -> filter.withBetween("level", 1, null));
+        assertThrows(IllegalArgumentException.class, () -> filter.withLike("name", null));
+        assertThrows(IllegalArgumentException.class, () -> filter.withIn("rank", Arrays.asList("admin", null)));
+        assertEquals("", filter.toWhere(new ArrayList<>()));
+    }
+
+    @Test
+    void rangeConditionsBindTheirValues() {
+        List<Object> parameters = new ArrayList<>();
+
+        String where = new DatabaseEntryFilter().withGreaterThan("level", 1).withBetween("age", 18, 30).toWhere(parameters);
+
+        assertEquals(" WHERE `level` > ? AND `age` BETWEEN ? AND ?", where);
+        assertEquals(List.of(1, 18, 30), parameters);
+    }
+
+    @Test
+    void inAcceptsImmutableLists() {
+        List<Object> parameters = new ArrayList<>();
+
+        String where = new DatabaseEntryFilter().withIn("rank", List.of("admin", "mod")).toWhere(parameters);
+
+        assertEquals(" WHERE `rank` IN (?, ?)", where);
+        assertEquals(List.of("admin", "mod"), parameters);
+    }
+}
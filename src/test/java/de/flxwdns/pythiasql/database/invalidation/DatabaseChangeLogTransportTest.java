@@ -0,0 +1,114 @@
+package de.flxwdns.pythiasql.database.invalidation;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseChangeLogTransportTest {
+    private static final List<String> COLUMNS = List.of("id", "origin", "table_name", "kind", "conditions", "changes");
+    private static final String RECEIVE = "SELECT `id`, `origin`";
+
+    private final FakeDatabase database = FakeDatabase.create();
+    private final DatabaseConnectHandler handler = database.connect();
+    private final DatabaseChangeLogTransport transport = new DatabaseChangeLogTransport(handler, DatabaseChangeLogTransport.DEFAULT_TABLE, 60_000, 0);
+    private final List<DatabaseInvalidation> received = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        transport.close();
+        handler.close();
+    }
+
+    private static Object[] change(long id) {
+        return new Object[]{id, "other", "players", "UPDATE", DatabaseChangeLogTransport.encode(Map.of("id", id)), ""};
+    }
+
+    private List<Object> ids() {
+        return received.stream().map(invalidation -> invalidation.getConditions().get("id")).toList();
+    }
+
+    private List<Object> lastParameters() {
+        var calls = database.calls(RECEIVE);
+        return calls.get(calls.size() - 1).parameters();
+    }
+
+    @Test
+    void valuesKeepTheirTypes() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("null", null);
+        values.put("int", 1);
+        values.put("short", (short) 2);
+        values.put("byte", (byte) 3);
+        values.put("long", 4L);
+        values.put("big integer", new BigInteger("12345678901234567890"));
+        values.put("decimal", new BigDecimal("1.50"));
+        values.put("double", 0.1);
+        values.put("float", 0.1f);
+        values.put("boolean", true);
+        values.put("uuid", UUID.randomUUID());
+        values.put("timestamp", Timestamp.valueOf("2024-05-01 10:15:30.123456789"));
+        values.put("date", Date.valueOf("2024-05-01"));
+        values.put("time", Time.valueOf("10:15:30"));
+        values.put("local date time", LocalDateTime.of(2024, 5, 1, 10, 15));
+        values.put("local date", LocalDate.of(2024, 5, 1));
+        values.put("local time", LocalTime.of(10, 15, 30, 5));
+        values.put("instant", Instant.ofEpochSecond(1714558530, 7));
+        values.put("char", 'x');
+        values.put("text = a & b", "x=1&y=2");
+
+        Map<String, Object> decoded = DatabaseChangeLogTransport.decode(DatabaseChangeLogTransport.encode(values));
+
+        assertEquals(values.keySet(), decoded.keySet());
+        values.forEach((key, value) -> {
+            assertEquals(value, decoded.get(key), key);
+            assertEquals(value == null ? null : value.getClass(), decoded.get(key) == null ? null : decoded.get(key).getClass(), key);
+        });
+    }
+
+    @Test
+    void bytesSurviveTheRoundTrip() {
+        byte[] bytes = {0, 1, -1, 127};
+
+        assertArrayEquals(bytes, (byte[]) DatabaseChangeLogTransport.decode(DatabaseChangeLogTransport.encode(Map.of("bytes", bytes))).get("bytes"));
+    }
+
+    @Test
+    void lateCommitsAreReceivedOnce() {
+        transport.start(received::add);
+        database.result(RECEIVE, COLUMNS, List.of(change(1), change(3)));
+        transport.poll();
+
+        assertEquals(List.of(1L, 3L), ids());
+
+        // Id 2 was inserted before id 3 but committed after it was read
+        database.result(RECEIVE, COLUMNS, List.of(change(2), change(3)));
+        transport.poll();
+
+        assertTrue(database.calls(RECEIVE).get(1).sql().contains("`id` > ? OR `id` IN (?)"));
+        assertEquals(List.of(3L, 2L), lastParameters());
+        assertEquals(List.of(1L, 3L, 2L), ids());
+
+        transport.poll();
+
+        assertEquals(List.of(3L), lastParameters());
+        assertEquals(3, received.size());
+    }
+}
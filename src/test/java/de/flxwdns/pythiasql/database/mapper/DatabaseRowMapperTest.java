@@ -0,0 +1,109 @@
+package de.flxwdns.pythiasql.database.mapper;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import de.flxwdns.pythiasql.database.table.DatabaseRow;
+import de.flxwdns.pythiasql.database.table.DatabaseRowLayout;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseRowMapperTest {
+    private enum Rank {MEMBER, ADMIN}
+
+    private record Numbers(int kills, long coins, double ratio, float speed, short level, byte flags, boolean active, BigDecimal balance) {
+    }
+
+    private record Values(UUID uuid, UUID binaryUuid, Rank rank, String name, char initial, LocalDateTime joined, LocalDate birthday, Instant seen) {
+    }
+
+    private record Names(long playerId, @DatabaseColumnName("nick") String name) {
+    }
+
+    private static final class Player {
+        private String name;
+        private int kills;
+        private transient int ignored = -1;
+
+        public void setName(String name) {
+            this.name = name.toUpperCase();
+        }
+    }
+
+    private static <T> T map(Class<T> type, List<String> columns, Object... values) {
+        return DatabaseRowMapper.of(type).map(new DatabaseRowLayout(columns), new DatabaseRow(0, values));
+    }
+
+    @Test
+    void numbersAreConvertedToTheFieldTypes() {
+        Numbers numbers = map(Numbers.class, List.of("kills", "coins", "ratio", "speed", "level", "flags", "active", "balance"),
+                12L, 7, new BigDecimal("0.5"), 1.25, 3L, 1, 1, "10.50");
+
+        assertEquals(new Numbers(12, 7L, 0.5, 1.25f, (short) 3, (byte) 1, true, new BigDecimal("10.50")), numbers);
+    }
+
+    @Test
+    void nullsBecomeTheDefaultsOfPrimitives() {
+        Numbers numbers = map(Numbers.class, List.of("kills", "coins", "ratio", "speed", "level", "flags", "active", "balance"),
+                null, null, null, null, null, null, null, null);
+
+        assertEquals(new Numbers(0, 0L, 0.0, 0.0f, (short) 0, (byte) 0, false, null), numbers);
+    }
+
+    @Test
+    void valuesAreConvertedToTheFieldTypes() {
+        UUID uuid = UUID.randomUUID();
+        UUID binaryUuid = UUID.randomUUID();
+        byte[] bytes = ByteBuffer.allocate(16).putLong(binaryUuid.getMostSignificantBits()).putLong(binaryUuid.getLeastSignificantBits()).array();
+        Timestamp timestamp = Timestamp.valueOf("2024-05-01 10:15:30");
+
+        Values values = map(Values.class, List.of("uuid", "binary_uuid", "rank", "name", "initial", "joined", "birthday", "seen"),
+                uuid.toString(), bytes, "ADMIN", "John".getBytes(), "John", timestamp, Date.valueOf("2000-02-29"), timestamp);
+
+        assertEquals(new Values(uuid, binaryUuid, Rank.ADMIN, "John", 'J', timestamp.toLocalDateTime(), LocalDate.of(2000, 2, 29), timestamp.toInstant()), values);
+    }
+
+    @Test
+    void columnsAreFoundBySnakeCaseAndAnnotation() {
+        assertEquals(new Names(5L, "Johnny"), map(Names.class, List.of("player_id", "nick", "name"), 5, "Johnny", "John"));
+    }
+
+    @Test
+    void pojosAreFilledThroughSettersAndFields() {
+        Player player = map(Player.class, List.of("name", "kills", "ignored"), "John", 3L, 9);
+
+        assertEquals("JOHN", player.name);
+        assertEquals(3, player.kills);
+        assertEquals(-1, player.ignored);
+    }
+
+    @Test
+    void resultSetRowsAreMappedWithResolvedPositions() throws Exception {
+        DatabaseRowMapper<Names> mapper = DatabaseRowMapper.of(Names.class);
+        ResultSet resultSet = FakeDatabase.resultSet(List.of("NICK", "PLAYER_ID"), List.of(new Object[]{"John", 1}, new Object[]{"Jane", 2L}));
+
+        int[] positions = mapper.resolve(resultSet);
+        assertArrayEquals(new int[]{2, 1}, positions);
+        assertTrue(resultSet.next());
+        assertEquals(new Names(1L, "John"), mapper.read(resultSet, positions));
+        assertTrue(resultSet.next());
+        assertEquals(new Names(2L, "Jane"), mapper.read(resultSet, positions));
+    }
+
+    @Test
+    void plansAreSharedAndUnconvertibleValuesAreRejected() {
+        assertSame(DatabaseRowMapper.of(Names.class), DatabaseRowMapper.of(Names.class));
+        assertThrows(ClassCastException.class, () -> map(Values.class, List.of("joined"), 42));
+        assertThrows(NumberFormatException.class, () -> map(Numbers.class, List.of("kills"), "many"));
+    }
+}
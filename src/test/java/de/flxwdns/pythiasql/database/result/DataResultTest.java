@@ -0,0 +1,64 @@
+package de.flxwdns.pythiasql.database.result;
+
+import de.flxwdns.pythiasql.database.table.DatabaseRow;
+import de.flxwdns.pythiasql.database.table.DatabaseRowLayout;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataResultTest {
+    private final DataResult result = new DataResult(new DatabaseRowLayout(List.of("kills", "level", "ratio")), new DatabaseRow(0, new Object[]{12L, null, 1.5}));
+
+    @Test
+    void numericGettersConvertValues() {
+        assertEquals(12, result.getInt("kills"));
+        assertEquals(12L, result.getLong(0));
+        assertEquals(1.5, result.getDouble("ratio"));
+    }
+
+    @Test
+    void nullIsReturnedAsZero() {
+        assertEquals(0, result.getInt("level"));
+        assertEquals(0L, result.getLong("level"));
+        assertTrue(result.isNull("level"));
+        assertFalse(result.isNull("kills"));
+    }
+
+    @Test
+    void unknownColumnIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> result.getInt("deaths"));
+        assertThrows(IllegalArgumentException.class, () -> result.getLong("deaths"));
+        assertThrows(IllegalArgumentException.class, () -> result.getDouble("deaths"));
+        assertThrows(IllegalArgumentException.class, () -> result.getInt(result.indexOf("deaths")));
+        assertThrows(IllegalArgumentException.class, () -> result.isNull("deaths"));
+        assertNull(result.getObject("deaths"));
+    }
+
+    @Test
+    void narrowingFailsOnOverflow() {
+        var values = new DataResult(new DatabaseRowLayout(List.of("big", "small", "huge", "decimal")), new DatabaseRow(0, new Object[]{3_000_000_000L, 100, 1e300, new BigDecimal("12.75")}));
+
+        assertThrows(ArithmeticException.class, () -> values.getInt("big"));
+        assertEquals(3_000_000_000L, values.getLong("big"));
+        assertThrows(ArithmeticException.class, () -> values.getShort("big"));
+        assertEquals((short) 100, values.getShort("small"));
+        assertEquals((byte) 100, values.getByte(1));
+        assertThrows(ArithmeticException.class, () -> values.getByte(values.indexOf("big")));
+        assertThrows(ArithmeticException.class, () -> values.getFloat("huge"));
+        assertThrows(ArithmeticException.class, () -> values.getLong("huge"));
+        assertEquals(12, values.getInt("decimal"));
+        assertEquals(12.75f, values.getFloat(3));
+    }
+
+    @Test
+    void indexGettersMatchTheColumnGetters() {
+        assertEquals(result.getShort("kills"), result.getShort(0));
+        assertEquals(result.getByte("kills"), result.getByte(0));
+        assertEquals(1.5f, result.getFloat(2));
+        assertEquals(0f, result.getFloat(1));
+        assertThrows(IllegalArgumentException.class, () -> result.getFloat(result.indexOf("deaths")));
+    }
+}
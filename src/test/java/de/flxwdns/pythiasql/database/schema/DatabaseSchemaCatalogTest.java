@@ -0,0 +1,56 @@
+package de.flxwdns.pythiasql.database.schema;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseSchemaCatalogTest {
+    private static final List<String> COLUMNS = List.of("COLUMN_NAME", "COLUMN_TYPE", "IS_NULLABLE", "COLUMN_DEFAULT", "EXTRA", "INDEX_NAME", "SEQ_IN_INDEX");
+
+    private final FakeDatabase database = FakeDatabase.create();
+    private final DatabaseConnectHandler handler = database.connect();
+
+    @AfterEach
+    void tearDown() {
+        handler.close();
+    }
+
+    @Test
+    void compositeKeysKeepTheirIndexOrder() {
+        database.result("INFORMATION_SCHEMA", COLUMNS, List.of(
+                new Object[]{"a", "int", "NO", null, "", "PRIMARY", 2},
+                new Object[]{"b", "int", "NO", null, "", "PRIMARY", 1},
+                new Object[]{"b", "int", "NO", null, "", "unique_b_c", 1},
+                new Object[]{"c", "varchar(16)", "YES", null, "", "unique_b_c", 2}));
+
+        DatabaseTableSchema schema = handler.getCatalog().getSchema("pairs");
+
+        assertEquals(List.of("a", "b", "c"), schema.getColumnNames());
+        assertEquals(List.of("b", "a"), schema.getPrimaryKey());
+        assertEquals(List.of(List.of("b", "a"), List.of("b", "c")), schema.getUniqueKeys());
+        assertTrue(schema.getColumn("a").isPrimaryKey());
+        assertFalse(schema.getColumn("c").isPrimaryKey());
+    }
+
+    @Test
+    void autoIncrementIsFoundInEveryLocale() {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            database.result("INFORMATION_SCHEMA", COLUMNS, List.<Object[]>of(new Object[]{"id", "bigint", "NO", null, "AUTO_INCREMENT", "PRIMARY", 1}));
+
+            DatabaseTableSchema schema = handler.getCatalog().getSchema("players");
+
+            assertTrue(schema.getColumn("id").isAutoIncrement());
+            assertEquals("id", schema.getGeneratedColumn());
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+}
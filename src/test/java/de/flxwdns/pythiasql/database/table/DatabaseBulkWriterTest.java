@@ -0,0 +1,86 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseBulkWriterTest extends TableTestSupport {
+    private static final String INSERT = "INSERT INTO `players` (`id`, `name`, `age`) VALUES ";
+
+    private static Map<String, Object> player(int id, String name, int age) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", id);
+        values.put("name", name);
+        values.put("age", age);
+        return values;
+    }
+
+    @Test
+    void createEntriesSendsMultiRowInserts() {
+        var table = players();
+
+        int inserted = table.createEntries(List.of(player(1, "John", 30), player(2, "Jane", 25), player(3, "Jack", 41), player(4, "Jill", 19), player(5, "Joe", 52)), 2).join();
+
+        assertEquals(5, inserted);
+        var inserts = database.calls(INSERT);
+        assertEquals(3, inserts.size());
+        assertEquals(INSERT + "(?, ?, ?), (?, ?, ?)", inserts.get(0).sql());
+        assertEquals(List.of(1, "John", 30, 2, "Jane", 25), inserts.get(0).parameters());
+        assertEquals(INSERT + "(?, ?, ?)", inserts.get(2).sql());
+        assertEquals(5, table.size());
+        assertTrue(table.isEntryExists(Map.of("id", 5, "name", "Joe", "age", 52)));
+    }
+
+    @Test
+    void rowsWithOtherColumnsAreInsertedSeparately() {
+        var table = players();
+
+        int inserted = table.createEntries(List.of(player(1, "John", 30), Map.of("id", 2), player(3, "Jack", 41))).join();
+
+        assertEquals(3, inserted);
+        assertEquals(INSERT + "(?, ?, ?), (?, ?, ?)", database.calls(INSERT).get(0).sql());
+        assertEquals(List.of("INSERT INTO `players` (`id`) VALUES (?)"), database.calls("INSERT INTO `players` (`id`)").stream().map(FakeDatabase.Call::sql).toList());
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void failedStatementOnlyCachesTheWrittenRows() {
+        var table = players(row(9, "Old", 99));
+        AtomicInteger inserts = new AtomicInteger();
+        database.failWhen(call -> call.sql().startsWith(INSERT) && inserts.incrementAndGet() == 2);
+
+        var future = table.createEntries(List.of(player(1, "John", 30), player(2, "Jane", 25), player(3, "Jack", 41)), 2);
+
+        // Without a group commit every statement commits on its own, so the first one stays written
+        assertThrows(CompletionException.class, future::join);
+        assertEquals(3, table.size());
+        assertTrue(table.isEntryExists(Map.of("id", 2, "name", "Jane")));
+        assertFalse(table.isEntryExists(Map.of("id", 3)));
+    }
+
+    @Test
+    void writerInsertsFullBatchesAndTheRestOnClose() {
+        var table = players();
+        DatabaseBulkWriter writer = table.bulkWriter(2);
+
+        writer.accept(player(1, "John", 30));
+        assertTrue(database.calls(INSERT).isEmpty());
+        writer.accept(player(2, "Jane", 25));
+        assertEquals(1, database.calls(INSERT).size());
+        writer.accept(player(3, "Jack", 41));
+        writer.close();
+
+        assertEquals(2, database.calls(INSERT).size());
+        assertEquals(3, writer.getWritten());
+        assertEquals(3, table.size());
+        assertThrows(IllegalStateException.class, () -> writer.accept(player(4, "Jill", 19)));
+        assertThrows(IllegalArgumentException.class, () -> table.bulkWriter(0));
+    }
+}
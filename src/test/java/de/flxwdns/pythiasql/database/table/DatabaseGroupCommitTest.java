@@ -0,0 +1,124 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseGroupCommitTest extends TableTestSupport {
+    private final DatabaseGroupCommit groupCommit = new DatabaseGroupCommit(handler, executor, new DatabaseGroupCommitSettings().withInterval(60_000));
+
+    @AfterEach
+    void tearDown() {
+        groupCommit.close();
+    }
+
+    private DatabaseTable players() {
+        var table = players(row(1, "John", 30), row(2, "Jane", 25), row(3, "Jack", 41));
+        table.setGroupCommit(groupCommit);
+        return table;
+    }
+
+    private List<FakeDatabase.Call> calls(String sql) {
+        return database.getCalls().stream().filter(call -> call.sql().equals(sql)).toList();
+    }
+
+    @Test
+    void writesShareOneCommit() throws Exception {
+        var table = players();
+
+        var first = table.editEntry(Map.of("id", 1), Map.of("age", 31));
+        var second = table.editEntry(Map.of("id", 2), Map.of("age", 26));
+        var third = table.removeEntry(Map.of("id", 3));
+        assertEquals(3, groupCommit.getPending());
+        groupCommit.flush();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+        assertEquals(1, calls("COMMIT").size());
+        assertEquals(3, calls("SAVEPOINT").size());
+        assertEquals(1, groupCommit.getCommitCount());
+        assertTrue(table.isEntryExists(Map.of("id", 1, "age", 31)));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void failingWriteIsRolledBackToItsSavepoint() throws Exception {
+        var table = players();
+        database.failWhen(call -> call.sql().startsWith("DELETE"));
+
+        var edited = table.editEntry(Map.of("id", 1), Map.of("age", 31));
+        var failed = table.removeEntry(Map.of("id", 3));
+        groupCommit.flush();
+
+        edited.get(5, TimeUnit.SECONDS);
+        assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls("ROLLBACK TO SAVEPOINT").size());
+        assertEquals(1, calls("COMMIT").size());
+        assertTrue(table.isEntryExists(Map.of("id", 3)));
+        assertTrue(table.isEntryExists(Map.of("id", 1, "age", 31)));
+    }
+
+    @Test
+    void failedSharedCommitFallsBackToOneCommitPerWrite() throws Exception {
+        var table = players();
+        AtomicBoolean failed = new AtomicBoolean();
+        database.failWhen(call -> call.sql().equals("COMMIT") && failed.compareAndSet(false, true));
+
+        var first = table.editEntry(Map.of("id", 1), Map.of("age", 31));
+        var second = table.editEntry(Map.of("id", 2), Map.of("age", 26));
+        groupCommit.flush();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(2, calls("COMMIT").size());
+        assertEquals(4, database.calls("UPDATE").size());
+        assertEquals(2, groupCommit.getCommitCount());
+        assertTrue(table.isEntryExists(Map.of("id", 1, "age", 31)));
+        assertTrue(table.isEntryExists(Map.of("id", 2, "age", 26)));
+    }
+
+    @Test
+    void queuedWriteBehindUpdatesAreWrittenInTheTransaction() throws Exception {
+        var table = players();
+        table.enableWriteBehind(new DatabaseWriteBehindSettings().withFlushInterval(60_000));
+
+        var queued = table.editEntry(Map.of("id", 1), Map.of("age", 31));
+        var removed = table.removeEntry(Map.of("id", 2));
+        groupCommit.flush();
+
+        removed.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        var update = database.calls("UPDATE").get(0);
+        var delete = database.calls("DELETE").get(0);
+        assertEquals(delete.connection(), update.connection());
+        assertTrue(database.getCalls().indexOf(update) < database.getCalls().indexOf(delete));
+        assertEquals(1, calls("COMMIT").size());
+        assertEquals(0, table.getPendingWrites());
+    }
+
+    @Test
+    void rolledBackTransactionQueuesTheWriteBehindUpdatesAgain() throws Exception {
+        var table = players();
+        table.enableWriteBehind(new DatabaseWriteBehindSettings().withFlushInterval(60_000));
+        database.failWhen(call -> call.sql().startsWith("DELETE"));
+
+        var queued = table.editEntry(Map.of("id", 1), Map.of("age", 31));
+        var failed = table.removeEntry(Map.of("id", 2));
+        groupCommit.flush();
+
+        assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        table.flush().get(5, TimeUnit.SECONDS);
+
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(2, database.calls("UPDATE").size());
+        assertEquals(0, table.getPendingWrites());
+    }
+}
@@ -0,0 +1,53 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseKeyLoaderTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final FakeDatabase database = FakeDatabase.create();
+    private final DatabaseConnectHandler handler = database.connect();
+
+    @AfterEach
+    void tearDown() {
+        handler.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentLookupsShareOneQuery() throws Exception {
+        database.result("IN (", List.of("id", "name"), List.of(new Object[]{1L, "John"}, new Object[]{2L, "Jane"}));
+        var loader = new DatabaseKeyLoader(handler, "players", "id", null, executor, 50, 500);
+
+        var first = loader.load(1);
+        var second = loader.load(2);
+        var missing = loader.load(3);
+
+        assertEquals("John", first.get(5, TimeUnit.SECONDS).getString("name"));
+        assertEquals("Jane", second.get(5, TimeUnit.SECONDS).getString("name"));
+        assertNull(missing.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loader.getQueryCount());
+        assertEquals(List.of(1L, 2L, 3L), database.calls("IN (").get(0).parameters());
+    }
+
+    @Test
+    void caseInsensitiveKeysFindTheRowOfTheCollation() throws Exception {
+        database.result("IN (", List.of("name", "age"), List.<Object[]>of(new Object[]{"abc ", 30}));
+        var loader = new DatabaseKeyLoader(handler, "players", "name", null, executor, 50, 500);
+
+        var exact = loader.load("abc ");
+        var upper = loader.load("ABC");
+
+        assertEquals(30, exact.get(5, TimeUnit.SECONDS).getInt("age"));
+        assertEquals(30, upper.get(5, TimeUnit.SECONDS).getInt("age"));
+    }
+}
@@ -0,0 +1,102 @@
+package de.flxwdns.pythiasql.database.table;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseRefreshTest extends TableTestSupport {
+    private static final List<String> VERSIONED = List.of("id", "name", "version", "deleted");
+    private static final String CHANGED = "FROM `players` WHERE";
+    private static final String DELETED = "FROM `players_deleted`";
+
+    private DatabaseTable versioned(DatabaseRefreshSettings settings) {
+        var table = table(VERSIONED, row(1, "John", 1, 0), row(2, "Jane", 2, 0));
+        table.enableIncrementalRefresh(settings.withKeyColumn("id"));
+        return table;
+    }
+
+    private int refresh(DatabaseTable table) throws Exception {
+        return table.refresh().get(5, TimeUnit.SECONDS);
+    }
+
+    private List<Object> lastParameters(String fragment) {
+        var calls = database.calls(fragment);
+        return calls.get(calls.size() - 1).parameters();
+    }
+
+    @Test
+    void changedRowsAreLoadedFromTheNewestVersion() throws Exception {
+        var table = versioned(new DatabaseRefreshSettings("version").withLookback(0));
+        database.result(CHANGED, VERSIONED, List.of(row(2, "Janet", 3, 0), row(3, "Jack", 4, 0)));
+
+        assertEquals(2, refresh(table));
+
+        assertTrue(database.calls(CHANGED).get(0).sql().contains("`version` >= ?"));
+        assertEquals(List.of(2), lastParameters(CHANGED));
+        assertTrue(table.isEntryExists(Map.of("id", 2, "name", "Janet")));
+        assertTrue(table.isEntryExists(Map.of("id", 3, "name", "Jack")));
+
+        assertEquals(0, refresh(table));
+        assertEquals(List.of(4), lastParameters(CHANGED));
+    }
+
+    @Test
+    void rowsWithATombstoneAreRemoved() throws Exception {
+        var table = versioned(new DatabaseRefreshSettings("version").withDeletedColumn("deleted"));
+        database.result(CHANGED, VERSIONED, List.of(row(1, "John", 3, 1), row(4, "Jack", 4, 1)));
+
+        assertEquals(1, refresh(table));
+
+        assertFalse(table.isEntryExists(Map.of("id", 1)));
+        assertFalse(table.isEntryExists(Map.of("id", 4)));
+        assertTrue(table.isEntryExists(Map.of("id", 2)));
+    }
+
+    @Test
+    void changeLogDeletesAreAppliedOnce() throws Exception {
+        database.result("MAX(", List.of("max"), List.<Object[]>of(row(5)));
+        var table = versioned(new DatabaseRefreshSettings("version").withChangeLog("players_deleted", "id", "seq"));
+        database.result(DELETED, List.of("id", "seq"), List.<Object[]>of(row(1, 6)));
+        database.result(CHANGED, VERSIONED, List.of());
+
+        assertEquals(1, refresh(table));
+        assertFalse(table.isEntryExists(Map.of("id", 1)));
+        assertTrue(database.calls(DELETED).get(1).sql().contains("`seq` > ?"));
+        assertEquals(List.of(5), lastParameters(DELETED));
+
+        // The key is inserted again while its delete is still read within the lookback
+        database.result(CHANGED, VERSIONED, List.<Object[]>of(row(1, "John", 3, 0)));
+
+        assertEquals(1, refresh(table));
+        assertTrue(table.isEntryExists(Map.of("id", 1, "name", "John")));
+        assertEquals(List.of(5), lastParameters(DELETED));
+    }
+
+    @Test
+    void lateCommitWithinTheLookbackIsFound() throws Exception {
+        var table = versioned(new DatabaseRefreshSettings("version"));
+        database.result(CHANGED, VERSIONED, List.<Object[]>of(row(4, "Jack", 5, 0)));
+        assertEquals(1, refresh(table));
+
+        // Version 4 was written before version 5 but committed after it was read
+        database.result(CHANGED, VERSIONED, List.of(row(3, "Jill", 4, 0), row(4, "Jack", 5, 0)));
+
+        assertEquals(1, refresh(table));
+        assertEquals(List.of(2), lastParameters(CHANGED));
+        assertTrue(table.isEntryExists(Map.of("id", 3, "name", "Jill")));
+    }
+
+    @Test
+    void withoutLookbackTheRefreshStartsAtTheNewestVersion() throws Exception {
+        var table = versioned(new DatabaseRefreshSettings("version").withLookback(0));
+        database.result(CHANGED, VERSIONED, List.<Object[]>of(row(4, "Jack", 5, 0)));
+        refresh(table);
+        refresh(table);
+
+        assertEquals(List.of(5), lastParameters(CHANGED));
+    }
+}
@@ -0,0 +1,92 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.database.invalidation.DatabaseInvalidation;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseRowCacheTest extends TableTestSupport {
+    private final DatabaseRowCache cache = new DatabaseRowCache(handler, "players", "id", null, executor, new DatabaseRowCacheSettings().withLoadWindow(1));
+
+    private CountDownLatch blockLoads(CountDownLatch started) {
+        CountDownLatch release = new CountDownLatch(1);
+        database.hook(call -> {
+            if (call.sql().contains(" IN (")) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException exception) {
+                    throw new SQLException(exception);
+                }
+            }
+        });
+        return release;
+    }
+
+    @Test
+    void rowChangedDuringItsLoadIsNotCached() throws Exception {
+        database.result(" IN (", COLUMNS, List.<Object[]>of(new Object[]{1L, "John", 30}));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = blockLoads(started);
+
+        var row = cache.get(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        cache.invalidate(1);
+        release.countDown();
+
+        assertEquals("John", row.get(5, TimeUnit.SECONDS).getString("name"));
+        assertNull(cache.getIfPresent(1));
+    }
+
+    @Test
+    void changeOfAnotherKeyKeepsTheLoadedRow() throws Exception {
+        database.result(" IN (", COLUMNS, List.<Object[]>of(new Object[]{1L, "John", 30}));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = blockLoads(started);
+
+        var row = cache.get(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        cache.invalidate(2);
+        release.countDown();
+        row.get(5, TimeUnit.SECONDS);
+
+        assertNotNull(cache.getIfPresent(1));
+    }
+
+    @Test
+    void writesThroughTheTableInvalidateTheWrittenKeys() throws Exception {
+        database.result(" IN (", COLUMNS, List.of(new Object[]{1L, "John", 30}, new Object[]{2L, "Jane", 25}));
+        cache.getAll(List.of(1, 2)).get(5, TimeUnit.SECONDS);
+        var table = players(row(1L, "John", 30), row(2L, "Jane", 25));
+        table.onWrite(cache::invalidate);
+
+        table.editEntry(Map.of("id", 1L), Map.of("name", "Jack")).get(5, TimeUnit.SECONDS);
+
+        assertNull(cache.getIfPresent(1));
+        assertNotNull(cache.getIfPresent(2));
+
+        table.removeEntry(Map.of("name", "Jane")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void receivedRowChangesInvalidateTheirKeys() throws Exception {
+        database.result(" IN (", COLUMNS, List.of(new Object[]{1L, "John", 30}, new Object[]{2L, "Jane", 25}));
+        cache.getAll(List.of(1, 2)).get(5, TimeUnit.SECONDS);
+
+        cache.invalidate(new DatabaseInvalidation("other", "teams", DatabaseInvalidation.Kind.DELETE, Map.of("id", 1), null));
+        assertEquals(2, cache.size());
+
+        cache.invalidate(new DatabaseInvalidation("other", "players", DatabaseInvalidation.Kind.UPDATE, Map.of("id", 2), Map.of("age", 26)));
+
+        assertNotNull(cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2));
+    }
+}
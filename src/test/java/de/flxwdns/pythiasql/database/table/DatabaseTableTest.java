@@ -0,0 +1,312 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.database.async.DatabaseTaskLimiter;
+import de.flxwdns.pythiasql.database.result.DataResult;
+import de.flxwdns.pythiasql.database.schema.DatabaseColumn;
+import de.flxwdns.pythiasql.database.schema.DatabaseTableSchema;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseTableTest extends TableTestSupport {
+    private DatabaseTable players() {
+        return players(row(1, "John", 30), row(2, "Jane", 25), row(3, "John", 41));
+    }
+
+    private static DatabaseEntry entry(DatabaseTable table, int id, String column) {
+        return table.getEntries().stream().filter(entry -> entry.getColumnName().equals(column) && table.getEntriesById(entry.getId()).get(0).getValue().equals(id)).findFirst().orElseThrow();
+    }
+
+    private static Throwable failure(Runnable runnable) {
+        return assertThrows(CompletionException.class, runnable::run).getCause();
+    }
+
+    @Test
+    void isEntryExistsRequiresAllValues() {
+        DatabaseTable table = players();
+
+        assertTrue(table.isEntryExists(Map.of("name", "John", "age", 41)));
+        assertFalse(table.isEntryExists(Map.of("name", "John", "age", 25)));
+        assertFalse(table.isEntryExists(Map.of("name", "Nobody")));
+    }
+
+    @Test
+    void isEntryExistsIsFalseWithoutValues() {
+        assertFalse(players().isEntryExists(Map.of()));
+    }
+
+    @Test
+    void editEntryMovesTheRowToItsNewIndexKey() {
+        DatabaseTable table = players();
+        table.createIndex("name");
+
+        table.editEntry(Map.of("id", 1), Map.of("name", "Jack")).join();
+
+        assertEquals(1, table.filter(Map.of("name", "John")).size());
+        assertTrue(table.isEntryExists(Map.of("name", "Jack", "age", 30)));
+        assertFalse(table.isEntryExists(Map.of("name", "John", "age", 30)));
+    }
+
+    @Test
+    void removeEntryRemovesTheRowFromTheIndex() {
+        DatabaseTable table = players();
+        table.createIndex("name");
+
+        table.removeEntry(Map.of("id", 3)).join();
+
+        assertEquals(1, table.filter(Map.of("name", "John")).size());
+        assertFalse(table.isEntryExists(Map.of("name", "John", "age", 41)));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void refreshRebuildsTheIndex() {
+        DatabaseTable table = players();
+        table.createIndex("name");
+        database.result("FROM `players`", COLUMNS, List.of(new Object[]{1, "Jack", 30}, new Object[]{4, "John", 50}));
+
+        table.refresh().join();
+
+        assertEquals(2, table.size());
+        assertTrue(table.isEntryExists(Map.of("name", "Jack")));
+        assertTrue(table.isEntryExists(Map.of("name", "John", "age", 50)));
+        assertFalse(table.isEntryExists(Map.of("name", "John", "age", 30)));
+        assertFalse(table.isEntryExists(Map.of("name", "Jane")));
+    }
+
+    @Test
+    void streamReadsTheMatchingRowsFromTheDatabase() {
+        DatabaseTable table = players();
+        database.result("FROM `players` WHERE", COLUMNS, List.of(row(1, "John", 31), row(4, "John", 50)));
+
+        List<Integer> ages = new ArrayList<>();
+        try (var rows = table.stream(Map.of("name", "John"))) {
+            rows.limit(1).forEach(row -> ages.add(row.getInt("age")));
+        }
+
+        assertEquals(List.of(31), ages);
+        assertEquals(List.of("John"), database.calls("FROM `players` WHERE `name` = ?").get(0).parameters());
+        assertEquals(0, handler.getPool().getActiveConnections());
+        assertTrue(table.isEntryExists(Map.of("id", 1, "age", 30)));
+    }
+
+    @Test
+    void settingAnEntryValueUpdatesTheIndex() {
+        DatabaseTable table = players();
+        table.createIndex("name");
+
+        entry(table, 1, "name").setValue("Jim");
+
+        assertTrue(table.isEntryExists(Map.of("name", "Jim", "age", 30)));
+        assertEquals(1, table.filter(Map.of("name", "John")).size());
+    }
+
+    @Test
+    void entriesOfResultsAreReadOnly() {
+        DatabaseTable table = players();
+
+        DatabaseEntry entry = table.allAsResult().get(0).getEntries().get(1);
+
+        assertThrows(UnsupportedOperationException.class, () -> entry.setValue("Jim"));
+    }
+
+    @Test
+    void filteredTableDoesNotShareRowsWithTheTable() {
+        DatabaseTable table = players();
+        table.createIndex("name");
+        DatabaseTable filtered = table.filter(Map.of("name", "John"));
+
+        entry(filtered, 1, "name").setValue("Jim");
+
+        assertEquals(2, table.filter(Map.of("name", "John")).size());
+        assertFalse(table.isEntryExists(Map.of("name", "Jim")));
+        assertTrue(filtered.isEntryExists(Map.of("name", "Jim")));
+    }
+
+    @Test
+    void uniqueIndexRejectsADuplicateInsert() {
+        DatabaseTable table = players();
+        table.createUniqueIndex("id");
+
+        Throwable cause = failure(() -> table.createEntry(Map.of("id", 2, "name", "Copy", "age", 1)).join());
+
+        assertInstanceOf(IllegalStateException.class, cause);
+        assertTrue(database.calls("INSERT").isEmpty());
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void uniqueIndexRejectsAnEditToAnExistingKey() {
+        DatabaseTable table = players();
+        table.createUniqueIndex("id");
+
+        assertInstanceOf(IllegalStateException.class, failure(() -> table.editEntry(Map.of("id", 1), Map.of("id", 2)).join()));
+        assertInstanceOf(IllegalStateException.class, failure(() -> table.editEntry(Map.of("name", "John"), Map.of("id", 7)).join()));
+        assertInstanceOf(IllegalStateException.class, failure(() -> table.incrementEntry(Map.of("id", 1), "id", 1).join()));
+        assertThrows(IllegalStateException.class, () -> entry(table, 1, "id").setValue(3));
+        assertTrue(database.calls("UPDATE").isEmpty());
+
+        table.editEntry(Map.of("id", 1), Map.of("id", 9)).join();
+        assertTrue(table.isEntryExists(Map.of("id", 9)));
+    }
+
+    @Test
+    void uniqueIndexIsDroppedWhenTheDatabaseHasDuplicates() {
+        DatabaseTable table = players();
+        table.createUniqueIndex("name", "age");
+        database.result("FROM `players`", COLUMNS, List.of(new Object[]{1, "John", 30}, new Object[]{2, "John", 30}));
+
+        table.refresh().join();
+
+        assertTrue(table.getIndexes().isEmpty());
+        assertEquals(2, table.filter(Map.of("name", "John", "age", 30)).size());
+    }
+
+    @Test
+    void tableCanStillBeCreatedFromEntries() {
+        var table = new DatabaseTable(handler, "players", COLUMNS, List.of(
+                new DatabaseEntry(4, 1, "id"), new DatabaseEntry(4, "John", "name"), new DatabaseEntry(4, 30, "age"),
+                new DatabaseEntry(7, 2, "id"), new DatabaseEntry(7, "Jane", "name")));
+
+        assertEquals(2, table.size());
+        assertEquals("John", table.getResultById(4).getString("name"));
+        assertTrue(table.getResultById(7).isNull("age"));
+        assertTrue(table.isEntryExists(Map.of("id", 2, "name", "Jane")));
+        assertThrows(IllegalArgumentException.class, () -> new DatabaseTable(handler, "players", COLUMNS, List.of(new DatabaseEntry(1, 1, "rank"))));
+    }
+
+    @Test
+    void entriesChangeTheCachedRows() {
+        var table = players();
+        List<DatabaseEntry> entries = table.getEntries();
+
+        entries.stream().filter(entry -> entry.getColumnName().equals("age") && entry.getValue().equals(25)).findFirst().orElseThrow().setValue(26);
+
+        assertTrue(table.isEntryExists(Map.of("name", "Jane", "age", 26)));
+        assertEquals(9, entries.size());
+    }
+
+    private DatabaseTable accounts(String generatedColumn) {
+        var schema = new DatabaseTableSchema("accounts", List.of(
+                new DatabaseColumn("id", 0, "bigint", Types.BIGINT, "java.lang.Long", false, null, generatedColumn != null, generatedColumn != null),
+                new DatabaseColumn("uuid", 1, "char(36)", Types.CHAR, "java.lang.String", false, null, false, generatedColumn == null),
+                new DatabaseColumn("active", 2, "tinyint", Types.TINYINT, "java.lang.Integer", false, "1", false, false),
+                new DatabaseColumn("coins", 3, "bigint", Types.BIGINT, "java.lang.Long", false, "100", false, false)),
+                generatedColumn == null ? List.of("uuid") : List.of("id"), List.of());
+        return new DatabaseTable(handler, "accounts", new DatabaseRowLayout(schema), new ArrayList<>(), new DatabaseTaskLimiter(executor, 1), generatedColumn);
+    }
+
+    @Test
+    void insertCachesValuesAsTheDriverClasses() {
+        DatabaseTable table = accounts(null);
+        UUID uuid = UUID.randomUUID();
+
+        table.createEntry(Map.of("id", 1, "uuid", uuid, "active", true, "coins", 5)).join();
+
+        DataResult result = table.firstAsResult();
+        assertEquals(1L, result.getObject("id"));
+        assertEquals(uuid.toString(), result.getObject("uuid"));
+        assertEquals(1, result.getObject("active"));
+        assertEquals(5L, result.getObject("coins"));
+        assertTrue(table.isEntryExists(Map.of("uuid", uuid, "coins", 5)));
+        assertTrue(database.calls("SELECT").isEmpty());
+    }
+
+    @Test
+    void insertWithOmittedColumnsReadsTheDefaultsByThePrimaryKey() {
+        DatabaseTable table = accounts(null);
+        UUID uuid = UUID.randomUUID();
+        database.result("SELECT * FROM `accounts` WHERE", List.of("id", "uuid", "active", "coins"), List.<Object[]>of(new Object[]{7L, uuid.toString(), 1, 100L}));
+
+        table.createEntry(Map.of("uuid", uuid)).join();
+
+        assertEquals(List.of(uuid.toString()), database.calls("SELECT * FROM `accounts` WHERE `uuid` IN (?)").get(0).parameters());
+        assertEquals(100L, table.firstAsResult().getObject("coins"));
+        assertEquals(1, table.firstAsResult().getObject("active"));
+    }
+
+    @Test
+    void insertWithOmittedColumnsReadsTheDefaultsByTheGeneratedKey() {
+        DatabaseTable table = accounts("id");
+        UUID uuid = UUID.randomUUID();
+        database.result("SELECT * FROM `accounts` WHERE", List.of("id", "uuid", "active", "coins"), List.<Object[]>of(new Object[]{1L, uuid.toString(), 0, 100L}));
+
+        table.createEntry(Map.of("uuid", uuid, "active", false)).join();
+
+        assertEquals(1, database.calls("SELECT * FROM `accounts` WHERE `id` IN (?)").size());
+        assertEquals(1L, table.firstAsResult().getObject("id"));
+        assertEquals(100L, table.firstAsResult().getObject("coins"));
+    }
+
+    @Test
+    void incrementIsCalculatedByTheDatabaseAndAppliedToTheCache() {
+        DatabaseTable table = players();
+
+        table.incrementEntry(Map.of("id", 1), "age", 5).join();
+        table.decrementEntry(Map.of("id", 2), "age", 1).join();
+
+        var updates = database.calls("UPDATE");
+        assertEquals("UPDATE `players` SET `age` = `age` + ? WHERE `id` = ?", updates.get(0).sql());
+        assertEquals(List.of(5, 1), updates.get(0).parameters());
+        assertEquals(List.of(-1L, 2), updates.get(1).parameters());
+        assertEquals(35, table.getResultById(0).getInt("age"));
+        assertEquals(24, table.getResultById(1).getInt("age"));
+    }
+
+    @Test
+    void failedIncrementKeepsTheCache() {
+        DatabaseTable table = players();
+        database.failWhen(call -> call.sql().startsWith("UPDATE"));
+
+        Throwable cause = failure(() -> table.incrementEntry(Map.of("id", 1), "age", 5).join());
+
+        assertTrue(cause.getMessage().contains("Simulated failure"));
+        assertTrue(table.isEntryExists(Map.of("id", 1, "age", 30)));
+    }
+
+    @Test
+    void upsertUpdatesTheCachedRow() {
+        DatabaseTable table = players();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", 1);
+        values.put("name", "Jack");
+        values.put("age", 31);
+
+        table.upsertEntry(List.of("id"), values).join();
+
+        var upsert = database.calls("INSERT INTO `players`").get(0);
+        assertEquals("INSERT INTO `players` (`id`, `name`, `age`) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE `name` = VALUES(`name`), `age` = VALUES(`age`)", upsert.sql());
+        assertEquals(List.of(1, "Jack", 31), upsert.parameters());
+        assertEquals(3, table.size());
+        assertTrue(table.isEntryExists(Map.of("id", 1, "name", "Jack", "age", 31)));
+    }
+
+    @Test
+    void upsertInsertsAMissingRow() {
+        DatabaseTable table = players();
+
+        table.upsertEntry(List.of("id"), Map.of("id", 4, "name", "Mia", "age", 19)).join();
+
+        assertEquals(4, table.size());
+        assertTrue(table.isEntryExists(Map.of("id", 4, "name", "Mia", "age", 19)));
+    }
+
+    @Test
+    void failedUpsertKeepsTheCache() {
+        DatabaseTable table = players();
+        database.failWhen(call -> call.sql().startsWith("INSERT"));
+
+        failure(() -> table.upsertEntry(List.of("id"), Map.of("id", 1, "name", "Jack", "age", 31)).join());
+
+        assertTrue(table.isEntryExists(Map.of("id", 1, "name", "John", "age", 30)));
+        assertEquals(3, table.size());
+    }
+}
@@ -0,0 +1,135 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.database.invalidation.DatabaseInvalidation;
+import de.flxwdns.pythiasql.database.invalidation.DatabaseInvalidationBus;
+import de.flxwdns.pythiasql.database.invalidation.DatabaseInvalidationTransport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseWriteBehindTest extends TableTestSupport {
+    private DatabaseTable players(DatabaseWriteBehindSettings settings) {
+        var table = players(row(1, "John", 30), row(2, "Jane", 25));
+        table.enableWriteBehind(settings.withFlushInterval(60_000));
+        return table;
+    }
+
+    @Test
+    void updatesOfTheSameRowAreMerged() throws Exception {
+        var table = players(new DatabaseWriteBehindSettings());
+
+        var first = table.editEntry(Map.of("id", 1), Map.of("age", 31));
+        var second = table.editEntry(Map.of("id", 1), Map.of("name", "Jack"));
+        var other = table.editEntry(Map.of("id", 2), Map.of("age", 26));
+
+        assertEquals(2, table.getPendingWrites());
+        assertTrue(table.isEntryExists(Map.of("id", 1, "name", "Jack", "age", 31)));
+        assertTrue(database.calls("UPDATE").isEmpty());
+
+        table.flush().get(5, TimeUnit.SECONDS);
+
+        var updates = database.calls("UPDATE");
+        assertEquals(2, updates.size());
+        assertEquals(List.of(31, "Jack", 1), updates.get(0).parameters());
+        assertEquals(List.of(26, 2), updates.get(1).parameters());
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        other.get(5, TimeUnit.SECONDS);
+        assertEquals(0, table.getPendingWrites());
+    }
+
+    @Test
+    void failedFlushFailsTheFuturesAndCallsTheCallback() throws Exception {
+        List<Map<String, Object>> failed = new CopyOnWriteArrayList<>();
+        var table = players(new DatabaseWriteBehindSettings().withFailureCallback((tableName, conditions, values, throwable) -> failed.add(conditions)));
+        database.failWhen(call -> call.sql().startsWith("UPDATE"));
+        database.result("SELECT * FROM `players` WHERE", List.of("id", "name", "age"), List.<Object[]>of(new Object[]{1, "John", 30}));
+
+        var future = table.editEntry(Map.of("id", 1), Map.of("age", 31));
+        assertTrue(table.isEntryExists(Map.of("id", 1, "age", 31)));
+        assertThrows(ExecutionException.class, () -> table.flush().get(5, TimeUnit.SECONDS));
+
+        var exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause().getMessage().contains("Simulated failure"));
+        assertEquals(List.of(Map.of("id", 1)), failed);
+        assertEquals(0, table.getPendingWrites());
+        assertTrue(table.isEntryExists(Map.of("id", 1, "age", 30)));
+        assertFalse(table.isEntryExists(Map.of("age", 31)));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void awaitFlushIsFalseIfAnUpdateFailed() {
+        var table = players(new DatabaseWriteBehindSettings().withFailureCallback((tableName, conditions, values, throwable) -> {
+        }));
+        table.editEntry(Map.of("id", 2), Map.of("age", 26));
+        assertTrue(table.awaitFlush(5, TimeUnit.SECONDS));
+
+        database.failWhen(call -> call.sql().startsWith("UPDATE"));
+        table.editEntry(Map.of("id", 2), Map.of("age", 27));
+
+        assertFalse(table.awaitFlush(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fullQueueRejectsWithoutBlockingByDefault() {
+        var table = players(new DatabaseWriteBehindSettings().withMaxQueueSize(1).withFlushSize(10));
+
+        var accepted = table.editEntry(Map.of("id", 1), Map.of("age", 31));
+        long start = System.nanoTime();
+        var rejected = table.editEntry(Map.of("id", 2), Map.of("age", 26));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertInstanceOf(RejectedExecutionException.class, assertThrows(CompletionException.class, rejected::join).getCause());
+        assertTrue(table.isEntryExists(Map.of("id", 2, "age", 25)));
+        assertFalse(accepted.isDone());
+        assertFalse(table.editEntry(Map.of("id", 1), Map.of("name", "Jack")).isCompletedExceptionally());
+        assertEquals(1, table.getPendingWrites());
+    }
+
+    @Test
+    void updatesAreAnnouncedOnlyAfterTheyWereWritten() throws Exception {
+        List<DatabaseInvalidation> published = new CopyOnWriteArrayList<>();
+        var table = players(new DatabaseWriteBehindSettings().withFailureCallback((tableName, conditions, values, throwable) -> {
+        }));
+        table.setInvalidationBus(new DatabaseInvalidationBus(transport(published), name -> null));
+
+        var written = table.editEntry(Map.of("id", 1), Map.of("age", 31));
+        assertTrue(published.isEmpty());
+        table.flush().get(5, TimeUnit.SECONDS);
+        written.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, published.size());
+        assertEquals(DatabaseInvalidation.Kind.UPDATE, published.get(0).getKind());
+        assertEquals(Map.of("age", 31), published.get(0).getValues());
+
+        database.failWhen(call -> call.sql().startsWith("UPDATE"));
+        var failed = table.editEntry(Map.of("id", 2), Map.of("age", 26));
+        assertThrows(ExecutionException.class, () -> table.flush().get(5, TimeUnit.SECONDS));
+
+        assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertEquals(1, published.size());
+    }
+
+    private static DatabaseInvalidationTransport transport(List<DatabaseInvalidation> published) {
+        return new DatabaseInvalidationTransport() {
+            @Override
+            public void start(Consumer<DatabaseInvalidation> listener) {
+            }
+
+            @Override
+            public void publish(DatabaseInvalidation invalidation) {
+                published.add(invalidation);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package de.flxwdns.pythiasql.database.table;
+
+import de.flxwdns.pythiasql.FakeDatabase;
+import de.flxwdns.pythiasql.database.async.DatabaseTaskLimiter;
+import de.flxwdns.pythiasql.database.connect.DatabaseConnectHandler;
+import org.junit.jupiter.api.AfterEach;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The fixture of the table tests: a FakeDatabase with a connection, an executor for the table tasks and the `players` table.
+ */
+abstract class TableTestSupport {
+    static final List<String> COLUMNS = List.of("id", "name", "age");
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    final FakeDatabase database = FakeDatabase.create();
+    final DatabaseConnectHandler handler = database.connect();
+
+    @AfterEach
+    void closeDatabase() {
+        handler.close();
+        executor.shutdownNow();
+    }
+
+    DatabaseTable table(List<String> columns, Object[]... rows) {
+        return new DatabaseTable(handler, "players", columns, new ArrayList<>(Arrays.asList(rows)), new DatabaseTaskLimiter(executor, 1));
+    }
+
+    DatabaseTable players(Object[]... rows) {
+        return table(COLUMNS, rows);
+    }
+
+    static Object[] row(Object... values) {
+        return values;
+    }
+}